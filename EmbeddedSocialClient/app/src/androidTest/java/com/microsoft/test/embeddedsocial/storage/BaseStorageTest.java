@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ *
+ */
+
+package com.microsoft.test.embeddedsocial.storage;
+
+import com.j256.ormlite.dao.Dao;
+import com.microsoft.embeddedsocial.EmbeddedSocialApplication;
+import com.microsoft.embeddedsocial.autorest.models.Reason;
+import com.microsoft.embeddedsocial.base.GlobalObjectRegistry;
+import com.microsoft.embeddedsocial.base.utils.debug.DebugLog;
+import com.microsoft.embeddedsocial.data.storage.DatabaseHelper;
+import com.microsoft.embeddedsocial.data.storage.model.ReportContentOperation;
+import com.microsoft.embeddedsocial.data.storage.transaction.DbTransaction;
+
+import android.test.ApplicationTestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Base class for tests working with the local content database.
+ */
+public abstract class BaseStorageTest extends ApplicationTestCase<EmbeddedSocialApplication> {
+
+    private DatabaseHelper databaseHelper;
+
+    public BaseStorageTest() {
+        super(EmbeddedSocialApplication.class);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        createApplication();
+        databaseHelper = GlobalObjectRegistry.getObject(DatabaseHelper.class);
+        databaseHelper.clearData();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        databaseHelper.clearData();
+        super.tearDown();
+    }
+
+    protected DatabaseHelper getDatabaseHelper() {
+        return databaseHelper;
+    }
+
+    /**
+     * Stores reports of different users.
+     * @param userHandlePrefix  prefix of the reported users' handles
+     * @param count             number of reports
+     * @return  ids of all the stored reports
+     */
+    protected List<Integer> addReports(String userHandlePrefix, int count) throws Exception {
+        Dao<ReportContentOperation, Integer> reportDao = databaseHelper.getDao(ReportContentOperation.class);
+        DbTransaction.performTransaction(reportDao, () -> {
+            for (int i = 0; i < count; i++) {
+                // reports of the same user replace each other
+                reportDao.create(ReportContentOperation.forUser(userHandlePrefix + i,
+                    Reason.THREATSCYBERBULLYINGHARASSMENT));
+            }
+        });
+        List<Integer> ids = new ArrayList<>();
+        for (ReportContentOperation operation : reportDao.queryForAll()) {
+            ids.add(reportDao.extractId(operation));
+        }
+        return ids;
+    }
+
+    protected static long measure(Action action) throws Exception {
+        long start = System.nanoTime();
+        action.run();
+        return (System.nanoTime() - start) / 1000;
+    }
+
+    protected static void report(String caption, long micros) {
+        DebugLog.i("BENCHMARK " + caption + ": " + micros + " us");
+    }
+
+    /**
+     * Measured action.
+     */
+    protected interface Action {
+        void run() throws Exception;
+    }
+}
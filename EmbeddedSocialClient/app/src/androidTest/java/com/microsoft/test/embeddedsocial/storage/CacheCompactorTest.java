@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ *
+ */
+
+package com.microsoft.test.embeddedsocial.storage;
+
+import com.j256.ormlite.dao.Dao;
+import com.microsoft.embeddedsocial.autorest.models.PublisherType;
+import com.microsoft.embeddedsocial.data.model.TopicFeedType;
+import com.microsoft.embeddedsocial.data.storage.CacheBudget;
+import com.microsoft.embeddedsocial.data.storage.CacheCompactor;
+import com.microsoft.embeddedsocial.data.storage.ContentCache;
+import com.microsoft.embeddedsocial.data.storage.DbSchemas;
+import com.microsoft.embeddedsocial.data.storage.model.CacheAccess;
+import com.microsoft.embeddedsocial.data.storage.model.FeedFreshness;
+import com.microsoft.embeddedsocial.data.storage.model.TopicFeedRelation;
+import com.microsoft.embeddedsocial.data.storage.transaction.DbTransaction;
+import com.microsoft.embeddedsocial.server.model.content.topics.GetTopicFeedRequest;
+import com.microsoft.embeddedsocial.server.model.content.topics.TopicsListResponse;
+import com.microsoft.embeddedsocial.server.model.view.TopicView;
+import com.microsoft.embeddedsocial.server.model.view.UserCompactView;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks that the offline cache is kept within its budget without leaving holes in cached feeds.
+ */
+public class CacheCompactorTest extends BaseStorageTest {
+
+    private static final int FEED_TYPE = -3003;
+    private static final int OTHER_FEED_TYPE = -3004;
+    private static final int TOPIC_COUNT = 10;
+    private static final long LONG_AGO = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(10);
+
+    private Dao<TopicView, String> topicDao;
+    private Dao<TopicFeedRelation, Integer> feedDao;
+    private Dao<FeedFreshness, String> freshnessDao;
+    private Dao<CacheAccess, Integer> accessDao;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        topicDao = getDatabaseHelper().getTopicDao();
+        feedDao = getDatabaseHelper().getDao(TopicFeedRelation.class);
+        freshnessDao = getDatabaseHelper().getDao(FeedFreshness.class);
+        accessDao = getDatabaseHelper().getDao(CacheAccess.class);
+    }
+
+    public void testRowLimitEvictsWholeFeeds() throws Exception {
+        populate("topic", FEED_TYPE);
+        CacheBudget budget = new CacheBudget().setMaxTopics(3);
+
+        new CacheCompactor(getDatabaseHelper(), budget).compact();
+
+        // the rest of the feed is kept as orphans for the grace period
+        assertEquals(3, topicDao.countOf());
+        assertEquals(0, feedDao.countOf());
+        assertNull(freshnessDao.queryForId(getFeedKey(FEED_TYPE)));
+        assertEquals(1, getDatabaseHelper().getUserDao().countOf());
+    }
+
+    public void testFreshnessOfFeedWithoutQueryIsEvicted() throws Exception {
+        GetTopicFeedRequest request = new GetTopicFeedRequest(TopicFeedType.EVERYONE_RECENT);
+        assertNull(request.getQuery());
+        ContentCache contentCache = new ContentCache();
+        contentCache.storeFeed(request, new TopicsListResponse(createTopics("topic")));
+        assertTrue(contentCache.getFeedUpdateTime(request) > 0);
+
+        new CacheCompactor(getDatabaseHelper(), new CacheBudget().setMaxTopics(3)).compact();
+
+        // the feed is incomplete, so it must be loaded from the server again
+        assertEquals(0, feedDao.countOf());
+        assertEquals(0, contentCache.getFeedUpdateTime(request));
+    }
+
+    public void testRowLimitOfOrphans() throws Exception {
+        populate("topic", null);
+        CacheBudget budget = new CacheBudget().setMaxTopics(3);
+
+        new CacheCompactor(getDatabaseHelper(), budget).compact();
+
+        assertEquals(3, topicDao.countOf());
+    }
+
+    public void testExpiredTopicEvictsOnlyItsFeed() throws Exception {
+        populate("expiring", FEED_TYPE);
+        populate("fresh", OTHER_FEED_TYPE);
+        accessDao.create(new CacheAccess(DbSchemas.Topics.TABLE_NAME, "expiring0", LONG_AGO));
+        CacheBudget budget = new CacheBudget().setTimeToLiveMillis(TimeUnit.DAYS.toMillis(1));
+
+        new CacheCompactor(getDatabaseHelper(), budget).compact();
+
+        assertNull(topicDao.queryForId("expiring0"));
+        assertNotNull(topicDao.queryForId("expiring1"));
+        assertEquals(TOPIC_COUNT, feedDao.countOf());
+        assertEquals(TOPIC_COUNT, feedDao.queryForEq(DbSchemas.TopicFeedRelation.FEED_TYPE, OTHER_FEED_TYPE).size());
+        assertNull(freshnessDao.queryForId(getFeedKey(FEED_TYPE)));
+        assertNotNull(freshnessDao.queryForId(getFeedKey(OTHER_FEED_TYPE)));
+    }
+
+    public void testByteLimit() throws Exception {
+        populate("topic", FEED_TYPE);
+        CacheBudget budget = new CacheBudget().setMaxSizeBytes(1).setOrphanGracePeriodMillis(-1);
+
+        new CacheCompactor(getDatabaseHelper(), budget).compact();
+
+        assertEquals(0, topicDao.countOf());
+        assertEquals(0, feedDao.countOf());
+        assertEquals(0, getDatabaseHelper().getUserDao().countOf());
+    }
+
+    public void testOrphansAreKeptForGracePeriod() throws Exception {
+        populate("topic", null);
+
+        new CacheCompactor(getDatabaseHelper(), new CacheBudget()).compact();
+        assertEquals(TOPIC_COUNT, topicDao.countOf());
+
+        new CacheCompactor(getDatabaseHelper(), new CacheBudget().setOrphanGracePeriodMillis(-1)).compact();
+        assertEquals(0, topicDao.countOf());
+        assertEquals(0, getDatabaseHelper().getUserDao().countOf());
+    }
+
+    public void testGracePeriodStartsWhenOrphaned() throws Exception {
+        populate("topic", FEED_TYPE);
+        for (int i = 0; i < TOPIC_COUNT; i++) {
+            accessDao.create(new CacheAccess(DbSchemas.Topics.TABLE_NAME, "topic" + i, LONG_AGO));
+        }
+        CacheBudget budget = new CacheBudget().setOrphanGracePeriodMillis(TimeUnit.DAYS.toMillis(1));
+        new CacheCompactor(getDatabaseHelper(), budget).compact();
+
+        // a refresh dropped the topics from the feed
+        feedDao.deleteBuilder().delete();
+        new CacheCompactor(getDatabaseHelper(), budget).compact();
+        assertEquals(TOPIC_COUNT, topicDao.countOf());
+
+        new CacheCompactor(getDatabaseHelper(), new CacheBudget().setOrphanGracePeriodMillis(-1)).compact();
+        assertEquals(0, topicDao.countOf());
+    }
+
+    public void testReferencedOrphanIsKept() throws Exception {
+        populate("topic", null);
+        new CacheCompactor(getDatabaseHelper(), new CacheBudget()).compact();
+
+        feedDao.create(new TopicFeedRelation(null, FEED_TYPE, "topic0"));
+        new CacheCompactor(getDatabaseHelper(), new CacheBudget().setOrphanGracePeriodMillis(-1)).compact();
+
+        assertEquals(1, topicDao.countOf());
+        assertNotNull(topicDao.queryForId("topic0"));
+    }
+
+    public void testDanglingRelationsAreDeleted() throws Exception {
+        populate("topic", FEED_TYPE);
+        getDatabaseHelper().getWritableDatabase()
+            .execSQL("delete from " + DbSchemas.Topics.TABLE_NAME + " where "
+                + DbSchemas.Topics.TOPIC_HANDLE + " = 'topic0'");
+
+        new CacheCompactor(getDatabaseHelper(), new CacheBudget()).compact();
+
+        assertEquals(TOPIC_COUNT - 1, feedDao.countOf());
+        assertEquals(TOPIC_COUNT - 1,
+            accessDao.queryForEq(DbSchemas.CacheAccess.ENTITY_TABLE, DbSchemas.Topics.TABLE_NAME).size());
+    }
+
+    /**
+     * Stores topics and a feed of them.
+     * @param feedType  type of the feed, null to store the topics only
+     */
+    private void populate(String handlePrefix, Integer feedType) throws Exception {
+        Dao<UserCompactView, String> userDao = getDatabaseHelper().getUserDao();
+        List<TopicView> topics = createTopics(handlePrefix);
+
+        DbTransaction.performTransaction(topicDao, () -> {
+            userDao.createOrUpdate(topics.get(0).getUser());
+            for (TopicView topic : topics) {
+                topicDao.create(topic);
+                if (feedType != null) {
+                    feedDao.create(new TopicFeedRelation(null, feedType, topic.getHandle()));
+                }
+            }
+            if (feedType != null) {
+                freshnessDao.createOrUpdate(new FeedFreshness(getFeedKey(feedType), System.currentTimeMillis()));
+            }
+        });
+    }
+
+    private static List<TopicView> createTopics(String handlePrefix) {
+        UserCompactView user = new UserCompactView();
+        user.setUserHandle("author");
+        List<TopicView> topics = new ArrayList<>();
+        for (int i = 0; i < TOPIC_COUNT; i++) {
+            topics.add(new TopicView.Builder()
+                .setTopicHandle(handlePrefix + i)
+                .setPublisherType(PublisherType.USER.ordinal())
+                .setUser(user)
+                .build());
+        }
+        return topics;
+    }
+
+    private static String getFeedKey(int feedType) {
+        return DbSchemas.TopicFeedRelation.TABLE_NAME + "/" + feedType + "/" + TopicFeedRelation.DEFAULT_QUERY;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ *
+ */
+
+package com.microsoft.test.embeddedsocial.storage;
+
+import com.microsoft.embeddedsocial.base.expression.Template;
+import com.microsoft.embeddedsocial.data.storage.DbModelRegistry;
+import com.microsoft.embeddedsocial.data.storage.DbSchemas;
+import com.microsoft.embeddedsocial.data.storage.index.ISqlIndex;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Checks that hot cache queries are served by indexes instead of full table scans.
+ */
+public class CacheIndexTest extends BaseStorageTest {
+
+    private static final String[] HOT_QUERIES = {
+        new Template("select * from ${feeds} f join ${topics} t on t.${t_handle} = f.${t_handle}"
+            + " where f.${feed_type} = ? and f.`${query}` = ? order by f.${id}")
+            .var("feeds", DbSchemas.TopicFeedRelation.TABLE_NAME)
+            .var("topics", DbSchemas.Topics.TABLE_NAME)
+            .var("t_handle", DbSchemas.TopicFeedRelation.TOPIC_HANDLE)
+            .var("feed_type", DbSchemas.TopicFeedRelation.FEED_TYPE)
+            .var("query", DbSchemas.TopicFeedRelation.QUERY)
+            .var("id", DbSchemas.TopicFeedRelation.ID)
+            .render(),
+        "delete from " + DbSchemas.TopicFeedRelation.TABLE_NAME
+            + " where " + DbSchemas.TopicFeedRelation.TOPIC_HANDLE + " = ?",
+        "select * from " + DbSchemas.CommentFeedRelation.TABLE_NAME
+            + " where " + DbSchemas.CommentFeedRelation.FEED_TYPE + " = ? and "
+            + DbSchemas.CommentFeedRelation.TOPIC_HANDLE + " = ?",
+        "delete from " + DbSchemas.CommentFeedRelation.TABLE_NAME
+            + " where " + DbSchemas.CommentFeedRelation.COMMENT_HANDLE + " = ?",
+        "select * from " + DbSchemas.Replies.TABLE_NAME
+            + " where " + DbSchemas.Replies.COMMENT_HANDLE + " = ?",
+        "delete from " + DbSchemas.ActivityActor.TABLE_NAME
+            + " where " + DbSchemas.UserActivity.ACTIVITY_HANDLE + " = ?",
+        "select * from " + DbSchemas.ActivityFeed.TABLE_NAME
+            + " where " + DbSchemas.ActivityFeed.FEED_TYPE + " = ?",
+        "select * from " + DbSchemas.UserFeeds.TABLE_NAME
+            + " where " + DbSchemas.UserFeeds.FEED_TYPE + " = ? and "
+            + DbSchemas.UserFeeds.QUERIED_USER_HANDLE + " = ? order by " + DbSchemas.UserFeeds.ID,
+        "delete from " + DbSchemas.UserFeeds.TABLE_NAME
+            + " where " + DbSchemas.UserFeeds.USER_HANDLE + " = ?",
+        "select * from " + DbSchemas.EditedTopic.TABLE_NAME
+            + " where " + DbSchemas.Topics.TOPIC_HANDLE + " = ?",
+        "delete from " + DbSchemas.UserRelationOperation.TABLE_NAME
+            + " where " + DbSchemas.UserRelationOperation.USER_HANDLE + " = ?",
+    };
+
+    public void testIndexesExist() {
+        SQLiteDatabase database = getDatabaseHelper().getWritableDatabase();
+        Set<String> indexes = new HashSet<>();
+        Cursor cursor = database.rawQuery("select name from sqlite_master where type = 'index'", null);
+        try {
+            while (cursor.moveToNext()) {
+                indexes.add(cursor.getString(0));
+            }
+        } finally {
+            cursor.close();
+        }
+        for (ISqlIndex index : DbModelRegistry.getRegisteredIndexes()) {
+            assertTrue("index " + index.getName() + " is missing", indexes.contains(index.getName()));
+        }
+    }
+
+    public void testHotQueriesUseIndexes() {
+        SQLiteDatabase database = getDatabaseHelper().getWritableDatabase();
+        for (String query : HOT_QUERIES) {
+            int parameterCount = query.length() - query.replace("?", "").length();
+            String[] arguments = new String[parameterCount];
+            for (int i = 0; i < parameterCount; i++) {
+                arguments[i] = "0";
+            }
+            Cursor cursor = database.rawQuery("explain query plan " + query, arguments);
+            try {
+                int detailColumn = cursor.getColumnIndexOrThrow("detail");
+                while (cursor.moveToNext()) {
+                    String detail = cursor.getString(detailColumn);
+                    assertFalse("full scan (" + detail + ") in: " + query, detail.startsWith("SCAN"));
+                }
+            } finally {
+                cursor.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ *
+ */
+
+package com.microsoft.test.embeddedsocial.storage;
+
+import com.microsoft.embeddedsocial.base.GlobalObjectRegistry;
+import com.microsoft.embeddedsocial.data.storage.request.wrapper.AbstractRequestWrapper;
+import com.microsoft.embeddedsocial.data.storage.request.wrapper.CachePolicy;
+import com.microsoft.embeddedsocial.server.NetworkAvailability;
+import com.microsoft.embeddedsocial.server.exception.NetworkRequestException;
+import com.microsoft.embeddedsocial.server.model.BaseRequest;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tests how the cache policies combine cached and server responses, and the revalidation of
+ * stale responses. The server and the cache are replaced by fields of the test; the application
+ * is created for the request context.
+ */
+public class CachePolicyTest extends BaseStorageTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+    private static final long FRESHNESS_PERIOD = TimeUnit.HOURS.toMillis(1);
+    private static final String CACHED = "cached";
+    private static final String FRESH = "fresh";
+
+    private final AtomicInteger sentRequests = new AtomicInteger();
+    private volatile String cachedResponse = CACHED;
+    private volatile long cachedResponseTime;
+    private volatile NetworkRequestException serverError;
+    private volatile boolean online = true;
+
+    private NetworkAvailability networkAvailability;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        networkAvailability = GlobalObjectRegistry.getObject(NetworkAvailability.class);
+        GlobalObjectRegistry.addObject(NetworkAvailability.class, new NetworkAvailability() {
+            @Override
+            public boolean isNetworkAvailable() {
+                return online;
+            }
+        });
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        GlobalObjectRegistry.addObject(NetworkAvailability.class, networkAvailability);
+        super.tearDown();
+    }
+
+    public void testNetworkFirstAsksServer() throws Exception {
+        setCacheAge(0);
+        assertEquals(FRESH, new TestWrapper(CachePolicy.NETWORK_FIRST).getResponse(new TestRequest()));
+        assertEquals(1, sentRequests.get());
+        assertEquals(FRESH, cachedResponse);
+    }
+
+    public void testNetworkFirstFallsBackToCache() throws Exception {
+        serverError = new NetworkRequestException("server error");
+        assertEquals(CACHED, new TestWrapper(CachePolicy.NETWORK_FIRST).getResponse(new TestRequest()));
+    }
+
+    public void testCacheFirstUsesFreshResponse() throws Exception {
+        setCacheAge(0);
+        assertEquals(CACHED, new TestWrapper(CachePolicy.CACHE_FIRST).getResponse(new TestRequest()));
+        assertEquals(0, sentRequests.get());
+    }
+
+    public void testCacheFirstAsksServerIfStale() throws Exception {
+        setCacheAge(2 * FRESHNESS_PERIOD);
+        assertEquals(FRESH, new TestWrapper(CachePolicy.CACHE_FIRST).getResponse(new TestRequest()));
+        assertEquals(1, sentRequests.get());
+    }
+
+    public void testStaleResponseIsRevalidated() throws Exception {
+        setCacheAge(2 * FRESHNESS_PERIOD);
+        TestRequest request = new TestRequest();
+        TestListener listener = new TestListener();
+        request.setRevalidationListener(listener);
+
+        assertEquals(CACHED, new TestWrapper(CachePolicy.STALE_WHILE_REVALIDATE).getResponse(request));
+
+        listener.await();
+        assertEquals(FRESH, listener.response.get());
+        assertNull(listener.error.get());
+        assertEquals(FRESH, cachedResponse);
+    }
+
+    public void testFreshResponseIsNotRevalidated() throws Exception {
+        setCacheAge(0);
+        TestRequest request = new TestRequest();
+        TestListener listener = new TestListener();
+        request.setRevalidationListener(listener);
+
+        assertEquals(CACHED, new TestWrapper(CachePolicy.STALE_WHILE_REVALIDATE).getResponse(request));
+        assertEquals(0, sentRequests.get());
+        assertEquals(1, listener.done.getCount());
+    }
+
+    public void testFailedRevalidationIsReported() throws Exception {
+        setCacheAge(2 * FRESHNESS_PERIOD);
+        serverError = new NetworkRequestException("server error");
+        TestRequest request = new TestRequest();
+        TestListener listener = new TestListener();
+        request.setRevalidationListener(listener);
+
+        assertEquals(CACHED, new TestWrapper(CachePolicy.STALE_WHILE_REVALIDATE).getResponse(request));
+
+        listener.await();
+        assertSame(serverError, listener.error.get());
+        assertNull(listener.response.get());
+        assertEquals(CACHED, cachedResponse);
+    }
+
+    public void testRevalidationOfflineIsReported() throws Exception {
+        setCacheAge(2 * FRESHNESS_PERIOD);
+        online = false;
+        TestRequest request = new TestRequest();
+        TestListener listener = new TestListener();
+        request.setRevalidationListener(listener);
+
+        assertEquals(CACHED, new TestWrapper(CachePolicy.STALE_WHILE_REVALIDATE).getResponse(request));
+
+        listener.await();
+        assertNotNull(listener.error.get());
+        assertEquals(0, sentRequests.get());
+    }
+
+    public void testEmptyCachedResponseIsNotUsed() throws Exception {
+        cachedResponse = null;
+        assertEquals(FRESH, new TestWrapper(CachePolicy.STALE_WHILE_REVALIDATE).getResponse(new TestRequest()));
+        assertEquals(1, sentRequests.get());
+    }
+
+    public void testNetworkOnlyRequestAsksServer() throws Exception {
+        setCacheAge(0);
+        TestRequest request = new TestRequest();
+        request.forceNetworkUsage();
+        assertEquals(FRESH, new TestWrapper(CachePolicy.STALE_WHILE_REVALIDATE).getResponse(request));
+        assertEquals(1, sentRequests.get());
+    }
+
+    public void testContinuationRequestAsksServer() throws Exception {
+        setCacheAge(0);
+        TestWrapper wrapper = new TestWrapper(CachePolicy.STALE_WHILE_REVALIDATE);
+        wrapper.firstDataRequest = false;
+        assertEquals(FRESH, wrapper.getResponse(new TestRequest()));
+        assertEquals(1, sentRequests.get());
+    }
+
+    private void setCacheAge(long age) {
+        cachedResponseTime = System.currentTimeMillis() - age;
+    }
+
+    /**
+     * Request answered by the test instead of the server.
+     */
+    private final class TestRequest extends BaseRequest {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <Response> Response send() throws NetworkRequestException {
+            sentRequests.incrementAndGet();
+            if (serverError != null) {
+                throw serverError;
+            }
+            return (Response) FRESH;
+        }
+    }
+
+    /**
+     * Wrapper with a given cache policy, caching a single response.
+     */
+    private final class TestWrapper extends AbstractRequestWrapper<TestRequest, String> {
+
+        private final CachePolicy cachePolicy;
+        private boolean firstDataRequest = true;
+
+        TestWrapper(CachePolicy cachePolicy) {
+            this.cachePolicy = cachePolicy;
+        }
+
+        @Override
+        protected String getNetworkResponse(TestRequest request) throws NetworkRequestException {
+            return request.send();
+        }
+
+        @Override
+        protected void storeResponse(TestRequest request, String response) {
+            cachedResponse = response;
+            cachedResponseTime = System.currentTimeMillis();
+        }
+
+        @Override
+        protected String getCachedResponse(TestRequest request) {
+            return cachedResponse;
+        }
+
+        @Override
+        protected boolean isFirstDataRequest(TestRequest request) {
+            return firstDataRequest;
+        }
+
+        @Override
+        protected CachePolicy getCachePolicy() {
+            return cachePolicy;
+        }
+
+        @Override
+        protected long getFreshnessPeriod() {
+            return FRESHNESS_PERIOD;
+        }
+
+        @Override
+        protected long getCachedResponseTime(TestRequest request) {
+            return cachedResponseTime;
+        }
+    }
+
+    /**
+     * Records the outcome of a revalidation.
+     */
+    private static final class TestListener implements BaseRequest.RevalidationListener<String> {
+
+        final AtomicReference<String> response = new AtomicReference<>();
+        final AtomicReference<Exception> error = new AtomicReference<>();
+        final CountDownLatch done = new CountDownLatch(1);
+
+        @Override
+        public void onResponseRevalidated(String response) {
+            this.response.set(response);
+            done.countDown();
+        }
+
+        @Override
+        public void onRevalidationFailed(Exception exception) {
+            error.set(exception);
+            done.countDown();
+        }
+
+        void await() throws InterruptedException {
+            assertTrue("no revalidation outcome", done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        }
+    }
+}
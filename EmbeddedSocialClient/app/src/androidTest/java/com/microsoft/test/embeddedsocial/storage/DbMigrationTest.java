@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ *
+ */
+
+package com.microsoft.test.embeddedsocial.storage;
+
+import com.microsoft.embeddedsocial.autorest.models.ContentType;
+import com.microsoft.embeddedsocial.autorest.models.PublisherType;
+import com.microsoft.embeddedsocial.data.model.AddPostData;
+import com.microsoft.embeddedsocial.data.storage.DatabaseHelper;
+import com.microsoft.embeddedsocial.data.storage.DbModelRegistry;
+import com.microsoft.embeddedsocial.data.storage.DbSchemas;
+import com.microsoft.embeddedsocial.data.storage.Outbox;
+import com.microsoft.embeddedsocial.data.storage.migration.DbMigrations;
+import com.microsoft.embeddedsocial.data.storage.migration.MigrationUtils;
+import com.microsoft.embeddedsocial.data.storage.model.CommentFeedRelation;
+import com.microsoft.embeddedsocial.data.storage.model.FeedGeneration;
+import com.microsoft.embeddedsocial.data.storage.model.OutboxEntry;
+import com.microsoft.embeddedsocial.data.storage.model.TopicFeedRelation;
+import com.microsoft.embeddedsocial.server.model.view.TopicView;
+import com.microsoft.embeddedsocial.server.model.view.UserCompactView;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.text.TextUtils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Upgrades a populated DB from every supported historical version and checks that cached content
+ * and pending operations survive the upgrade. The DB of an old version is made from a current one
+ * by reverting the schema changes of the later migration steps, so each step really runs against
+ * the schema it was written for.
+ */
+public class DbMigrationTest extends BaseStorageTest {
+
+    private static final String DB_NAME = "local_content";
+
+    public void testMigrationChainIsComplete() {
+        for (int version = DbMigrations.MIN_SUPPORTED_VERSION; version < DatabaseHelper.DB_VERSION; version++) {
+            assertTrue("no migration path from version " + version,
+                DbMigrations.canMigrate(version, DatabaseHelper.DB_VERSION));
+        }
+        assertFalse(DbMigrations.canMigrate(DbMigrations.MIN_SUPPORTED_VERSION - 1, DatabaseHelper.DB_VERSION));
+    }
+
+    public void testUpgradeKeepsData() throws Exception {
+        for (int version = DbMigrations.MIN_SUPPORTED_VERSION; version < DatabaseHelper.DB_VERSION; version++) {
+            getDatabaseHelper().clearData();
+            populate();
+            createOldSchema(version);
+            upgrade();
+
+            assertEquals("topics lost upgrading from " + version, 1, getDatabaseHelper().getTopicDao().countOf());
+            assertEquals("users lost upgrading from " + version, 1, getDatabaseHelper().getUserDao().countOf());
+            assertEquals("feeds lost upgrading from " + version, 1,
+                getDatabaseHelper().getDao(TopicFeedRelation.class).countOf());
+            assertEquals("pending posts lost upgrading from " + version, 1,
+                getDatabaseHelper().getPostDao().countOf());
+            assertEquals("comment feeds lost upgrading from " + version, 1,
+                getDatabaseHelper().getDao(CommentFeedRelation.class).countOf());
+            assertEquals("feed generation not set upgrading from " + version, FeedGeneration.LIVE,
+                queryInt("select " + DbSchemas.TopicFeedRelation.GENERATION
+                    + " from " + DbSchemas.TopicFeedRelation.TABLE_NAME));
+            assertEquals("likes lost upgrading from " + version, 2, countRows(DbSchemas.LikeStatus.TABLE_NAME));
+            assertEquals("pins lost upgrading from " + version, 1, countRows(DbSchemas.PinStatus.TABLE_NAME));
+            if (version >= 24) {
+                List<OutboxEntry> entries = getDatabaseHelper().getDao(OutboxEntry.class).queryForAll();
+                assertEquals("outbox entries lost upgrading from " + version, 1, entries.size());
+                assertEquals(3, entries.get(0).getAttempts());
+                assertFalse(entries.get(0).isSent());
+            }
+            assertEquals("triggers not recreated upgrading from " + version,
+                DbModelRegistry.getRegisteredTriggers().size(), countTriggers());
+        }
+    }
+
+    private void populate() throws Exception {
+        UserCompactView user = new UserCompactView();
+        user.setUserHandle("user");
+        getDatabaseHelper().getUserDao().create(user);
+        TopicView topic = new TopicView.Builder()
+            .setTopicHandle("topic")
+            .setPublisherType(PublisherType.USER.ordinal())
+            .setUser(user)
+            .build();
+        getDatabaseHelper().getTopicDao().create(topic);
+        getDatabaseHelper().getDao(TopicFeedRelation.class).create(new TopicFeedRelation(null, 0, "topic"));
+        getDatabaseHelper().getPostDao().create(new AddPostData("title", "text", null, PublisherType.USER));
+        getDatabaseHelper().getDao(CommentFeedRelation.class).create(new CommentFeedRelation(0, "topic", "comment"));
+
+        SQLiteDatabase database = getDatabaseHelper().getWritableDatabase();
+        database.execSQL("insert into " + DbSchemas.LikeStatus.TABLE_NAME + " ("
+            + DbSchemas.LikeStatus.CONTENT_HANDLE + ", " + DbSchemas.LikeStatus.CONTENT_TYPE + ", "
+            + DbSchemas.LikeStatus.STATUS + ") values (?, ?, 1)", new Object[] {"topic", ContentType.TOPIC.name()});
+        database.execSQL("insert into " + DbSchemas.LikeStatus.TABLE_NAME + " ("
+            + DbSchemas.LikeStatus.CONTENT_HANDLE + ", " + DbSchemas.LikeStatus.CONTENT_TYPE + ", "
+            + DbSchemas.LikeStatus.STATUS + ") values (?, ?, 0)", new Object[] {"comment", ContentType.COMMENT.name()});
+        database.execSQL("insert into " + DbSchemas.PinStatus.TABLE_NAME + " ("
+            + DbSchemas.PinStatus.TOPIC_HANDLE + ", " + DbSchemas.PinStatus.PIN_STATUS + ") values (?, 1)",
+            new Object[] {"topic"});
+        OutboxEntry entry = new OutboxEntry(Outbox.OperationType.LIKE, 1);
+        for (int i = 0; i < 3; i++) {
+            entry.recordFailure("test", 0);
+        }
+        getDatabaseHelper().getDao(OutboxEntry.class).create(entry);
+    }
+
+    /**
+     * Turns the current DB into a DB of an older version (reverts the schema changes of the
+     * migration steps in reverse order).
+     */
+    private void createOldSchema(int version) {
+        File dbFile = getContext().getDatabasePath(DB_NAME);
+        SQLiteDatabase database = SQLiteDatabase.openDatabase(dbFile.getPath(), null, SQLiteDatabase.OPEN_READWRITE);
+        try {
+            if (version < 26) {
+                dropColumn(database, DbSchemas.CacheAccess.TABLE_NAME, DbSchemas.CacheAccess.ORPHAN_SINCE);
+            }
+            if (version < 25) {
+                dropColumn(database, DbSchemas.Outbox.TABLE_NAME, DbSchemas.Outbox.SENT);
+            }
+            if (version < 24) {
+                database.execSQL("drop table " + DbSchemas.Outbox.TABLE_NAME);
+            }
+            if (version < 23) {
+                // a single action per content, replaced by the next one
+                recreateTable(database, DbSchemas.LikeStatus.TABLE_NAME, "`id` INTEGER PRIMARY KEY AUTOINCREMENT, "
+                    + "`" + DbSchemas.LikeStatus.CONTENT_HANDLE + "` VARCHAR UNIQUE, "
+                    + "`" + DbSchemas.LikeStatus.CONTENT_TYPE + "` VARCHAR, "
+                    + "`" + DbSchemas.LikeStatus.STATUS + "` BOOLEAN");
+                recreateTable(database, DbSchemas.PinStatus.TABLE_NAME, "`id` INTEGER PRIMARY KEY AUTOINCREMENT, "
+                    + "`" + DbSchemas.PinStatus.TOPIC_HANDLE + "` VARCHAR UNIQUE, "
+                    + "`" + DbSchemas.PinStatus.PIN_STATUS + "` BOOLEAN");
+            }
+            if (version < 22) {
+                database.execSQL("drop table " + DbSchemas.FeedFreshness.TABLE_NAME);
+            }
+            if (version < 21) {
+                database.execSQL("drop table " + DbSchemas.CacheAccess.TABLE_NAME);
+            }
+            if (version < 20) {
+                dropColumn(database, DbSchemas.TopicFeedRelation.TABLE_NAME, DbSchemas.TopicFeedRelation.GENERATION);
+                dropColumn(database, DbSchemas.CommentFeedRelation.TABLE_NAME,
+                    DbSchemas.CommentFeedRelation.GENERATION);
+            }
+            if (version < 19) {
+                dropSecondaryIndexes(database);
+            }
+            MigrationUtils.dropAllTriggers(database);
+            database.setVersion(version);
+        } finally {
+            database.close();
+        }
+    }
+
+    private static void dropColumn(SQLiteDatabase database, String tableName, String columnName) {
+        List<String> columns = new ArrayList<>();
+        List<String> definitions = new ArrayList<>();
+        Cursor cursor = database.rawQuery("pragma table_info(`" + tableName + "`)", null);
+        try {
+            while (cursor.moveToNext()) {
+                String name = cursor.getString(cursor.getColumnIndexOrThrow("name"));
+                if (!name.equals(columnName)) {
+                    boolean primaryKey = cursor.getInt(cursor.getColumnIndexOrThrow("pk")) > 0;
+                    columns.add("`" + name + "`");
+                    definitions.add("`" + name + "` " + cursor.getString(cursor.getColumnIndexOrThrow("type"))
+                        + (primaryKey ? " PRIMARY KEY AUTOINCREMENT" : ""));
+                }
+            }
+        } finally {
+            cursor.close();
+        }
+        assertTrue("no column " + columnName + " in " + tableName,
+            columns.size() < MigrationUtils.getColumns(database, tableName).size());
+        recreateTable(database, tableName, join(definitions));
+    }
+
+    /**
+     * Recreates a table with the specified column definitions and copies the rows, replacing
+     * the rows conflicting with new unique constraints.
+     */
+    private static void recreateTable(SQLiteDatabase database, String tableName, String columnDefinitions) {
+        List<String> oldColumns = MigrationUtils.getColumns(database, tableName);
+        String oldTableName = tableName + "_current";
+        database.execSQL("alter table `" + tableName + "` rename to `" + oldTableName + "`");
+        database.execSQL("create table `" + tableName + "` (" + columnDefinitions + ")");
+        List<String> columns = new ArrayList<>();
+        for (String column : MigrationUtils.getColumns(database, tableName)) {
+            if (oldColumns.contains(column)) {
+                columns.add("`" + column + "`");
+            }
+        }
+        database.execSQL("insert or replace into `" + tableName + "` (" + join(columns) + ") select "
+            + join(columns) + " from `" + oldTableName + "` order by id");
+        database.execSQL("drop table `" + oldTableName + "`");
+    }
+
+    private static void dropSecondaryIndexes(SQLiteDatabase database) {
+        List<String> indexes = new ArrayList<>();
+        // automatic indexes of unique constraints have no SQL
+        Cursor cursor = database.rawQuery("select name from sqlite_master where type = 'index' and sql is not null",
+            null);
+        try {
+            while (cursor.moveToNext()) {
+                indexes.add(cursor.getString(0));
+            }
+        } finally {
+            cursor.close();
+        }
+        for (String index : indexes) {
+            database.execSQL("drop index `" + index + "`");
+        }
+    }
+
+    private static String join(List<String> items) {
+        return TextUtils.join(", ", items);
+    }
+
+    private void upgrade() {
+        DatabaseHelper helper = new DatabaseHelper(getContext());
+        try {
+            helper.getWritableDatabase();
+        } finally {
+            helper.close();
+        }
+    }
+
+    private int countTriggers() {
+        return queryInt("select count(*) from sqlite_master where type = 'trigger'");
+    }
+
+    private int countRows(String tableName) {
+        return queryInt("select count(*) from `" + tableName + "`");
+    }
+
+    private int queryInt(String sql) {
+        Cursor cursor = getDatabaseHelper().getReadableDatabase().rawQuery(sql, null);
+        try {
+            assertTrue(cursor.moveToFirst());
+            return cursor.getInt(0);
+        } finally {
+            cursor.close();
+        }
+    }
+}
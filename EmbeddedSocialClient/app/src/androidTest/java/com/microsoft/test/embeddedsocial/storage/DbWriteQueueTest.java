@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ *
+ */
+
+package com.microsoft.test.embeddedsocial.storage;
+
+import com.j256.ormlite.dao.Dao;
+import com.microsoft.embeddedsocial.autorest.models.Reason;
+import com.microsoft.embeddedsocial.data.storage.DbSchemas;
+import com.microsoft.embeddedsocial.data.storage.model.ReportContentOperation;
+import com.microsoft.embeddedsocial.data.storage.transaction.DbTransaction;
+
+import java.sql.SQLException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tests the single DB writer: group commits, failure isolation and waiting for the result.
+ */
+public class DbWriteQueueTest extends BaseStorageTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private Dao<ReportContentOperation, Integer> reportDao;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        reportDao = getDatabaseHelper().getDao(ReportContentOperation.class);
+    }
+
+    public void testFailureIsReported() throws Exception {
+        try {
+            DbTransaction.performTransaction(reportDao, () -> {
+                create("rolled_back");
+                throw new SQLException("test failure");
+            });
+            fail();
+        } catch (SQLException e) {
+            assertEquals("test failure", e.getMessage());
+        }
+        try {
+            DbTransaction.performTransaction(reportDao, () -> {
+                throw new IllegalStateException("test failure");
+            });
+            fail();
+        } catch (SQLException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        assertFalse(exists("rolled_back"));
+    }
+
+    public void testFailingJobDoesNotFailItsGroup() throws Exception {
+        AtomicInteger firstRuns = new AtomicInteger();
+        AtomicInteger failingRuns = new AtomicInteger();
+        AtomicInteger lastRuns = new AtomicInteger();
+
+        CountDownLatch release = blockWriter();
+        DbTransaction.performTransactionAsync(reportDao, () -> {
+            firstRuns.incrementAndGet();
+            create("first");
+        });
+        DbTransaction.performTransactionAsync(reportDao, () -> {
+            failingRuns.incrementAndGet();
+            create("failing");
+            throw new SQLException("test failure");
+        });
+        DbTransaction.performTransactionAsync(reportDao, () -> {
+            lastRuns.incrementAndGet();
+            create("last");
+        });
+        release.countDown();
+        DbTransaction.performTransaction(reportDao, () -> { });
+
+        assertTrue(exists("first"));
+        assertTrue(exists("last"));
+        assertFalse(exists("failing"));
+        // the failing job isn't run again, the job before it is run again after the rollback
+        assertEquals(1, failingRuns.get());
+        assertEquals(2, firstRuns.get());
+        assertEquals(1, lastRuns.get());
+    }
+
+    public void testInterruptedWaitReturnsOutcome() throws Exception {
+        CountDownLatch release = blockWriter();
+        AtomicReference<Exception> error = new AtomicReference<>();
+        AtomicBoolean interrupted = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            try {
+                DbTransaction.performTransaction(reportDao, () -> create("interrupted"));
+            } catch (SQLException e) {
+                error.set(e);
+            }
+            interrupted.set(Thread.currentThread().isInterrupted());
+        });
+        writer.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (writer.getState() != Thread.State.WAITING) {
+            assertTrue("timed out", System.nanoTime() < deadline);
+            Thread.sleep(5);
+        }
+
+        writer.interrupt();
+        Thread.sleep(50);
+        assertTrue("the wait ended before the commit", writer.isAlive());
+        release.countDown();
+        writer.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+
+        assertNull(error.get());
+        assertTrue(interrupted.get());
+        assertTrue(exists("interrupted"));
+    }
+
+    public void testNestedTransactionRunsInPlace() throws Exception {
+        DbTransaction.performTransaction(reportDao, () -> {
+            create("outer");
+            DbTransaction.performTransaction(reportDao, () -> create("inner"));
+        });
+        assertTrue(exists("outer"));
+        assertTrue(exists("inner"));
+    }
+
+    /**
+     * Keeps the writer thread busy until the returned latch is released, so that the jobs
+     * submitted meanwhile are committed as one group.
+     */
+    private CountDownLatch blockWriter() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        DbTransaction.performTransactionAsync(reportDao, () -> {
+            started.countDown();
+            try {
+                release.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        return release;
+    }
+
+    private void create(String userHandle) throws SQLException {
+        reportDao.create(ReportContentOperation.forUser(userHandle, Reason.OTHER));
+    }
+
+    private boolean exists(String userHandle) throws SQLException {
+        return reportDao.queryBuilder()
+            .where().eq(DbSchemas.ReportContentOperation.CONTENT_HANDLE, userHandle)
+            .countOf() > 0;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ *
+ */
+
+package com.microsoft.test.embeddedsocial.storage;
+
+import com.microsoft.embeddedsocial.account.UserAccount;
+import com.microsoft.embeddedsocial.base.GlobalObjectRegistry;
+import com.microsoft.embeddedsocial.server.HttpCache;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Tests that the server responses stored for one user don't outlive the account.
+ */
+public class HttpCacheTest extends BaseStorageTest {
+
+    private static final String TOPIC_RESPONSE = "HTTP/1.1 200 OK\r\n"
+        + "ETag: \"1\"\r\n"
+        + "Content-Type: application/json\r\n"
+        + "Content-Length: 2\r\n"
+        + "\r\n"
+        + "{}";
+
+    private HttpCache httpCache;
+    private OkHttpClient httpClient;
+    private LocalHttpServer server;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        httpCache = GlobalObjectRegistry.getObject(HttpCache.class);
+        assertNotNull("the HTTP cache is enabled by default", httpCache);
+        httpCache.clear();
+        OkHttpClient.Builder builder = new OkHttpClient.Builder();
+        httpCache.configure(builder);
+        httpClient = builder.build();
+        server = new LocalHttpServer(0, TOPIC_RESPONSE);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        server.close();
+        httpCache.clear();
+        super.tearDown();
+    }
+
+    public void testResponseIsStored() throws Exception {
+        get("v0.7/topics/topic1");
+        get("v0.7/users/me");
+        assertEquals(2, httpCache.getStoredResponseCount());
+    }
+
+    public void testAccountChangeClearsStoredResponses() throws Exception {
+        get("v0.7/topics/topic1");
+        get("v0.7/users/me");
+        assertEquals(2, httpCache.getStoredResponseCount());
+
+        UserAccount.getInstance().clearCachedData();
+        assertEquals(0, httpCache.getStoredResponseCount());
+    }
+
+    private void get(String path) throws Exception {
+        Request request = new Request.Builder().url(server.getUrl() + path).build();
+        try (Response response = httpClient.newCall(request).execute()) {
+            assertTrue(response.isSuccessful());
+            assertEquals("{}", response.body().string());
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ *
+ */
+
+package com.microsoft.test.embeddedsocial.storage;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal keep-alive HTTP server answering the requests with given responses after a delay.
+ */
+class LocalHttpServer {
+
+    static final String NO_CONTENT = "HTTP/1.1 204 No Content\r\nContent-Length: 0\r\n\r\n";
+
+    private static final Charset ASCII = Charset.forName("US-ASCII");
+
+    private final ServerSocket serverSocket;
+    private final int latencyMs;
+    private final byte[][] responses;
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final List<Socket> connections = new ArrayList<>();
+
+    /**
+     * Starts the server.
+     * @param latencyMs delay before each response
+     * @param responses the responses (status line, headers and body) in the order of the requests,
+     *                  the last one answers all the following requests
+     */
+    LocalHttpServer(int latencyMs, String... responses) throws IOException {
+        this.latencyMs = latencyMs;
+        this.responses = new byte[responses.length][];
+        for (int i = 0; i < responses.length; i++) {
+            this.responses[i] = responses[i].getBytes(ASCII);
+        }
+        serverSocket = new ServerSocket(0, 0, InetAddress.getByName("127.0.0.1"));
+        new Thread(this::acceptConnections, "local http server").start();
+    }
+
+    String getUrl() {
+        return "http://127.0.0.1:" + serverSocket.getLocalPort() + "/";
+    }
+
+    void close() throws IOException {
+        serverSocket.close();
+        synchronized (connections) {
+            for (Socket connection : connections) {
+                connection.close();
+            }
+        }
+    }
+
+    private void acceptConnections() {
+        try {
+            while (true) {
+                Socket connection = serverSocket.accept();
+                synchronized (connections) {
+                    connections.add(connection);
+                }
+                new Thread(() -> serve(connection), "local http server connection").start();
+            }
+        } catch (IOException e) {
+            // closed
+        }
+    }
+
+    private void serve(Socket connection) {
+        try {
+            BufferedReader reader = new BufferedReader(
+                new InputStreamReader(connection.getInputStream(), ASCII));
+            OutputStream output = connection.getOutputStream();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int contentLength = 0;
+                while ((line = reader.readLine()) != null && !line.isEmpty()) {
+                    if (line.toLowerCase().startsWith("content-length:")) {
+                        contentLength = Integer.parseInt(line.substring(line.indexOf(':') + 1).trim());
+                    }
+                }
+                // the bodies are ASCII JSON: one char per byte
+                reader.skip(contentLength);
+                if (latencyMs > 0) {
+                    Thread.sleep(latencyMs);
+                }
+                output.write(responses[Math.min(requestCount.getAndIncrement(), responses.length - 1)]);
+                output.flush();
+            }
+        } catch (IOException e) {
+            // closed
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ *
+ */
+
+package com.microsoft.test.embeddedsocial.storage;
+
+import com.microsoft.embeddedsocial.sdk.metrics.CallInfo;
+import com.microsoft.embeddedsocial.sdk.metrics.NetworkMetrics;
+import com.microsoft.embeddedsocial.sdk.metrics.NetworkMetrics.CacheOutcome;
+import com.microsoft.embeddedsocial.sdk.metrics.NetworkMetrics.Phase;
+import com.microsoft.embeddedsocial.sdk.metrics.OperationMetrics;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Cache;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Tests the phase timing, the cache outcome classification and the operation names of the
+ * measured calls. The calls go to a local server, with a real HTTP cache in a temporary directory.
+ */
+public class NetworkMetricsTest extends TestCase {
+
+    private static final int LATENCY_MS = 50;
+    private static final long CACHE_SIZE = 1024 * 1024;
+    private static final String CACHEABLE_RESPONSE = "HTTP/1.1 200 OK\r\n"
+        + "Cache-Control: max-age=60\r\n"
+        + "Content-Type: application/json\r\n"
+        + "Content-Length: 2\r\n"
+        + "\r\n"
+        + "{}";
+    private static final String FIRST_VERSION_RESPONSE = "HTTP/1.1 200 OK\r\n"
+        + "Cache-Control: no-cache\r\n"
+        + "ETag: \"1\"\r\n"
+        + "Content-Type: application/json\r\n"
+        + "Content-Length: 2\r\n"
+        + "\r\n"
+        + "{}";
+    private static final String SECOND_VERSION_RESPONSE = "HTTP/1.1 200 OK\r\n"
+        + "Cache-Control: no-cache\r\n"
+        + "ETag: \"2\"\r\n"
+        + "Content-Type: application/json\r\n"
+        + "Content-Length: 2\r\n"
+        + "\r\n"
+        + "{}";
+    private static final String NOT_MODIFIED_RESPONSE = "HTTP/1.1 304 Not Modified\r\n"
+        + "ETag: \"1\"\r\n"
+        + "Content-Length: 0\r\n"
+        + "\r\n";
+
+    private final List<CallInfo> calls = Collections.synchronizedList(new ArrayList<>());
+    private NetworkMetrics metrics;
+    private Cache cache;
+    private OkHttpClient httpClient;
+    private LocalHttpServer server;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        metrics = new NetworkMetrics();
+        metrics.addListener(calls::add);
+        File cacheDirectory = new File(System.getProperty("java.io.tmpdir"), "metrics" + System.nanoTime());
+        cache = new Cache(cacheDirectory, CACHE_SIZE);
+        OkHttpClient.Builder builder = new OkHttpClient.Builder().cache(cache);
+        metrics.configure(builder);
+        httpClient = builder.build();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        if (server != null) {
+            server.close();
+        }
+        cache.delete();
+        super.tearDown();
+    }
+
+    public void testPhaseTiming() throws Exception {
+        server = new LocalHttpServer(LATENCY_MS, LocalHttpServer.NO_CONTENT);
+
+        CallInfo first = get("v0.7/topics/topic1");
+        assertTrue(first.getPhaseNanos(Phase.CONNECT) >= 0);
+        assertTrue(first.getPhaseNanos(Phase.TIME_TO_FIRST_BYTE) >= TimeUnit.MILLISECONDS.toNanos(LATENCY_MS));
+        assertTrue(first.getPhaseNanos(Phase.TOTAL) >= first.getPhaseNanos(Phase.TIME_TO_FIRST_BYTE)
+            + first.getPhaseNanos(Phase.CONNECT));
+        assertEquals("no TLS without HTTPS", -1, first.getPhaseNanos(Phase.TLS));
+        assertEquals(204, first.getStatusCode());
+
+        // the connection is reused
+        CallInfo second = get("v0.7/topics/topic1");
+        assertEquals(-1, second.getPhaseNanos(Phase.CONNECT));
+        assertTrue(second.getPhaseNanos(Phase.TIME_TO_FIRST_BYTE) >= TimeUnit.MILLISECONDS.toNanos(LATENCY_MS));
+
+        OperationMetrics operation = metrics.getOperation("GET topics/{}");
+        assertNotNull(operation);
+        assertEquals(2, operation.getHistogram(Phase.TOTAL).getCount());
+    }
+
+    public void testCacheHit() throws Exception {
+        server = new LocalHttpServer(0, CACHEABLE_RESPONSE);
+
+        CallInfo network = get("v0.7/topics/topic1");
+        assertEquals(CacheOutcome.NETWORK, network.getCacheOutcome());
+        assertEquals(2, network.getBytesReceived());
+
+        CallInfo cached = get("v0.7/topics/topic1");
+        assertEquals(CacheOutcome.CACHE_HIT, cached.getCacheOutcome());
+        assertEquals(-1, cached.getPhaseNanos(Phase.TIME_TO_FIRST_BYTE));
+        assertEquals(1, metrics.getOperation("GET topics/{}").getCacheOutcomeCount(CacheOutcome.CACHE_HIT));
+    }
+
+    public void testRevalidated() throws Exception {
+        server = new LocalHttpServer(0, FIRST_VERSION_RESPONSE, NOT_MODIFIED_RESPONSE);
+
+        assertEquals(CacheOutcome.NETWORK, get("v0.7/topics/topic1").getCacheOutcome());
+        CallInfo revalidated = get("v0.7/topics/topic1");
+        assertEquals(CacheOutcome.REVALIDATED, revalidated.getCacheOutcome());
+        assertEquals(304, revalidated.getStatusCode());
+    }
+
+    public void testConditionalMiss() throws Exception {
+        server = new LocalHttpServer(0, FIRST_VERSION_RESPONSE, SECOND_VERSION_RESPONSE);
+
+        assertEquals(CacheOutcome.NETWORK, get("v0.7/topics/topic1").getCacheOutcome());
+        CallInfo changed = get("v0.7/topics/topic1");
+        assertEquals(CacheOutcome.CONDITIONAL_MISS, changed.getCacheOutcome());
+        assertEquals(200, changed.getStatusCode());
+    }
+
+    public void testHandlesAreReplaced() throws Exception {
+        server = new LocalHttpServer(0, LocalHttpServer.NO_CONTENT);
+
+        assertEquals("GET topics/{}/comments", get("v0.7/topics/3uVbNvmA/comments").getOperation());
+        // lowercase handles don't create an operation each
+        assertEquals("GET users/{}", get("v0.7/users/lowercasehandle").getOperation());
+        assertEquals("GET users/me/following/combined", get("v0.7/users/me/following/combined").getOperation());
+        assertEquals(3, metrics.getOperations().size());
+    }
+
+    private CallInfo get(String path) throws Exception {
+        int callCount = calls.size();
+        Request request = new Request.Builder().url(server.getUrl() + path).build();
+        try (Response response = httpClient.newCall(request).execute()) {
+            assertTrue(response.isSuccessful());
+            response.body().string();
+        }
+        // the call is recorded when its connection is released
+        assertEquals(callCount + 1, calls.size());
+        return calls.get(callCount);
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ *
+ */
+
+package com.microsoft.test.embeddedsocial.storage;
+
+import com.microsoft.embeddedsocial.data.storage.OutboxCompactor;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Checks the outbox compaction against a model of the server state on random action sequences.
+ */
+public class OutboxCompactorTest extends TestCase {
+
+    private static final long SEED = 20161018L;
+    private static final int ITERATIONS = 2000;
+    private static final int MAX_KEYS = 4;
+    private static final int MAX_ACTIONS = 12;
+
+    private static final OutboxCompactor.ActionReducer<Action> REDUCER = new OutboxCompactor.ActionReducer<Action>() {
+        @Override
+        public String getKey(Action action) {
+            return action.key;
+        }
+
+        @Override
+        public boolean getState(Action action) {
+            return action.state;
+        }
+
+        @Override
+        public boolean isReversible(Action action) {
+            return action.reversible;
+        }
+    };
+
+    private final Random random = new Random(SEED);
+
+    public void testLikeThenUnlikeIsDropped() {
+        List<Action> actions = new ArrayList<>();
+        actions.add(new Action("topic", true, true));
+        actions.add(new Action("topic", false, true));
+        assertTrue(OutboxCompactor.reduce(actions, REDUCER).isEmpty());
+    }
+
+    public void testSentLikeThenUnlikeKeepsUnlike() {
+        List<Action> actions = new ArrayList<>();
+        actions.add(new Action("topic", true, true));
+        actions.add(new Action("topic", false, true));
+        Set<Action> sent = Collections.newSetFromMap(new IdentityHashMap<>());
+        sent.add(actions.get(0));
+
+        // the like timed out, but the server may have applied it
+        assertEquals(Collections.singletonList(actions.get(1)), OutboxCompactor.reduce(actions, REDUCER, sent));
+    }
+
+    public void testSentActionsKeepServerState() {
+        for (int i = 0; i < ITERATIONS; i++) {
+            Map<String, Boolean> serverState = randomServerState();
+            List<Action> actions = random.nextBoolean()
+                ? randomToggles(serverState, true)
+                : randomActions(serverState, true);
+            Set<Action> sent = Collections.newSetFromMap(new IdentityHashMap<>());
+            List<Action> applied = new ArrayList<>();
+            for (Action action : actions) {
+                if (random.nextInt(3) == 0) {
+                    sent.add(action);
+                    // a sent action may or may not have been applied by the server
+                    if (random.nextBoolean()) {
+                        applied.add(action);
+                    }
+                }
+            }
+            List<Action> compacted = OutboxCompactor.reduce(actions, REDUCER, sent);
+
+            String description = describe(actions) + ", sent: " + sent + ", applied: " + applied;
+            assertEquals(description, apply(serverState, actions),
+                apply(apply(serverState, applied), compacted));
+        }
+    }
+
+    public void testToggledActionsKeepServerState() {
+        for (int i = 0; i < ITERATIONS; i++) {
+            Map<String, Boolean> serverState = randomServerState();
+            List<Action> actions = randomToggles(serverState, true);
+            List<Action> compacted = OutboxCompactor.reduce(actions, REDUCER);
+
+            assertEquals(describe(actions), apply(serverState, actions), apply(serverState, compacted));
+        }
+    }
+
+    public void testCompactionIsMinimal() {
+        for (int i = 0; i < ITERATIONS; i++) {
+            Map<String, Boolean> serverState = randomServerState();
+            List<Action> actions = randomToggles(serverState, true);
+            List<Action> compacted = OutboxCompactor.reduce(actions, REDUCER);
+
+            // an action survives only if the key's state really changes
+            Map<String, Boolean> finalState = apply(serverState, actions);
+            Set<String> changedKeys = new HashSet<>();
+            for (String key : serverState.keySet()) {
+                if (!serverState.get(key).equals(finalState.get(key))) {
+                    changedKeys.add(key);
+                }
+            }
+            Set<String> compactedKeys = new HashSet<>();
+            for (Action action : compacted) {
+                assertTrue(describe(actions), compactedKeys.add(action.key));
+            }
+            assertEquals(describe(actions), changedKeys, compactedKeys);
+        }
+    }
+
+    public void testRepeatedActionsKeepServerState() {
+        for (int i = 0; i < ITERATIONS; i++) {
+            Map<String, Boolean> serverState = randomServerState();
+            // the first action of a key changes what the user saw, the next ones may repeat it
+            List<Action> actions = randomActions(serverState, true);
+            List<Action> compacted = OutboxCompactor.reduce(actions, REDUCER);
+
+            assertEquals(describe(actions), apply(serverState, actions), apply(serverState, compacted));
+        }
+    }
+
+    public void testIrreversibleActionsAreOverridden() {
+        for (int i = 0; i < ITERATIONS; i++) {
+            Map<String, Boolean> serverState = randomServerState();
+            List<Action> actions = randomToggles(serverState, false);
+            List<Action> compacted = OutboxCompactor.reduce(actions, REDUCER);
+
+            Map<String, Action> lastActions = new HashMap<>();
+            for (Action action : actions) {
+                lastActions.put(action.key, action);
+            }
+            assertEquals(describe(actions), lastActions.size(), compacted.size());
+            for (Action action : compacted) {
+                assertSame(describe(actions), lastActions.get(action.key), action);
+            }
+        }
+    }
+
+    public void testSurvivorsAreLastActionsInOriginalOrder() {
+        for (int i = 0; i < ITERATIONS; i++) {
+            List<Action> actions = randomActions(randomServerState(), random.nextBoolean());
+            List<Action> compacted = OutboxCompactor.reduce(actions, REDUCER);
+
+            int previousIndex = -1;
+            for (Action action : compacted) {
+                int index = actions.indexOf(action);
+                assertTrue(describe(actions), index > previousIndex);
+                for (int j = index + 1; j < actions.size(); j++) {
+                    assertFalse(describe(actions), actions.get(j).key.equals(action.key));
+                }
+                previousIndex = index;
+            }
+        }
+    }
+
+    public void testCompactionIsIdempotent() {
+        for (int i = 0; i < ITERATIONS; i++) {
+            List<Action> actions = randomActions(randomServerState(), random.nextBoolean());
+            List<Action> compacted = OutboxCompactor.reduce(actions, REDUCER);
+
+            assertEquals(describe(actions), compacted, OutboxCompactor.reduce(compacted, REDUCER));
+        }
+    }
+
+    private Map<String, Boolean> randomServerState() {
+        Map<String, Boolean> state = new HashMap<>();
+        int keyCount = 1 + random.nextInt(MAX_KEYS);
+        for (int i = 0; i < keyCount; i++) {
+            state.put("handle" + i, random.nextBoolean());
+        }
+        return state;
+    }
+
+    /**
+     * Generates actions of a user who toggles the state they see (like, unlike, like...).
+     */
+    private List<Action> randomToggles(Map<String, Boolean> serverState, boolean reversible) {
+        Map<String, Boolean> seenState = new HashMap<>(serverState);
+        List<String> keys = new ArrayList<>(serverState.keySet());
+        List<Action> actions = new ArrayList<>();
+        int count = random.nextInt(MAX_ACTIONS + 1);
+        for (int i = 0; i < count; i++) {
+            String key = keys.get(random.nextInt(keys.size()));
+            boolean state = !seenState.get(key);
+            seenState.put(key, state);
+            actions.add(new Action(key, state, reversible));
+        }
+        return actions;
+    }
+
+    /**
+     * Generates actions whose first action per key toggles the state, the others are random.
+     */
+    private List<Action> randomActions(Map<String, Boolean> serverState, boolean reversible) {
+        List<String> keys = new ArrayList<>(serverState.keySet());
+        Set<String> touchedKeys = new HashSet<>();
+        List<Action> actions = new ArrayList<>();
+        int count = random.nextInt(MAX_ACTIONS + 1);
+        for (int i = 0; i < count; i++) {
+            String key = keys.get(random.nextInt(keys.size()));
+            boolean state = touchedKeys.add(key) ? !serverState.get(key) : random.nextBoolean();
+            actions.add(new Action(key, state, reversible));
+        }
+        return actions;
+    }
+
+    private static Map<String, Boolean> apply(Map<String, Boolean> serverState, List<Action> actions) {
+        Map<String, Boolean> result = new HashMap<>(serverState);
+        for (Action action : actions) {
+            result.put(action.key, action.state);
+        }
+        return result;
+    }
+
+    private static String describe(List<Action> actions) {
+        return "actions: " + actions;
+    }
+
+    /**
+     * Outbox action setting the state of a key.
+     */
+    private static class Action {
+
+        private final String key;
+        private final boolean state;
+        private final boolean reversible;
+
+        Action(String key, boolean state, boolean reversible) {
+            this.key = key;
+            this.state = state;
+            this.reversible = reversible;
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + state;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ *
+ */
+
+package com.microsoft.test.embeddedsocial.storage;
+
+import com.j256.ormlite.dao.Dao;
+import com.microsoft.embeddedsocial.autorest.models.ContentType;
+import com.microsoft.embeddedsocial.base.GlobalObjectRegistry;
+import com.microsoft.embeddedsocial.data.storage.ContentServiceCachingWrapper;
+import com.microsoft.embeddedsocial.data.storage.DbSchemas;
+import com.microsoft.embeddedsocial.data.storage.Outbox;
+import com.microsoft.embeddedsocial.data.storage.UserActionCache;
+import com.microsoft.embeddedsocial.data.storage.UserCache;
+import com.microsoft.embeddedsocial.data.storage.model.OutboxEntry;
+import com.microsoft.embeddedsocial.data.storage.model.ReportContentOperation;
+import com.microsoft.embeddedsocial.data.storage.model.UserRelationOperation;
+import com.microsoft.embeddedsocial.server.EmbeddedSocialServiceProvider;
+import com.microsoft.embeddedsocial.server.exception.NetworkRequestException;
+import com.microsoft.embeddedsocial.server.model.like.AddLikeRequest;
+import com.microsoft.embeddedsocial.server.model.like.RemoveLikeRequest;
+import com.microsoft.embeddedsocial.server.sync.DataSynchronizer;
+import com.microsoft.embeddedsocial.server.sync.ISynchronizable;
+import com.microsoft.embeddedsocial.server.sync.exception.SynchronizationException;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+
+import java.util.Collections;
+import java.util.List;
+
+import retrofit2.Response;
+
+/**
+ * Checks backoff, quarantine, compaction, paging and cleanup of pending operations.
+ */
+public class OutboxTest extends BaseStorageTest {
+
+    private static final Outbox.OperationType TYPE = Outbox.OperationType.REPORT;
+
+    private Outbox outbox;
+    private Dao<ReportContentOperation, Integer> reportDao;
+    private Dao<OutboxEntry, Integer> entryDao;
+    private Dao<UserRelationOperation, Integer> relationDao;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        outbox = GlobalObjectRegistry.getObject(Outbox.class);
+        reportDao = getDatabaseHelper().getDao(ReportContentOperation.class);
+        entryDao = getDatabaseHelper().getDao(OutboxEntry.class);
+        relationDao = getDatabaseHelper().getDao(UserRelationOperation.class);
+        outbox.takeMorePending();
+    }
+
+    public void testFailedOperationIsDelayed() throws Exception {
+        int failedId = addReports("outbox_user", 2).get(0);
+
+        outbox.recordFailure(TYPE, failedId, new RuntimeException("test"));
+
+        List<ReportContentOperation> due = outbox.getDueOperations(TYPE, reportDao);
+        assertEquals(1, due.size());
+        assertFalse(reportDao.extractId(due.get(0)) == failedId);
+        assertTrue(outbox.getNextAttemptTime() > System.currentTimeMillis());
+    }
+
+    public void testFailedOperationIsSent() throws Exception {
+        List<Integer> ids = addReports("outbox_user", 2);
+
+        outbox.recordFailure(TYPE, ids.get(0), new RuntimeException("timeout"));
+
+        assertEquals(Collections.singleton(ids.get(0)), outbox.getSentPayloadIds(TYPE));
+    }
+
+    public void testOperationIsQuarantined() throws Exception {
+        int id = addReports("outbox_user", 1).get(0);
+
+        for (int i = 0; i < Outbox.MAX_ATTEMPTS; i++) {
+            outbox.recordFailure(TYPE, id, new RuntimeException("test"));
+        }
+
+        List<OutboxEntry> quarantined = outbox.getQuarantinedOperations();
+        assertEquals(1, quarantined.size());
+        assertEquals(Outbox.MAX_ATTEMPTS, quarantined.get(0).getAttempts());
+        assertEquals(0, outbox.getNextAttemptTime());
+        assertTrue(outbox.getDueOperations(TYPE, reportDao).isEmpty());
+
+        outbox.releaseQuarantine();
+        assertEquals(1, outbox.getDueOperations(TYPE, reportDao).size());
+    }
+
+    public void testStateIsDeletedWithOperation() throws Exception {
+        int id = addReports("outbox_user", 1).get(0);
+        outbox.recordFailure(TYPE, id, new RuntimeException("test"));
+        assertEquals(1, entryDao.countOf());
+
+        reportDao.deleteById(id);
+
+        assertEquals(0, entryDao.countOf());
+    }
+
+    public void testOperationsArePaged() throws Exception {
+        addReports("outbox_user", Outbox.PAGE_SIZE + 1);
+
+        assertEquals(Outbox.PAGE_SIZE, outbox.getDueOperations(TYPE, reportDao).size());
+        assertTrue(outbox.takeMorePending());
+        assertFalse(outbox.takeMorePending());
+    }
+
+    public void testDelayedOperationsDontShrinkPage() throws Exception {
+        List<Integer> ids = addReports("outbox_user", 2 * Outbox.PAGE_SIZE);
+        List<Integer> delayedIds = ids.subList(0, Outbox.PAGE_SIZE);
+        for (int id : delayedIds) {
+            outbox.recordFailure(TYPE, id, new RuntimeException("test"));
+        }
+
+        List<ReportContentOperation> due = outbox.getDueOperations(TYPE, reportDao);
+        assertEquals(Outbox.PAGE_SIZE, due.size());
+        for (ReportContentOperation operation : due) {
+            assertFalse(delayedIds.contains(reportDao.extractId(operation)));
+        }
+        assertFalse(outbox.takeMorePending());
+    }
+
+    public void testOrderColumnHoldsLaterOperations() throws Exception {
+        relationDao.create(new UserRelationOperation(UserCache.UserRelationAction.FOLLOW, "user1"));
+        relationDao.create(new UserRelationOperation(UserCache.UserRelationAction.BLOCK, "user1"));
+        relationDao.create(new UserRelationOperation(UserCache.UserRelationAction.FOLLOW, "user2"));
+        int delayedId = relationDao.extractId(relationDao.queryForAll().get(0));
+
+        outbox.recordFailure(Outbox.OperationType.USER_RELATION, delayedId, new RuntimeException("test"));
+
+        // the block of user1 waits for the delayed follow
+        List<UserRelationOperation> due = outbox.getDueOperations(Outbox.OperationType.USER_RELATION,
+            relationDao, DbSchemas.UserRelationOperation.USER_HANDLE);
+        assertEquals(1, due.size());
+        assertEquals("user2", due.get(0).getTargetUserHandle());
+    }
+
+    public void testCompactionLeavesUniqueActions() throws Exception {
+        relationDao.create(new UserRelationOperation(UserCache.UserRelationAction.FOLLOW, "user1"));
+        relationDao.create(new UserRelationOperation(UserCache.UserRelationAction.UNFOLLOW, "user1"));
+        relationDao.create(new UserRelationOperation(UserCache.UserRelationAction.FOLLOW, "user2"));
+        relationDao.create(new UserRelationOperation(UserCache.UserRelationAction.BLOCK, "user3"));
+
+        assertEquals(2, new UserCache().getPendingUserRelationOperations().size());
+        assertEquals(2, relationDao.countOf());
+    }
+
+    public void testUploadedLikeIsNotCanceledAfterRestart() throws Exception {
+        Dao<UserActionCache.LikeChangedAction, Integer> likeDao =
+            getDatabaseHelper().getDao(UserActionCache.LikeChangedAction.class);
+        addLikeAction("topic1", true);
+        EmbeddedSocialServiceProvider serviceProvider = GlobalObjectRegistry.getObject(EmbeddedSocialServiceProvider.class);
+        GlobalObjectRegistry.addObject(EmbeddedSocialServiceProvider.class, new EmbeddedSocialServiceProvider(
+            getContext(), new AcceptingContentService(getContext()), null));
+        try {
+            List<ISynchronizable> likes = new UserActionCache().getPendingLikeActions();
+            assertEquals(1, likes.size());
+            likes.get(0).synchronize();
+            likes.get(0).onSynchronizationSuccess();
+        } finally {
+            GlobalObjectRegistry.addObject(EmbeddedSocialServiceProvider.class, serviceProvider);
+        }
+
+        // the process dies before the sync pass ends, the user unlikes the topic after the restart
+        addLikeAction("topic1", false);
+
+        List<UserActionCache.LikeChangedAction> pending = likeDao.queryForAll();
+        assertEquals(1, pending.size());
+        assertFalse(pending.get(0).getStatus());
+        assertEquals(1, new UserActionCache().getPendingLikeActions().size());
+    }
+
+    public void testTrackedFailureDoesNotFailSynchronization() throws Exception {
+        int failedId = addReports("outbox_user", 2).get(0);
+        List<ReportContentOperation> reports = outbox.getDueOperations(TYPE, reportDao);
+        ReportContentOperation failing = reports.get(0);
+        List<ISynchronizable> entities = outbox.track(TYPE, reportDao, reports, report ->
+            new ISynchronizable() {
+                @Override
+                public void synchronize() throws SynchronizationException {
+                    if (report == failing) {
+                        throw new SynchronizationException("test");
+                    }
+                }
+
+                @Override
+                public void onSynchronizationSuccess() {
+                }
+            });
+        DataSynchronizer synchronizer = new DataSynchronizer();
+        synchronizer.registerSyncProducer(() -> entities, "reports");
+
+        // the failure is retried on the operation's own schedule
+        assertTrue(synchronizer.synchronize());
+        List<ReportContentOperation> due = outbox.getDueOperations(TYPE, reportDao);
+        assertEquals(1, due.size());
+        assertFalse(reportDao.extractId(due.get(0)) == failedId);
+    }
+    private void addLikeAction(String topicHandle, boolean status) {
+        SQLiteDatabase database = getDatabaseHelper().getWritableDatabase();
+        database.execSQL("insert into " + DbSchemas.LikeStatus.TABLE_NAME + " ("
+            + DbSchemas.LikeStatus.CONTENT_HANDLE + ", " + DbSchemas.LikeStatus.CONTENT_TYPE + ", "
+            + DbSchemas.LikeStatus.STATUS + ") values (?, ?, ?)",
+            new Object[] {topicHandle, ContentType.TOPIC.name(), status ? 1 : 0});
+    }
+
+    /**
+     * Accepts likes without calling the server.
+     */
+    private static final class AcceptingContentService extends ContentServiceCachingWrapper {
+
+        AcceptingContentService(Context context) {
+            super(context);
+        }
+
+        @Override
+        public Response addLike(AddLikeRequest request) throws NetworkRequestException {
+            return Response.success(null);
+        }
+
+        @Override
+        public Response removeLike(RemoveLikeRequest request) throws NetworkRequestException {
+            return Response.success(null);
+        }
+    }
+}
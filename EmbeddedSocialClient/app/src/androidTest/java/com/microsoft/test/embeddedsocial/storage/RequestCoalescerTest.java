@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ *
+ */
+
+package com.microsoft.test.embeddedsocial.storage;
+
+import com.microsoft.embeddedsocial.autorest.models.FollowerStatus;
+import com.microsoft.embeddedsocial.autorest.models.PublisherType;
+import com.microsoft.embeddedsocial.data.storage.request.wrapper.RequestCoalescer;
+import com.microsoft.embeddedsocial.data.storage.request.wrapper.content.TopicFeedRequestWrapper;
+import com.microsoft.embeddedsocial.data.storage.request.wrapper.content.TopicRequestWrapper;
+import com.microsoft.embeddedsocial.server.NetworkScheduler;
+import com.microsoft.embeddedsocial.server.exception.NetworkRequestException;
+import com.microsoft.embeddedsocial.server.model.content.topics.GetTopicResponse;
+import com.microsoft.embeddedsocial.server.model.content.topics.TopicsListResponse;
+import com.microsoft.embeddedsocial.server.model.view.TopicView;
+import com.microsoft.embeddedsocial.server.model.view.UserCompactView;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests sharing of concurrent identical calls and the isolation of the responses handed to
+ * the callers.
+ */
+public class RequestCoalescerTest extends TestCase {
+
+    private static final String KEY = "topic|token|topic1";
+    private static final int FOLLOWERS = 3;
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private RequestCoalescer coalescer;
+    private ExecutorService executor;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        coalescer = new RequestCoalescer();
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        executor.shutdownNow();
+        super.tearDown();
+    }
+
+    public void testConcurrentCallsShareExecution() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Object result = new Object();
+        Future<Object> leader = submit(() -> coalescer.execute(KEY, () -> {
+            await(release);
+            return result;
+        }));
+        waitForExecutedCount(1);
+
+        List<Future<Object>> followers = new ArrayList<>();
+        for (int i = 0; i < FOLLOWERS; i++) {
+            followers.add(submit(() -> coalescer.execute(KEY, () -> {
+                throw new AssertionError("a coalesced call was executed");
+            })));
+        }
+        waitForCoalescedCount(FOLLOWERS);
+        release.countDown();
+
+        assertSame(result, get(leader));
+        for (Future<Object> follower : followers) {
+            assertSame(result, get(follower));
+        }
+        assertEquals(1, coalescer.getExecutedCount());
+    }
+
+    public void testFailureIsShared() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        NetworkRequestException error = new NetworkRequestException("server error");
+        Future<Object> leader = submit(() -> coalescer.execute(KEY, () -> {
+            await(release);
+            throw error;
+        }));
+        waitForExecutedCount(1);
+        Future<Object> follower = submit(() -> coalescer.execute(KEY, () -> {
+            throw new AssertionError("a coalesced call was executed");
+        }));
+        waitForCoalescedCount(1);
+        release.countDown();
+
+        assertSame(error, getFailure(leader));
+        assertSame(error, getFailure(follower));
+    }
+
+    public void testCanceledCallerDoesNotFailOthers() throws Exception {
+        NetworkScheduler.Scope scope = new NetworkScheduler.Scope();
+        CountDownLatch canceled = new CountDownLatch(1);
+        Future<Object> leader = submit(() -> NetworkScheduler.call(NetworkScheduler.Priority.VISIBLE_PAGE,
+            scope, () -> coalescer.execute(KEY, () -> {
+                await(canceled);
+                throw new NetworkRequestException("Canceled");
+            })));
+        waitForExecutedCount(1);
+        Future<Object> follower = submit(() -> coalescer.execute(KEY, () -> "follower's result"));
+        waitForCoalescedCount(1);
+
+        scope.cancel();
+        canceled.countDown();
+
+        assertNotNull(getFailure(leader));
+        assertEquals("follower's result", get(follower));
+        assertEquals(2, coalescer.getExecutedCount());
+        assertEquals(1, coalescer.getCoalescedCount());
+    }
+
+    public void testCompletedCallsAreNotReused() throws Exception {
+        assertEquals("first", coalescer.execute(KEY, () -> "first"));
+        assertEquals("second", coalescer.execute(KEY, () -> "second"));
+        assertEquals(2, coalescer.getExecutedCount());
+        assertEquals(0, coalescer.getCoalescedCount());
+    }
+
+    public void testTopicResponseCopiesAreIndependent() {
+        GetTopicResponse response = new GetTopicResponse(createTopic("topic1"));
+        GetTopicResponse copy = new TopicCopier().copy(response);
+
+        assertNotSame(response.getTopic(), copy.getTopic());
+        assertEquals("topic1", copy.getTopic().getHandle());
+        copy.getTopic().setLikeStatus(true);
+        assertFalse(response.getTopic().isLikeStatus());
+    }
+
+    public void testTopicFeedCopiesAreIndependent() {
+        TopicsListResponse response = new TopicsListResponse(
+            new ArrayList<>(Arrays.asList(createTopic("topic1"), createTopic("topic2"))));
+        response.setContinuationKey("cursor");
+        TopicsListResponse copy = new TopicFeedCopier().copy(response);
+
+        assertEquals("cursor", copy.getContinuationKey());
+        assertEquals(2, copy.getData().size());
+        for (int i = 0; i < 2; i++) {
+            assertNotSame(response.getData().get(i), copy.getData().get(i));
+            assertEquals(response.getData().get(i).getHandle(), copy.getData().get(i).getHandle());
+        }
+        copy.getData().get(0).setLikeStatus(true);
+        copy.getData().add(0, createTopic("pending"));
+        assertFalse(response.getData().get(0).isLikeStatus());
+        assertEquals(2, response.getData().size());
+    }
+
+    private <T> Future<T> submit(Callable<T> task) {
+        return executor.submit(task);
+    }
+
+    private void waitForExecutedCount(long count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (coalescer.getExecutedCount() < count) {
+            assertTrue("timed out", System.nanoTime() < deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private void waitForCoalescedCount(long count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (coalescer.getCoalescedCount() < count) {
+            assertTrue("timed out", System.nanoTime() < deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private static <T> T get(Future<T> future) throws Exception {
+        return future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private static Throwable getFailure(Future<?> future) throws Exception {
+        try {
+            future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+        fail("the call succeeded");
+        return null;
+    }
+
+    private static void await(CountDownLatch latch) throws NetworkRequestException {
+        try {
+            if (!latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new NetworkRequestException("timed out");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new NetworkRequestException(e);
+        }
+    }
+
+    private static TopicView createTopic(String handle) {
+        UserCompactView user = new UserCompactView();
+        user.setUserHandle("author");
+        user.setFirstName("First");
+        user.setLastName("Last");
+        user.setFollowerStatus(FollowerStatus.NONE);
+        return new TopicView.Builder()
+            .setTopicHandle(handle)
+            .setPublisherType(PublisherType.USER.ordinal())
+            .setUser(user)
+            .setTopicTitle("title of " + handle)
+            .build();
+    }
+
+    /**
+     * Exposes the response copying of the topic wrapper.
+     */
+    private static final class TopicCopier extends TopicRequestWrapper {
+
+        TopicCopier() {
+            super(null, null);
+        }
+
+        GetTopicResponse copy(GetTopicResponse response) {
+            return getCoalescing().copy(response);
+        }
+    }
+
+    /**
+     * Exposes the response copying of the topic feed wrapper.
+     */
+    private static final class TopicFeedCopier extends TopicFeedRequestWrapper {
+
+        TopicFeedCopier() {
+            super(null, null, null);
+        }
+
+        TopicsListResponse copy(TopicsListResponse response) {
+            return getCoalescing().copy(response);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ *
+ */
+
+package com.microsoft.test.embeddedsocial.storage;
+
+import com.j256.ormlite.dao.Dao;
+import com.microsoft.embeddedsocial.autorest.models.PublisherType;
+import com.microsoft.embeddedsocial.data.storage.DbSchemas;
+import com.microsoft.embeddedsocial.data.storage.TopicFeedReader;
+import com.microsoft.embeddedsocial.data.storage.model.TopicFeedRelation;
+import com.microsoft.embeddedsocial.data.storage.transaction.DbTransaction;
+import com.microsoft.embeddedsocial.server.model.view.TopicView;
+import com.microsoft.embeddedsocial.server.model.view.UserCompactView;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the single-query topic feed materialization against per-topic lookups.
+ */
+public class TopicFeedReadBenchmark extends BaseStorageTest {
+
+    private static final int FEED_TYPE = -2001;
+    private static final int USER_COUNT = 50;
+
+    public void testRead100() throws Exception {
+        runBenchmark(100);
+    }
+
+    public void testRead1000() throws Exception {
+        runBenchmark(1000);
+    }
+
+    public void testRead10000() throws Exception {
+        runBenchmark(10000);
+    }
+
+    private void runBenchmark(int topicCount) throws Exception {
+        populate(topicCount);
+        TopicFeedReader reader = new TopicFeedReader(getDatabaseHelper());
+        List<List<TopicView>> results = new ArrayList<>();
+
+        long legacyTime = measure(() -> results.add(readLegacy()));
+        long joinTime = measure(() -> results.add(reader.readFeed(FEED_TYPE, null, false)));
+
+        report("topic feed " + topicCount + " rows, per-topic lookups", legacyTime);
+        report("topic feed " + topicCount + " rows, single join", joinTime);
+
+        List<TopicView> legacy = results.get(0);
+        List<TopicView> joined = results.get(1);
+        assertEquals(topicCount, joined.size());
+        for (int i = 0; i < topicCount; i++) {
+            assertEquals(legacy.get(i).getHandle(), joined.get(i).getHandle());
+            assertEquals(legacy.get(i).getUser().getHandle(), joined.get(i).getUser().getHandle());
+            assertEquals(legacy.get(i).getUser().getFullName(), joined.get(i).getUser().getFullName());
+        }
+
+        List<TopicView> sorted = reader.readFeed(FEED_TYPE, null, true);
+        for (int i = 1; i < sorted.size(); i++) {
+            assertTrue(sorted.get(i - 1).getElapsedSeconds() <= sorted.get(i).getElapsedSeconds());
+        }
+    }
+
+    private List<TopicView> readLegacy() throws Exception {
+        Dao<TopicFeedRelation, Integer> feedDao = getDatabaseHelper().getDao(TopicFeedRelation.class);
+        Dao<TopicView, String> topicDao = getDatabaseHelper().getTopicDao();
+        List<TopicFeedRelation> relations = feedDao.queryBuilder()
+            .where()
+            .eq(DbSchemas.TopicFeedRelation.FEED_TYPE, FEED_TYPE)
+            .and().eq(DbSchemas.TopicFeedRelation.QUERY, TopicFeedRelation.DEFAULT_QUERY)
+            .query();
+        List<TopicView> result = new ArrayList<>();
+        for (TopicFeedRelation relation : relations) {
+            TopicView topicView = topicDao.queryForId(relation.getTopicHandle());
+            topicDao.refresh(topicView);
+            result.add(topicView);
+        }
+        return result;
+    }
+
+    private void populate(int topicCount) throws Exception {
+        Dao<TopicFeedRelation, Integer> feedDao = getDatabaseHelper().getDao(TopicFeedRelation.class);
+        Dao<TopicView, String> topicDao = getDatabaseHelper().getTopicDao();
+        Dao<UserCompactView, String> userDao = getDatabaseHelper().getUserDao();
+        long now = System.currentTimeMillis();
+
+        DbTransaction.performTransaction(topicDao, () -> {
+            List<UserCompactView> users = new ArrayList<>();
+            for (int i = 0; i < USER_COUNT; i++) {
+                UserCompactView user = new UserCompactView();
+                user.setUserHandle("user" + i);
+                user.setFirstName("First" + i);
+                user.setLastName("Last" + i);
+                userDao.createOrUpdate(user);
+                users.add(user);
+            }
+            for (int i = 0; i < topicCount; i++) {
+                String handle = "topic" + i;
+                TopicView topic = new TopicView.Builder()
+                    .setTopicHandle(handle)
+                    .setPublisherType(PublisherType.USER.ordinal())
+                    .setUser(users.get(i % USER_COUNT))
+                    .setTopicTitle("title " + i)
+                    .setTopicText("text " + i)
+                    .setCreatedTime(now - (i * 7919L % topicCount) * 1000)
+                    .build();
+                topicDao.create(topic);
+                feedDao.create(new TopicFeedRelation(null, FEED_TYPE, handle));
+            }
+        });
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ *
+ */
+
+package com.microsoft.test.embeddedsocial.storage;
+
+import com.j256.ormlite.dao.Dao;
+import com.microsoft.embeddedsocial.autorest.models.ContentType;
+import com.microsoft.embeddedsocial.base.GlobalObjectRegistry;
+import com.microsoft.embeddedsocial.data.storage.ContentServiceCachingWrapper;
+import com.microsoft.embeddedsocial.data.storage.DbSchemas;
+import com.microsoft.embeddedsocial.data.storage.UserActionCache;
+import com.microsoft.embeddedsocial.data.storage.model.ReportContentOperation;
+import com.microsoft.embeddedsocial.data.storage.transaction.DbTransaction;
+import com.microsoft.embeddedsocial.server.CircuitBreaker.OperationGroup;
+import com.microsoft.embeddedsocial.server.EmbeddedSocialServiceProvider;
+import com.microsoft.embeddedsocial.server.IReportService;
+import com.microsoft.embeddedsocial.server.NetworkScheduler;
+import com.microsoft.embeddedsocial.server.exception.NetworkRequestException;
+import com.microsoft.embeddedsocial.server.model.content.topics.HideTopicRequest;
+import com.microsoft.embeddedsocial.server.model.like.AddLikeRequest;
+import com.microsoft.embeddedsocial.server.model.like.RemoveLikeRequest;
+import com.microsoft.embeddedsocial.server.model.pin.AddPinRequest;
+import com.microsoft.embeddedsocial.server.model.pin.RemovePinRequest;
+import com.microsoft.embeddedsocial.server.model.report.ReportContentRequest;
+import com.microsoft.embeddedsocial.server.model.report.ReportUserRequest;
+import com.microsoft.embeddedsocial.server.sync.ISynchronizable;
+import com.microsoft.embeddedsocial.server.sync.PipelinedUploader;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+
+import java.io.IOException;
+import java.util.List;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import retrofit2.Response;
+
+/**
+ * Compares the throughput of one-by-one uploads against pipelined uploads of pending likes, pins,
+ * reports and hidden topics. The operations go through the real sync adapters (tracked by the
+ * outbox, deleted right after their upload); only their requests are answered by a local server after a delay.
+ */
+public class UploadPipelineBenchmark extends BaseStorageTest {
+
+    private static final int OPERATIONS_PER_TYPE = 24;
+    private static final int LATENCY_MS = 50;
+    private static final MediaType JSON = MediaType.parse("application/json");
+
+    private Dao<UserActionCache.LikeChangedAction, Integer> likeDao;
+    private Dao<UserActionCache.PinChangedAction, Integer> pinDao;
+    private Dao<UserActionCache.HideTopicAction, Integer> hideTopicDao;
+    private Dao<ReportContentOperation, Integer> reportDao;
+    private EmbeddedSocialServiceProvider serviceProvider;
+    private OkHttpClient httpClient;
+    private LocalHttpServer server;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        likeDao = getDatabaseHelper().getDao(UserActionCache.LikeChangedAction.class);
+        pinDao = getDatabaseHelper().getDao(UserActionCache.PinChangedAction.class);
+        hideTopicDao = getDatabaseHelper().getDao(UserActionCache.HideTopicAction.class);
+        reportDao = getDatabaseHelper().getDao(ReportContentOperation.class);
+        OkHttpClient.Builder builder = new OkHttpClient.Builder();
+        GlobalObjectRegistry.getObject(NetworkScheduler.class).configure(builder);
+        httpClient = builder.build();
+        server = new LocalHttpServer(LATENCY_MS, LocalHttpServer.NO_CONTENT);
+        serviceProvider = GlobalObjectRegistry.getObject(EmbeddedSocialServiceProvider.class);
+        GlobalObjectRegistry.addObject(EmbeddedSocialServiceProvider.class, new EmbeddedSocialServiceProvider(
+            getContext(), new LocalContentService(getContext()), new LocalReportService()));
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        GlobalObjectRegistry.addObject(EmbeddedSocialServiceProvider.class, serviceProvider);
+        server.close();
+        super.tearDown();
+    }
+
+    public void testUploadThroughput() throws Exception {
+        long sequentialTime = upload(1);
+        long pipelinedTime = upload(PipelinedUploader.MAX_DEPTH);
+
+        String caption = "upload 4 x " + OPERATIONS_PER_TYPE + " operations, " + LATENCY_MS + " ms latency, ";
+        report(caption + "one by one", sequentialTime);
+        report(caption + "pipelined", pipelinedTime);
+    }
+
+    /**
+     * Stores pending operations and uploads them the way the sync producers do.
+     * @param depth max number of requests in flight
+     * @return  the upload time in microseconds
+     */
+    private long upload(int depth) throws Exception {
+        addOperations();
+        UserActionCache actionCache = new UserActionCache();
+        List<ISynchronizable> likes = actionCache.getPendingLikeActions();
+        List<ISynchronizable> pins = actionCache.getPendingPinActions();
+        List<ISynchronizable> reports = actionCache.getPendingReportContentActions();
+        List<ISynchronizable> hiddenTopics = actionCache.getPendingHideTopicActions();
+        assertEquals(OPERATIONS_PER_TYPE, likes.size());
+        assertEquals(OPERATIONS_PER_TYPE, pins.size());
+        assertEquals(OPERATIONS_PER_TYPE, reports.size());
+        assertEquals(OPERATIONS_PER_TYPE, hiddenTopics.size());
+
+        long time = measure(() -> {
+            new PipelinedUploader("likes", OperationGroup.LIKES, depth).upload(likes);
+            new PipelinedUploader("pins", OperationGroup.PINS, depth).upload(pins);
+            new PipelinedUploader("reports", OperationGroup.REPORTS, depth).upload(reports);
+            new PipelinedUploader("hidden topics", OperationGroup.HIDDEN_TOPICS, depth).upload(hiddenTopics);
+        });
+
+        assertEquals(0, likeDao.countOf());
+        assertEquals(0, pinDao.countOf());
+        assertEquals(0, reportDao.countOf());
+        assertEquals(0, hideTopicDao.countOf());
+        return time;
+    }
+
+    private void addOperations() throws Exception {
+        addReports("benchmark_user", OPERATIONS_PER_TYPE);
+        SQLiteDatabase database = getDatabaseHelper().getWritableDatabase();
+        DbTransaction.performTransaction(likeDao, () -> {
+            for (int i = 0; i < OPERATIONS_PER_TYPE; i++) {
+                String topicHandle = "benchmark_topic" + i;
+                database.execSQL("insert into " + DbSchemas.LikeStatus.TABLE_NAME + " ("
+                    + DbSchemas.LikeStatus.CONTENT_HANDLE + ", " + DbSchemas.LikeStatus.CONTENT_TYPE + ", "
+                    + DbSchemas.LikeStatus.STATUS + ") values (?, ?, 1)",
+                    new Object[] {topicHandle, ContentType.TOPIC.name()});
+                database.execSQL("insert into " + DbSchemas.PinStatus.TABLE_NAME + " ("
+                    + DbSchemas.PinStatus.TOPIC_HANDLE + ", " + DbSchemas.PinStatus.PIN_STATUS + ") values (?, 1)",
+                    new Object[] {topicHandle});
+                database.execSQL("insert into " + DbSchemas.HideTopicAction.TABLE_NAME + " ("
+                    + DbSchemas.Topics.TOPIC_HANDLE + ") values (?)", new Object[] {topicHandle});
+            }
+        });
+    }
+
+    private Response post(String path) throws NetworkRequestException {
+        Request request = new Request.Builder()
+            .url(server.getUrl() + path)
+            .post(RequestBody.create(JSON, "{}"))
+            .build();
+        try (okhttp3.Response response = httpClient.newCall(request).execute()) {
+            if (!response.isSuccessful()) {
+                throw new NetworkRequestException("HTTP " + response.code());
+            }
+        } catch (IOException e) {
+            throw new NetworkRequestException(e.getMessage());
+        }
+        return Response.success(null);
+    }
+
+    /**
+     * Sends likes, pins and hidden topics to the local server.
+     */
+    private final class LocalContentService extends ContentServiceCachingWrapper {
+
+        LocalContentService(Context context) {
+            super(context);
+        }
+
+        @Override
+        public Response addLike(AddLikeRequest request) throws NetworkRequestException {
+            return post("likes");
+        }
+
+        @Override
+        public Response removeLike(RemoveLikeRequest request) throws NetworkRequestException {
+            return post("likes");
+        }
+
+        @Override
+        public Response addPin(AddPinRequest request) throws NetworkRequestException {
+            return post("pins");
+        }
+
+        @Override
+        public Response removePin(RemovePinRequest request) throws NetworkRequestException {
+            return post("pins");
+        }
+
+        @Override
+        public Response hideTopic(HideTopicRequest request) throws NetworkRequestException {
+            return post("hidden_topics");
+        }
+    }
+
+    /**
+     * Sends reports to the local server.
+     */
+    private final class LocalReportService implements IReportService {
+
+        @Override
+        public Response reportContent(ReportContentRequest request) throws NetworkRequestException {
+            return post("reports");
+        }
+
+        @Override
+        public Response reportUser(ReportUserRequest request) throws NetworkRequestException {
+            return post("reports");
+        }
+    }
+}
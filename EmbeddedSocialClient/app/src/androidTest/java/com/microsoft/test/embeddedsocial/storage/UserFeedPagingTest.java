@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ *
+ */
+
+package com.microsoft.test.embeddedsocial.storage;
+
+import com.microsoft.embeddedsocial.data.storage.CacheCursor;
+import com.microsoft.embeddedsocial.data.storage.UserCache;
+import com.microsoft.embeddedsocial.server.model.FeedUserRequest;
+import com.microsoft.embeddedsocial.server.model.UsersListResponse;
+import com.microsoft.embeddedsocial.server.model.view.UserCompactView;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks that cached user feeds are read in pages which keep the order of the feed.
+ */
+public class UserFeedPagingTest extends BaseStorageTest {
+
+    private static final int USER_COUNT = 5;
+    private static final int PAGE_SIZE = 2;
+
+    private UserCache userCache;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        userCache = new UserCache();
+        List<UserCompactView> users = new ArrayList<>();
+        // the handles aren't sorted, so the order of the pages can't come from the user table
+        for (int i = 0; i < USER_COUNT; i++) {
+            UserCompactView user = new UserCompactView();
+            user.setUserHandle("user" + (USER_COUNT - i));
+            users.add(user);
+        }
+        userCache.storeUserFeed(new FeedUserRequest(), UserCache.UserFeedType.FOLLOWER, new UsersListResponse(users));
+    }
+
+    public void testPagesKeepFeedOrder() throws Exception {
+        List<String> handles = new ArrayList<>();
+        List<String> cursors = new ArrayList<>();
+        String cursor = null;
+        do {
+            UsersListResponse page = userCache.getResponse(UserCache.UserFeedType.FOLLOWER, null, cursor, PAGE_SIZE);
+            assertTrue(page.getData().size() <= PAGE_SIZE);
+            for (UserCompactView user : page.getData()) {
+                handles.add(user.getHandle());
+            }
+            cursor = page.getContinuationKey();
+            cursors.add(cursor);
+        } while (cursor != null);
+
+        List<String> expectedHandles = new ArrayList<>();
+        for (int i = 0; i < USER_COUNT; i++) {
+            expectedHandles.add("user" + (USER_COUNT - i));
+        }
+        assertEquals(expectedHandles, handles);
+        assertEquals(CacheCursor.fromOffset(2), cursors.get(0));
+        assertEquals(CacheCursor.fromOffset(4), cursors.get(1));
+        assertNull(cursors.get(2));
+    }
+
+    public void testServerCursorReadsFirstPage() throws Exception {
+        UsersListResponse page = userCache.getResponse(UserCache.UserFeedType.FOLLOWER, null, "12", PAGE_SIZE);
+        assertEquals("user5", page.getData().get(0).getHandle());
+        assertEquals(CacheCursor.fromOffset(PAGE_SIZE), page.getContinuationKey());
+    }
+
+    public void testOtherFeedIsEmpty() throws Exception {
+        UsersListResponse page = userCache.getResponse(UserCache.UserFeedType.FOLLOWING, null, null, PAGE_SIZE);
+        assertTrue(page.getData().isEmpty());
+        assertNull(page.getContinuationKey());
+    }
+}
@@ -0,0 +1,330 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ *
+ */
+
+package com.microsoft.test.embeddedsocial.test;
+
+import com.microsoft.embeddedsocial.base.utils.Clock;
+import com.microsoft.embeddedsocial.server.CircuitBreaker;
+import com.microsoft.embeddedsocial.server.CircuitBreaker.OpenCircuitException;
+import com.microsoft.embeddedsocial.server.CircuitBreaker.OperationGroup;
+import com.microsoft.embeddedsocial.server.NetworkScheduler;
+import com.microsoft.embeddedsocial.server.NetworkScheduler.Priority;
+import com.microsoft.embeddedsocial.server.NetworkScheduler.RequestCanceledException;
+
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Tests the circuit states (closed, open, half-open), the backoff and the grouping of operations.
+ * The server is replaced by an interceptor, the time by a manual clock.
+ */
+public class CircuitBreakerTest extends TestCase {
+
+    private static final String TOPIC_URL = "http://localhost/v0.7/topics/topic1";
+    private static final long MIN_DELAY = CircuitBreaker.MIN_BACKOFF_MS / 2;
+
+    private final ManualClock clock = new ManualClock();
+    private final FixedRandom random = new FixedRandom();
+    private CircuitBreaker circuitBreaker;
+    private OkHttpClient httpClient;
+
+    private int responseCode;
+    private String retryAfter;
+    private RuntimeException error;
+    private Runnable duringRequest;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        circuitBreaker = new CircuitBreaker(clock, random);
+        OkHttpClient.Builder builder = new OkHttpClient.Builder();
+        circuitBreaker.configure(builder);
+        // the same order as in the REST client
+        new NetworkScheduler(NetworkScheduler.DEFAULT_MAX_REQUESTS_PER_HOST).configure(builder);
+        httpClient = builder.addInterceptor(this::respond).build();
+        responseCode = 200;
+    }
+
+    public void testOpensAfterConsecutiveFailures() throws Exception {
+        responseCode = 503;
+        for (int i = 1; i < CircuitBreaker.FAILURE_THRESHOLD; i++) {
+            assertEquals(503, call(TOPIC_URL));
+            assertFalse(circuitBreaker.isOpen(OperationGroup.TOPICS));
+        }
+        assertEquals(503, call(TOPIC_URL));
+        assertTrue(circuitBreaker.isOpen(OperationGroup.TOPICS));
+        assertEquals(MIN_DELAY, circuitBreaker.getRetryDelay(OperationGroup.TOPICS));
+        assertRejected(TOPIC_URL);
+
+        clock.advance(MIN_DELAY - 1);
+        assertRejected(TOPIC_URL);
+    }
+
+    public void testSuccessResetsFailureCount() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            responseCode = 503;
+            for (int j = 1; j < CircuitBreaker.FAILURE_THRESHOLD; j++) {
+                call(TOPIC_URL);
+            }
+            responseCode = 404;
+            call(TOPIC_URL);
+        }
+        assertFalse(circuitBreaker.isOpen(OperationGroup.TOPICS));
+    }
+
+    public void testHalfOpenLetsSingleTrialThrough() throws Exception {
+        openCircuit();
+        clock.advance(MIN_DELAY);
+        assertFalse(circuitBreaker.isOpen(OperationGroup.TOPICS));
+
+        responseCode = 200;
+        duringRequest = () -> assertRejected(TOPIC_URL);
+        assertEquals(200, call(TOPIC_URL));
+        duringRequest = null;
+
+        // the trial succeeded: the circuit is closed again
+        assertEquals(200, call(TOPIC_URL));
+        assertEquals(200, call(TOPIC_URL));
+    }
+
+    public void testFailedTrialDoublesBackoff() throws Exception {
+        openCircuit();
+        clock.advance(MIN_DELAY);
+
+        responseCode = 503;
+        assertEquals(503, call(TOPIC_URL));
+        assertEquals(2 * MIN_DELAY, circuitBreaker.getRetryDelay(OperationGroup.TOPICS));
+
+        clock.advance(2 * MIN_DELAY);
+        assertEquals(503, call(TOPIC_URL));
+        assertEquals(4 * MIN_DELAY, circuitBreaker.getRetryDelay(OperationGroup.TOPICS));
+    }
+
+    public void testBackoffIsCapped() throws Exception {
+        random.value = 0.999;
+        openCircuit();
+        responseCode = 503;
+        for (int i = 0; i < 30; i++) {
+            clock.advance(circuitBreaker.getRetryDelay(OperationGroup.TOPICS));
+            call(TOPIC_URL);
+            assertTrue(circuitBreaker.getRetryDelay(OperationGroup.TOPICS) <= CircuitBreaker.MAX_BACKOFF_MS);
+        }
+        assertTrue(circuitBreaker.getRetryDelay(OperationGroup.TOPICS) >= CircuitBreaker.MAX_BACKOFF_MS / 2);
+    }
+
+    public void testJitter() throws Exception {
+        random.value = 0;
+        openCircuit();
+        long shortest = circuitBreaker.getRetryDelay(OperationGroup.TOPICS);
+
+        clock.advance(shortest);
+        responseCode = 200;
+        call(TOPIC_URL);
+        random.value = 0.999;
+        openCircuit();
+        long longest = circuitBreaker.getRetryDelay(OperationGroup.TOPICS);
+
+        assertEquals(CircuitBreaker.MIN_BACKOFF_MS / 2, shortest);
+        assertTrue(longest > shortest);
+        assertTrue(longest < CircuitBreaker.MIN_BACKOFF_MS);
+    }
+
+    public void testRetryAfterSecondsOpensImmediately() throws Exception {
+        responseCode = 429;
+        retryAfter = "30";
+        call(TOPIC_URL);
+        assertEquals(TimeUnit.SECONDS.toMillis(30), circuitBreaker.getRetryDelay(OperationGroup.TOPICS));
+    }
+
+    public void testRetryAfterDate() throws Exception {
+        SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+        responseCode = 503;
+        retryAfter = format.format(new Date(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1)));
+        call(TOPIC_URL);
+        long delay = circuitBreaker.getRetryDelay(OperationGroup.TOPICS);
+        assertTrue(delay > TimeUnit.SECONDS.toMillis(55));
+        assertTrue(delay <= TimeUnit.MINUTES.toMillis(1));
+    }
+
+    public void testRetryAfterIsCapped() throws Exception {
+        responseCode = 503;
+        retryAfter = String.valueOf(TimeUnit.HOURS.toSeconds(1));
+        call(TOPIC_URL);
+        assertEquals(CircuitBreaker.MAX_BACKOFF_MS, circuitBreaker.getRetryDelay(OperationGroup.TOPICS));
+    }
+
+    public void testInvalidRetryAfterIsIgnored() throws Exception {
+        responseCode = 503;
+        retryAfter = "soon";
+        call(TOPIC_URL);
+        assertFalse(circuitBreaker.isOpen(OperationGroup.TOPICS));
+    }
+
+    public void testRuntimeExceptionReleasesTrial() throws Exception {
+        openCircuit();
+        clock.advance(MIN_DELAY);
+
+        error = new IllegalStateException("broken interceptor");
+        try {
+            call(TOPIC_URL);
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        error = null;
+
+        // the next request is a new trial rather than rejected forever
+        responseCode = 200;
+        assertEquals(200, call(TOPIC_URL));
+        assertFalse(circuitBreaker.isOpen(OperationGroup.TOPICS));
+    }
+
+    public void testCanceledScopeKeepsCircuitClosed() throws Exception {
+        NetworkScheduler.Scope scope = new NetworkScheduler.Scope();
+        scope.cancel();
+        responseCode = 200;
+        for (int i = 0; i < 2 * CircuitBreaker.FAILURE_THRESHOLD; i++) {
+            assertCanceled(scope);
+        }
+        assertFalse(circuitBreaker.isOpen(OperationGroup.TOPICS));
+        assertEquals(200, call(TOPIC_URL));
+    }
+
+    public void testCanceledScopeReleasesTrial() throws Exception {
+        openCircuit();
+        clock.advance(MIN_DELAY);
+        NetworkScheduler.Scope scope = new NetworkScheduler.Scope();
+        scope.cancel();
+
+        assertCanceled(scope);
+        assertFalse(circuitBreaker.isOpen(OperationGroup.TOPICS));
+
+        // the next request is the trial
+        responseCode = 200;
+        assertEquals(200, call(TOPIC_URL));
+        assertEquals(200, call(TOPIC_URL));
+    }
+
+    public void testGroupsAreIsolated() throws Exception {
+        responseCode = 503;
+        for (int i = 0; i < CircuitBreaker.FAILURE_THRESHOLD; i++) {
+            call("http://localhost/v0.7/topics/topic1/reports");
+            call("http://localhost/v0.7/users/me/pins/topic1");
+            call("http://localhost/v0.7/users/me/following/combined/topic1");
+        }
+        assertTrue(circuitBreaker.isOpen(OperationGroup.REPORTS));
+        assertTrue(circuitBreaker.isOpen(OperationGroup.PINS));
+        assertTrue(circuitBreaker.isOpen(OperationGroup.HIDDEN_TOPICS));
+        assertFalse(circuitBreaker.isOpen(OperationGroup.TOPICS));
+        assertFalse(circuitBreaker.isOpen(OperationGroup.RELATIONSHIPS));
+
+        responseCode = 200;
+        assertEquals(200, call(TOPIC_URL));
+        assertEquals(200, call("http://localhost/v0.7/users/me/following/combined"));
+    }
+
+    public void testOtherOperationsAreNeverRejected() throws Exception {
+        responseCode = 503;
+        for (int i = 0; i < 2 * CircuitBreaker.FAILURE_THRESHOLD; i++) {
+            assertEquals(503, call("http://localhost/v0.7/sessions"));
+        }
+        assertFalse(circuitBreaker.isOpen(OperationGroup.OTHER));
+    }
+
+    private void openCircuit() throws IOException {
+        responseCode = 503;
+        for (int i = 0; i < CircuitBreaker.FAILURE_THRESHOLD; i++) {
+            call(TOPIC_URL);
+        }
+        assertTrue(circuitBreaker.isOpen(OperationGroup.TOPICS));
+    }
+
+    private int call(String url) throws IOException {
+        try (Response response = httpClient.newCall(new Request.Builder().url(url).build()).execute()) {
+            return response.code();
+        }
+    }
+
+    private void assertCanceled(NetworkScheduler.Scope scope) {
+        try {
+            NetworkScheduler.call(Priority.VISIBLE_PAGE, scope, () -> call(TOPIC_URL));
+            fail("the request went through");
+        } catch (RequestCanceledException e) {
+            // expected
+        } catch (IOException e) {
+            fail(e.toString());
+        }
+    }
+
+    private void assertRejected(String url) {
+        try {
+            call(url);
+            fail("the request went through");
+        } catch (OpenCircuitException e) {
+            assertTrue(e.getRetryDelay() >= 0);
+        } catch (IOException e) {
+            fail(e.toString());
+        }
+    }
+
+    private Response respond(Interceptor.Chain chain) {
+        if (error != null) {
+            throw error;
+        }
+        if (duringRequest != null) {
+            duringRequest.run();
+        }
+        Response.Builder builder = new Response.Builder()
+            .request(chain.request())
+            .protocol(Protocol.HTTP_1_1)
+            .code(responseCode)
+            .message("test")
+            .body(ResponseBody.create(null, ""));
+        if (retryAfter != null) {
+            builder.header("Retry-After", retryAfter);
+        }
+        return builder.build();
+    }
+
+    private static final class ManualClock implements Clock {
+
+        private long now = 1000;
+
+        @Override
+        public synchronized long now() {
+            return now;
+        }
+
+        synchronized void advance(long millis) {
+            now += millis;
+        }
+    }
+
+    private static final class FixedRandom extends Random {
+
+        volatile double value;
+
+        @Override
+        public double nextDouble() {
+            return value;
+        }
+    }
+}
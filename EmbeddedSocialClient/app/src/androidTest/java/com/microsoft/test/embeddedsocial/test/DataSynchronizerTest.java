@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ *
+ */
+
+package com.microsoft.test.embeddedsocial.test;
+
+import com.microsoft.embeddedsocial.server.CircuitBreaker.OperationGroup;
+import com.microsoft.embeddedsocial.server.sync.DataSynchronizer;
+import com.microsoft.embeddedsocial.server.sync.ISynchronizable;
+import com.microsoft.embeddedsocial.server.sync.exception.SynchronizationException;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests the order of dependent producers, the concurrency of a producer's uploads, the isolation
+ * of failures and the cancellation of a synchronization.
+ */
+public class DataSynchronizerTest extends TestCase {
+
+    private static final long TIMEOUT_SECONDS = 10;
+    private static final int ENTITY_COUNT = 6;
+
+    private final List<String> events = Collections.synchronizedList(new ArrayList<>());
+    private DataSynchronizer synchronizer;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        synchronizer = new DataSynchronizer();
+    }
+
+    public void testDependentProducerStartsAfterDependency() {
+        synchronizer.registerSyncProducer(() -> Collections.singletonList(new Entity("edit", () -> { })),
+            "edits");
+        synchronizer.registerSyncProducer(() -> Collections.singletonList(new Entity("post", () -> {
+            Thread.sleep(50);
+        })), "posts");
+        synchronizer.addDependency("edits", "posts");
+
+        assertTrue(synchronizer.synchronize());
+        assertEquals(Arrays.asList("post", "edit"), events);
+    }
+
+    public void testCircularDependenciesFail() {
+        synchronizer.registerSyncProducer(() -> Collections.singletonList(new Entity("first", () -> { })),
+            "first");
+        synchronizer.registerSyncProducer(() -> Collections.singletonList(new Entity("second", () -> { })),
+            "second");
+        synchronizer.registerSyncProducer(() -> Collections.singletonList(new Entity("independent", () -> { })),
+            "independent");
+        synchronizer.addDependency("first", "second");
+        synchronizer.addDependency("second", "first");
+
+        assertFalse(synchronizer.synchronize());
+        assertEquals(Collections.singletonList("independent"), events);
+    }
+
+    public void testUnknownDependencyIsRejected() {
+        synchronizer.registerSyncProducer(Collections::emptyList, "edits");
+        try {
+            synchronizer.addDependency("edits", "posts");
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    public void testConcurrentProducer() {
+        int maxConcurrency = 3;
+        CountDownLatch allStarted = new CountDownLatch(maxConcurrency);
+        ConcurrencyProbe probe = new ConcurrencyProbe();
+        List<ISynchronizable> entities = new ArrayList<>();
+        for (int i = 0; i < ENTITY_COUNT; i++) {
+            entities.add(new Entity("entity" + i, () -> probe.run(() -> {
+                // the first uploads only finish if they run at the same time
+                allStarted.countDown();
+                assertTrue("uploads aren't concurrent", allStarted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            })));
+        }
+        synchronizer.registerSyncProducer(() -> entities, "concurrent", OperationGroup.OTHER, maxConcurrency);
+
+        assertTrue(synchronizer.synchronize());
+        assertEquals(ENTITY_COUNT, events.size());
+        assertEquals(maxConcurrency, probe.maxRunning.get());
+    }
+
+    public void testOrderedProducer() {
+        ConcurrencyProbe probe = new ConcurrencyProbe();
+        List<ISynchronizable> entities = new ArrayList<>();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < ENTITY_COUNT; i++) {
+            entities.add(new Entity("entity" + i, () -> probe.run(() -> Thread.sleep(5))));
+            expected.add("entity" + i);
+        }
+        synchronizer.registerSyncProducer(() -> entities, "ordered");
+
+        assertTrue(synchronizer.synchronize());
+        assertEquals(expected, events);
+        assertEquals(1, probe.maxRunning.get());
+    }
+
+    public void testFailureIsIsolated() {
+        synchronizer.registerSyncProducer(() -> Arrays.asList(
+            new Entity("failing", () -> {
+                throw new SynchronizationException("test failure");
+            }),
+            new Entity("after failure", () -> { })), "failing");
+        synchronizer.registerSyncProducer(() -> Arrays.asList(
+            new Entity("other", () -> { }),
+            new Entity("other pipelined", () -> { })), "other", OperationGroup.OTHER, 2);
+        synchronizer.registerSyncProducer(() -> {
+            throw new IllegalStateException("broken producer");
+        }, "broken");
+
+        assertFalse(synchronizer.synchronize());
+        assertTrue(events.contains("after failure"));
+        assertTrue(events.contains("other"));
+        assertTrue(events.contains("other pipelined"));
+        assertFalse(events.contains("failing"));
+    }
+
+    public void testInterruptCancelsPipelinedUploads() throws Exception {
+        CountDownLatch started = new CountDownLatch(2);
+        AtomicInteger interruptedUploads = new AtomicInteger();
+        List<ISynchronizable> entities = new ArrayList<>();
+        for (int i = 0; i < ENTITY_COUNT; i++) {
+            entities.add(new Entity("entity" + i, () -> {
+                started.countDown();
+                try {
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+                } catch (InterruptedException e) {
+                    interruptedUploads.incrementAndGet();
+                    throw new SynchronizationException(e);
+                }
+            }));
+        }
+        synchronizer.registerSyncProducer(() -> entities, "blocked", OperationGroup.OTHER, 2);
+        AtomicBoolean result = new AtomicBoolean(true);
+        Thread syncThread = new Thread(() -> result.set(synchronizer.synchronize()));
+        syncThread.start();
+        assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        syncThread.interrupt();
+        syncThread.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+        assertFalse(syncThread.isAlive());
+        assertFalse(result.get());
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (interruptedUploads.get() < 2) {
+            assertTrue("the uploads weren't canceled", System.nanoTime() < deadline);
+            Thread.sleep(5);
+        }
+        Thread.sleep(50);
+        assertEquals("canceled uploads were started", 2, interruptedUploads.get());
+        assertTrue(events.isEmpty());
+    }
+
+    /**
+     * Entity whose upload runs an action and whose success is recorded in the events.
+     */
+    private final class Entity implements ISynchronizable {
+
+        private final String name;
+        private final Action upload;
+
+        Entity(String name, Action upload) {
+            this.name = name;
+            this.upload = upload;
+        }
+
+        @Override
+        public void synchronize() throws SynchronizationException {
+            try {
+                upload.run();
+            } catch (SynchronizationException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new SynchronizationException(e);
+            }
+        }
+
+        @Override
+        public void onSynchronizationSuccess() {
+            events.add(name);
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /**
+     * Measures the max number of actions running at the same time.
+     */
+    private static final class ConcurrencyProbe {
+
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger maxRunning = new AtomicInteger();
+
+        void run(Action action) throws Exception {
+            int current = running.incrementAndGet();
+            synchronized (this) {
+                if (current > maxRunning.get()) {
+                    maxRunning.set(current);
+                }
+            }
+            try {
+                action.run();
+            } finally {
+                running.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Upload action.
+     */
+    private interface Action {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ *
+ */
+
+package com.microsoft.test.embeddedsocial.test;
+
+import com.google.gson.Gson;
+import com.google.gson.annotations.SerializedName;
+
+import com.microsoft.embeddedsocial.base.utils.JsonUtils;
+import com.microsoft.embeddedsocial.base.utils.debug.DebugLog;
+import com.microsoft.embeddedsocial.social.FriendIdsResponse;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the streaming friend list adapter on the shared Gson against reflection-based
+ * parsing (the way friend lists were parsed before). Both sides reuse one Gson instance
+ * built before the measurement, as the old loader reused one per friend list load.
+ */
+public class FriendIdsParseBenchmark extends TestCase {
+
+    private static final int ITERATIONS = 200;
+    private static final String NEXT_PAGE_URL = "https://graph.facebook.com/v2.5/me/friends?after=QVFIUm";
+
+    public void testParse20() throws Exception {
+        runBenchmark(20);
+    }
+
+    public void testParse100() throws Exception {
+        runBenchmark(100);
+    }
+
+    private void runBenchmark(int friendCount) throws Exception {
+        String payload = buildPayload(friendCount);
+        List<String> reflectionIds = new ArrayList<>();
+        List<String> streamingIds = new ArrayList<>();
+
+        Gson reflectionGson = new Gson();
+
+        // warm up both paths
+        parseWithReflection(reflectionGson, payload);
+        JsonUtils.getGson().fromJson(payload, FriendIdsResponse.class);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            reflectionIds = parseWithReflection(reflectionGson, payload);
+        }
+        long reflectionTime = (System.nanoTime() - start) / 1000;
+
+        FriendIdsResponse response = null;
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            response = JsonUtils.getGson().fromJson(payload, FriendIdsResponse.class);
+            streamingIds = response.getIds();
+        }
+        long streamingTime = (System.nanoTime() - start) / 1000;
+
+        DebugLog.i("BENCHMARK friend list " + friendCount + " items x " + ITERATIONS
+            + ", reflection: " + reflectionTime + " us");
+        DebugLog.i("BENCHMARK friend list " + friendCount + " items x " + ITERATIONS
+            + ", streaming adapter: " + streamingTime + " us");
+
+        assertEquals(friendCount, streamingIds.size());
+        assertEquals(reflectionIds, streamingIds);
+        assertEquals(NEXT_PAGE_URL, response.getNextPageUrl());
+        assertFalse(response.hasError());
+    }
+
+    private static List<String> parseWithReflection(Gson gson, String payload) {
+        ReflectionFriendsResponse response = gson.fromJson(payload, ReflectionFriendsResponse.class);
+        List<String> ids = new ArrayList<>();
+        for (ReflectionUser user : response.data) {
+            ids.add(user.id);
+        }
+        return ids;
+    }
+
+    private static String buildPayload(int friendCount) {
+        StringBuilder payload = new StringBuilder("{\"data\":[");
+        for (int i = 0; i < friendCount; i++) {
+            if (i > 0) {
+                payload.append(',');
+            }
+            payload.append("{\"name\":\"Friend Number").append(i)
+                .append("\",\"picture\":{\"data\":{\"is_silhouette\":false,\"url\":\"https://example.com/p/")
+                .append(i).append(".jpg\"}},\"id\":\"10").append(1000000 + i).append("\"}");
+        }
+        payload.append("],\"paging\":{\"cursors\":{\"before\":\"QVFIUk\",\"after\":\"QVFIUm\"},\"next\":\"")
+            .append(NEXT_PAGE_URL)
+            .append("\"},\"summary\":{\"total_count\":").append(friendCount).append("}}");
+        return payload.toString();
+    }
+
+    @SuppressWarnings("unused")
+    private static class ReflectionFriendsResponse {
+        private ReflectionUser[] data;
+        private ReflectionPaging paging;
+    }
+
+    @SuppressWarnings("unused")
+    private static class ReflectionUser {
+        private String id;
+        private String name;
+    }
+
+    @SuppressWarnings("unused")
+    private static class ReflectionPaging {
+        @SerializedName("next")
+        private String nextPageUrl;
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ *
+ */
+
+package com.microsoft.test.embeddedsocial.test;
+
+import com.microsoft.embeddedsocial.server.NetworkScheduler;
+import com.microsoft.embeddedsocial.server.NetworkScheduler.Priority;
+
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Tests the order in which waiting requests start, the slot kept for interactive requests and
+ * the cancellation of scopes. The server is replaced by an interceptor which holds every request
+ * until the test lets it finish.
+ */
+public class NetworkSchedulerTest extends TestCase {
+
+    private static final String URL = "http://localhost/v0.7/";
+    private static final long TIMEOUT_SECONDS = 10;
+    private static final long RESPONSE_TIMEOUT_SECONDS = 3 * TIMEOUT_SECONDS;
+    private static final String SUCCESS = "success";
+
+    private final List<String> started = Collections.synchronizedList(new ArrayList<>());
+    private final Map<String, Object> results = new ConcurrentHashMap<>();
+    private final Semaphore finishPermits = new Semaphore(0);
+    private final List<Thread> threads = new ArrayList<>();
+
+    @Override
+    protected void tearDown() throws Exception {
+        finishPermits.release(threads.size());
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+        }
+        super.tearDown();
+    }
+
+    public void testWaitingRequestsStartByPriority() throws Exception {
+        OkHttpClient httpClient = createClient(1);
+        start(httpClient, "blocker", Priority.VISIBLE_PAGE, null);
+        waitForStartedCount(1);
+        waitUntilWaiting(start(httpClient, "telemetry", Priority.TELEMETRY, null));
+        waitUntilWaiting(start(httpClient, "sync", Priority.SYNC, null));
+        waitUntilWaiting(start(httpClient, "prefetch", Priority.PREFETCH, null));
+        waitUntilWaiting(start(httpClient, "visible", Priority.VISIBLE_PAGE, null));
+
+        finishPermits.release(5);
+        joinAll();
+
+        assertEquals(Arrays.asList("blocker", "visible", "prefetch", "sync", "telemetry"), started);
+    }
+
+    public void testSlotIsKeptForInteractiveRequests() throws Exception {
+        OkHttpClient httpClient = createClient(2);
+        start(httpClient, "sync1", Priority.SYNC, null);
+        waitForStartedCount(1);
+        Thread secondSync = start(httpClient, "sync2", Priority.SYNC, null);
+        waitUntilWaiting(secondSync);
+
+        start(httpClient, "visible", Priority.VISIBLE_PAGE, null);
+        waitForStartedCount(2);
+        assertEquals(Arrays.asList("sync1", "visible"), started);
+        assertEquals(Thread.State.WAITING, secondSync.getState());
+
+        finishPermits.release(3);
+        joinAll();
+        assertEquals(SUCCESS, results.get("sync2"));
+    }
+
+    public void testCanceledScopeWakesAllItsWaiters() throws Exception {
+        OkHttpClient httpClient = createClient(1);
+        NetworkScheduler.Scope scope = new NetworkScheduler.Scope();
+        start(httpClient, "blocker", Priority.VISIBLE_PAGE, null);
+        waitForStartedCount(1);
+        waitUntilWaiting(start(httpClient, "first", Priority.PREFETCH, scope));
+        Thread second = start(httpClient, "second", Priority.PREFETCH, scope);
+        waitUntilWaiting(second);
+
+        // the first request of the scope leaves the queue, the second one keeps waiting for the host
+        finishPermits.release(1);
+        waitForStartedCount(2);
+        assertEquals("first", started.get(1));
+
+        scope.cancel();
+        // the first request holds the only slot until the test ends
+        join(second);
+        assertTrue(results.get("second") instanceof IOException);
+        assertFalse(started.contains("second"));
+    }
+
+    public void testRequestInCanceledScopeFails() throws Exception {
+        OkHttpClient httpClient = createClient(1);
+        NetworkScheduler.Scope scope = new NetworkScheduler.Scope();
+        scope.cancel();
+
+        join(start(httpClient, "canceled", Priority.VISIBLE_PAGE, scope));
+
+        assertTrue(results.get("canceled") instanceof IOException);
+        assertTrue(started.isEmpty());
+    }
+
+    private OkHttpClient createClient(int maxRequestsPerHost) {
+        OkHttpClient.Builder builder = new OkHttpClient.Builder();
+        new NetworkScheduler(maxRequestsPerHost).configure(builder);
+        return builder.addInterceptor(this::respond).build();
+    }
+
+    private Thread start(OkHttpClient httpClient, String name, Priority priority, NetworkScheduler.Scope scope) {
+        Thread thread = new Thread(() -> {
+            try {
+                NetworkScheduler.call(priority, scope, () -> {
+                    httpClient.newCall(new Request.Builder().url(URL + name).build()).execute().close();
+                    return null;
+                });
+                results.put(name, SUCCESS);
+            } catch (IOException e) {
+                results.put(name, e);
+            }
+        }, name);
+        threads.add(thread);
+        thread.start();
+        return thread;
+    }
+
+    private Response respond(Interceptor.Chain chain) throws IOException {
+        started.add(chain.request().url().pathSegments().get(1));
+        try {
+            if (!finishPermits.tryAcquire(RESPONSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new IOException("timed out");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
+        }
+        return new Response.Builder()
+            .request(chain.request())
+            .protocol(Protocol.HTTP_1_1)
+            .code(200)
+            .message("test")
+            .body(ResponseBody.create(null, ""))
+            .build();
+    }
+
+    private void waitForStartedCount(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (started.size() < count) {
+            assertTrue("timed out", System.nanoTime() < deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private static void waitUntilWaiting(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (thread.getState() != Thread.State.WAITING) {
+            assertTrue("timed out", System.nanoTime() < deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private void joinAll() throws InterruptedException {
+        for (Thread thread : threads) {
+            join(thread);
+        }
+    }
+
+    private static void join(Thread thread) throws InterruptedException {
+        thread.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+        assertFalse("timed out", thread.isAlive());
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ *
+ */
+
+package com.microsoft.test.embeddedsocial.test;
+
+import com.microsoft.embeddedsocial.base.utils.Clock;
+import com.microsoft.embeddedsocial.server.sync.SyncScheduler;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests the coalescing of sync requests, the single running pass and the failure backoff.
+ * The time is replaced by a manual clock, the main thread handler by a manual timer.
+ */
+public class SyncSchedulerTest extends TestCase {
+
+    private final ManualClock clock = new ManualClock();
+    private final ManualTimer timer = new ManualTimer();
+    private SyncScheduler scheduler;
+    private int launchedPasses;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        scheduler = new SyncScheduler(clock, timer, () -> launchedPasses++);
+    }
+
+    public void testRequestsAreCoalesced() {
+        for (int i = 0; i < 5; i++) {
+            scheduler.requestSync();
+        }
+        assertEquals(SyncScheduler.DEBOUNCE_MS, timer.getDelay());
+        assertEquals(5, scheduler.getQueueDepth());
+
+        timer.fire();
+        assertEquals(1, launchedPasses);
+        assertTrue(scheduler.onPassStarted());
+        assertEquals(5, scheduler.getLastPassRequestCount());
+        assertEquals(0, scheduler.getQueueDepth());
+    }
+
+    public void testEarlierRequestReplacesLaterOne() {
+        scheduler.requestSync(60000);
+        assertEquals(60000, timer.getDelay());
+
+        scheduler.requestSync();
+        assertEquals(SyncScheduler.DEBOUNCE_MS, timer.getDelay());
+        scheduler.requestSync(60000);
+        assertEquals(SyncScheduler.DEBOUNCE_MS, timer.getDelay());
+    }
+
+    public void testSinglePassAtATime() {
+        assertTrue(scheduler.onPassStarted());
+        assertFalse(scheduler.onPassStarted());
+        scheduler.requestSync();
+        assertFalse("no launch while a pass is running", timer.isScheduled());
+        assertTrue(scheduler.isPassScheduled());
+
+        scheduler.onPassFinished(true);
+        assertEquals(SyncScheduler.DEBOUNCE_MS, timer.getDelay());
+        timer.fire();
+        assertEquals(1, launchedPasses);
+    }
+
+    public void testFailedPassesBackOff() {
+        runPass(false);
+        assertEquals(SyncScheduler.MIN_BACKOFF_MS, timer.getDelay());
+        runPass(false);
+        assertEquals(2 * SyncScheduler.MIN_BACKOFF_MS, timer.getDelay());
+        for (int i = 0; i < 20; i++) {
+            runPass(false);
+        }
+        assertEquals(SyncScheduler.MAX_BACKOFF_MS, timer.getDelay());
+
+        // requests don't shorten the backoff
+        scheduler.requestSync();
+        assertEquals(SyncScheduler.MAX_BACKOFF_MS, timer.getDelay());
+
+        runPass(true);
+        assertEquals(0, scheduler.getConsecutiveFailureCount());
+        scheduler.requestSync();
+        assertEquals(SyncScheduler.DEBOUNCE_MS, timer.getDelay());
+    }
+
+    public void testRequestSyncNowEndsBackoff() {
+        runPass(false);
+        runPass(false);
+        assertEquals(2 * SyncScheduler.MIN_BACKOFF_MS, timer.getDelay());
+
+        scheduler.requestSyncNow();
+        assertEquals(SyncScheduler.DEBOUNCE_MS, timer.getDelay());
+        assertEquals(0, scheduler.getConsecutiveFailureCount());
+
+        runPass(false);
+        assertEquals(SyncScheduler.MIN_BACKOFF_MS, timer.getDelay());
+    }
+
+    /**
+     * Runs a pass the way the sync handler does, without waiting for the scheduled launch.
+     */
+    private void runPass(boolean successful) {
+        assertTrue(scheduler.onPassStarted());
+        scheduler.onPassFinished(successful);
+    }
+
+    private static final class ManualClock implements Clock {
+
+        private long now = 1000;
+
+        @Override
+        public long now() {
+            return now;
+        }
+    }
+
+    /**
+     * Holds a single task, like the scheduler uses the handler.
+     */
+    private final class ManualTimer implements SyncScheduler.Timer {
+
+        private Runnable task;
+        private long runTime;
+
+        @Override
+        public void schedule(Runnable task, long delayMillis) {
+            assertNull("a launch is already scheduled", this.task);
+            this.task = task;
+            runTime = clock.now() + delayMillis;
+        }
+
+        @Override
+        public void cancel(Runnable task) {
+            if (this.task == task) {
+                this.task = null;
+            }
+        }
+
+        boolean isScheduled() {
+            return task != null;
+        }
+
+        long getDelay() {
+            assertNotNull("no launch is scheduled", task);
+            return runTime - clock.now();
+        }
+
+        void fire() {
+            Runnable scheduled = task;
+            task = null;
+            clock.now = runTime;
+            scheduled.run();
+        }
+    }
+}
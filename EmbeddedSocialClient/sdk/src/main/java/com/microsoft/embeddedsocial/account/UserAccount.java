@@ -13,6 +13,7 @@ import com.microsoft.embeddedsocial.auth.SocialNetworkTokens;
 import com.microsoft.embeddedsocial.autorest.models.FollowerStatus;
 import com.microsoft.embeddedsocial.base.GlobalObjectRegistry;
 import com.microsoft.embeddedsocial.base.event.EventBus;
+import com.microsoft.embeddedsocial.base.utils.debug.DebugLog;
 import com.microsoft.embeddedsocial.data.Preferences;
 import com.microsoft.embeddedsocial.data.model.AccountData;
 import com.microsoft.embeddedsocial.data.storage.DatabaseHelper;
@@ -27,15 +28,19 @@ import com.microsoft.embeddedsocial.event.signin.UserSignedInEvent;
 import com.microsoft.embeddedsocial.pending.PendingAction;
 import com.microsoft.embeddedsocial.pending.PendingBlock;
 import com.microsoft.embeddedsocial.pending.PendingFollow;
+import com.microsoft.embeddedsocial.server.HttpCache;
 import com.microsoft.embeddedsocial.server.model.view.UserCompactView;
 import com.microsoft.embeddedsocial.ui.util.NotificationCountChecker;
 import com.microsoft.embeddedsocial.ui.util.SocialNetworkAccount;
 
 import android.content.Context;
+import android.os.AsyncTask;
 import android.support.v4.app.Fragment;
 import android.support.v4.app.NotificationManagerCompat;
 import android.text.TextUtils;
 
+import java.io.IOException;
+
 /**
  * Manages functionality related to user account.
  */
@@ -69,7 +74,7 @@ public class UserAccount {
      */
     public void onSignedIn(String newUserHandle, String sessionToken, AccountData newAccountDetails,
                            int messageId) {
-        GlobalObjectRegistry.getObject(DatabaseHelper.class).clearData();
+        clearCachedData();
         setNewAccountData(newUserHandle, sessionToken, newAccountDetails, messageId);
         PendingAction postponedAction = Preferences.getInstance().getPendingAction();
         if (postponedAction != null) {
@@ -123,8 +128,29 @@ public class UserAccount {
         return accountDetails;
     }
 
+    /**
+     * Removes the data cached for the previous user: the database and the server responses stored on disk.
+     * Works with the disk, so shouldn't be called on the main thread.
+     */
+    public void clearCachedData() {
+        GlobalObjectRegistry.getObject(DatabaseHelper.class).clearData();
+        clearHttpCache();
+    }
+
+    private static void clearHttpCache() {
+        HttpCache httpCache = GlobalObjectRegistry.getObject(HttpCache.class);
+        if (httpCache != null) {
+            try {
+                httpCache.clear();
+            } catch (IOException e) {
+                DebugLog.logException(e);
+            }
+        }
+    }
+
     /**
      * Clears all the data associated with the current user (except the data in the database) and launch the request to the server to sign-out.
+     * The server responses stored on disk are removed in background.
      */
     public void signOut() {
         ActionsLauncher.signOut(context, Preferences.getInstance().getAuthorizationToken());
@@ -138,6 +164,7 @@ public class UserAccount {
         NotificationManagerCompat.from(context).cancelAll();
         LoginManager.getInstance().logOut();
         SocialNetworkTokens.clearAll();
+        AsyncTask.THREAD_POOL_EXECUTOR.execute(UserAccount::clearHttpCache);
     }
 
     /**
@@ -0,0 +1,25 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ */
+
+package com.microsoft.embeddedsocial.base.utils;
+
+import android.os.SystemClock;
+
+/**
+ * Monotonic time source; can be replaced in tests.
+ */
+public interface Clock {
+
+    /**
+     * Clock counting from the boot time, including deep sleep.
+     */
+    Clock SYSTEM = SystemClock::elapsedRealtime;
+
+    /**
+     * Gets the current time.
+     * @return  milliseconds since an arbitrary but fixed point.
+     */
+    long now();
+}
@@ -11,36 +11,36 @@ import com.google.gson.JsonSyntaxException;
 import com.microsoft.embeddedsocial.base.utils.debug.DebugLog;
 
 /**
- * Helper singleton class to work with Gson library.
+ * Helper class to work with Gson library. Holds the Gson instance shared by the whole library,
+ * so that type adapters are created and cached only once.
  */
 public final class JsonUtils {
-    private final Gson gson;
-    private static JsonUtils instance;
-    
+
+    private static final Gson GSON = new Gson();
+
     private JsonUtils() {
-        gson = new Gson();
     }
-    
-    private static synchronized JsonUtils getInstance() {
-        if (instance == null) {
-            instance = new JsonUtils();
-        }
-        
-        return instance;
+
+    /**
+     * Gets the shared Gson instance (it's thread-safe).
+     * @return  shared Gson instance.
+     */
+    public static Gson getGson() {
+        return GSON;
     }
-    
-    public static synchronized <T> T fromJson(String json, Class<T> classOfT) {
+
+    public static <T> T fromJson(String json, Class<T> classOfT) {
         T result = null;
         try {
-            result = getInstance().gson.fromJson(json, classOfT);
+            result = GSON.fromJson(json, classOfT);
         } catch (JsonSyntaxException e) {
             DebugLog.e(e.getMessage());
         }
-        
+
         return result;
     }
-    
-    public static synchronized String toJson(Object src) {
-        return getInstance().gson.toJson(src);
+
+    public static String toJson(Object src) {
+        return GSON.toJson(src);
     }
 }
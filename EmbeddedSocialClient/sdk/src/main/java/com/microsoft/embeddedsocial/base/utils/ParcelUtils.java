@@ -31,4 +31,25 @@ public final class ParcelUtils {
     public static boolean readBoolean(Parcel p) {
         return p.readByte() != 0;
     }
+
+    /**
+     * Makes a deep copy of a parcelable object by writing it to a parcel and reading it back.
+     * @param value the object (can be null)
+     * @param <T>   object type
+     * @return  a new instance equal to the object.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Parcelable> T copy(T value) {
+        if (value == null) {
+            return null;
+        }
+        Parcel parcel = Parcel.obtain();
+        try {
+            parcel.writeParcelable(value, 0);
+            parcel.setDataPosition(0);
+            return (T) parcel.readParcelable(value.getClass().getClassLoader());
+        } finally {
+            parcel.recycle();
+        }
+    }
 }
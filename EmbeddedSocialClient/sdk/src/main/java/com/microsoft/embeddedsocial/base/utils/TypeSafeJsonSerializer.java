@@ -16,7 +16,7 @@ public class TypeSafeJsonSerializer {
     private final Gson gson;
 
     public TypeSafeJsonSerializer() {
-        this(new Gson());
+        this(JsonUtils.getGson());
     }
 
     public TypeSafeJsonSerializer(Gson gson) {
@@ -6,7 +6,8 @@
 package com.microsoft.embeddedsocial.base.utils.debug;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
+
+import com.microsoft.embeddedsocial.base.utils.JsonUtils;
 
 import android.content.Context;
 import android.content.pm.PackageInfo;
@@ -49,7 +50,7 @@ public final class DebugLog {
 
     private static final Pattern CLASS_NAME_PATTERN = Pattern.compile("([A-Z]*|(^[a-z]))[_\\da-z\\$]*");
 
-    private static final Gson JSON_SERIALIZER = new GsonBuilder()
+    private static final Gson JSON_SERIALIZER = JsonUtils.getGson().newBuilder()
             .disableHtmlEscaping()
             .setPrettyPrinting()
             .serializeNulls()
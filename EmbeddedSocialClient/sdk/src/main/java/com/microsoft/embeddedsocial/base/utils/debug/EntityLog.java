@@ -6,7 +6,8 @@
 package com.microsoft.embeddedsocial.base.utils.debug;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
+
+import com.microsoft.embeddedsocial.base.utils.JsonUtils;
 
 import android.content.Context;
 import android.os.Environment;
@@ -37,7 +38,7 @@ public final class EntityLog {
     private static final String DEFAULT_PACKAGE = "default";
     private static final String FOLDER_NAME = "debug_entities";
 
-    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final Gson GSON = JsonUtils.getGson().newBuilder().setPrettyPrinting().create();
     private static final AtomicLong FILE_ID_COUNTER = new AtomicLong(0);
     private static final AtomicBoolean ENABLED = new AtomicBoolean(false);
 
@@ -13,6 +13,7 @@ import com.microsoft.embeddedsocial.data.display.DisplayMethod;
 import com.microsoft.embeddedsocial.event.data.UpdateNotificationCountEvent;
 import com.microsoft.embeddedsocial.pending.PendingAction;
 import com.microsoft.embeddedsocial.sdk.Options;
+import com.microsoft.embeddedsocial.server.RequestContext;
 import com.microsoft.embeddedsocial.server.model.BaseRequest;
 
 import android.content.Context;
@@ -33,6 +34,7 @@ public class Preferences {
     private static final String DISPLAY_METHOD = "display_method";
     private static final String USE_STAGGERED_LAYOUT_MANAGER = "use_slm";
     private static final String AUTHORIZATION = "authorization";
+    private static final String LAST_CACHE_COMPACTION = "last_cache_compaction";
 
     private final SharedPreferences sharedPreferences;
     /**
@@ -73,6 +75,7 @@ public class Preferences {
      */
     public void setUserHandle(String userHandle) {
         editor().putString(USER_HANDLE, userHandle).apply();
+        RequestContext.invalidate();
     }
 
     /**
@@ -87,6 +90,7 @@ public class Preferences {
      */
     public void setAuthorizationToken(String authorizationToken) {
         editor().putString(AUTHORIZATION, authorizationToken).apply();
+        RequestContext.invalidate();
     }
 
     /**
@@ -190,6 +194,20 @@ public class Preferences {
         }
     }
 
+    /**
+     * Gets the time of the last offline cache compaction.
+     */
+    public long getLastCacheCompactionTime() {
+        return sharedPreferences.getLong(LAST_CACHE_COMPACTION, 0);
+    }
+
+    /**
+     * Stores the time of the last offline cache compaction.
+     */
+    public void setLastCacheCompactionTime(long time) {
+        editor().putLong(LAST_CACHE_COMPACTION, time).apply();
+    }
+
     public static Preferences getInstance() {
         return GlobalObjectRegistry.getObject(Preferences.class);
     }
@@ -26,9 +26,11 @@ import android.content.SharedPreferences;
 import android.text.TextUtils;
 
 import java.sql.SQLException;
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Caches user activity feeds.
@@ -36,11 +38,13 @@ import java.util.List;
 public class ActivityCache {
 
     private final MetadataStorage metadataStorage;
+    private final DatabaseHelper helper;
     private final Dao<UserCompactView, String> userDao;
     private final Dao<AppCompactView, String> appDao;
     private Dao<ActivityView, String> activityDao;
     private Dao<ActivityActor, Integer> activityActorDao;
     private Dao<ActivityFeed, Integer> activityFeedDao;
+    private ActivityFeedReader activityFeedReader;
 
     /**
      * Creates a new instance.
@@ -48,13 +52,14 @@ public class ActivityCache {
      */
     public ActivityCache(Context context) {
         metadataStorage = new MetadataStorage(context);
-        DatabaseHelper helper = GlobalObjectRegistry.getObject(DatabaseHelper.class);
+        helper = GlobalObjectRegistry.getObject(DatabaseHelper.class);
         userDao = helper.getUserDao();
         appDao = helper.getAppDao();
         try {
             activityDao = helper.getDao(ActivityView.class);
             activityActorDao = helper.getDao(ActivityActor.class);
             activityFeedDao = helper.getDao(ActivityFeed.class);
+            activityFeedReader = new ActivityFeedReader(helper, activityDao);
         } catch (SQLException e) {
             DebugLog.logException(e);
             throw new FatalDatabaseException(e);
@@ -117,36 +122,14 @@ public class ActivityCache {
     }
 
     private List<ActivityView> getActivities(ActivityFeedType feedType) throws SQLException {
-        List<ActivityFeed> feed = activityFeedDao.queryBuilder()
-            .where().eq(DbSchemas.ActivityFeed.FEED_TYPE, feedType)
-            .query();
-
-        List<ActivityView> activities = new ArrayList<>();
-        for (ActivityFeed feedEntry : feed) {
-            ActivityView activity = activityDao.queryForId(feedEntry.activityHandle);
-            activityDao.refresh(activity);
+        List<ActivityView> activities = activityFeedReader.readFeed(feedType);
+        for (ActivityView activity : activities) {
             activity.setUnread(false);  // cached activities are always read
-            activity.setActorUsers(getActivityActorUsers(activity));
-            activities.add(activity);
         }
 
         return activities;
     }
 
-    private List<UserCompactView> getActivityActorUsers(ActivityView activity) throws SQLException {
-        List<ActivityActor> actors = activityActorDao.queryBuilder()
-            .where().eq(DbSchemas.UserActivity.ACTIVITY_HANDLE, activity.getHandle())
-            .query();
-
-        List<UserCompactView> users = new ArrayList<>();
-
-        for (ActivityActor actor : actors) {
-            users.add(userDao.queryForId(actor.userHandle));
-        }
-
-        return users;
-    }
-
     /**
      * Stores activity feed in cache.
      * @param feedType      activity feed type
@@ -161,10 +144,28 @@ public class ActivityCache {
             deleteFeed(feedType);
         }
         DbTransaction.performTransaction(activityDao, () -> {
+            Map<String, ActivityView> activitiesByHandle = new LinkedHashMap<>();
             for (ActivityView activity : activities) {
-                storeActivity(activity);
-                activityFeedDao.createOrUpdate(new ActivityFeed(activity.getHandle(), feedType));
+                activitiesByHandle.put(activity.getHandle(), activity);
             }
+            deleteActivityActors(activitiesByHandle.keySet());
+            BulkWriter writer = new BulkWriter(helper);
+            for (ActivityView activity : activitiesByHandle.values()) {
+                writer.put(activityDao, activity);
+                writer.put(appDao, activity.getApp());
+                List<UserCompactView> actorUsers = activity.getActorUsers();
+                if (actorUsers != null) {
+                    for (UserCompactView actorUser : actorUsers) {
+                        writer.put(userDao, actorUser);
+                        writer.put(activityActorDao,
+                            new ActivityActor(activity.getHandle(), actorUser.getHandle()));
+                    }
+                }
+            }
+            for (ActivityView activity : activities) {
+                writer.put(activityFeedDao, new ActivityFeed(activity.getHandle(), feedType));
+            }
+            writer.flush();
         });
     }
 
@@ -174,22 +175,12 @@ public class ActivityCache {
         feedDeleteBuilder.delete();
     }
 
-    private void storeActivity(ActivityView activity) throws SQLException {
-        deleteActivityActors(activity);
-        activityDao.createOrUpdate(activity);
-        appDao.createOrUpdate(activity.getApp());
-        List<UserCompactView> actorUsers = activity.getActorUsers();
-        if (actorUsers != null) {
-            for (UserCompactView actorUser : actorUsers) {
-                userDao.createOrUpdate(actorUser);
-                activityActorDao.createOrUpdate(new ActivityActor(activity.getHandle(), actorUser.getHandle()));
-            }
+    private void deleteActivityActors(Collection<String> activityHandles) throws SQLException {
+        if (activityHandles.isEmpty()) {
+            return;
         }
-    }
-
-    private void deleteActivityActors(ActivityView activity) throws SQLException {
         DeleteBuilder<ActivityActor, Integer> deleteBuilder = activityActorDao.deleteBuilder();
-        deleteBuilder.where().eq(DbSchemas.UserActivity.ACTIVITY_HANDLE, activity.getHandle());
+        deleteBuilder.where().in(DbSchemas.UserActivity.ACTIVITY_HANDLE, activityHandles);
         deleteBuilder.delete();
     }
 
@@ -197,7 +188,7 @@ public class ActivityCache {
     @SuppressWarnings("unused")
     static class ActivityActor {
 
-        @DatabaseField(generatedId = true)
+        @DatabaseField(generatedId = true, columnName = DbSchemas.ActivityActor.ID)
         private int id;
 
         @DatabaseField(columnName = DbSchemas.UserActivity.ACTIVITY_HANDLE)
@@ -221,7 +212,7 @@ public class ActivityCache {
     @SuppressWarnings("unused")
     static class ActivityFeed {
 
-        @DatabaseField(generatedId = true)
+        @DatabaseField(generatedId = true, columnName = DbSchemas.ActivityFeed.ID)
         private int id;
 
         @DatabaseField(columnName = DbSchemas.ActivityFeed.FEED_TYPE)
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ */
+
+package com.microsoft.embeddedsocial.data.storage;
+
+import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.dao.RawRowMapper;
+import com.microsoft.embeddedsocial.base.GlobalObjectRegistry;
+import com.microsoft.embeddedsocial.base.expression.Template;
+import com.microsoft.embeddedsocial.server.model.view.ActivityView;
+import com.microsoft.embeddedsocial.server.model.view.AppCompactView;
+import com.microsoft.embeddedsocial.server.model.view.UserCompactView;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Materializes cached activity feeds. Activities (with the users they were acted on and their apps)
+ * are read by one JOIN query and all their actors are read by another one, so the number
+ * of queries doesn't depend on the feed size.
+ */
+class ActivityFeedReader {
+
+    private static final String FEED_QUERY_TEMPLATE =
+        "select ${activity_columns}, ${user_columns}, ${app_columns} "
+            + "from `${feeds}` f "
+            + "join `${activities}` t on t.`${t_handle}` = f.`${f_handle}` "
+            + "left join `${users}` u on u.`${u_handle}` = t.`${t_user}` "
+            + "left join `${apps}` a on a.`${a_handle}` = t.`${t_app}` "
+            + "where f.`${f_feed_type}` = ? "
+            + "order by f.`${f_id}`";
+
+    private static final String ACTORS_QUERY_TEMPLATE =
+        "select r.`${r_handle}`, ${user_columns} "
+            + "from `${actors}` r "
+            + "join `${users}` u on u.`${u_handle}` = r.`${r_user}` "
+            + "where r.`${r_handle}` in "
+            + "(select f.`${f_handle}` from `${feeds}` f where f.`${f_feed_type}` = ?) "
+            + "order by r.`${r_id}`";
+
+    private final Dao<ActivityView, String> activityDao;
+    private final TableProjection<ActivityView> activityProjection;
+    private final TableProjection<UserCompactView> userProjection;
+    private final TableProjection<AppCompactView> appProjection;
+    private final String feedQuery;
+    private final String actorsQuery;
+    private final CacheAccessLog accessLog;
+
+    /**
+     * Creates an instance.
+     * @param helper        database helper
+     * @param activityDao   activity DAO
+     */
+    ActivityFeedReader(DatabaseHelper helper, Dao<ActivityView, String> activityDao) {
+        this.activityDao = activityDao;
+        activityProjection = new TableProjection<>(activityDao, "t", false);
+        userProjection = new TableProjection<>(helper.getUserDao(), "u", true, true);
+        appProjection = new TableProjection<>(helper.getAppDao(), "a", true, true);
+        accessLog = GlobalObjectRegistry.getObject(CacheAccessLog.class);
+        feedQuery = new Template(FEED_QUERY_TEMPLATE)
+            .var("activity_columns", activityProjection.getSelectList())
+            .var("user_columns", userProjection.getSelectList())
+            .var("app_columns", appProjection.getSelectList())
+            .var("feeds", DbSchemas.ActivityFeed.TABLE_NAME)
+            .var("activities", DbSchemas.UserActivity.TABLE_NAME)
+            .var("users", DbSchemas.CompactUserData.TABLE_NAME)
+            .var("apps", DbSchemas.Apps.TABLE_NAME)
+            .var("t_handle", DbSchemas.UserActivity.ACTIVITY_HANDLE)
+            .var("t_user", DbSchemas.UserActivity.ACTED_ON_USER)
+            .var("t_app", DbSchemas.UserActivity.APP)
+            .var("u_handle", DbSchemas.CompactUserData.USER_HANDLE)
+            .var("a_handle", DbSchemas.Apps.APP_HANDLE)
+            .var("f_handle", DbSchemas.UserActivity.ACTIVITY_HANDLE)
+            .var("f_feed_type", DbSchemas.ActivityFeed.FEED_TYPE)
+            .var("f_id", DbSchemas.ActivityFeed.ID)
+            .render();
+        actorsQuery = new Template(ACTORS_QUERY_TEMPLATE)
+            .var("user_columns", userProjection.getSelectList())
+            .var("actors", DbSchemas.ActivityActor.TABLE_NAME)
+            .var("users", DbSchemas.CompactUserData.TABLE_NAME)
+            .var("feeds", DbSchemas.ActivityFeed.TABLE_NAME)
+            .var("r_handle", DbSchemas.UserActivity.ACTIVITY_HANDLE)
+            .var("r_user", DbSchemas.UserFeeds.USER_HANDLE)
+            .var("r_id", DbSchemas.ActivityActor.ID)
+            .var("u_handle", DbSchemas.CompactUserData.USER_HANDLE)
+            .var("f_handle", DbSchemas.UserActivity.ACTIVITY_HANDLE)
+            .var("f_feed_type", DbSchemas.ActivityFeed.FEED_TYPE)
+            .render();
+    }
+
+    /**
+     * Reads a cached activity feed with actor users attached to every activity.
+     * @param feedType  feed type
+     * @return  list of activities in the order they were stored.
+     * @throws SQLException if the database fails
+     */
+    List<ActivityView> readFeed(ActivityCache.ActivityFeedType feedType) throws SQLException {
+        String feedTypeValue = feedType.name();
+        RawRowMapper<ActivityView> activityMapper =
+            (columnNames, resultColumns) -> mapActivity(resultColumns);
+        RawRowMapper<Actor> actorMapper =
+            (columnNames, resultColumns) -> mapActor(resultColumns);
+        List<ActivityView> activities = activityDao.queryRaw(feedQuery, activityMapper, feedTypeValue)
+            .getResults();
+        List<Actor> actors = activityDao.queryRaw(actorsQuery, actorMapper, feedTypeValue)
+            .getResults();
+
+        Map<String, List<UserCompactView>> actorsByActivity = new HashMap<>();
+        for (Actor actor : actors) {
+            List<UserCompactView> users = actorsByActivity.get(actor.activityHandle);
+            if (users == null) {
+                users = new ArrayList<>();
+                actorsByActivity.put(actor.activityHandle, users);
+            }
+            users.add(actor.user);
+        }
+
+        for (ActivityView activity : activities) {
+            List<UserCompactView> users = actorsByActivity.get(activity.getHandle());
+            activity.setActorUsers(users != null ? users : new ArrayList<>());
+            if (accessLog != null) {
+                accessLog.recordAccess(DbSchemas.UserActivity.TABLE_NAME, activity.getHandle());
+            }
+        }
+
+        return activities;
+    }
+
+    private ActivityView mapActivity(String[] resultColumns) throws SQLException {
+        int offset = 0;
+        ActivityView activity = activityProjection.mapRow(resultColumns, offset);
+        offset += activityProjection.getColumnCount();
+        activity.setActedOnUser(userProjection.mapRow(resultColumns, offset));
+        offset += userProjection.getColumnCount();
+        activity.setApp(appProjection.mapRow(resultColumns, offset));
+        return activity;
+    }
+
+    private Actor mapActor(String[] resultColumns) throws SQLException {
+        return new Actor(resultColumns[0], userProjection.mapRow(resultColumns, 1));
+    }
+
+    /**
+     * Actor user bound to an activity.
+     */
+    private static final class Actor {
+
+        final String activityHandle;
+        final UserCompactView user;
+
+        Actor(String activityHandle, UserCompactView user) {
+            this.activityHandle = activityHandle;
+            this.user = user;
+        }
+    }
+}
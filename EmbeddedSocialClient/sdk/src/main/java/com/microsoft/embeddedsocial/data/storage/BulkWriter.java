@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ */
+
+package com.microsoft.embeddedsocial.data.storage;
+
+import com.j256.ormlite.dao.BaseDaoImpl;
+import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.field.FieldType;
+import com.j256.ormlite.table.TableInfo;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.os.Build;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a page of entities with a few compiled <code>INSERT OR REPLACE</code> statements instead
+ * of a SELECT followed by an INSERT or UPDATE per entity. Entities are buffered per table;
+ * an entity with the same id put several times (e.g. the author of many topics) is written once.
+ * Must be used inside a transaction (see {@link com.microsoft.embeddedsocial.data.storage.transaction.DbTransaction}).
+ */
+class BulkWriter {
+
+    /**
+     * Default SQLITE_MAX_VARIABLE_NUMBER.
+     */
+    private static final int MAX_VARIABLES = 999;
+
+    /**
+     * Multi-row VALUES clause is supported since SQLite 3.7.11 (Android 4.1).
+     */
+    private static final boolean MULTI_ROW_INSERT_SUPPORTED =
+        Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN;
+
+    private final SQLiteDatabase database;
+    private final Map<Dao<?, ?>, TableBuffer<?>> tables = new LinkedHashMap<>();
+    private int executedStatementCount;
+
+    /**
+     * Creates an instance.
+     * @param helper    database helper
+     */
+    BulkWriter(DatabaseHelper helper) {
+        database = helper.getWritableDatabase();
+    }
+
+    /**
+     * Buffers an entity. Nothing is written until {@link #flush()} is called.
+     * @param dao       DAO of the entity table
+     * @param entity    the entity (null is ignored)
+     * @param <T>       entity type
+     * @throws SQLException if the entity can't be converted to SQL values
+     */
+    <T> void put(Dao<T, ?> dao, T entity) throws SQLException {
+        if (entity == null) {
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        TableBuffer<T> buffer = (TableBuffer<T>) tables.get(dao);
+        if (buffer == null) {
+            buffer = new TableBuffer<>(dao);
+            tables.put(dao, buffer);
+        }
+        buffer.put(entity);
+    }
+
+    /**
+     * Writes all the buffered entities table by table in the order the tables were first used.
+     * @throws SQLException if the database fails
+     */
+    void flush() throws SQLException {
+        try {
+            for (TableBuffer<?> buffer : tables.values()) {
+                buffer.flush();
+            }
+        } catch (android.database.SQLException e) {
+            throw new SQLException(e);
+        } finally {
+            for (TableBuffer<?> buffer : tables.values()) {
+                buffer.release();
+            }
+            tables.clear();
+        }
+    }
+
+    /**
+     * Gets the number of statements executed by this writer so far.
+     * @return  number of statement executions.
+     */
+    int getExecutedStatementCount() {
+        return executedStatementCount;
+    }
+
+    private static void bind(SQLiteStatement statement, int index, Object value) {
+        if (value == null) {
+            statement.bindNull(index);
+        } else if (value instanceof Boolean) {
+            statement.bindLong(index, (Boolean) value ? 1 : 0);
+        } else if (value instanceof Float || value instanceof Double) {
+            statement.bindDouble(index, ((Number) value).doubleValue());
+        } else if (value instanceof Number) {
+            statement.bindLong(index, ((Number) value).longValue());
+        } else if (value instanceof byte[]) {
+            statement.bindBlob(index, (byte[]) value);
+        } else {
+            statement.bindString(index, value.toString());
+        }
+    }
+
+    /**
+     * Rows buffered for one table.
+     * @param <T>   entity type
+     */
+    private final class TableBuffer<T> {
+
+        private final String tableName;
+        private final FieldType[] columns;
+        private final int idColumnIndex;
+        private final Map<Object, Object[]> rowsById = new LinkedHashMap<>();
+        private final List<Object[]> rowsWithoutId = new ArrayList<>();
+        private final Map<Integer, SQLiteStatement> statements = new LinkedHashMap<>();
+
+        TableBuffer(Dao<T, ?> dao) {
+            TableInfo<T, ?> tableInfo = ((BaseDaoImpl<T, ?>) dao).getTableInfo();
+            tableName = tableInfo.getTableName();
+            List<FieldType> columnList = new ArrayList<>();
+            int idIndex = -1;
+            for (FieldType fieldType : tableInfo.getFieldTypes()) {
+                if (fieldType.isGeneratedId()) {
+                    continue;  // assigned by SQLite
+                }
+                if (fieldType.isId()) {
+                    idIndex = columnList.size();
+                }
+                columnList.add(fieldType);
+            }
+            columns = columnList.toArray(new FieldType[columnList.size()]);
+            idColumnIndex = idIndex;
+        }
+
+        void put(T entity) throws SQLException {
+            Object[] row = new Object[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                row[i] = columns[i].extractJavaFieldToSqlArgValue(entity);
+            }
+            if (idColumnIndex >= 0 && row[idColumnIndex] != null) {
+                rowsById.put(row[idColumnIndex], row);  // the latest state of an entity wins
+            } else {
+                rowsWithoutId.add(row);
+            }
+        }
+
+        void flush() {
+            List<Object[]> rows = new ArrayList<>(rowsById.values());
+            rows.addAll(rowsWithoutId);
+            int maxRowsPerStatement = MULTI_ROW_INSERT_SUPPORTED
+                ? Math.max(1, MAX_VARIABLES / columns.length)
+                : 1;
+            Iterator<Object[]> iterator = rows.iterator();
+            int remaining = rows.size();
+            while (remaining > 0) {
+                int rowCount = Math.min(remaining, maxRowsPerStatement);
+                SQLiteStatement statement = getStatement(rowCount);
+                statement.clearBindings();
+                int index = 1;
+                for (int i = 0; i < rowCount; i++) {
+                    for (Object value : iterator.next()) {
+                        bind(statement, index++, value);
+                    }
+                }
+                statement.executeInsert();
+                executedStatementCount++;
+                remaining -= rowCount;
+            }
+            rowsById.clear();
+            rowsWithoutId.clear();
+        }
+
+        void release() {
+            for (SQLiteStatement statement : statements.values()) {
+                statement.close();
+            }
+            statements.clear();
+        }
+
+        private SQLiteStatement getStatement(int rowCount) {
+            SQLiteStatement statement = statements.get(rowCount);
+            if (statement == null) {
+                statement = database.compileStatement(buildSql(rowCount));
+                statements.put(rowCount, statement);
+            }
+            return statement;
+        }
+
+        private String buildSql(int rowCount) {
+            StringBuilder builder = new StringBuilder("insert or replace into `")
+                .append(tableName)
+                .append("` (");
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    builder.append(", ");
+                }
+                builder.append('`').append(columns[i].getColumnName()).append('`');
+            }
+            builder.append(") values ");
+            for (int row = 0; row < rowCount; row++) {
+                builder.append(row > 0 ? ", (" : "(");
+                for (int i = 0; i < columns.length; i++) {
+                    builder.append(i > 0 ? ", ?" : "?");
+                }
+                builder.append(')');
+            }
+            return builder.toString();
+        }
+    }
+}
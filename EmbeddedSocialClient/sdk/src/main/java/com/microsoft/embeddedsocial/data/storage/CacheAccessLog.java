@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ */
+
+package com.microsoft.embeddedsocial.data.storage;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Collects accesses to cached entities in memory. Cache reads don't write to the DB; the collected
+ * access times are stored by {@link CacheCompactor} right before it evicts least recently used content.
+ */
+public final class CacheAccessLog {
+
+    /**
+     * Accesses exceeding this number before the log is drained are dropped.
+     */
+    private static final int MAX_PENDING_ACCESSES = 10000;
+
+    private final ConcurrentHashMap<String, Map<String, Long>> accesses = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    /**
+     * Records an access to a cached entity.
+     * @param table     entity table
+     * @param handle    entity handle
+     */
+    public void recordAccess(String table, String handle) {
+        if (handle == null || pendingCount.get() >= MAX_PENDING_ACCESSES) {
+            return;
+        }
+        Map<String, Long> tableAccesses = accesses.get(table);
+        if (tableAccesses == null) {
+            tableAccesses = new ConcurrentHashMap<>();
+            Map<String, Long> existing = accesses.putIfAbsent(table, tableAccesses);
+            if (existing != null) {
+                tableAccesses = existing;
+            }
+        }
+        if (tableAccesses.put(handle, System.currentTimeMillis()) == null) {
+            pendingCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Takes all recorded accesses out of the log.
+     * @return  access times by entity handles by tables.
+     */
+    Map<String, Map<String, Long>> drain() {
+        Map<String, Map<String, Long>> result = new HashMap<>();
+        for (String table : accesses.keySet()) {
+            Map<String, Long> tableAccesses = accesses.remove(table);
+            if (tableAccesses != null) {
+                result.put(table, tableAccesses);
+                pendingCount.addAndGet(-tableAccesses.size());
+            }
+        }
+        return result;
+    }
+}
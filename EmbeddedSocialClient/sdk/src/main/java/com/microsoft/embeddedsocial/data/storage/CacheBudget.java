@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ */
+
+package com.microsoft.embeddedsocial.data.storage;
+
+import com.microsoft.embeddedsocial.sdk.Options;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits of the offline content cache enforced by {@link CacheCompactor}.
+ */
+public final class CacheBudget {
+
+    private int maxTopics = 5000;
+    private int maxComments = 10000;
+    private int maxReplies = 10000;
+    private int maxUsers = 5000;
+    private int maxActivities = 2000;
+    private long maxSizeBytes = 50L * 1024 * 1024;
+    private long timeToLiveMillis = TimeUnit.DAYS.toMillis(30);
+    private long orphanGracePeriodMillis = TimeUnit.DAYS.toMillis(1);
+    private long compactionIntervalMillis = TimeUnit.HOURS.toMillis(24);
+
+    /**
+     * Creates a budget from the SDK options.
+     * @param options   SDK options
+     * @return  cache budget.
+     */
+    public static CacheBudget fromOptions(Options options) {
+        return new CacheBudget()
+            .setMaxTopics(options.getMaxCachedTopics())
+            .setMaxComments(options.getMaxCachedComments())
+            .setMaxReplies(options.getMaxCachedReplies())
+            .setMaxUsers(options.getMaxCachedUsers())
+            .setMaxActivities(options.getMaxCachedActivities())
+            .setMaxSizeBytes(options.getMaxCacheSizeBytes())
+            .setTimeToLiveMillis(options.getCacheTimeToLiveMillis())
+            .setOrphanGracePeriodMillis(options.getCacheOrphanGracePeriodMillis())
+            .setCompactionIntervalMillis(options.getCacheCompactionIntervalMillis());
+    }
+
+    public int getMaxTopics() {
+        return maxTopics;
+    }
+
+    public CacheBudget setMaxTopics(int maxTopics) {
+        this.maxTopics = maxTopics;
+        return this;
+    }
+
+    public int getMaxComments() {
+        return maxComments;
+    }
+
+    public CacheBudget setMaxComments(int maxComments) {
+        this.maxComments = maxComments;
+        return this;
+    }
+
+    public int getMaxReplies() {
+        return maxReplies;
+    }
+
+    public CacheBudget setMaxReplies(int maxReplies) {
+        this.maxReplies = maxReplies;
+        return this;
+    }
+
+    public int getMaxUsers() {
+        return maxUsers;
+    }
+
+    public CacheBudget setMaxUsers(int maxUsers) {
+        this.maxUsers = maxUsers;
+        return this;
+    }
+
+    public int getMaxActivities() {
+        return maxActivities;
+    }
+
+    public CacheBudget setMaxActivities(int maxActivities) {
+        this.maxActivities = maxActivities;
+        return this;
+    }
+
+    public long getMaxSizeBytes() {
+        return maxSizeBytes;
+    }
+
+    public CacheBudget setMaxSizeBytes(long maxSizeBytes) {
+        this.maxSizeBytes = maxSizeBytes;
+        return this;
+    }
+
+    public long getTimeToLiveMillis() {
+        return timeToLiveMillis;
+    }
+
+    public CacheBudget setTimeToLiveMillis(long timeToLiveMillis) {
+        this.timeToLiveMillis = timeToLiveMillis;
+        return this;
+    }
+
+    /**
+     * Gets the time an entity is kept after no feed refers to it anymore (e.g. a topic opened
+     * from a notification, or a topic dropped from a refreshed feed).
+     * @return  grace period in milliseconds.
+     */
+    public long getOrphanGracePeriodMillis() {
+        return orphanGracePeriodMillis;
+    }
+
+    public CacheBudget setOrphanGracePeriodMillis(long orphanGracePeriodMillis) {
+        this.orphanGracePeriodMillis = orphanGracePeriodMillis;
+        return this;
+    }
+
+    public long getCompactionIntervalMillis() {
+        return compactionIntervalMillis;
+    }
+
+    public CacheBudget setCompactionIntervalMillis(long compactionIntervalMillis) {
+        this.compactionIntervalMillis = compactionIntervalMillis;
+        return this;
+    }
+}
@@ -0,0 +1,570 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ */
+
+package com.microsoft.embeddedsocial.data.storage;
+
+import com.j256.ormlite.dao.Dao;
+import com.microsoft.embeddedsocial.base.GlobalObjectRegistry;
+import com.microsoft.embeddedsocial.base.expression.Template;
+import com.microsoft.embeddedsocial.base.utils.debug.DebugLog;
+import com.microsoft.embeddedsocial.data.storage.model.CacheAccess;
+import com.microsoft.embeddedsocial.data.storage.model.FeedFreshness;
+import com.microsoft.embeddedsocial.data.storage.transaction.DbTransaction;
+
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the offline content cache within a {@link CacheBudget}. Cached topics, comments, replies,
+ * activities and users are evicted when they weren't accessed for longer than the time to live
+ * or when their table exceeds its row limit (least recently used first). A feed is never left with
+ * holes: the feeds referring to an evicted entity are evicted as a whole (with their freshness),
+ * their other entities become orphans. Entities no feed refers to anymore are swept after a grace
+ * period counted from the compaction which found them orphaned. If the pages holding data are
+ * still more than the byte limit, the row limits are lowered proportionally. The freed pages are
+ * reused by the next writes; {@link #shrink()} returns them to the file system.
+ * <p/>
+ * Access times are collected in memory by {@link CacheAccessLog} and stored by the compactor,
+ * entities that were never accessed get the time of the first compaction which saw them.
+ * Is slow; must not be called on the UI thread.
+ */
+public final class CacheCompactor {
+
+    /**
+     * Value of <code>PRAGMA auto_vacuum</code> for incremental mode.
+     */
+    private static final int AUTO_VACUUM_INCREMENTAL = 2;
+
+    /**
+     * Pages released by one step of the incremental vacuum; a step blocks the writer thread
+     * for a few milliseconds only.
+     */
+    private static final int VACUUM_STEP_PAGES = 64;
+
+    private static final int MAX_VACUUM_STEPS = 256;
+
+    /**
+     * The byte limit is enforced with some headroom so the next sync doesn't exceed it right away.
+     */
+    private static final double SIZE_HEADROOM = 0.9;
+
+    /**
+     * Condition of the tables whose rows can always be evicted (once the feeds referring to them are).
+     */
+    private static final String ANY_ROW = "1";
+
+    private static final String UPDATE_ACCESS_TEMPLATE =
+        "update `${access}` set `${a_time}` = ? where `${a_table}` = ? and `${a_handle}` = ?";
+
+    private static final String INSERT_ACCESS_TEMPLATE =
+        "insert or ignore into `${access}` (`${a_time}`, `${a_table}`, `${a_handle}`) values (?, ?, ?)";
+
+    private static final String STAMP_TEMPLATE =
+        "insert or ignore into `${access}` (`${a_table}`, `${a_handle}`, `${a_time}`) "
+            + "select '${table}', `${handle}`, ? from `${table}`";
+
+    private static final String EXPIRED_TEMPLATE =
+        "select `${a_handle}` from `${access}` where `${a_table}` = '${table}' and `${a_time}` < ?";
+
+    private static final String LEAST_RECENTLY_USED_TEMPLATE =
+        "select `${a_handle}` from `${access}` where `${a_table}` = '${table}' "
+            + "order by `${a_time}` desc limit -1 offset ?";
+
+    private static final String EVICT_TEMPLATE =
+        "delete from `${table}` where `${handle}` in (${victims}) and ${condition}";
+
+    private static final String EVICT_FEEDS_TEMPLATE =
+        "delete from `${feeds}` where exists "
+            + "(select 1 from `${feeds}` v where ${same_feed} and v.`${f_handle}` in (${victims}))";
+
+    private static final String EVICT_FRESHNESS_TEMPLATE =
+        "delete from `${freshness}` where `${freshness_key}` in "
+            + "(select ${feed_key} from `${feeds}` where `${f_handle}` in (${victims}))";
+
+    private static final String MARK_ORPHANS_TEMPLATE =
+        "update `${access}` set `${a_orphan}` = ? where `${a_table}` = '${table}' and `${a_orphan}` = 0 "
+            + "and `${a_handle}` in (select `${handle}` from `${table}` where ${condition})";
+
+    private static final String UNMARK_ORPHANS_TEMPLATE =
+        "update `${access}` set `${a_orphan}` = 0 where `${a_table}` = '${table}' and `${a_orphan}` > 0 "
+            + "and `${a_handle}` in (select `${handle}` from `${table}` where not (${condition}))";
+
+    private static final String SWEEP_ORPHANS_TEMPLATE =
+        "delete from `${table}` where `${handle}` in "
+            + "(select `${a_handle}` from `${access}` where `${a_table}` = '${table}' "
+            + "and `${a_orphan}` > 0 and `${a_orphan}` < ?) "
+            + "and ${condition}";
+
+    private static final String DELETE_DANGLING_TEMPLATE =
+        "delete from `${table}` where not exists "
+            + "(select 1 from `${target}` t where t.`${target_handle}` = `${table}`.`${handle}`)";
+
+    private static final String NOT_REFERENCED_TEMPLATE =
+        "not exists (select 1 from `${table}` r where r.`${column}` = `${owner}`.`${handle}`)";
+
+    private static final String COUNT_TEMPLATE =
+        "select count(*) from `${access}` where `${a_table}` = ?";
+
+    private final SQLiteDatabase database;
+    private final Dao<CacheAccess, Integer> accessDao;
+    private final CacheBudget budget;
+    private final CacheAccessLog accessLog;
+    private final List<CachedTable> tables = new ArrayList<>();
+    private final List<String> cleanupStatements = new ArrayList<>();
+
+    /**
+     * Creates an instance.
+     * @param helper    database helper
+     * @param budget    cache limits
+     * @throws SQLException if the access table DAO can't be created
+     */
+    public CacheCompactor(DatabaseHelper helper, CacheBudget budget) throws SQLException {
+        this.database = helper.getWritableDatabase();
+        this.accessDao = helper.getDao(CacheAccess.class);
+        this.budget = budget;
+        this.accessLog = GlobalObjectRegistry.getObject(CacheAccessLog.class);
+
+        // topics and comments are owned by feeds, the triggers take care of their comments and replies
+        tables.add(new CachedTable(DbSchemas.Topics.TABLE_NAME, DbSchemas.Topics.TOPIC_HANDLE,
+            budget.getMaxTopics(), ANY_ROW,
+            notReferenced(DbSchemas.Topics.TABLE_NAME, DbSchemas.Topics.TOPIC_HANDLE,
+                DbSchemas.TopicFeedRelation.TABLE_NAME, DbSchemas.TopicFeedRelation.TOPIC_HANDLE),
+            new Feeds(DbSchemas.TopicFeedRelation.TABLE_NAME, DbSchemas.TopicFeedRelation.TOPIC_HANDLE,
+                true, DbSchemas.TopicFeedRelation.FEED_TYPE, DbSchemas.TopicFeedRelation.QUERY),
+            deleteDangling(DbSchemas.TopicFeedRelation.TABLE_NAME, DbSchemas.TopicFeedRelation.TOPIC_HANDLE,
+                DbSchemas.Topics.TABLE_NAME, DbSchemas.Topics.TOPIC_HANDLE)));
+        tables.add(new CachedTable(DbSchemas.Comments.TABLE_NAME, DbSchemas.Comments.COMMENT_HANDLE,
+            budget.getMaxComments(), ANY_ROW,
+            notReferenced(DbSchemas.Comments.TABLE_NAME, DbSchemas.Comments.COMMENT_HANDLE,
+                DbSchemas.CommentFeedRelation.TABLE_NAME, DbSchemas.CommentFeedRelation.COMMENT_HANDLE),
+            new Feeds(DbSchemas.CommentFeedRelation.TABLE_NAME, DbSchemas.CommentFeedRelation.COMMENT_HANDLE,
+                true, DbSchemas.CommentFeedRelation.FEED_TYPE, DbSchemas.CommentFeedRelation.TOPIC_HANDLE),
+            deleteDangling(DbSchemas.CommentFeedRelation.TABLE_NAME, DbSchemas.CommentFeedRelation.COMMENT_HANDLE,
+                DbSchemas.Comments.TABLE_NAME, DbSchemas.Comments.COMMENT_HANDLE)));
+        // the replies of a comment are its reply feed
+        tables.add(new CachedTable(DbSchemas.Replies.TABLE_NAME, DbSchemas.Replies.REPLY_HANDLE,
+            budget.getMaxReplies(), ANY_ROW,
+            notReferenced(DbSchemas.Replies.TABLE_NAME, DbSchemas.Replies.COMMENT_HANDLE,
+                DbSchemas.Comments.TABLE_NAME, DbSchemas.Comments.COMMENT_HANDLE),
+            new Feeds(DbSchemas.Replies.TABLE_NAME, DbSchemas.Replies.REPLY_HANDLE,
+                false, DbSchemas.Replies.COMMENT_HANDLE)));
+        tables.add(new CachedTable(DbSchemas.UserActivity.TABLE_NAME, DbSchemas.UserActivity.ACTIVITY_HANDLE,
+            budget.getMaxActivities(), ANY_ROW,
+            notReferenced(DbSchemas.UserActivity.TABLE_NAME, DbSchemas.UserActivity.ACTIVITY_HANDLE,
+                DbSchemas.ActivityFeed.TABLE_NAME, DbSchemas.UserActivity.ACTIVITY_HANDLE),
+            new Feeds(DbSchemas.ActivityFeed.TABLE_NAME, DbSchemas.UserActivity.ACTIVITY_HANDLE,
+                false, DbSchemas.ActivityFeed.FEED_TYPE),
+            deleteDangling(DbSchemas.ActivityFeed.TABLE_NAME, DbSchemas.UserActivity.ACTIVITY_HANDLE,
+                DbSchemas.UserActivity.TABLE_NAME, DbSchemas.UserActivity.ACTIVITY_HANDLE),
+            deleteDangling(DbSchemas.ActivityActor.TABLE_NAME, DbSchemas.UserActivity.ACTIVITY_HANDLE,
+                DbSchemas.UserActivity.TABLE_NAME, DbSchemas.UserActivity.ACTIVITY_HANDLE)));
+
+        // users go last: only the users no other cached content refers to can be evicted
+        String usersNotReferenced = joinConditions(
+            notReferenced(DbSchemas.CompactUserData.TABLE_NAME, DbSchemas.CompactUserData.USER_HANDLE,
+                DbSchemas.Topics.TABLE_NAME, DbSchemas.Topics.USER),
+            notReferenced(DbSchemas.CompactUserData.TABLE_NAME, DbSchemas.CompactUserData.USER_HANDLE,
+                DbSchemas.Comments.TABLE_NAME, DbSchemas.Comments.USER),
+            notReferenced(DbSchemas.CompactUserData.TABLE_NAME, DbSchemas.CompactUserData.USER_HANDLE,
+                DbSchemas.Replies.TABLE_NAME, DbSchemas.Replies.USER),
+            notReferenced(DbSchemas.CompactUserData.TABLE_NAME, DbSchemas.CompactUserData.USER_HANDLE,
+                DbSchemas.UserFeeds.TABLE_NAME, DbSchemas.UserFeeds.USER_HANDLE),
+            notReferenced(DbSchemas.CompactUserData.TABLE_NAME, DbSchemas.CompactUserData.USER_HANDLE,
+                DbSchemas.ActivityActor.TABLE_NAME, DbSchemas.UserFeeds.USER_HANDLE),
+            notReferenced(DbSchemas.CompactUserData.TABLE_NAME, DbSchemas.CompactUserData.USER_HANDLE,
+                DbSchemas.UserActivity.TABLE_NAME, DbSchemas.UserActivity.ACTED_ON_USER),
+            notReferenced(DbSchemas.CompactUserData.TABLE_NAME, DbSchemas.CompactUserData.USER_HANDLE,
+                DbSchemas.UserRelationOperation.TABLE_NAME, DbSchemas.UserRelationOperation.USER_HANDLE));
+        tables.add(new CachedTable(DbSchemas.CompactUserData.TABLE_NAME, DbSchemas.CompactUserData.USER_HANDLE,
+            budget.getMaxUsers(), usersNotReferenced, usersNotReferenced, null));
+
+        cleanupStatements.add(new Template("delete from `${apps}` where ${topics} and ${activities}")
+            .var("apps", DbSchemas.Apps.TABLE_NAME)
+            .var("topics", notReferenced(DbSchemas.Apps.TABLE_NAME, DbSchemas.Apps.APP_HANDLE,
+                DbSchemas.Topics.TABLE_NAME, DbSchemas.Topics.APP))
+            .var("activities", notReferenced(DbSchemas.Apps.TABLE_NAME, DbSchemas.Apps.APP_HANDLE,
+                DbSchemas.UserActivity.TABLE_NAME, DbSchemas.UserActivity.APP))
+            .render());
+        for (CachedTable table : tables) {
+            cleanupStatements.add(new Template("delete from `${access}` where `${a_table}` = '${table}' "
+                + "and not exists (select 1 from `${table}` t where t.`${handle}` = `${access}`.`${a_handle}`)")
+                .var("access", DbSchemas.CacheAccess.TABLE_NAME)
+                .var("a_table", DbSchemas.CacheAccess.ENTITY_TABLE)
+                .var("a_handle", DbSchemas.CacheAccess.HANDLE)
+                .var("table", table.name)
+                .var("handle", table.handleColumn)
+                .render());
+        }
+    }
+
+    /**
+     * Evicts content exceeding the budget.
+     * @return  number of evicted entities.
+     * @throws SQLException if the database fails
+     */
+    public int compact() throws SQLException {
+        long now = System.currentTimeMillis();
+        int[] limits = new int[tables.size()];
+        for (int i = 0; i < limits.length; i++) {
+            limits[i] = tables.get(i).limit;
+        }
+        int evicted = evict(now, limits);
+
+        long size = getContentSize();
+        if (size > budget.getMaxSizeBytes()) {
+            double factor = SIZE_HEADROOM * budget.getMaxSizeBytes() / size;
+            for (int i = 0; i < limits.length; i++) {
+                limits[i] = (int) (Math.min(limits[i], countTracked(tables.get(i))) * factor);
+            }
+            DebugLog.i("cache size " + size + " exceeds the limit, lowering row limits by " + factor);
+            evicted += evict(now, limits);
+        }
+        return evicted;
+    }
+
+    /**
+     * Shrinks the DB file by the incremental vacuum, in short steps. Stops as soon as other writes
+     * are waiting, the rest of the free pages are released by the next call. Does nothing in a DB
+     * created before the incremental mode was enabled: switching the mode takes a full VACUUM,
+     * which would block the writes for too long.
+     * @return  number of released pages.
+     * @throws SQLException if the database fails
+     */
+    public int shrink() throws SQLException {
+        if (DatabaseUtils.longForQuery(database, "pragma auto_vacuum", null) != AUTO_VACUUM_INCREMENTAL) {
+            return 0;
+        }
+        int[] released = {0};
+        boolean[] finished = {false};
+        for (int i = 0; i < MAX_VACUUM_STEPS && !finished[0]; i++) {
+            DbTransaction.performOutsideTransaction(accessDao, () -> {
+                long freePageCount = DatabaseUtils.longForQuery(database, "pragma freelist_count", null);
+                if (freePageCount == 0 || DbTransaction.hasPendingWrites()) {
+                    finished[0] = true;
+                    return;
+                }
+                try {
+                    vacuumStep();
+                } catch (android.database.SQLException e) {
+                    throw new SQLException(e);
+                }
+                released[0] += freePageCount - DatabaseUtils.longForQuery(database, "pragma freelist_count", null);
+            });
+        }
+        return released[0];
+    }
+
+    private int evict(long now, int[] limits) throws SQLException {
+        int[] evicted = {0};
+        DbTransaction.performTransaction(accessDao, () -> {
+            try {
+                storeAccesses(now);
+                for (int i = 0; i < tables.size(); i++) {
+                    CachedTable table = tables.get(i);
+                    executeUpdate(table.stampSql, now);
+                    evicted[0] += executeEviction(table.evictExpiredStatements, now - budget.getTimeToLiveMillis());
+                    evicted[0] += executeEviction(table.evictLeastRecentlyUsedStatements, limits[i]);
+                    executeUpdate(table.unmarkOrphansSql);
+                    executeUpdate(table.markOrphansSql, now);
+                    evicted[0] += executeUpdate(table.sweepOrphansSql, now - budget.getOrphanGracePeriodMillis());
+                    for (String statement : table.danglingRelationStatements) {
+                        executeUpdate(statement);
+                    }
+                }
+                for (String statement : cleanupStatements) {
+                    executeUpdate(statement);
+                }
+            } catch (android.database.SQLException e) {
+                throw new SQLException(e);
+            }
+        });
+        return evicted[0];
+    }
+
+    private void storeAccesses(long now) {
+        if (accessLog == null) {
+            return;
+        }
+        Map<String, Map<String, Long>> accesses = accessLog.drain();
+        if (accesses.isEmpty()) {
+            return;
+        }
+        // the orphan state of a known entity is kept
+        SQLiteStatement update = database.compileStatement(renderAccessTemplate(UPDATE_ACCESS_TEMPLATE));
+        SQLiteStatement insert = database.compileStatement(renderAccessTemplate(INSERT_ACCESS_TEMPLATE));
+        try {
+            for (CachedTable table : tables) {
+                Map<String, Long> tableAccesses = accesses.get(table.name);
+                if (tableAccesses == null) {
+                    continue;
+                }
+                for (Map.Entry<String, Long> access : tableAccesses.entrySet()) {
+                    long time = Math.min(access.getValue(), now);
+                    if (bindAccess(update, time, table.name, access.getKey()).executeUpdateDelete() == 0) {
+                        bindAccess(insert, time, table.name, access.getKey()).executeInsert();
+                    }
+                }
+            }
+        } finally {
+            update.close();
+            insert.close();
+        }
+    }
+
+    private static String renderAccessTemplate(String template) {
+        return new Template(template)
+            .var("access", DbSchemas.CacheAccess.TABLE_NAME)
+            .var("a_table", DbSchemas.CacheAccess.ENTITY_TABLE)
+            .var("a_handle", DbSchemas.CacheAccess.HANDLE)
+            .var("a_time", DbSchemas.CacheAccess.LAST_ACCESS)
+            .render();
+    }
+
+    private static SQLiteStatement bindAccess(SQLiteStatement statement, long time, String table, String handle) {
+        statement.bindLong(1, time);
+        statement.bindString(2, table);
+        statement.bindString(3, handle);
+        return statement;
+    }
+
+    private void vacuumStep() {
+        Cursor cursor = database.rawQuery("pragma incremental_vacuum(" + VACUUM_STEP_PAGES + ")", null);
+        try {
+            while (cursor.moveToNext()) {
+                // each row frees a page
+            }
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Gets the size of the pages holding data. Per table sizes aren't available without the
+     * <code>dbstat</code> virtual table, so the byte limit applies to the whole DB.
+     */
+    private long getContentSize() {
+        long pageCount = DatabaseUtils.longForQuery(database, "pragma page_count", null);
+        long freePageCount = DatabaseUtils.longForQuery(database, "pragma freelist_count", null);
+        long pageSize = DatabaseUtils.longForQuery(database, "pragma page_size", null);
+        return (pageCount - freePageCount) * pageSize;
+    }
+
+    private long countTracked(CachedTable table) {
+        return DatabaseUtils.longForQuery(database,
+            new Template(COUNT_TEMPLATE)
+                .var("access", DbSchemas.CacheAccess.TABLE_NAME)
+                .var("a_table", DbSchemas.CacheAccess.ENTITY_TABLE)
+                .render(),
+            new String[] {table.name});
+    }
+
+    /**
+     * Executes eviction statements.
+     * @return  number of evicted entities.
+     */
+    private int executeEviction(List<Eviction> statements, long arg) {
+        int evicted = 0;
+        for (Eviction statement : statements) {
+            int deleted = executeUpdate(statement.sql, arg);
+            if (statement.deletesEntities) {
+                evicted += deleted;
+            }
+        }
+        return evicted;
+    }
+
+    private int executeUpdate(String sql, long... args) {
+        SQLiteStatement statement = database.compileStatement(sql);
+        try {
+            for (int i = 0; i < args.length; i++) {
+                statement.bindLong(i + 1, args[i]);
+            }
+            return statement.executeUpdateDelete();
+        } finally {
+            statement.close();
+        }
+    }
+
+    private static String notReferenced(String owner, String handle, String table, String column) {
+        return new Template(NOT_REFERENCED_TEMPLATE)
+            .var("owner", owner)
+            .var("handle", handle)
+            .var("table", table)
+            .var("column", column)
+            .render();
+    }
+
+    private static String deleteDangling(String table, String handle, String target, String targetHandle) {
+        return new Template(DELETE_DANGLING_TEMPLATE)
+            .var("table", table)
+            .var("handle", handle)
+            .var("target", target)
+            .var("target_handle", targetHandle)
+            .render();
+    }
+
+    private static String joinConditions(String... conditions) {
+        StringBuilder builder = new StringBuilder();
+        for (String condition : conditions) {
+            if (builder.length() > 0) {
+                builder.append(" and ");
+            }
+            builder.append(condition);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Statement deleting the entities selected for eviction or the data referring to them.
+     */
+    private static final class Eviction {
+
+        final String sql;
+        final boolean deletesEntities;
+
+        Eviction(String sql, boolean deletesEntities) {
+            this.sql = sql;
+            this.deletesEntities = deletesEntities;
+        }
+    }
+
+    /**
+     * Feeds referring to the entities of a cached table.
+     */
+    private static final class Feeds {
+
+        final String table;
+        final String handleColumn;
+        final boolean hasFreshness;
+        final String[] keyColumns;
+
+        /**
+         * Creates an instance.
+         * @param table         relation table of the feeds (can be the entity table itself)
+         * @param handleColumn  column referring to the entity
+         * @param hasFreshness  whether the update times of the feeds are stored (the key of
+         *                      a {@link FeedFreshness} is made of the table name and the key columns)
+         * @param keyColumns    columns identifying a feed
+         */
+        Feeds(String table, String handleColumn, boolean hasFreshness, String... keyColumns) {
+            this.table = table;
+            this.handleColumn = handleColumn;
+            this.hasFreshness = hasFreshness;
+            this.keyColumns = keyColumns;
+        }
+
+        String renderSameFeedCondition() {
+            StringBuilder builder = new StringBuilder();
+            for (String column : keyColumns) {
+                if (builder.length() > 0) {
+                    builder.append(" and ");
+                }
+                builder.append("v.`").append(column).append("` is `").append(table).append("`.`")
+                    .append(column).append('`');
+            }
+            return builder.toString();
+        }
+
+        String renderFreshnessKey() {
+            StringBuilder builder = new StringBuilder("'").append(table).append('\'');
+            for (String column : keyColumns) {
+                builder.append(" || '/' || `").append(column).append('`');
+            }
+            return builder.toString();
+        }
+    }
+
+    /**
+     * Eviction statements of a cached entity table.
+     */
+    private static final class CachedTable {
+
+        final String name;
+        final String handleColumn;
+        final int limit;
+        final String stampSql;
+        final List<Eviction> evictExpiredStatements;
+        final List<Eviction> evictLeastRecentlyUsedStatements;
+        final String unmarkOrphansSql;
+        final String markOrphansSql;
+        final String sweepOrphansSql;
+        final String[] danglingRelationStatements;
+
+        /**
+         * Creates an instance.
+         * @param name                  table name
+         * @param handleColumn          handle column
+         * @param limit                 maximum number of rows
+         * @param evictableCondition    condition of a row which can be evicted at all
+         * @param orphanCondition       condition of a row which is only kept for the grace period
+         * @param feeds                 feeds evicted together with their entities (can be null)
+         * @param danglingRelationStatements    statements deleting relations to the evicted rows
+         */
+        CachedTable(String name, String handleColumn, int limit, String evictableCondition,
+                    String orphanCondition, Feeds feeds, String... danglingRelationStatements) {
+            this.name = name;
+            this.handleColumn = handleColumn;
+            this.limit = limit;
+            this.stampSql = template(STAMP_TEMPLATE).render();
+            this.evictExpiredStatements = renderEviction(template(EXPIRED_TEMPLATE).render(),
+                evictableCondition, feeds);
+            this.evictLeastRecentlyUsedStatements = renderEviction(template(LEAST_RECENTLY_USED_TEMPLATE).render(),
+                evictableCondition, feeds);
+            this.unmarkOrphansSql = template(UNMARK_ORPHANS_TEMPLATE).var("condition", orphanCondition).render();
+            this.markOrphansSql = template(MARK_ORPHANS_TEMPLATE).var("condition", orphanCondition).render();
+            this.sweepOrphansSql = template(SWEEP_ORPHANS_TEMPLATE).var("condition", orphanCondition).render();
+            this.danglingRelationStatements = danglingRelationStatements;
+        }
+
+        /**
+         * Renders the statements evicting the selected entities, each takes the parameter of
+         * the selection.
+         */
+        private List<Eviction> renderEviction(String victims, String condition, Feeds feeds) {
+            List<Eviction> statements = new ArrayList<>();
+            if (feeds != null) {
+                if (feeds.hasFreshness) {
+                    statements.add(new Eviction(new Template(EVICT_FRESHNESS_TEMPLATE)
+                        .var("freshness", DbSchemas.FeedFreshness.TABLE_NAME)
+                        .var("freshness_key", DbSchemas.FeedFreshness.FEED_KEY)
+                        .var("feed_key", feeds.renderFreshnessKey())
+                        .var("feeds", feeds.table)
+                        .var("f_handle", feeds.handleColumn)
+                        .var("victims", victims)
+                        .render(), false));
+                }
+                statements.add(new Eviction(new Template(EVICT_FEEDS_TEMPLATE)
+                    .var("feeds", feeds.table)
+                    .var("same_feed", feeds.renderSameFeedCondition())
+                    .var("f_handle", feeds.handleColumn)
+                    .var("victims", victims)
+                    .render(), feeds.table.equals(name)));
+            }
+            statements.add(new Eviction(template(EVICT_TEMPLATE)
+                .var("victims", victims)
+                .var("condition", condition)
+                .render(), true));
+            return statements;
+        }
+
+        private Template template(String template) {
+            return new Template(template)
+                .var("access", DbSchemas.CacheAccess.TABLE_NAME)
+                .var("a_table", DbSchemas.CacheAccess.ENTITY_TABLE)
+                .var("a_handle", DbSchemas.CacheAccess.HANDLE)
+                .var("a_time", DbSchemas.CacheAccess.LAST_ACCESS)
+                .var("a_orphan", DbSchemas.CacheAccess.ORPHAN_SINCE)
+                .var("table", name)
+                .var("handle", handleColumn);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ */
+
+package com.microsoft.embeddedsocial.data.storage;
+
+import com.microsoft.embeddedsocial.base.utils.debug.DebugLog;
+
+/**
+ * Continuation key of a feed page read from the cache. It holds the position of the next page
+ * in the cached feed and means nothing to the server, so a request carrying it is served from
+ * the cache.
+ */
+public final class CacheCursor {
+
+    private static final String PREFIX = "cache:";
+
+    private CacheCursor() {
+    }
+
+    /**
+     * Creates the cursor of a cached page.
+     * @param offset    index of the first item of the page in the cached feed
+     * @return  cache cursor.
+     */
+    public static String fromOffset(int offset) {
+        return PREFIX + offset;
+    }
+
+    /**
+     * Checks if a cursor was created by {@link #fromOffset(int)}.
+     * @param cursor    request cursor (can be null)
+     * @return  true if the cursor points into a cached feed.
+     */
+    public static boolean isCacheCursor(String cursor) {
+        return cursor != null && cursor.startsWith(PREFIX);
+    }
+
+    /**
+     * Gets the position a cursor points to.
+     * @param cursor    request cursor (can be null)
+     * @return  index of the first item of the page, 0 if the cursor isn't a cache cursor.
+     */
+    public static int getOffset(String cursor) {
+        if (!isCacheCursor(cursor)) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(cursor.substring(PREFIX.length()));
+        } catch (NumberFormatException e) {
+            DebugLog.logException(e);
+            return 0;
+        }
+    }
+}
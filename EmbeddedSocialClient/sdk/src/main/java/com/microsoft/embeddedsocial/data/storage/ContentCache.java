@@ -7,7 +7,6 @@ package com.microsoft.embeddedsocial.data.storage;
 
 import com.j256.ormlite.dao.Dao;
 import com.j256.ormlite.stmt.DeleteBuilder;
-import com.j256.ormlite.stmt.PreparedQuery;
 import com.j256.ormlite.stmt.QueryBuilder;
 import com.j256.ormlite.stmt.UpdateBuilder;
 import com.microsoft.embeddedsocial.base.GlobalObjectRegistry;
@@ -17,6 +16,8 @@ import com.microsoft.embeddedsocial.data.model.TopicFeedType;
 import com.microsoft.embeddedsocial.data.storage.exception.FatalDatabaseException;
 import com.microsoft.embeddedsocial.data.storage.model.CommentFeedRelation;
 import com.microsoft.embeddedsocial.data.storage.model.EditedTopic;
+import com.microsoft.embeddedsocial.data.storage.model.FeedFreshness;
+import com.microsoft.embeddedsocial.data.storage.model.FeedGeneration;
 import com.microsoft.embeddedsocial.data.storage.model.TopicFeedRelation;
 import com.microsoft.embeddedsocial.data.storage.transaction.DbTransaction;
 import com.microsoft.embeddedsocial.server.model.FeedUserRequest;
@@ -41,7 +42,9 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Provides cache for topics.
@@ -59,21 +62,28 @@ public class ContentCache {
     private Dao<TopicFeedRelation, Integer> feedDao;
     private Dao<CommentFeedRelation, Integer> commentFeedDao;
     private Dao<EditedTopic, Integer> editedTopicDao;
+    private Dao<FeedFreshness, String> feedFreshnessDao;
+    private final TopicFeedReader topicFeedReader;
+    private final DatabaseHelper helper;
+    private final CacheAccessLog accessLog;
 
     /**
      * Default constructor.
      */
     ContentCache() {
-        DatabaseHelper helper = GlobalObjectRegistry.getObject(DatabaseHelper.class);
+        helper = GlobalObjectRegistry.getObject(DatabaseHelper.class);
         topicDao = helper.getTopicDao();
         commentDao = helper.getCommentDao();
         replyDao = helper.getReplyDao();
         userDao = helper.getUserDao();
         appDao = helper.getAppDao();
+        topicFeedReader = new TopicFeedReader(helper);
+        accessLog = GlobalObjectRegistry.getObject(CacheAccessLog.class);
         try {
             feedDao = helper.getDao(TopicFeedRelation.class);
             commentFeedDao = helper.getDao(CommentFeedRelation.class);
             editedTopicDao = helper.getDao(EditedTopic.class);
+            feedFreshnessDao = helper.getDao(FeedFreshness.class);
         } catch (SQLException e) {
             DebugLog.logException(e);
             throw new FatalDatabaseException(e);
@@ -117,24 +127,7 @@ public class ContentCache {
     private TopicsListResponse getResponse(int feedType, String query, boolean sortResults)
         throws SQLException {
 
-        String userHandleQuery = query != null ? query : TopicFeedRelation.DEFAULT_QUERY;
-        PreparedQuery<TopicFeedRelation> feedQuery = feedDao.queryBuilder()
-            .where()
-            .eq(DbSchemas.TopicFeedRelation.FEED_TYPE, feedType)
-            .and().eq(DbSchemas.TopicFeedRelation.QUERY, userHandleQuery)
-            .prepare();
-
-        List<TopicFeedRelation> relations = feedDao.query(feedQuery);
-        List<TopicView> result = new ArrayList<>();
-        for (TopicFeedRelation relation : relations) {
-            TopicView topicView = topicDao.queryForId(relation.getTopicHandle());
-            topicDao.refresh(topicView);
-            result.add(topicView);
-        }
-
-        if (sortResults) {
-            Collections.sort(result, TIMED_ITEM_COMPARATOR);
-        }
+        List<TopicView> result = topicFeedReader.readFeed(feedType, query, sortResults);
 
         DebugLog.i(result.size() + " topics read from cache for feed type " + feedType
             + " & query " + query);
@@ -152,6 +145,7 @@ public class ContentCache {
         TopicView topic = topicDao.queryForId(request.getTopicHandle());
         if (topic != null) {
             topicDao.refresh(topic);
+            recordAccess(DbSchemas.Topics.TABLE_NAME, topic.getHandle());
         }
 
         return new GetTopicResponse(topic);
@@ -168,6 +162,7 @@ public class ContentCache {
         TopicView topic = topicDao.queryForId(topicHandle);
         if (topic != null) {
             topicDao.refresh(topic);
+            recordAccess(DbSchemas.Topics.TABLE_NAME, topicHandle);
         }
 
         return new GetTopicResponse(topic);
@@ -195,6 +190,7 @@ public class ContentCache {
         if (comment == null) {
             throw new SQLException("comment " + commentHandle + " not found in cache");
         }
+        recordAccess(DbSchemas.Comments.TABLE_NAME, commentHandle);
 
         return comment;
     }
@@ -213,13 +209,17 @@ public class ContentCache {
             .eq(DbSchemas.CommentFeedRelation.FEED_TYPE, request.getCommentFeedType())
             .and()
             .eq(DbSchemas.CommentFeedRelation.TOPIC_HANDLE, request.getTopicHandle())
+            .and()
+            .eq(DbSchemas.CommentFeedRelation.GENERATION, FeedGeneration.LIVE)
             .query();
 
         List<CommentView> comments = new ArrayList<>();
         for (CommentFeedRelation relation : relations) {
-            CommentView comment = commentDao.queryForId(relation.getCommentHandle());
+            String commentHandle = relation.getCommentHandle();
+            CommentView comment = commentDao.queryForId(commentHandle);
             commentDao.refresh(comment);
             comments.add(comment);
+            recordAccess(DbSchemas.Comments.TABLE_NAME, commentHandle);
         }
         Collections.sort(comments, TIMED_ITEM_COMPARATOR);
 
@@ -240,10 +240,52 @@ public class ContentCache {
             .where()
             .eq(DbSchemas.Replies.COMMENT_HANDLE, request.getCommentHandle())
             .query();
+        for (ReplyView reply : results) {
+            recordAccess(DbSchemas.Replies.TABLE_NAME, reply.getHandle());
+        }
 
         return new GetReplyFeedResponse(results);
     }
 
+    /**
+     * Gets the time the first page of a topic feed was last received from the server.
+     * @param request   topic feed request
+     * @return  update time or 0 if the feed isn't cached.
+     * @throws SQLException if the database fails
+     */
+    public long getFeedUpdateTime(GetTopicFeedRequest request) throws SQLException {
+        return getFeedUpdateTime(getTopicFeedKey(request.getTopicFeedType().ordinal(), request.getQuery()));
+    }
+
+    /**
+     * Gets the time the first page of a comment feed was last received from the server.
+     * @param request   comment feed request
+     * @return  update time or 0 if the feed isn't cached.
+     * @throws SQLException if the database fails
+     */
+    public long getCommentFeedUpdateTime(GetCommentFeedRequest request) throws SQLException {
+        return getFeedUpdateTime(getCommentFeedKey(request));
+    }
+
+    private long getFeedUpdateTime(String feedKey) throws SQLException {
+        FeedFreshness freshness = feedFreshnessDao.queryForId(feedKey);
+        return freshness != null ? freshness.getUpdateTime() : 0;
+    }
+
+    /**
+     * Gets the key of a topic feed's freshness. Must match the key rendered by {@link CacheCompactor}
+     * from the stored relations, whose query is never null.
+     */
+    private static String getTopicFeedKey(int feedType, String query) {
+        return DbSchemas.TopicFeedRelation.TABLE_NAME + "/" + feedType + "/"
+            + (query != null ? query : TopicFeedRelation.DEFAULT_QUERY);
+    }
+
+    private static String getCommentFeedKey(GetCommentFeedRequest request) {
+        return DbSchemas.CommentFeedRelation.TABLE_NAME + "/" + request.getCommentFeedType()
+            + "/" + request.getTopicHandle();
+    }
+
     /**
      * Stores topic feed received from the server.
      * @param request       the request
@@ -278,37 +320,100 @@ public class ContentCache {
         int feedType, String query) throws SQLException {
 
         DebugTimer.startInterval("saving topic feed");
-        if (TextUtils.isEmpty(request.getCursor())) {
-            DeleteBuilder<TopicFeedRelation, Integer> deleteBuilder = feedDao.deleteBuilder();
-            String userHandleQuery = (query != null) ? query : TopicFeedRelation.DEFAULT_QUERY;
-            deleteBuilder.where()
-                .eq(DbSchemas.TopicFeedRelation.FEED_TYPE, feedType)
-                .and().eq(DbSchemas.TopicFeedRelation.QUERY, userHandleQuery);
-            deleteBuilder.delete();
+        boolean firstPage = TextUtils.isEmpty(request.getCursor());
+        int generation = firstPage ? FeedGeneration.STAGING : FeedGeneration.LIVE;
+        DbTransaction.performTransaction(topicDao, () -> {
+            insertTopicFeedContents(response.getData(), feedType, query, generation);
+            if (firstPage) {
+                swapTopicFeedGeneration(feedType, query);
+                feedFreshnessDao.createOrUpdate(
+                    new FeedFreshness(getTopicFeedKey(feedType, query), System.currentTimeMillis()));
+            }
+        });
+        if (firstPage) {
+            collectRetiredGenerations();
         }
-        DbTransaction.performTransaction(
-            topicDao,
-            () -> insertTopicFeedContents(response.getData(), feedType, query)
-        );
         DebugTimer.endInterval();
         DebugLog.i("stored " + response.getData().size() + " topics for " + request);
     }
 
-    private void insertTopicFeedContents(List<TopicView> feed, int feedType, String query)
-        throws SQLException {
+    private void insertTopicFeedContents(List<TopicView> feed, int feedType, String query,
+        int generation) throws SQLException {
 
         updateTopicsEditedLocally(feed);
 
+        BulkWriter writer = new BulkWriter(helper);
+        for (TopicView topicView : feed) {
+            writer.put(userDao, topicView.getUser());
+            writer.put(appDao, topicView.getApp());
+            writer.put(topicDao, topicView);
+        }
         for (TopicView topicView : feed) {
-            storeTopicInternal(topicView);
             TopicFeedRelation relation = new TopicFeedRelation(
                 query,
                 feedType,
-                topicView.getHandle()
+                topicView.getHandle(),
+                generation
             );
-            feedDao.createOrUpdate(relation);
+            writer.put(feedDao, relation);
         }
+        writer.flush();
+    }
 
+    /**
+     * Makes the staging generation of a topic feed live and retires the previous one.
+     */
+    private void swapTopicFeedGeneration(int feedType, String query) throws SQLException {
+        String feedQuery = (query != null) ? query : TopicFeedRelation.DEFAULT_QUERY;
+        UpdateBuilder<TopicFeedRelation, Integer> retireBuilder = feedDao.updateBuilder();
+        retireBuilder.updateColumnValue(DbSchemas.TopicFeedRelation.GENERATION, FeedGeneration.RETIRED)
+            .where()
+            .eq(DbSchemas.TopicFeedRelation.FEED_TYPE, feedType)
+            .and().eq(DbSchemas.TopicFeedRelation.QUERY, feedQuery)
+            .and().eq(DbSchemas.TopicFeedRelation.GENERATION, FeedGeneration.LIVE);
+        retireBuilder.update();
+        UpdateBuilder<TopicFeedRelation, Integer> publishBuilder = feedDao.updateBuilder();
+        publishBuilder.updateColumnValue(DbSchemas.TopicFeedRelation.GENERATION, FeedGeneration.LIVE)
+            .where()
+            .eq(DbSchemas.TopicFeedRelation.FEED_TYPE, feedType)
+            .and().eq(DbSchemas.TopicFeedRelation.QUERY, feedQuery)
+            .and().eq(DbSchemas.TopicFeedRelation.GENERATION, FeedGeneration.STAGING);
+        publishBuilder.update();
+    }
+
+    /**
+     * Makes the staging generation of a comment feed live and retires the previous one.
+     */
+    private void swapCommentFeedGeneration(GetCommentFeedRequest request) throws SQLException {
+        UpdateBuilder<CommentFeedRelation, Integer> retireBuilder = commentFeedDao.updateBuilder();
+        retireBuilder.updateColumnValue(DbSchemas.CommentFeedRelation.GENERATION, FeedGeneration.RETIRED)
+            .where()
+            .eq(DbSchemas.CommentFeedRelation.TOPIC_HANDLE, request.getTopicHandle())
+            .and().eq(DbSchemas.CommentFeedRelation.FEED_TYPE, request.getCommentFeedType())
+            .and().eq(DbSchemas.CommentFeedRelation.GENERATION, FeedGeneration.LIVE);
+        retireBuilder.update();
+        UpdateBuilder<CommentFeedRelation, Integer> publishBuilder = commentFeedDao.updateBuilder();
+        publishBuilder.updateColumnValue(DbSchemas.CommentFeedRelation.GENERATION, FeedGeneration.LIVE)
+            .where()
+            .eq(DbSchemas.CommentFeedRelation.TOPIC_HANDLE, request.getTopicHandle())
+            .and().eq(DbSchemas.CommentFeedRelation.FEED_TYPE, request.getCommentFeedType())
+            .and().eq(DbSchemas.CommentFeedRelation.GENERATION, FeedGeneration.STAGING);
+        publishBuilder.update();
+    }
+
+    /**
+     * Deletes retired feed rows in background. Deleting them fires the consistency triggers
+     * cleaning up unreferenced content, so it's kept out of the transaction swapping the feed.
+     */
+    private void collectRetiredGenerations() {
+        DbTransaction.performTransactionAsync(feedDao, () -> {
+            DeleteBuilder<TopicFeedRelation, Integer> topicFeedBuilder = feedDao.deleteBuilder();
+            topicFeedBuilder.where().eq(DbSchemas.TopicFeedRelation.GENERATION, FeedGeneration.RETIRED);
+            topicFeedBuilder.delete();
+            DeleteBuilder<CommentFeedRelation, Integer> commentFeedBuilder = commentFeedDao.deleteBuilder();
+            commentFeedBuilder.where().eq(DbSchemas.CommentFeedRelation.GENERATION, FeedGeneration.RETIRED);
+            commentFeedBuilder.delete();
+        });
     }
 
     /**
@@ -318,31 +423,37 @@ public class ContentCache {
      * @throws SQLException if the database fails.
      */
     public void storeCommentFeed(GetCommentFeedRequest request, GetCommentFeedResponse response) throws SQLException {
-        if (TextUtils.isEmpty(request.getCursor())) {
-            DeleteBuilder<CommentFeedRelation, Integer> deleteBuilder = commentFeedDao.deleteBuilder();
-            deleteBuilder.where()
-                .eq(DbSchemas.CommentFeedRelation.TOPIC_HANDLE, request.getTopicHandle())
-                .and()
-                .eq(DbSchemas.CommentFeedRelation.FEED_TYPE, request.getCommentFeedType());
-            deleteBuilder.delete();
+        boolean firstPage = TextUtils.isEmpty(request.getCursor());
+        int generation = firstPage ? FeedGeneration.STAGING : FeedGeneration.LIVE;
+        DbTransaction.performTransaction(commentDao, () -> {
+            insertCommentFeedContent(request, response, generation);
+            if (firstPage) {
+                swapCommentFeedGeneration(request);
+                feedFreshnessDao.createOrUpdate(
+                    new FeedFreshness(getCommentFeedKey(request), System.currentTimeMillis()));
+            }
+        });
+        if (firstPage) {
+            collectRetiredGenerations();
         }
-        DbTransaction.performTransaction(commentDao,
-            () -> insertCommentFeedContent(request, response));
     }
 
     private void insertCommentFeedContent(GetCommentFeedRequest request,
-        GetCommentFeedResponse response) throws SQLException {
+        GetCommentFeedResponse response, int generation) throws SQLException {
 
+        BulkWriter writer = new BulkWriter(helper);
         for (CommentView comment : response.getData()) {
-            userDao.createOrUpdate(comment.getUser());
-            commentDao.createOrUpdate(comment);
+            writer.put(userDao, comment.getUser());
+            writer.put(commentDao, comment);
             CommentFeedRelation relation = new CommentFeedRelation(
                     request.getCommentFeedType(),
                     request.getTopicHandle(),
-                    comment.getHandle()
+                    comment.getHandle(),
+                    generation
             );
-            commentFeedDao.create(relation);
+            writer.put(commentFeedDao, relation);
         }
+        writer.flush();
     }
 
     /**
@@ -352,12 +463,14 @@ public class ContentCache {
      * @throws SQLException if the database fails
      */
     public void storeReplyFeed(GetReplyFeedRequest request, GetReplyFeedResponse response) throws SQLException {
-        if (TextUtils.isEmpty(request.getCursor())) {
-            DeleteBuilder<ReplyView, String> deleteBuilder = replyDao.deleteBuilder();
-            deleteBuilder.where().eq(DbSchemas.Replies.COMMENT_HANDLE, request.getCommentHandle());
-            deleteBuilder.delete();
-        }
+        // replies are stored in the content table itself, so the feed is replaced
+        // in one transaction which readers don't see until it's committed
         DbTransaction.performTransaction(replyDao, () -> {
+            if (TextUtils.isEmpty(request.getCursor())) {
+                DeleteBuilder<ReplyView, String> deleteBuilder = replyDao.deleteBuilder();
+                deleteBuilder.where().eq(DbSchemas.Replies.COMMENT_HANDLE, request.getCommentHandle());
+                deleteBuilder.delete();
+            }
             for (ReplyView reply : response.getData()) {
                 userDao.createOrUpdate(reply.getUser());
                 replyDao.createOrUpdate(reply);
@@ -376,8 +489,12 @@ public class ContentCache {
     }
 
     private void updateTopicsEditedLocally(List<TopicView> topics) throws SQLException {
+        if (topics.isEmpty()) {
+            return;
+        }
+        Map<String, EditedTopic> editedTopics = findEditedTopicsByHandles(topics);
         for (TopicView topic : topics) {
-            EditedTopic editedTopic = findEditedTopicByHandle(topic.getHandle());
+            EditedTopic editedTopic = editedTopics.get(topic.getHandle());
             if (editedTopic != null) {
                 topic.setTopicText(editedTopic.getTopicText());
                 topic.setTopicTitle(editedTopic.getTopicTitle());
@@ -385,10 +502,20 @@ public class ContentCache {
         }
     }
 
-    private EditedTopic findEditedTopicByHandle(String topicHandle) throws SQLException {
+    private Map<String, EditedTopic> findEditedTopicsByHandles(List<TopicView> topics)
+        throws SQLException {
+
+        List<String> topicHandles = new ArrayList<>(topics.size());
+        for (TopicView topic : topics) {
+            topicHandles.add(topic.getHandle());
+        }
         QueryBuilder<EditedTopic, Integer> queryBuilder = editedTopicDao.queryBuilder();
-        queryBuilder.where().eq(DbSchemas.Topics.TOPIC_HANDLE, topicHandle);
-        return queryBuilder.queryForFirst();
+        queryBuilder.where().in(DbSchemas.Topics.TOPIC_HANDLE, topicHandles);
+        Map<String, EditedTopic> editedTopics = new HashMap<>();
+        for (EditedTopic editedTopic : queryBuilder.query()) {
+            editedTopics.put(editedTopic.getTopicHandle(), editedTopic);
+        }
+        return editedTopics;
     }
 
     private void storeTopicInternal(TopicView topicView) throws SQLException {
@@ -405,7 +532,7 @@ public class ContentCache {
         DeleteBuilder<TopicFeedRelation, Integer> deleteBuilder = feedDao.deleteBuilder();
         try {
             deleteBuilder.where().eq(DbSchemas.TopicFeedRelation.TOPIC_HANDLE, topicHandle);
-            deleteBuilder.delete();
+            DbTransaction.performTransaction(feedDao, deleteBuilder::delete);
         } catch (SQLException e) {
             DebugLog.logException(e);
         }
@@ -420,17 +547,19 @@ public class ContentCache {
         try {
             String topicHandle = getCommentParentHandle(commentHandle);
             deleteBuilder.where().eq(DbSchemas.CommentFeedRelation.COMMENT_HANDLE, commentHandle);
-            deleteBuilder.delete();
-            if (!TextUtils.isEmpty(topicHandle)) {
-                UpdateBuilder<TopicView, String> updateBuilder = topicDao.updateBuilder();
-                updateBuilder.where()
-                    .eq(DbSchemas.Topics.TOPIC_HANDLE, topicHandle)
-                    .and().gt(DbSchemas.Topics.TOTAL_COMMENTS, 0);
-                updateBuilder.updateColumnExpression(
-                    DbSchemas.Topics.TOTAL_COMMENTS,
-                    DbSchemas.Topics.TOTAL_COMMENTS + " - 1");
-                updateBuilder.update();
-            }
+            DbTransaction.performTransaction(commentFeedDao, () -> {
+                deleteBuilder.delete();
+                if (!TextUtils.isEmpty(topicHandle)) {
+                    UpdateBuilder<TopicView, String> updateBuilder = topicDao.updateBuilder();
+                    updateBuilder.where()
+                        .eq(DbSchemas.Topics.TOPIC_HANDLE, topicHandle)
+                        .and().gt(DbSchemas.Topics.TOTAL_COMMENTS, 0);
+                    updateBuilder.updateColumnExpression(
+                        DbSchemas.Topics.TOTAL_COMMENTS,
+                        DbSchemas.Topics.TOTAL_COMMENTS + " - 1");
+                    updateBuilder.update();
+                }
+            });
         } catch (SQLException e) {
             DebugLog.logException(e);
         }
@@ -446,20 +575,22 @@ public class ContentCache {
      * @param replyHandle   reply handle
      */
     public void removeReply(String replyHandle) throws SQLException {
-        ReplyView reply = replyDao.queryForId(replyHandle);
-        if (reply != null) {
-            String commentHandle = reply.getCommentHandle();
-            CommentView comment = commentDao.queryForId(commentHandle);
-            if (comment != null) {
-                commentDao.refresh(comment);
-                long replies = comment.getTotalReplies();
-                if (replies > 0) {
-                    comment.setTotalReplies(replies - 1);
-                    commentDao.update(comment);
+        DbTransaction.performTransaction(replyDao, () -> {
+            ReplyView reply = replyDao.queryForId(replyHandle);
+            if (reply != null) {
+                String commentHandle = reply.getCommentHandle();
+                CommentView comment = commentDao.queryForId(commentHandle);
+                if (comment != null) {
+                    commentDao.refresh(comment);
+                    long replies = comment.getTotalReplies();
+                    if (replies > 0) {
+                        comment.setTotalReplies(replies - 1);
+                        commentDao.update(comment);
+                    }
                 }
+                replyDao.delete(reply);
             }
-            replyDao.delete(reply);
-        }
+        });
     }
 
     /**
@@ -483,10 +614,17 @@ public class ContentCache {
         if (reply == null) {
             throw new SQLException("reply " + replyHandle + " was not found in cache");
         }
+        recordAccess(DbSchemas.Replies.TABLE_NAME, replyHandle);
 
         return reply;
     }
 
+    private void recordAccess(String table, String handle) {
+        if (accessLog != null) {
+            accessLog.recordAccess(table, handle);
+        }
+    }
+
     /**
      * A comparator for timed items.
      */
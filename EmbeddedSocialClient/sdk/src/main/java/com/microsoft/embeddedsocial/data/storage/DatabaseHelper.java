@@ -12,7 +12,11 @@ import com.j256.ormlite.table.TableUtils;
 import com.microsoft.embeddedsocial.base.utils.debug.DebugLog;
 import com.microsoft.embeddedsocial.data.model.AddPostData;
 import com.microsoft.embeddedsocial.data.storage.exception.FatalDatabaseException;
+import com.microsoft.embeddedsocial.data.storage.index.ISqlIndex;
+import com.microsoft.embeddedsocial.data.storage.migration.DbMigrations;
+import com.microsoft.embeddedsocial.data.storage.migration.MigrationUtils;
 import com.microsoft.embeddedsocial.data.storage.model.UserRelationOperation;
+import com.microsoft.embeddedsocial.data.storage.transaction.DbTransaction;
 import com.microsoft.embeddedsocial.data.storage.trigger.ISqlTrigger;
 import com.microsoft.embeddedsocial.server.model.view.AppCompactView;
 import com.microsoft.embeddedsocial.server.model.view.CommentView;
@@ -23,9 +27,12 @@ import com.microsoft.embeddedsocial.server.model.view.UserCompactView;
 import com.microsoft.embeddedsocial.server.model.view.UserProfileView;
 
 import android.content.Context;
+import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
+import android.os.Build;
 
 import java.sql.SQLException;
+import java.util.HashSet;
 import java.util.Set;
 
 /**
@@ -33,7 +40,11 @@ import java.util.Set;
  */
 public class DatabaseHelper extends OrmLiteSqliteOpenHelper {
 
-    private static final int DB_VERSION = 18;
+    /**
+     * Current DB schema version. Every change of the schema has to bump it and register
+     * a corresponding step in {@link DbMigrations}.
+     */
+    public static final int DB_VERSION = 26;
     private static final String DB_NAME = "local_content";
 
     private Dao<TopicView, String> topicDao;
@@ -51,6 +62,10 @@ public class DatabaseHelper extends OrmLiteSqliteOpenHelper {
      */
     public DatabaseHelper(Context context) {
         super(context, DB_NAME, null, DB_VERSION);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            // readers don't wait for the single writer (see DbTransaction)
+            setWriteAheadLoggingEnabled(true);
+        }
         try {
             this.topicDao = getDao(TopicView.class);
             this.commentDao = getDao(CommentView.class);
@@ -105,14 +120,55 @@ public class DatabaseHelper extends OrmLiteSqliteOpenHelper {
 
     @Override
     public void onCreate(SQLiteDatabase database, ConnectionSource connectionSource) {
+        // can only be enabled before the first table is created, see CacheCompactor.shrink()
+        database.execSQL("pragma auto_vacuum = incremental");
         try {
             createAllTables(connectionSource);
             createAllTriggers(database);
+            createAllIndexes(database);
         } catch (SQLException e) {
             DebugLog.logException(e);
         }
     }
 
+    @Override
+    public void onOpen(SQLiteDatabase database) {
+        super.onOpen(database);
+        if (!database.isReadOnly()) {
+            if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN) {
+                database.enableWriteAheadLogging();
+            }
+            verifyIndexes(database);
+        }
+    }
+
+    private void createAllIndexes(SQLiteDatabase database) {
+        for (ISqlIndex index : DbModelRegistry.getRegisteredIndexes()) {
+            database.execSQL(index.toSqlCreateStatement());
+        }
+    }
+
+    /**
+     * Creates registered indexes missing in the DB (e.g. the ones declared after the DB was created).
+     */
+    private void verifyIndexes(SQLiteDatabase database) {
+        Set<String> existingIndexes = new HashSet<>();
+        Cursor cursor = database.rawQuery("select name from sqlite_master where type = 'index'", null);
+        try {
+            while (cursor.moveToNext()) {
+                existingIndexes.add(cursor.getString(0));
+            }
+        } finally {
+            cursor.close();
+        }
+        for (ISqlIndex index : DbModelRegistry.getRegisteredIndexes()) {
+            if (!existingIndexes.contains(index.getName())) {
+                DebugLog.w("creating missing index " + index.getName());
+                database.execSQL(index.toSqlCreateStatement());
+            }
+        }
+    }
+
     private void createAllTriggers(SQLiteDatabase database) {
         for (ISqlTrigger trigger : DbModelRegistry.getRegisteredTriggers()) {
             database.execSQL(trigger.toSqlCreateStatement());
@@ -124,12 +180,18 @@ public class DatabaseHelper extends OrmLiteSqliteOpenHelper {
      */
     public void clearData() {
         Set<Class<?>> registeredModels = DbModelRegistry.getRegisteredModels();
-        for (Class<?> registeredModel : registeredModels) {
-            try {
-                TableUtils.clearTable(connectionSource, registeredModel);
-            } catch (SQLException e) {
-                DebugLog.logException(e);
-            }
+        try {
+            DbTransaction.performTransaction(topicDao, () -> {
+                for (Class<?> registeredModel : registeredModels) {
+                    try {
+                        TableUtils.clearTable(connectionSource, registeredModel);
+                    } catch (SQLException e) {
+                        DebugLog.logException(e);
+                    }
+                }
+            });
+        } catch (SQLException e) {
+            DebugLog.logException(e);
         }
     }
 
@@ -147,13 +209,36 @@ public class DatabaseHelper extends OrmLiteSqliteOpenHelper {
         }
     }
 
+    /**
+     * Upgrades the DB incrementally keeping cached content and pending operations. Falls back
+     * to recreating all tables if the DB is too old to be migrated or the migration fails.
+     * Is called by {@linkplain android.database.sqlite.SQLiteOpenHelper} inside a transaction.
+     */
     @Override
     public void onUpgrade(SQLiteDatabase database, ConnectionSource connectionSource, int oldVersion, int newVersion) {
+        if (DbMigrations.canMigrate(oldVersion, newVersion)) {
+            try {
+                DbMigrations.migrate(database, connectionSource, oldVersion, newVersion);
+                createAllTables(connectionSource);
+                MigrationUtils.dropAllTriggers(database);
+                createAllTriggers(database);
+                createAllIndexes(database);
+                return;
+            } catch (SQLException | android.database.SQLException e) {
+                DebugLog.logException(e);
+            }
+        }
+        DebugLog.w("recreating DB, version " + oldVersion + " can't be migrated to " + newVersion);
+        recreateAllTables(database, connectionSource);
+    }
+
+    private void recreateAllTables(SQLiteDatabase database, ConnectionSource connectionSource) {
         try {
             dropAllTables();
         } catch (SQLException e) {
             DebugLog.logException(e);
         }
+        MigrationUtils.dropAllTriggers(database);
         onCreate(database, connectionSource);
     }
 }
@@ -7,16 +7,22 @@ package com.microsoft.embeddedsocial.data.storage;
 
 import com.microsoft.embeddedsocial.data.model.AddPostData;
 import com.microsoft.embeddedsocial.data.model.DiscussionItem;
+import com.microsoft.embeddedsocial.data.storage.model.CacheAccess;
 import com.microsoft.embeddedsocial.data.storage.model.CommentFeedRelation;
 import com.microsoft.embeddedsocial.data.storage.model.EditedTopic;
+import com.microsoft.embeddedsocial.data.storage.model.FeedFreshness;
+import com.microsoft.embeddedsocial.data.storage.model.OutboxEntry;
 import com.microsoft.embeddedsocial.data.storage.model.ReportContentOperation;
 import com.microsoft.embeddedsocial.data.storage.model.TopicFeedRelation;
 import com.microsoft.embeddedsocial.data.storage.model.UserAccountBinding;
 import com.microsoft.embeddedsocial.data.storage.model.UserFeedRelation;
+import com.microsoft.embeddedsocial.data.storage.index.CacheIndexes;
+import com.microsoft.embeddedsocial.data.storage.index.ISqlIndex;
 import com.microsoft.embeddedsocial.data.storage.model.UserRelationOperation;
 import com.microsoft.embeddedsocial.data.storage.trigger.ISqlTrigger;
 import com.microsoft.embeddedsocial.data.storage.trigger.consistency.ContentTriggers;
 import com.microsoft.embeddedsocial.data.storage.trigger.consistency.NotificationTriggers;
+import com.microsoft.embeddedsocial.data.storage.trigger.consistency.OutboxTriggers;
 import com.microsoft.embeddedsocial.data.storage.trigger.consistency.UserActionTriggers;
 import com.microsoft.embeddedsocial.data.storage.trigger.consistency.UserRelationTriggers;
 import com.microsoft.embeddedsocial.server.model.view.ActivityView;
@@ -43,6 +49,7 @@ public final class DbModelRegistry {
 
     private static final Set<Class<?>> MODEL_CLASSES = new HashSet<>();
     private static final List<ISqlTrigger> TRIGGERS = new ArrayList<>();
+    private static final List<ISqlIndex> INDEXES = new ArrayList<>();
 
     private DbModelRegistry() {  }
 
@@ -73,14 +80,21 @@ public final class DbModelRegistry {
         registerDbModel(ReportContentOperation.class);
         registerDbModel(DiscussionItem.class);
         registerDbModel(EditedTopic.class);
+        registerDbModel(CacheAccess.class);
+        registerDbModel(FeedFreshness.class);
+        registerDbModel(OutboxEntry.class);
     }
 
     static {
         registerTriggers(ContentTriggers.TRIGGERS);
         registerTriggers(UserActionTriggers.TRIGGERS);
         registerTriggers(NotificationTriggers.TRIGGERS);
-        registerTriggers(UserRelationTriggers.OPERATION_CLEANUP_TRIGGERS);
         registerTriggers(UserRelationTriggers.CONSISTENCY_TRIGGERS);
+        registerTriggers(OutboxTriggers.TRIGGERS);
+    }
+
+    static {
+        registerIndexes(CacheIndexes.INDEXES);
     }
 
     /**
@@ -114,4 +128,20 @@ public final class DbModelRegistry {
     public static List<ISqlTrigger> getRegisteredTriggers() {
         return Collections.unmodifiableList(TRIGGERS);
     }
+
+    /**
+     * Registers DB indexes.
+     * @param indexes   the indexes to register
+     */
+    public static void registerIndexes(ISqlIndex... indexes) {
+        INDEXES.addAll(Arrays.asList(indexes));
+    }
+
+    /**
+     * Gets all registered DB indexes.
+     * @return  DB indexes.
+     */
+    public static List<ISqlIndex> getRegisteredIndexes() {
+        return Collections.unmodifiableList(INDEXES);
+    }
 }
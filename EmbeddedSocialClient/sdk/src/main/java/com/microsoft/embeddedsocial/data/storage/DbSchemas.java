@@ -33,6 +33,7 @@ public final class DbSchemas {
 
         public static final String TABLE_NAME = "topics";
         public static final String USER = "user";
+        public static final String APP = "app_id";
         public static final String CREATED_TIME = "createdTime";
         public static final String TOPIC_HANDLE = "topicHandle";
         public static final String LIKE_STATUS = "likeStatus";
@@ -48,6 +49,7 @@ public final class DbSchemas {
         private CompactUserData() {  }
 
         public static final String TABLE_NAME = "users_compact";
+        public static final String USER_HANDLE = "userHandle";
         public static final String FOLLOWER_STATUS = "followerStatus";
     }
 
@@ -55,13 +57,16 @@ public final class DbSchemas {
         private Apps() {  }
 
         public static final String TABLE_NAME = "apps";
+        public static final String APP_HANDLE = "appHandle";
     }
 
     public static class TopicFeedRelation {
         public static final String TABLE_NAME = "topic_feeds";
+        public static final String ID = "id";
         public static final String TOPIC_HANDLE = "topicHandle";
         public static final String FEED_TYPE = "feedType";
         public static final String QUERY = "query";
+        public static final String GENERATION = "generation";
     }
 
     public static class PinStatus {
@@ -84,6 +89,7 @@ public final class DbSchemas {
         public static final String TABLE_NAME = "comments";
         public static final String COMMENT_HANDLE = "commentHandle";
         public static final String TOPIC_HANDLE = "topicHandle";
+        public static final String USER = "user_id";
         public static final String CREATED_TIME = "createdTime";
         public static final String TOTAL_LIKES = "totalLikes";
         public static final String TOTAL_REPLIES = "totalReplies";
@@ -95,23 +101,27 @@ public final class DbSchemas {
         public static final String TOPIC_HANDLE = "topicHandle";
         public static final String COMMENT_HANDLE = "commentHandle";
         public static final String FEED_TYPE = "feedType";
+        public static final String GENERATION = "generation";
     }
 
     public static class Replies {
         public static final String TABLE_NAME = "replies";
         public static final String REPLY_HANDLE = "replyHandle";
         public static final String COMMENT_HANDLE = "commentHandle";
+        public static final String USER = "user_id";
         public static final String TOTAL_LIKES = "totalLikes";
         public static final String LIKE_STATUS = "likeStatus";
     }
 
     public static class RemoveActions {
+        public static final String TABLE_NAME = "contentremovedaction";
         public static final String CONTENT_TYPE = "contentType";
         public static final String CONTENT_HANDLE = "contentHandle";
     }
 
     public static class UserFeeds {
         public static final String TABLE_NAME = "user_feed";
+        public static final String ID = "id";
         public static final String USER_HANDLE = "userHandle";
         public static final String FEED_TYPE = "feedType";
         public static final String QUERIED_USER_HANDLE = "queriedUserHandle";
@@ -127,14 +137,18 @@ public final class DbSchemas {
     public static class UserActivity {
         public static final String TABLE_NAME = "activity";
         public static final String ACTIVITY_HANDLE = "activityHandle";
+        public static final String ACTED_ON_USER = "actedOnUser_id";
+        public static final String APP = "app_id";
     }
 
     public static class ActivityActor {
         public static final String TABLE_NAME = "activity_actors";
+        public static final String ID = "id";
     }
 
     public static class ActivityFeed {
         public static final String TABLE_NAME = "activity_feeds";
+        public static final String ID = "id";
         public static final String FEED_TYPE = "feedType";
     }
 
@@ -187,4 +201,30 @@ public final class DbSchemas {
     public class EditedTopic {
         public static final String TABLE_NAME = "edited_topic";
     }
+
+    public static class CacheAccess {
+        public static final String TABLE_NAME = "cache_access";
+        public static final String ID = "id";
+        public static final String ENTITY_TABLE = "entityTable";
+        public static final String HANDLE = "handle";
+        public static final String LAST_ACCESS = "lastAccess";
+        public static final String ORPHAN_SINCE = "orphanSince";
+    }
+
+    public static class FeedFreshness {
+        public static final String TABLE_NAME = "feed_freshness";
+        public static final String FEED_KEY = "feedKey";
+        public static final String UPDATE_TIME = "updateTime";
+    }
+
+    public static class Outbox {
+        public static final String TABLE_NAME = "outbox";
+        public static final String OPERATION = "operation";
+        public static final String PAYLOAD_ID = "payloadId";
+        public static final String STATUS = "status";
+        public static final String ATTEMPTS = "attempts";
+        public static final String NEXT_ATTEMPT_AT = "nextAttemptAt";
+        public static final String LAST_ERROR = "lastError";
+        public static final String SENT = "sent";
+    }
 }
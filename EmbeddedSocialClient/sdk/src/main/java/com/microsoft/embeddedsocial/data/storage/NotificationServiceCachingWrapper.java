@@ -6,6 +6,7 @@
 package com.microsoft.embeddedsocial.data.storage;
 
 import com.microsoft.embeddedsocial.autorest.models.CountResponse;
+import com.microsoft.embeddedsocial.base.GlobalObjectRegistry;
 import com.microsoft.embeddedsocial.data.Preferences;
 import com.microsoft.embeddedsocial.data.storage.request.wrapper.AbstractBatchRequestWrapper;
 import com.microsoft.embeddedsocial.server.INotificationService;
@@ -17,8 +18,7 @@ import com.microsoft.embeddedsocial.server.model.notification.RegisterPushNotifi
 import com.microsoft.embeddedsocial.server.model.notification.UnRegisterPushNotificationRequest;
 import com.microsoft.embeddedsocial.server.model.notification.UpdateNotificationStatusRequest;
 import com.microsoft.embeddedsocial.server.model.view.ActivityView;
-import com.microsoft.embeddedsocial.service.ServiceAction;
-import com.microsoft.embeddedsocial.service.WorkerService;
+import com.microsoft.embeddedsocial.server.sync.SyncScheduler;
 
 import android.content.Context;
 import android.text.TextUtils;
@@ -143,6 +143,6 @@ public class NotificationServiceCachingWrapper implements INotificationService {
     }
 
     private void launchSync() {
-        WorkerService.getLauncher(context).launchService(ServiceAction.SYNC_DATA);
+        GlobalObjectRegistry.getObject(SyncScheduler.class).requestSync();
     }
 }
@@ -0,0 +1,409 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ */
+
+package com.microsoft.embeddedsocial.data.storage;
+
+import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.stmt.QueryBuilder;
+import com.j256.ormlite.stmt.UpdateBuilder;
+import com.j256.ormlite.stmt.Where;
+import com.microsoft.embeddedsocial.base.GlobalObjectRegistry;
+import com.microsoft.embeddedsocial.base.utils.debug.DebugLog;
+import com.microsoft.embeddedsocial.data.model.AddPostData;
+import com.microsoft.embeddedsocial.data.model.DiscussionItem;
+import com.microsoft.embeddedsocial.data.storage.exception.FatalDatabaseException;
+import com.microsoft.embeddedsocial.data.storage.model.EditedTopic;
+import com.microsoft.embeddedsocial.data.storage.model.OutboxEntry;
+import com.microsoft.embeddedsocial.data.storage.model.ReportContentOperation;
+import com.microsoft.embeddedsocial.data.storage.model.UserRelationOperation;
+import com.microsoft.embeddedsocial.data.storage.transaction.DbTransaction;
+import com.microsoft.embeddedsocial.server.CircuitBreaker;
+import com.microsoft.embeddedsocial.server.CircuitBreaker.OperationGroup;
+import com.microsoft.embeddedsocial.server.NetworkAvailability;
+import com.microsoft.embeddedsocial.server.NetworkScheduler;
+import com.microsoft.embeddedsocial.server.sync.ISynchronizable;
+import com.microsoft.embeddedsocial.server.sync.exception.OperationDeferredException;
+import com.microsoft.embeddedsocial.server.sync.exception.OperationRejectedException;
+import com.microsoft.embeddedsocial.server.sync.exception.SynchronizationException;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps track of the delivery of pending operations (posts, likes, user relations, etc.).
+ * <p/>
+ * Every operation type has its own table holding the typed payload; the outbox table holds the
+ * delivery state (attempts and the time of the next attempt) of operations that failed. A failed
+ * operation is retried with exponential backoff and is quarantined after {@link #MAX_ATTEMPTS}
+ * failures, so a single bad operation can't take a part of every sync pass forever. Failures
+ * caused by a missing network connection or a suspended server feature aren't counted. An upload
+ * that failed while the server was reachable is remembered as sent: the server may have applied it,
+ * so the outbox compaction doesn't cancel it (see {@link OutboxCompactor}). A failure recorded with
+ * a retry time is reported as {@link OperationDeferredException}: the operation's own backoff
+ * applies to it, it doesn't fail the whole sync pass.
+ * <p/>
+ * Sync producers read at most {@link #PAGE_SIZE} due operations per pass; the rest is left for
+ * the next pass (see {@link #takeMorePending()}).
+ */
+public class Outbox {
+
+    public static final int PAGE_SIZE = 50;
+    public static final int MAX_ATTEMPTS = 8;
+    public static final long MIN_RETRY_DELAY_MS = TimeUnit.SECONDS.toMillis(30);
+    public static final long MAX_RETRY_DELAY_MS = TimeUnit.HOURS.toMillis(6);
+
+    private static final String PAYLOAD_ID_COLUMN = "id";
+    private static final int MAX_ERROR_LENGTH = 500;
+    private static final int MAX_BACKOFF_SHIFT = 16;
+
+    private final Dao<OutboxEntry, Integer> entryDao;
+    private final AtomicBoolean morePending = new AtomicBoolean();
+
+    public Outbox(DatabaseHelper helper) {
+        try {
+            entryDao = helper.getDao(OutboxEntry.class);
+        } catch (SQLException e) {
+            DebugLog.logException(e);
+            throw new FatalDatabaseException(e);
+        }
+    }
+
+    /**
+     * Reads a page of operations which are due to be uploaded.
+     * @param type          operation type
+     * @param payloadDao    DAO of the operation payloads
+     * @param <T>           payload type
+     * @return  up to {@link #PAGE_SIZE} operations in the order they were made.
+     * @throws SQLException if the database fails
+     */
+    public <T> List<T> getDueOperations(OperationType type, Dao<T, Integer> payloadDao) throws SQLException {
+        return getDueOperations(type, payloadDao, null);
+    }
+
+    /**
+     * Reads a page of operations which are due to be uploaded. The operations sharing the value of
+     * the order column with a delayed operation are held back too, so that they aren't uploaded
+     * out of order.
+     * @param type          operation type
+     * @param payloadDao    DAO of the operation payloads
+     * @param orderColumn   column of the payload table (null if the order doesn't matter)
+     * @param <T>           payload type
+     * @return  up to {@link #PAGE_SIZE} operations in the order they were made.
+     * @throws SQLException if the database fails
+     */
+    public <T> List<T> getDueOperations(OperationType type, Dao<T, Integer> payloadDao, String orderColumn)
+        throws SQLException {
+
+        checkPayloadType(type, payloadDao);
+        QueryBuilder<T, Integer> query = payloadDao.queryBuilder();
+        Where<T, Integer> where = query.where().notIn(PAYLOAD_ID_COLUMN, queryDelayedPayloadIds(type));
+        if (orderColumn != null) {
+            QueryBuilder<T, Integer> heldQuery = payloadDao.queryBuilder();
+            heldQuery.selectColumns(orderColumn)
+                .where().in(PAYLOAD_ID_COLUMN, queryDelayedPayloadIds(type))
+                .and().isNotNull(orderColumn);
+            where.and().notIn(orderColumn, heldQuery);
+        }
+        query.orderBy(PAYLOAD_ID_COLUMN, true).limit((long) PAGE_SIZE + 1);
+        return takePage(type, query.query());
+    }
+
+    /**
+     * Creates synchronizables for operations; their failures are recorded in the outbox.
+     * @param type          operation type
+     * @param payloadDao    DAO of the operation payloads
+     * @param operations    the operations
+     * @param adapterFactory    creates a sync adapter for an operation
+     * @param <T>           payload type
+     * @return  list of {@linkplain ISynchronizable}.
+     */
+    public <T> List<ISynchronizable> track(OperationType type, Dao<T, Integer> payloadDao, List<T> operations,
+                                           AdapterFactory<T> adapterFactory) {
+
+        List<ISynchronizable> result = new ArrayList<>(operations.size());
+        for (T operation : operations) {
+            ISynchronizable adapter = adapterFactory.createAdapter(operation);
+            try {
+                result.add(new TrackedOperation(type, payloadDao.extractId(operation), adapter));
+            } catch (SQLException e) {
+                DebugLog.logException(e);
+                result.add(adapter);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Records a failed upload of an operation.
+     * @param type      operation type
+     * @param payloadId id of the operation payload
+     * @param error     the failure
+     */
+    public void recordFailure(OperationType type, int payloadId, Exception error) {
+        recordFailure(type, payloadId, error, true, true);
+    }
+
+    /**
+     * Records a failed upload of an operation.
+     * @param type      operation type
+     * @param payloadId id of the operation payload
+     * @param error     the failure
+     * @param sent      whether the request may have reached the server
+     * @param countable false if the upload was canceled, so the failure isn't the operation's fault
+     * @return  true if the failure was counted and a retry of the operation is scheduled.
+     */
+    private boolean recordFailure(OperationType type, int payloadId, Exception error, boolean sent,
+                                  boolean countable) {
+        // if the network or the server is down, it's not the operation's fault
+        boolean counted = countable && isOperationFailure(type);
+        if (!counted && !sent) {
+            return false;
+        }
+        try {
+            DbTransaction.performTransaction(entryDao, () -> {
+                List<OutboxEntry> entries = entryDao.queryBuilder()
+                    .where().eq(DbSchemas.Outbox.OPERATION, type)
+                    .and().eq(DbSchemas.Outbox.PAYLOAD_ID, payloadId)
+                    .query();
+                OutboxEntry entry = entries.isEmpty() ? new OutboxEntry(type, payloadId) : entries.get(0);
+                if (sent) {
+                    entry.markSent();
+                }
+                if (!counted) {
+                    entryDao.createOrUpdate(entry);
+                    return;
+                }
+                long delay = Math.min(MIN_RETRY_DELAY_MS << Math.min(entry.getAttempts(), MAX_BACKOFF_SHIFT),
+                    MAX_RETRY_DELAY_MS);
+                entry.recordFailure(describe(error), System.currentTimeMillis() + delay);
+                if (entry.getAttempts() >= MAX_ATTEMPTS) {
+                    DebugLog.w("outbox: " + type + " #" + payloadId + " quarantined after "
+                        + entry.getAttempts() + " attempts");
+                    entry.quarantine();
+                }
+                entryDao.createOrUpdate(entry);
+            });
+            return counted;
+        } catch (SQLException e) {
+            DebugLog.logException(e);
+            return false;
+        }
+    }
+
+    /**
+     * Gets the operations of a type whose upload may have reached the server.
+     * @param type  operation type
+     * @return  ids of the operation payloads.
+     * @throws SQLException if the database fails
+     */
+    public Set<Integer> getSentPayloadIds(OperationType type) throws SQLException {
+        Set<Integer> result = new HashSet<>();
+        for (OutboxEntry entry : entryDao.queryBuilder()
+                .selectColumns(DbSchemas.Outbox.PAYLOAD_ID)
+                .where().eq(DbSchemas.Outbox.OPERATION, type)
+                .and().eq(DbSchemas.Outbox.SENT, true)
+                .query()) {
+            result.add(entry.getPayloadId());
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether some due operations were left for the next pass and clears the flag.
+     * @return  true if another sync pass is needed.
+     */
+    public boolean takeMorePending() {
+        return morePending.getAndSet(false);
+    }
+
+    /**
+     * Gets the time when the next delayed operation can be retried.
+     * @return  time in milliseconds since epoch, 0 if no operation is delayed.
+     */
+    public long getNextAttemptTime() {
+        try {
+            List<OutboxEntry> entries = entryDao.queryBuilder()
+                .orderBy(DbSchemas.Outbox.NEXT_ATTEMPT_AT, true)
+                .limit(1L)
+                .where().eq(DbSchemas.Outbox.STATUS, OutboxEntry.Status.RETRYING)
+                .query();
+            return entries.isEmpty() ? 0 : entries.get(0).getNextAttemptAt();
+        } catch (SQLException e) {
+            DebugLog.logException(e);
+            return 0;
+        }
+    }
+
+    /**
+     * Gets the operations which failed too many times and aren't retried.
+     * @return  quarantined operations.
+     * @throws SQLException if the database fails
+     */
+    public List<OutboxEntry> getQuarantinedOperations() throws SQLException {
+        return entryDao.queryForEq(DbSchemas.Outbox.STATUS, OutboxEntry.Status.QUARANTINED);
+    }
+
+    /**
+     * Makes the quarantined operations retried again from the first attempt.
+     * @throws SQLException if the database fails
+     */
+    public void releaseQuarantine() throws SQLException {
+        DbTransaction.performTransaction(entryDao, () -> {
+            UpdateBuilder<OutboxEntry, Integer> updateBuilder = entryDao.updateBuilder();
+            updateBuilder.updateColumnValue(DbSchemas.Outbox.STATUS, OutboxEntry.Status.RETRYING)
+                .updateColumnValue(DbSchemas.Outbox.ATTEMPTS, 0)
+                .updateColumnValue(DbSchemas.Outbox.NEXT_ATTEMPT_AT, 0)
+                .where().eq(DbSchemas.Outbox.STATUS, OutboxEntry.Status.QUARANTINED);
+            updateBuilder.update();
+        });
+    }
+
+    private QueryBuilder<OutboxEntry, Integer> queryDelayedPayloadIds(OperationType type) throws SQLException {
+        QueryBuilder<OutboxEntry, Integer> query = entryDao.queryBuilder();
+        query.selectColumns(DbSchemas.Outbox.PAYLOAD_ID)
+            .where().eq(DbSchemas.Outbox.OPERATION, type)
+            .and().gt(DbSchemas.Outbox.NEXT_ATTEMPT_AT, System.currentTimeMillis());
+        return query;
+    }
+
+    private <T> List<T> takePage(OperationType type, List<T> operations) {
+        if (operations.size() <= PAGE_SIZE) {
+            return operations;
+        }
+        DebugLog.i("outbox: more than " + PAGE_SIZE + " " + type + " operations pending");
+        morePending.set(true);
+        return new ArrayList<>(operations.subList(0, PAGE_SIZE));
+    }
+
+    private static void checkPayloadType(OperationType type, Dao<?, ?> payloadDao) {
+        if (payloadDao.getDataClass() != type.getPayloadClass()) {
+            throw new IllegalArgumentException(type + " payloads can't be stored in "
+                + payloadDao.getDataClass().getSimpleName());
+        }
+    }
+
+    private static boolean isOperationFailure(OperationType type) {
+        NetworkAvailability networkAvailability = GlobalObjectRegistry.getObject(NetworkAvailability.class);
+        if (networkAvailability != null && !networkAvailability.isNetworkAvailable()) {
+            return false;
+        }
+        CircuitBreaker circuitBreaker = GlobalObjectRegistry.getObject(CircuitBreaker.class);
+        return circuitBreaker == null || !circuitBreaker.isOpen(type.getGroup());
+    }
+
+    private static String describe(Exception error) {
+        Throwable cause = error.getCause() != null ? error.getCause() : error;
+        String description = cause.getClass().getSimpleName() + ": " + cause.getMessage();
+        return description.length() > MAX_ERROR_LENGTH ? description.substring(0, MAX_ERROR_LENGTH) : description;
+    }
+
+    /**
+     * Types of pending operations along with their payload tables.
+     */
+    public enum OperationType {
+        POST(AddPostData.class, DbSchemas.AddedPosts.TABLE_NAME, OperationGroup.TOPICS),
+        DISCUSSION_ITEM(DiscussionItem.class, DbSchemas.DiscussionItem.TABLE_NAME, OperationGroup.COMMENTS),
+        TOPIC_EDIT(EditedTopic.class, DbSchemas.EditedTopic.TABLE_NAME, OperationGroup.TOPICS),
+        LIKE(UserActionCache.LikeChangedAction.class, DbSchemas.LikeStatus.TABLE_NAME, OperationGroup.LIKES),
+        PIN(UserActionCache.PinChangedAction.class, DbSchemas.PinStatus.TABLE_NAME, OperationGroup.PINS),
+        HIDE_TOPIC(UserActionCache.HideTopicAction.class, DbSchemas.HideTopicAction.TABLE_NAME,
+            OperationGroup.HIDDEN_TOPICS),
+        REPORT(ReportContentOperation.class, DbSchemas.ReportContentOperation.TABLE_NAME, OperationGroup.REPORTS),
+        USER_RELATION(UserRelationOperation.class, DbSchemas.UserRelationOperation.TABLE_NAME,
+            OperationGroup.RELATIONSHIPS),
+        CONTENT_REMOVAL(UserActionCache.ContentRemovedAction.class, DbSchemas.RemoveActions.TABLE_NAME,
+            OperationGroup.OTHER);
+
+        private final Class<?> payloadClass;
+        private final String tableName;
+        private final OperationGroup group;
+
+        OperationType(Class<?> payloadClass, String tableName, OperationGroup group) {
+            this.payloadClass = payloadClass;
+            this.tableName = tableName;
+            this.group = group;
+        }
+
+        public Class<?> getPayloadClass() {
+            return payloadClass;
+        }
+
+        /**
+         * Gets the table of the payloads; its id column is named "id".
+         * @return  table name.
+         */
+        public String getTableName() {
+            return tableName;
+        }
+
+        /**
+         * Gets the group of server operations used to upload the operation.
+         * @return  server operation group.
+         */
+        public OperationGroup getGroup() {
+            return group;
+        }
+    }
+
+    /**
+     * Creates a sync adapter for an operation.
+     * @param <T>   payload type
+     */
+    public interface AdapterFactory<T> {
+        ISynchronizable createAdapter(T operation);
+    }
+
+    /**
+     * Records failures of an operation's sync adapter. A successfully uploaded operation is deleted
+     * by the adapter; its outbox entry is deleted by a trigger.
+     */
+    private class TrackedOperation implements ISynchronizable {
+
+        private final OperationType type;
+        private final int payloadId;
+        private final ISynchronizable adapter;
+
+        TrackedOperation(OperationType type, int payloadId, ISynchronizable adapter) {
+            this.type = type;
+            this.payloadId = payloadId;
+            this.adapter = adapter;
+        }
+
+        @Override
+        public void synchronize() throws SynchronizationException {
+            // a request made offline or to a suspended feature never leaves the device
+            boolean mayBeSent = isOperationFailure(type);
+            try {
+                adapter.synchronize();
+            } catch (OperationRejectedException e) {
+                // rejected operations are dropped by the synchronizer
+                throw e;
+            } catch (SynchronizationException | RuntimeException e) {
+                // an interrupted sync pass or a canceled scope isn't a failure of the operation
+                boolean canceled = NetworkScheduler.isCurrentScopeCanceled()
+                    || Thread.currentThread().isInterrupted();
+                if (recordFailure(type, payloadId, e, mayBeSent, !canceled)) {
+                    throw new OperationDeferredException(e);
+                }
+                throw e;
+            }
+        }
+
+        @Override
+        public void onSynchronizationSuccess() {
+            adapter.onSynchronizationSuccess();
+        }
+
+        @Override
+        public String toString() {
+            return adapter.toString();
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ */
+
+package com.microsoft.embeddedsocial.data.storage;
+
+import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.stmt.QueryBuilder;
+import com.microsoft.embeddedsocial.base.utils.debug.DebugLog;
+import com.microsoft.embeddedsocial.data.storage.transaction.DbTransaction;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reduces pending user actions (the outbox) to their net effect before they are uploaded.
+ * <p/>
+ * Actions are grouped by a key (e.g. content handle) and every action sets the state of its key
+ * (liked / not liked). Only the last action of a key is uploaded. If the actions of a reversible
+ * key alternate and end in the state the key had before the first one (like, unlike), none is
+ * uploaded at all. If they don't alternate (like, like, unlike) the state before them can't be
+ * told, so the last action is kept to be on the safe side. The same goes for actions whose earlier
+ * upload may have reached the server (e.g. it timed out): the server may have applied them already.
+ */
+public final class OutboxCompactor {
+
+    private static final String ID_COLUMN = "id";
+
+    private OutboxCompactor() {  }
+
+    /**
+     * Reduces a list of actions none of which has been sent yet to their net effect.
+     * @param actions   actions in the order they were made
+     * @param reducer   describes the actions
+     * @param <T>       action type
+     * @return  actions to upload, in their original order.
+     */
+    public static <T> List<T> reduce(List<T> actions, ActionReducer<T> reducer) {
+        return reduce(actions, reducer, Collections.<T>emptySet());
+    }
+
+    /**
+     * Reduces a list of actions to their net effect.
+     * @param actions       actions in the order they were made
+     * @param reducer       describes the actions
+     * @param sentActions   actions which may have reached the server (compared by identity)
+     * @param <T>           action type
+     * @return  actions to upload, in their original order.
+     */
+    public static <T> List<T> reduce(List<T> actions, ActionReducer<T> reducer, Set<T> sentActions) {
+        Map<String, KeyHistory<T>> histories = new HashMap<>();
+        for (T action : actions) {
+            String key = reducer.getKey(action);
+            KeyHistory<T> history = histories.get(key);
+            if (history == null) {
+                history = new KeyHistory<>(reducer.getState(action));
+                histories.put(key, history);
+            } else {
+                if (reducer.getState(action) == reducer.getState(history.last)) {
+                    history.alternating = false;
+                }
+                history.sent |= sentActions.contains(history.last);
+            }
+            history.last = action;
+            history.reversible = reducer.isReversible(action);
+        }
+
+        Map<T, Boolean> survivors = new IdentityHashMap<>();
+        for (KeyHistory<T> history : histories.values()) {
+            boolean cancelled = history.reversible && history.alternating && !history.sent
+                && reducer.getState(history.last) != history.firstState;
+            if (!cancelled) {
+                survivors.put(history.last, Boolean.TRUE);
+            }
+        }
+
+        List<T> result = new ArrayList<>(survivors.size());
+        for (T action : actions) {
+            if (survivors.containsKey(action)) {
+                result.add(action);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Compacts an outbox table (deletes the actions which don't need to be uploaded) and reads a page
+     * of the remaining due actions (see {@link Outbox#getDueOperations(Outbox.OperationType, Dao, String)}).
+     * Both are done in the same transaction, so no action made meanwhile is lost or uploaded
+     * together with an older action of its key.
+     * <br/> Only the actions sharing the value of the key column with another action are read for
+     * the compaction, so a large outbox of distinct actions isn't loaded as a whole.
+     * @param type          operation type
+     * @param dao           DAO of the table (the table must have an auto-generated "id" column)
+     * @param reducer       describes the actions
+     * @param keyColumn     column having the same value for all the actions of a key
+     *                      (e.g. the content handle)
+     * @param outbox        delivery state of the actions
+     * @param orderColumn   column of the actions to keep in order after a delayed one (can be null)
+     * @param <T>           action type
+     * @return  up to {@link Outbox#PAGE_SIZE} actions to upload, in the order they were made.
+     * @throws SQLException if the database fails
+     */
+    static <T> List<T> compactAndRead(Outbox.OperationType type, Dao<T, Integer> dao, ActionReducer<T> reducer,
+                                      String keyColumn, Outbox outbox, String orderColumn) throws SQLException {
+
+        List<T> result = new ArrayList<>();
+        DbTransaction.performTransaction(dao, () -> {
+            QueryBuilder<T, Integer> repeatedKeys = dao.queryBuilder();
+            repeatedKeys.selectColumns(keyColumn).groupBy(keyColumn).having("COUNT(*) > 1");
+            List<T> actions = dao.queryBuilder().orderBy(ID_COLUMN, true)
+                .where().in(keyColumn, repeatedKeys)
+                .query();
+            Set<Integer> sentIds = outbox.getSentPayloadIds(type);
+            Set<T> sentActions = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (T action : actions) {
+                if (sentIds.contains(dao.extractId(action))) {
+                    sentActions.add(action);
+                }
+            }
+            List<T> survivors = reduce(actions, reducer, sentActions);
+            if (survivors.size() < actions.size()) {
+                Map<T, Boolean> kept = new IdentityHashMap<>();
+                for (T action : survivors) {
+                    kept.put(action, Boolean.TRUE);
+                }
+                List<T> redundant = new ArrayList<>(actions.size() - survivors.size());
+                for (T action : actions) {
+                    if (!kept.containsKey(action)) {
+                        redundant.add(action);
+                    }
+                }
+                dao.delete(redundant);
+                DebugLog.i("outbox " + dao.getDataClass().getSimpleName() + ": "
+                    + redundant.size() + " redundant actions dropped");
+            }
+            result.addAll(outbox.getDueOperations(type, dao, orderColumn));
+        });
+        return result;
+    }
+
+    /**
+     * Describes actions of an outbox.
+     * @param <T>   action type
+     */
+    public interface ActionReducer<T> {
+
+        /**
+         * Gets the key of an action: actions with the same key override each other.
+         * @param action    the action
+         * @return  action key.
+         */
+        String getKey(T action);
+
+        /**
+         * Gets the state the action sets for its key.
+         * @param action    the action
+         * @return  the state, e.g. true for 'like' and false for 'unlike'.
+         */
+        boolean getState(T action);
+
+        /**
+         * Checks whether the action can be undone by the opposite one (e.g. like by unlike). Actions
+         * which can't (e.g. accepting a follow request) are never cancelled, only overridden.
+         * @param action    the action
+         * @return  true if the action is reversible.
+         */
+        boolean isReversible(T action);
+    }
+
+    /**
+     * What is known about the actions of a key.
+     */
+    private static class KeyHistory<T> {
+
+        private final boolean firstState;
+        private boolean alternating = true;
+        private boolean sent;
+        private boolean reversible;
+        private T last;
+
+        KeyHistory(boolean firstState) {
+            this.firstState = firstState;
+        }
+    }
+}
@@ -63,6 +63,7 @@ public class PostStorage {
     private final Dao<CommentView, String> commentDao;
     private Dao<DiscussionItem, Integer> discussionItemDao;
     private Dao<EditedTopic, Integer> editedTopicDao;
+    private final Outbox outbox;
 
     /**
      * Creates an instance.
@@ -74,6 +75,7 @@ public class PostStorage {
         postDao = helper.getPostDao();
         topicDao = helper.getTopicDao();
         commentDao = helper.getCommentDao();
+        outbox = GlobalObjectRegistry.getObject(Outbox.class);
         try {
             discussionItemDao = helper.getDao(DiscussionItem.class);
             editedTopicDao = helper.getDao(EditedTopic.class);
@@ -151,59 +153,41 @@ public class PostStorage {
     }
 
     /**
-     * Gets synchronizables for pending posts.
+     * Gets synchronizables for pending posts which are due to be uploaded (see {@link Outbox}).
      * @return  list of {@linkplain ISynchronizable}
      */
     public List<ISynchronizable> getPendingPosts() {
-        List<ISynchronizable> result = new ArrayList<>();
-        List<AddPostData> posts = getAllPendingPosts();
-
-        for (AddPostData post : posts) {
-            result.add(new PostSyncAdapter(this, post));
-        }
-
-        return result;
+        List<AddPostData> posts = queryDueItems(Outbox.OperationType.POST, postDao);
+        return outbox.track(Outbox.OperationType.POST, postDao, posts, post -> new PostSyncAdapter(this, post));
     }
 
     /**
-     * Gets synchronizables for pending discussion items.
+     * Gets synchronizables for pending discussion items which are due to be uploaded.
      * @return  list of {@linkplain ISynchronizable}
      */
     public List<ISynchronizable> getPendingDiscussionItems() {
-        List<DiscussionItem> data;
-        try {
-            data = discussionItemDao.queryForAll();
-        } catch (SQLException e) {
-            data = Collections.emptyList();
-        }
-        List<ISynchronizable> result = new ArrayList<>();
-
-        for (DiscussionItem item : data) {
-            result.add(new DiscussionItemSyncAdapter(item, discussionItemDao));
-        }
-
-        return result;
+        List<DiscussionItem> data = queryDueItems(Outbox.OperationType.DISCUSSION_ITEM, discussionItemDao);
+        return outbox.track(Outbox.OperationType.DISCUSSION_ITEM, discussionItemDao, data,
+            item -> new DiscussionItemSyncAdapter(item, discussionItemDao));
     }
 
     /**
-     * Gets synchronizables for pending edited topics.
+     * Gets synchronizables for pending edited topics which are due to be uploaded.
      * @return  list of {@linkplain ISynchronizable}
      */
     public List<ISynchronizable> getPendingEditedTopics() {
-        List<EditedTopic> editedTopics;
+        List<EditedTopic> editedTopics = queryDueItems(Outbox.OperationType.TOPIC_EDIT, editedTopicDao);
+        return outbox.track(Outbox.OperationType.TOPIC_EDIT, editedTopicDao, editedTopics,
+            topic -> new EditedTopicSyncAdapter(topic, editedTopicDao));
+    }
 
+    private <T> List<T> queryDueItems(Outbox.OperationType type, Dao<T, Integer> dao) {
         try {
-            editedTopics = editedTopicDao.queryForAll();
+            return outbox.getDueOperations(type, dao);
         } catch (SQLException e) {
-            editedTopics = Collections.emptyList();
-        }
-
-        List<ISynchronizable> result = new ArrayList<>();
-        for (EditedTopic topic : editedTopics) {
-            result.add(new EditedTopicSyncAdapter(topic, editedTopicDao));
+            DebugLog.logException(e);
+            return Collections.emptyList();
         }
-
-        return result;
     }
 
     /**
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ */
+
+package com.microsoft.embeddedsocial.data.storage;
+
+import com.j256.ormlite.dao.BaseDaoImpl;
+import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.dao.RawRowMapper;
+import com.j256.ormlite.field.FieldType;
+import com.j256.ormlite.table.TableInfo;
+import com.microsoft.embeddedsocial.base.GlobalObjectRegistry;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Describes the columns of a single table taking part in a raw JOIN query and maps the
+ * corresponding slice of a result row to an entity.
+ * @param <T>   entity type
+ */
+class TableProjection<T> {
+
+    private final String alias;
+    private final String[] columns;
+    private final int keyColumnIndex;
+    private final RawRowMapper<T> rowMapper;
+    private final String tableName;
+    private final CacheAccessLog accessLog;
+
+    /**
+     * Creates an instance.
+     * @param dao               DAO of the table
+     * @param alias             table alias used in the query
+     * @param includeForeign    whether to include foreign columns into the projection
+     */
+    TableProjection(Dao<T, ?> dao, String alias, boolean includeForeign) {
+        this(dao, alias, includeForeign, false);
+    }
+
+    /**
+     * Creates an instance.
+     * @param dao               DAO of the table
+     * @param alias             table alias used in the query
+     * @param includeForeign    whether to include foreign columns into the projection
+     * @param recordAccesses    whether to record accesses to the mapped entities in {@link CacheAccessLog}
+     */
+    TableProjection(Dao<T, ?> dao, String alias, boolean includeForeign, boolean recordAccesses) {
+        this.alias = alias;
+        this.rowMapper = dao.getRawRowMapper();
+        TableInfo<T, ?> tableInfo = ((BaseDaoImpl<T, ?>) dao).getTableInfo();
+        this.tableName = tableInfo.getTableName();
+        this.accessLog = recordAccesses ? GlobalObjectRegistry.getObject(CacheAccessLog.class) : null;
+        List<String> columnList = new ArrayList<>();
+        int keyIndex = -1;
+        for (FieldType fieldType : tableInfo.getFieldTypes()) {
+            if (fieldType.isForeign() && !includeForeign) {
+                continue;
+            }
+            if (fieldType.isId() || fieldType.isGeneratedId()) {
+                keyIndex = columnList.size();
+            }
+            columnList.add(fieldType.getColumnName());
+        }
+        this.columns = columnList.toArray(new String[columnList.size()]);
+        this.keyColumnIndex = keyIndex;
+    }
+
+    /**
+     * Gets the number of columns in the projection.
+     * @return  number of columns.
+     */
+    int getColumnCount() {
+        return columns.length;
+    }
+
+    /**
+     * Renders the projection as a part of SELECT clause, e.g. <code>t.`a`, t.`b`</code>.
+     * @return  select list.
+     */
+    String getSelectList() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(alias).append(".`").append(columns[i]).append('`');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Maps a slice of a result row to an entity.
+     * @param resultColumns raw result row
+     * @param offset        index of the first column of this projection in the result row
+     * @return  mapped entity or null if the row contains no entity (e.g. in case of LEFT JOIN)
+     * @throws SQLException if the mapping fails
+     */
+    T mapRow(String[] resultColumns, int offset) throws SQLException {
+        String key = keyColumnIndex >= 0 ? resultColumns[offset + keyColumnIndex] : null;
+        if (keyColumnIndex >= 0 && key == null) {
+            return null;
+        }
+        if (accessLog != null) {
+            accessLog.recordAccess(tableName, key);
+        }
+        String[] slice = Arrays.copyOfRange(resultColumns, offset, offset + columns.length);
+        return rowMapper.mapRow(columns, slice);
+    }
+}
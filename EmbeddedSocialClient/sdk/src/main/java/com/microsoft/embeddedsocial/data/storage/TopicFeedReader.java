@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ */
+
+package com.microsoft.embeddedsocial.data.storage;
+
+import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.dao.GenericRawResults;
+import com.microsoft.embeddedsocial.base.expression.Template;
+import com.microsoft.embeddedsocial.data.storage.model.FeedGeneration;
+import com.microsoft.embeddedsocial.data.storage.model.TopicFeedRelation;
+import com.microsoft.embeddedsocial.server.model.view.AppCompactView;
+import com.microsoft.embeddedsocial.server.model.view.TopicView;
+import com.microsoft.embeddedsocial.server.model.view.UserCompactView;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Materializes cached topic feeds. The whole feed (topics together with their users and apps)
+ * is read by a single JOIN query ordered in SQL instead of querying every topic separately.
+ * Only the live generation of the feed is read (see {@link FeedGeneration}).
+ */
+public class TopicFeedReader {
+
+    private static final String FEED_QUERY_TEMPLATE =
+        "select ${topic_columns}, ${user_columns}, ${app_columns} "
+            + "from `${feeds}` f "
+            + "join `${topics}` t on t.`${t_handle}` = f.`${f_topic_handle}` "
+            + "left join `${users}` u on u.`${u_handle}` = t.`${t_user}` "
+            + "left join `${apps}` a on a.`${a_handle}` = t.`${t_app}` "
+            + "where f.`${f_feed_type}` = ? and f.`${f_query}` = ? and f.`${f_generation}` = ${live} "
+            + "order by ${order}";
+
+    private final Dao<TopicView, String> topicDao;
+    private final TableProjection<TopicView> topicProjection;
+    private final TableProjection<UserCompactView> userProjection;
+    private final TableProjection<AppCompactView> appProjection;
+    private final String feedQuery;
+    private final String sortedFeedQuery;
+
+    /**
+     * Creates an instance.
+     * @param helper    database helper
+     */
+    public TopicFeedReader(DatabaseHelper helper) {
+        topicDao = helper.getTopicDao();
+        topicProjection = new TableProjection<>(topicDao, "t", false, true);
+        userProjection = new TableProjection<>(helper.getUserDao(), "u", true, true);
+        appProjection = new TableProjection<>(helper.getAppDao(), "a", true, true);
+        feedQuery = renderQuery("f.`" + DbSchemas.TopicFeedRelation.ID + "`");
+        sortedFeedQuery = renderQuery("t.`" + DbSchemas.Topics.CREATED_TIME + "` desc, f.`"
+            + DbSchemas.TopicFeedRelation.ID + "`");
+    }
+
+    private String renderQuery(String order) {
+        return new Template(FEED_QUERY_TEMPLATE)
+            .var("topic_columns", topicProjection.getSelectList())
+            .var("user_columns", userProjection.getSelectList())
+            .var("app_columns", appProjection.getSelectList())
+            .var("feeds", DbSchemas.TopicFeedRelation.TABLE_NAME)
+            .var("topics", DbSchemas.Topics.TABLE_NAME)
+            .var("users", DbSchemas.CompactUserData.TABLE_NAME)
+            .var("apps", DbSchemas.Apps.TABLE_NAME)
+            .var("t_handle", DbSchemas.Topics.TOPIC_HANDLE)
+            .var("t_user", DbSchemas.Topics.USER)
+            .var("t_app", DbSchemas.Topics.APP)
+            .var("u_handle", DbSchemas.CompactUserData.USER_HANDLE)
+            .var("a_handle", DbSchemas.Apps.APP_HANDLE)
+            .var("f_topic_handle", DbSchemas.TopicFeedRelation.TOPIC_HANDLE)
+            .var("f_feed_type", DbSchemas.TopicFeedRelation.FEED_TYPE)
+            .var("f_query", DbSchemas.TopicFeedRelation.QUERY)
+            .var("f_generation", DbSchemas.TopicFeedRelation.GENERATION)
+            .var("live", FeedGeneration.LIVE)
+            .var("order", order)
+            .render();
+    }
+
+    /**
+     * Reads a cached topic feed.
+     * @param feedType      feed type
+     * @param query         feed query (null is treated as {@link TopicFeedRelation#DEFAULT_QUERY})
+     * @param sortByTime    true to order topics from newest to oldest, false to keep the order
+     *                      in which they were stored
+     * @return  list of topics with users and apps attached.
+     * @throws SQLException if the database fails
+     */
+    public List<TopicView> readFeed(int feedType, String query, boolean sortByTime)
+        throws SQLException {
+
+        String feedQueryValue = query != null ? query : TopicFeedRelation.DEFAULT_QUERY;
+        GenericRawResults<TopicView> results = topicDao.queryRaw(
+            sortByTime ? sortedFeedQuery : feedQuery,
+            (columnNames, resultColumns) -> mapRow(resultColumns),
+            Integer.toString(feedType),
+            feedQueryValue
+        );
+        return results.getResults();
+    }
+
+    private TopicView mapRow(String[] resultColumns) throws SQLException {
+        int offset = 0;
+        TopicView topic = topicProjection.mapRow(resultColumns, offset);
+        offset += topicProjection.getColumnCount();
+        topic.setUser(userProjection.mapRow(resultColumns, offset));
+        offset += userProjection.getColumnCount();
+        topic.setApp(appProjection.mapRow(resultColumns, offset));
+        return topic;
+    }
+}
@@ -23,7 +23,6 @@ import com.microsoft.embeddedsocial.data.storage.transaction.DbTransaction;
 import com.microsoft.embeddedsocial.server.sync.ISynchronizable;
 
 import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -32,17 +31,55 @@ import java.util.List;
  */
 public class UserActionCache {
 
+    private static final OutboxCompactor.ActionReducer<LikeChangedAction> LIKE_REDUCER =
+        new OutboxCompactor.ActionReducer<LikeChangedAction>() {
+            @Override
+            public String getKey(LikeChangedAction action) {
+                return action.getContentType() + ":" + action.getContentHandle();
+            }
+
+            @Override
+            public boolean getState(LikeChangedAction action) {
+                return action.getStatus();
+            }
+
+            @Override
+            public boolean isReversible(LikeChangedAction action) {
+                return true;
+            }
+        };
+
+    private static final OutboxCompactor.ActionReducer<PinChangedAction> PIN_REDUCER =
+        new OutboxCompactor.ActionReducer<PinChangedAction>() {
+            @Override
+            public String getKey(PinChangedAction action) {
+                return action.getTopicHandle();
+            }
+
+            @Override
+            public boolean getState(PinChangedAction action) {
+                return action.getStatus();
+            }
+
+            @Override
+            public boolean isReversible(PinChangedAction action) {
+                return true;
+            }
+        };
+
     private Dao<PinChangedAction, Integer> pinDao;
     private Dao<LikeChangedAction, Integer> likeDao;
     private Dao<ContentRemovedAction, Integer> removeActionDao;
     private Dao<ReportContentOperation, Integer> reportContentDao;
     private Dao<HideTopicAction, Integer> hideTopicDao;
+    private final Outbox outbox;
 
     /**
      * Creates an instance.
      */
     public UserActionCache() {
         DatabaseHelper helper = GlobalObjectRegistry.getObject(DatabaseHelper.class);
+        outbox = GlobalObjectRegistry.getObject(Outbox.class);
         try {
             pinDao = helper.getDao(PinChangedAction.class);
             likeDao = helper.getDao(LikeChangedAction.class);
@@ -56,46 +93,37 @@ public class UserActionCache {
     }
 
     /**
-     * Sets 'pinned' status for a topic.
+     * Sets 'pinned' status for a topic. The action is added to the topic's pin history which is
+     * reduced to its net effect before the upload. Doesn't wait for the write: the sync pass reads
+     * the actions in a write transaction, so it's queued after it.
      * @param topicHandle   topic handle
      * @param liked         pinned status (true if pinned)
      */
     void setPinStatus(String topicHandle, boolean liked) {
-        try {
-            pinDao.create(new PinChangedAction(topicHandle, liked));
-        } catch (SQLException e) {
-            DebugLog.logException(e);
-        }
+        DbTransaction.performTransactionAsync(pinDao,
+            () -> pinDao.create(new PinChangedAction(topicHandle, liked)));
     }
 
     /**
-     * Gets synchronizables for pending pin actions.
+     * Gets synchronizables for pending pin actions. Redundant actions are dropped first.
      * @return  list of {@linkplain ISynchronizable}
      */
     public List<ISynchronizable> getPendingPinActions() {
-        List<ISynchronizable> result = new ArrayList<>();
-        List<PinChangedAction> pinActions = queryForAllItems(pinDao);
-
-        for (PinChangedAction pinAction : pinActions) {
-            result.add(new PinStatusSyncAdapter(pinDao, pinAction));
-        }
-
-        return result;
+        List<PinChangedAction> pinActions = compactAndRead(Outbox.OperationType.PIN, pinDao, PIN_REDUCER,
+            DbSchemas.PinStatus.TOPIC_HANDLE);
+        return outbox.track(Outbox.OperationType.PIN, pinDao, pinActions,
+            pinAction -> new PinStatusSyncAdapter(pinDao, pinAction));
     }
 
     /**
-     * Gets synchronizables for pending like actions.
+     * Gets synchronizables for pending like actions. Redundant actions are dropped first.
      * @return  list of {@linkplain ISynchronizable}
      */
     public List<ISynchronizable> getPendingLikeActions() {
-        List<ISynchronizable> result = new ArrayList<>();
-        List<LikeChangedAction> likeActions = queryForAllItems(likeDao);
-
-        for (LikeChangedAction likeAction : likeActions) {
-            result.add(new LikeStatusSyncAdapter(likeDao, likeAction));
-        }
-
-        return result;
+        List<LikeChangedAction> likeActions = compactAndRead(Outbox.OperationType.LIKE, likeDao, LIKE_REDUCER,
+            DbSchemas.LikeStatus.CONTENT_HANDLE);
+        return outbox.track(Outbox.OperationType.LIKE, likeDao, likeActions,
+            likeAction -> new LikeStatusSyncAdapter(likeDao, likeAction));
     }
 
     /**
@@ -103,14 +131,9 @@ public class UserActionCache {
      * @return  list of {@linkplain ISynchronizable}
      */
     public List<ISynchronizable> getPendingContentRemovalActions() {
-        List<ContentRemovedAction> actions = queryForAllItems(removeActionDao);
-        List<ISynchronizable> result = new ArrayList<>();
-
-        for (ContentRemovedAction action : actions) {
-            result.add(RemoveContentActionSyncAdapter.createAdapter(removeActionDao, action));
-        }
-
-        return result;
+        List<ContentRemovedAction> actions = queryDueItems(Outbox.OperationType.CONTENT_REMOVAL, removeActionDao);
+        return outbox.track(Outbox.OperationType.CONTENT_REMOVAL, removeActionDao, actions,
+            action -> RemoveContentActionSyncAdapter.createAdapter(removeActionDao, action));
     }
 
     /**
@@ -118,14 +141,9 @@ public class UserActionCache {
      * @return  list of {@linkplain ISynchronizable}.
      */
     public List<ISynchronizable> getPendingReportContentActions() {
-        List<ReportContentOperation> operations = queryForAllItems(reportContentDao);
-        List<ISynchronizable> result = new ArrayList<>();
-
-        for (ReportContentOperation operation : operations) {
-            result.add(new ReportContentSyncAdapter(operation, reportContentDao));
-        }
-
-        return result;
+        List<ReportContentOperation> operations = queryDueItems(Outbox.OperationType.REPORT, reportContentDao);
+        return outbox.track(Outbox.OperationType.REPORT, reportContentDao, operations,
+            operation -> new ReportContentSyncAdapter(operation, reportContentDao));
     }
 
     /**
@@ -133,28 +151,22 @@ public class UserActionCache {
      * @return  list of {@linkplain ISynchronizable}.
      */
     public List<ISynchronizable> getPendingHideTopicActions() {
-        List<HideTopicAction> actions = queryForAllItems(hideTopicDao);
-        List<ISynchronizable> result = new ArrayList<>();
-
-        for (HideTopicAction action : actions) {
-            result.add(new HideTopicSyncAdapter(action, hideTopicDao));
-        }
-
-        return result;
+        List<HideTopicAction> actions = queryDueItems(Outbox.OperationType.HIDE_TOPIC, hideTopicDao);
+        return outbox.track(Outbox.OperationType.HIDE_TOPIC, hideTopicDao, actions,
+            action -> new HideTopicSyncAdapter(action, hideTopicDao));
     }
 
     /**
-     * Sets 'liked' status for a topic.
+     * Sets 'liked' status for a topic. The action is added to the content's like history which is
+     * reduced to its net effect before the upload. Doesn't wait for the write, like
+     * {@link #setPinStatus(String, boolean)}.
      * @param contentHandle liked content handle
      * @param contentType   content type
      * @param liked         liked status
      */
     void setLikeStatus(String contentHandle, ContentType contentType, boolean liked) {
-        try {
-            likeDao.create(new LikeChangedAction(contentHandle, contentType, liked));
-        } catch (SQLException e) {
-            DebugLog.logException(e);
-        }
+        DbTransaction.performTransactionAsync(likeDao,
+            () -> likeDao.create(new LikeChangedAction(contentHandle, contentType, liked)));
     }
 
     /**
@@ -164,7 +176,8 @@ public class UserActionCache {
      */
     void addContentRemovalAction(String contentHandle, ContentType contentType) {
         try {
-            removeActionDao.create(new ContentRemovedAction(contentHandle, contentType));
+            DbTransaction.performTransaction(removeActionDao,
+                () -> removeActionDao.create(new ContentRemovedAction(contentHandle, contentType)));
         } catch (SQLException e) {
             DebugLog.logException(e);
         }
@@ -219,11 +232,21 @@ public class UserActionCache {
         }
     }
 
-    private <T> List<T> queryForAllItems(Dao<T, Integer> dao) {
+    private <T> List<T> compactAndRead(Outbox.OperationType type, Dao<T, Integer> dao,
+                                       OutboxCompactor.ActionReducer<T> reducer, String keyColumn) {
+        try {
+            return OutboxCompactor.compactAndRead(type, dao, reducer, keyColumn, outbox, null);
+        } catch (SQLException e) {
+            DebugLog.logException(e);
+            return Collections.emptyList();
+        }
+    }
+
+    private <T> List<T> queryDueItems(Outbox.OperationType type, Dao<T, Integer> dao) {
         List<T> result;
 
         try {
-            result = dao.queryForAll();
+            result = outbox.getDueOperations(type, dao);
         } catch (SQLException e) {
             result = Collections.emptyList();
         }
@@ -241,7 +264,7 @@ public class UserActionCache {
         @DatabaseField(generatedId = true)
         private int id;
 
-        @DatabaseField(unique = true, columnName = DbSchemas.PinStatus.TOPIC_HANDLE)
+        @DatabaseField(columnName = DbSchemas.PinStatus.TOPIC_HANDLE)
         private String topicHandle;
 
         @DatabaseField(columnName = DbSchemas.PinStatus.PIN_STATUS)
@@ -276,7 +299,7 @@ public class UserActionCache {
         @DatabaseField(generatedId = true)
         private int id;
 
-        @DatabaseField(unique = true, columnName = DbSchemas.LikeStatus.CONTENT_HANDLE)
+        @DatabaseField(columnName = DbSchemas.LikeStatus.CONTENT_HANDLE)
         private String contentHandle;
 
         @DatabaseField(columnName = DbSchemas.LikeStatus.CONTENT_TYPE)
@@ -309,7 +332,7 @@ public class UserActionCache {
         }
     }
 
-    @DatabaseTable
+    @DatabaseTable(tableName = DbSchemas.RemoveActions.TABLE_NAME)
     @SuppressWarnings("unused")
     public static class ContentRemovedAction {
 
@@ -8,6 +8,7 @@ package com.microsoft.embeddedsocial.data.storage;
 import com.microsoft.embeddedsocial.account.UserAccount;
 import com.microsoft.embeddedsocial.autorest.models.ContentType;
 import com.microsoft.embeddedsocial.autorest.models.Reason;
+import com.microsoft.embeddedsocial.base.GlobalObjectRegistry;
 import com.microsoft.embeddedsocial.base.event.AbstractEvent;
 import com.microsoft.embeddedsocial.base.event.EventBus;
 import com.microsoft.embeddedsocial.base.utils.debug.DebugLog;
@@ -30,8 +31,7 @@ import com.microsoft.embeddedsocial.sdk.BuildConfig;
 import com.microsoft.embeddedsocial.server.model.view.CommentView;
 import com.microsoft.embeddedsocial.server.model.view.ReplyView;
 import com.microsoft.embeddedsocial.server.model.view.TopicView;
-import com.microsoft.embeddedsocial.service.ServiceAction;
-import com.microsoft.embeddedsocial.service.WorkerService;
+import com.microsoft.embeddedsocial.server.sync.SyncScheduler;
 
 import android.content.Context;
 
@@ -77,7 +77,7 @@ public class UserActionProxy {
     }
 
     private void launchSync() {
-        WorkerService.getLauncher(context).launchService(ServiceAction.SYNC_DATA);
+        GlobalObjectRegistry.getObject(SyncScheduler.class).requestSync();
     }
 
     /**
@@ -40,6 +40,25 @@ public class UserCache {
 
     public static final String NO_HANDLE = "";
 
+    private static final OutboxCompactor.ActionReducer<UserRelationOperation> OPERATION_REDUCER =
+        new OutboxCompactor.ActionReducer<UserRelationOperation>() {
+            @Override
+            public String getKey(UserRelationOperation operation) {
+                return operation.getAction().getKind() + ":" + operation.getTargetUserHandle();
+            }
+
+            @Override
+            public boolean getState(UserRelationOperation operation) {
+                return operation.getAction().isPositive();
+            }
+
+            @Override
+            public boolean isReversible(UserRelationOperation operation) {
+                return operation.getAction().isReversible();
+            }
+        };
+
+    private final DatabaseHelper helper;
     private final Dao<UserCompactView, String> userDao;
     private final Dao<UserProfileView, String> userProfileDao;
     private final Dao<UserRelationOperation, Integer> userOperationDao;
@@ -47,13 +66,17 @@ public class UserCache {
     private Dao<UserFeedRelation, Integer> userFeedDao;
     private Dao<UserAccountBinding, Integer> userAccountBindingDao;
     private Dao<ThirdPartyAccountView, String> thirdPartyAccountDao;
+    private final UserFeedReader userFeedReader;
+    private final Outbox outbox;
 
     public UserCache() {
-        DatabaseHelper helper = GlobalObjectRegistry.getObject(DatabaseHelper.class);
+        helper = GlobalObjectRegistry.getObject(DatabaseHelper.class);
         userDao = helper.getUserDao();
         userProfileDao = helper.getUserProfileDao();
         userOperationDao = helper.getUserOperationDao();
         userAccountDao = helper.getUserAccountDao();
+        userFeedReader = new UserFeedReader(helper);
+        outbox = GlobalObjectRegistry.getObject(Outbox.class);
         try {
             userFeedDao = helper.getDao(UserFeedRelation.class);
             userAccountBindingDao = helper.getDao(UserAccountBinding.class);
@@ -80,12 +103,29 @@ public class UserCache {
         storeFeed(request, UserFeedType.LIKED, request.getContentHandle(), response.getData());
     }
 
-    public UsersListResponse getResponse(UserFeedType feedType) throws SQLException {
-        return new UsersListResponse(getFeed(feedType, NO_HANDLE));
-    }
+    /**
+     * Gets a page of a cached user feed, so that a long feed (e.g. the followers of a popular user)
+     * isn't read at once. The continuation key of the page is a {@link CacheCursor} pointing to
+     * the next page, or null after the last page.
+     * @param feedType  feed type
+     * @param query     handle of the user or content the feed belongs to, null for the feeds of
+     *                  the current user
+     * @param cursor    cache cursor of the page, null (or a server cursor) for the first page
+     * @param limit     max number of users in the page
+     * @return  response containing the page.
+     * @throws SQLException if the database fails
+     */
+    public UsersListResponse getResponse(UserFeedType feedType, String query, String cursor, int limit)
+        throws SQLException {
 
-    public UsersListResponse getResponse(UserFeedType feedType, String query) throws SQLException {
-        return new UsersListResponse(getFeed(feedType, query));
+        int offset = CacheCursor.getOffset(cursor);
+        // one more user tells whether there is a next page
+        List<UserCompactView> users = getFeed(feedType, query, offset, limit + 1);
+        boolean hasNextPage = users.size() > limit;
+        UsersListResponse response = new UsersListResponse(
+            hasNextPage ? new ArrayList<UserCompactView>(users.subList(0, limit)) : users);
+        response.setContinuationKey(hasNextPage ? CacheCursor.fromOffset(offset + limit) : null);
+        return response;
     }
 
     public void deleteOperation(UserRelationOperation operation) {
@@ -110,24 +150,14 @@ public class UserCache {
         });
     }
 
-    private List<UserCompactView> getFeed(UserFeedType feedType, String queriedUserHandle)
-        throws SQLException {
+    private List<UserCompactView> getFeed(UserFeedType feedType, String queriedUserHandle,
+                                          int offset, int limit) throws SQLException {
 
         if (queriedUserHandle == null) {
             queriedUserHandle = NO_HANDLE;
         }
-        List<UserCompactView> result = new ArrayList<>();
-
-        List<UserFeedRelation> feed = userFeedDao.queryBuilder()
-                .where().eq(DbSchemas.UserFeeds.FEED_TYPE, feedType)
-                .and().eq(DbSchemas.UserFeeds.QUERIED_USER_HANDLE, queriedUserHandle)
-                .query();
 
-        for (UserFeedRelation userReference : feed) {
-            result.add(userDao.queryForId(userReference.getUserHandle()));
-        }
-
-        return result;
+        return userFeedReader.readFeed(feedType, queriedUserHandle, offset, limit);
     }
 
     private void storeFeed(FeedUserRequest request, UserFeedType feedType,
@@ -138,35 +168,31 @@ public class UserCache {
                 deleteFeed(feedType, queriedHandle);
             }
 
+            BulkWriter writer = new BulkWriter(helper);
             for (UserCompactView user : users) {
-                userDao.createOrUpdate(user);
+                writer.put(userDao, user);
                 UserFeedRelation relation = new UserFeedRelation(feedType, user.getHandle(),
                     queriedHandle != null ? queriedHandle : NO_HANDLE);
-                userFeedDao.create(relation);
+                writer.put(userFeedDao, relation);
             }
+            writer.flush();
         });
     }
 
     public List<ISynchronizable> getPendingUserRelationOperations() {
-        List<ISynchronizable> result = new ArrayList<>();
-
         List<UserRelationOperation> operations = getUserRelationOperations();
-        for (UserRelationOperation operation : operations) {
-            ISynchronizable adapter;
-            if (operation.getAction() == UserRelationAction.FOLLOW) {
-                adapter = new FollowUserSyncAdapter(operation, this);
-            } else {
-                adapter = new GeneralUserRelationSyncAdapter(operation, this);
-            }
-            result.add(adapter);
-        }
-
-        return result;
+        return outbox.track(Outbox.OperationType.USER_RELATION, userOperationDao, operations, operation ->
+            operation.getAction() == UserRelationAction.FOLLOW
+                ? new FollowUserSyncAdapter(operation, this)
+                : new GeneralUserRelationSyncAdapter(operation, this));
     }
 
     List<UserRelationOperation> getUserRelationOperations() {
         try {
-            return userOperationDao.queryForAll();
+            // operations on a user wait while another one is delayed
+            return OutboxCompactor.compactAndRead(Outbox.OperationType.USER_RELATION, userOperationDao,
+                OPERATION_REDUCER, DbSchemas.UserRelationOperation.USER_HANDLE, outbox,
+                DbSchemas.UserRelationOperation.USER_HANDLE);
         } catch (SQLException e) {
             DebugLog.logException(e);
             return Collections.emptyList();
@@ -293,15 +319,38 @@ public class UserCache {
     }
 
     /**
-     * Describes possible actions that can be done for a user.
+     * Describes possible actions that can be done for a user. Actions of the same kind override
+     * each other; a reversible action and its opposite cancel each other out.
      */
     public enum UserRelationAction {
-        FOLLOW,
-        UNFOLLOW,
-        BLOCK,
-        UNBLOCK,
-        ACCEPT,
-        REJECT
+        FOLLOW("follow", true, true),
+        UNFOLLOW("follow", false, true),
+        BLOCK("block", true, true),
+        UNBLOCK("block", false, true),
+        ACCEPT("accept", true, false),
+        REJECT("accept", false, false);
+
+        private final String kind;
+        private final boolean positive;
+        private final boolean reversible;
+
+        UserRelationAction(String kind, boolean positive, boolean reversible) {
+            this.kind = kind;
+            this.positive = positive;
+            this.reversible = reversible;
+        }
+
+        public String getKind() {
+            return kind;
+        }
+
+        public boolean isPositive() {
+            return positive;
+        }
+
+        public boolean isReversible() {
+            return reversible;
+        }
     }
 
     /**
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ */
+
+package com.microsoft.embeddedsocial.data.storage;
+
+import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.dao.RawRowMapper;
+import com.microsoft.embeddedsocial.base.expression.Template;
+import com.microsoft.embeddedsocial.server.model.view.UserCompactView;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Materializes cached user feeds (followers, following, blocked, pending, liked by) with a single
+ * JOIN query preserving the order of relations.
+ */
+class UserFeedReader {
+
+    private static final String FEED_QUERY_TEMPLATE =
+        "select ${user_columns} "
+            + "from `${feeds}` r "
+            + "join `${users}` u on u.`${u_handle}` = r.`${r_user}` "
+            + "where r.`${r_feed_type}` = ? and r.`${r_queried_user}` = ? "
+            + "order by r.`${r_id}` "
+            + "limit ? offset ?";
+
+    private final Dao<UserCompactView, String> userDao;
+    private final TableProjection<UserCompactView> userProjection;
+    private final String feedQuery;
+
+    /**
+     * Creates an instance.
+     * @param helper    database helper
+     */
+    UserFeedReader(DatabaseHelper helper) {
+        userDao = helper.getUserDao();
+        userProjection = new TableProjection<>(userDao, "u", true, true);
+        feedQuery = new Template(FEED_QUERY_TEMPLATE)
+            .var("user_columns", userProjection.getSelectList())
+            .var("feeds", DbSchemas.UserFeeds.TABLE_NAME)
+            .var("users", DbSchemas.CompactUserData.TABLE_NAME)
+            .var("u_handle", DbSchemas.CompactUserData.USER_HANDLE)
+            .var("r_user", DbSchemas.UserFeeds.USER_HANDLE)
+            .var("r_feed_type", DbSchemas.UserFeeds.FEED_TYPE)
+            .var("r_queried_user", DbSchemas.UserFeeds.QUERIED_USER_HANDLE)
+            .var("r_id", DbSchemas.UserFeeds.ID)
+            .render();
+    }
+
+    /**
+     * Reads a window of a cached user feed.
+     * @param feedType          feed type
+     * @param queriedUserHandle handle of the user the feed belongs to
+     * @param offset            index of the first user to read
+     * @param limit             max number of users to read
+     * @return  users in the order they were stored.
+     * @throws SQLException if the database fails
+     */
+    List<UserCompactView> readFeed(UserCache.UserFeedType feedType, String queriedUserHandle,
+                                   int offset, int limit) throws SQLException {
+
+        RawRowMapper<UserCompactView> rowMapper =
+            (columnNames, resultColumns) -> userProjection.mapRow(resultColumns, 0);
+        return userDao.queryRaw(
+            feedQuery,
+            rowMapper,
+            feedType.name(),
+            queriedUserHandle,
+            Integer.toString(limit),
+            Integer.toString(offset)
+        ).getResults();
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ */
+
+package com.microsoft.embeddedsocial.data.storage.index;
+
+import com.microsoft.embeddedsocial.data.storage.DbSchemas;
+
+/**
+ * Secondary indexes of the content cache. Every cache read and every delete of feed relations
+ * should be served by one of these indexes instead of a full table scan.
+ */
+public class CacheIndexes {
+
+    private CacheIndexes() {  }
+
+    /**
+     * All SQL indexes contained in this class.
+     */
+    public static final ISqlIndex[] INDEXES = {
+
+        new IndexBuilder("cache_access_by_entity", DbSchemas.CacheAccess.TABLE_NAME)
+            .addColumns(DbSchemas.CacheAccess.ENTITY_TABLE, DbSchemas.CacheAccess.HANDLE)
+            .setUnique()
+            .build(),
+
+        new IndexBuilder("topic_feeds_by_feed", DbSchemas.TopicFeedRelation.TABLE_NAME)
+            .addColumns(DbSchemas.TopicFeedRelation.FEED_TYPE, DbSchemas.TopicFeedRelation.QUERY,
+                DbSchemas.TopicFeedRelation.GENERATION)
+            .build(),
+
+        new IndexBuilder("topic_feeds_by_topic", DbSchemas.TopicFeedRelation.TABLE_NAME)
+            .addColumns(DbSchemas.TopicFeedRelation.TOPIC_HANDLE)
+            .build(),
+
+        new IndexBuilder("comment_feeds_by_topic", DbSchemas.CommentFeedRelation.TABLE_NAME)
+            .addColumns(DbSchemas.CommentFeedRelation.TOPIC_HANDLE,
+                DbSchemas.CommentFeedRelation.FEED_TYPE, DbSchemas.CommentFeedRelation.GENERATION)
+            .build(),
+
+        new IndexBuilder("comment_feeds_by_comment", DbSchemas.CommentFeedRelation.TABLE_NAME)
+            .addColumns(DbSchemas.CommentFeedRelation.COMMENT_HANDLE)
+            .build(),
+
+        new IndexBuilder("replies_by_comment", DbSchemas.Replies.TABLE_NAME)
+            .addColumns(DbSchemas.Replies.COMMENT_HANDLE)
+            .build(),
+
+        new IndexBuilder("activity_actors_by_activity", DbSchemas.ActivityActor.TABLE_NAME)
+            .addColumns(DbSchemas.UserActivity.ACTIVITY_HANDLE, DbSchemas.UserFeeds.USER_HANDLE)
+            .build(),
+
+        new IndexBuilder("activity_feeds_by_feed", DbSchemas.ActivityFeed.TABLE_NAME)
+            .addColumns(DbSchemas.ActivityFeed.FEED_TYPE)
+            .build(),
+
+        new IndexBuilder("user_feed_by_feed", DbSchemas.UserFeeds.TABLE_NAME)
+            .addColumns(DbSchemas.UserFeeds.FEED_TYPE, DbSchemas.UserFeeds.QUERIED_USER_HANDLE)
+            .build(),
+
+        new IndexBuilder("user_feed_by_user", DbSchemas.UserFeeds.TABLE_NAME)
+            .addColumns(DbSchemas.UserFeeds.USER_HANDLE)
+            .build(),
+
+        new IndexBuilder("edited_topic_by_topic", DbSchemas.EditedTopic.TABLE_NAME)
+            .addColumns(DbSchemas.Topics.TOPIC_HANDLE)
+            .build(),
+
+        new IndexBuilder("user_relation_operation_by_user", DbSchemas.UserRelationOperation.TABLE_NAME)
+            .addColumns(DbSchemas.UserRelationOperation.USER_HANDLE)
+            .build(),
+
+        new IndexBuilder("outbox_by_next_attempt", DbSchemas.Outbox.TABLE_NAME)
+            .addColumns(DbSchemas.Outbox.OPERATION, DbSchemas.Outbox.NEXT_ATTEMPT_AT)
+            .build(),
+    };
+}
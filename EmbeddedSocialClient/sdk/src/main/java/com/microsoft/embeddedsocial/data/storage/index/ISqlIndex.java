@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ */
+
+package com.microsoft.embeddedsocial.data.storage.index;
+
+/**
+ * Represents SQL index.
+ */
+public interface ISqlIndex {
+
+    /**
+     * Gets index name.
+     * @return  index name.
+     */
+    String getName();
+
+    /**
+     * Gets SQL create statement for the index.
+     * @return  SQL statement.
+     */
+    String toSqlCreateStatement();
+}
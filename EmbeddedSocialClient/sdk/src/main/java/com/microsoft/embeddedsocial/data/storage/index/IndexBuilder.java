@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ */
+
+package com.microsoft.embeddedsocial.data.storage.index;
+
+import android.text.TextUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Is used to build SQL indexes. Columns are indexed in the order they are added, so composite
+ * indexes should list equality columns first; additional columns make the index covering.
+ */
+public class IndexBuilder {
+
+    private final String indexName;
+    private final String tableName;
+    private final List<String> columns = new ArrayList<>();
+    private boolean unique;
+
+    /**
+     * Creates an instance.
+     * @param indexName name of the index to construct
+     * @param tableName table name for the index
+     */
+    public IndexBuilder(String indexName, String tableName) {
+        this.indexName = indexName;
+        this.tableName = tableName;
+    }
+
+    /**
+     * Adds indexed columns.
+     * @param   columns   columns to add
+     * @return  this instance.
+     */
+    public IndexBuilder addColumns(String... columns) {
+        this.columns.addAll(Arrays.asList(columns));
+        return this;
+    }
+
+    /**
+     * Makes the index unique.
+     * @return  this instance.
+     */
+    public IndexBuilder setUnique() {
+        this.unique = true;
+        return this;
+    }
+
+    /**
+     * Builds the index.
+     * @return  {@linkplain ISqlIndex} instance.
+     */
+    public ISqlIndex build() {
+        if (columns.isEmpty()) {
+            throw new IllegalStateException("index " + indexName + " has no columns");
+        }
+        String statement = "create " + (unique ? "unique " : "") + "index if not exists "
+            + indexName + " on " + tableName
+            + " (`" + TextUtils.join("`, `", columns) + "`)";
+
+        return new ISqlIndex() {
+            @Override
+            public String getName() {
+                return indexName;
+            }
+
+            @Override
+            public String toSqlCreateStatement() {
+                return statement;
+            }
+        };
+    }
+}
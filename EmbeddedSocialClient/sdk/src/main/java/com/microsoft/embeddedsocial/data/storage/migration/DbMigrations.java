@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ */
+
+package com.microsoft.embeddedsocial.data.storage.migration;
+
+import com.j256.ormlite.support.ConnectionSource;
+import com.j256.ormlite.table.TableUtils;
+import com.microsoft.embeddedsocial.base.utils.debug.DebugLog;
+import com.microsoft.embeddedsocial.data.storage.DbSchemas;
+import com.microsoft.embeddedsocial.data.storage.UserActionCache;
+import com.microsoft.embeddedsocial.data.storage.model.CacheAccess;
+import com.microsoft.embeddedsocial.data.storage.model.FeedFreshness;
+import com.microsoft.embeddedsocial.data.storage.model.FeedGeneration;
+import com.microsoft.embeddedsocial.data.storage.model.OutboxEntry;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Ordered list of DB schema migration steps.
+ */
+public final class DbMigrations {
+
+    /**
+     * The oldest DB version that can be upgraded incrementally. Databases of older versions
+     * are recreated from scratch.
+     */
+    public static final int MIN_SUPPORTED_VERSION = 18;
+
+    private static final List<IDbMigration> MIGRATIONS = new ArrayList<>();
+
+    private DbMigrations() {  }
+
+    static {
+        // 19: secondary indexes of relation tables
+        // (all registered indexes are created by DatabaseHelper after the last step)
+        registerMigration(19, (database, connectionSource) -> { });
+
+        // 20: feed generations; the indexes of the feed tables get the generation column
+        registerMigration(20, (database, connectionSource) -> {
+            MigrationUtils.addColumn(database, DbSchemas.TopicFeedRelation.TABLE_NAME,
+                DbSchemas.TopicFeedRelation.GENERATION, "INTEGER DEFAULT " + FeedGeneration.LIVE);
+            MigrationUtils.addColumn(database, DbSchemas.CommentFeedRelation.TABLE_NAME,
+                DbSchemas.CommentFeedRelation.GENERATION, "INTEGER DEFAULT " + FeedGeneration.LIVE);
+            database.execSQL("drop index if exists topic_feeds_by_feed");
+            database.execSQL("drop index if exists comment_feeds_by_topic");
+        });
+
+        // 21: last access times of cached entities
+        registerMigration(21, (database, connectionSource) ->
+            TableUtils.createTableIfNotExists(connectionSource, CacheAccess.class));
+
+        // 22: freshness of cached feeds
+        registerMigration(22, (database, connectionSource) ->
+            TableUtils.createTableIfNotExists(connectionSource, FeedFreshness.class));
+
+        // 23: like and pin actions are kept as a history (no unique handle), the cleanup triggers
+        // are replaced by the outbox compaction
+        registerMigration(23, (database, connectionSource) -> {
+            MigrationUtils.copyAndSwap(database, connectionSource, DbSchemas.LikeStatus.TABLE_NAME,
+                UserActionCache.LikeChangedAction.class);
+            MigrationUtils.copyAndSwap(database, connectionSource, DbSchemas.PinStatus.TABLE_NAME,
+                UserActionCache.PinChangedAction.class);
+        });
+
+        // 24: delivery state of pending operations
+        registerMigration(24, (database, connectionSource) ->
+            TableUtils.createTableIfNotExists(connectionSource, OutboxEntry.class));
+
+        // 25: whether a pending operation may have reached the server
+        registerMigration(25, (database, connectionSource) ->
+            MigrationUtils.addColumn(database, DbSchemas.Outbox.TABLE_NAME, DbSchemas.Outbox.SENT,
+                "BOOLEAN DEFAULT 0"));
+
+        // 26: orphan grace periods start when an entity is orphaned rather than at its last access
+        registerMigration(26, (database, connectionSource) ->
+            MigrationUtils.addColumn(database, DbSchemas.CacheAccess.TABLE_NAME,
+                DbSchemas.CacheAccess.ORPHAN_SINCE, "BIGINT DEFAULT 0"));
+    }
+
+    private static void registerMigration(int targetVersion, Step step) {
+        MIGRATIONS.add(new IDbMigration() {
+            @Override
+            public int getTargetVersion() {
+                return targetVersion;
+            }
+
+            @Override
+            public void migrate(SQLiteDatabase database, ConnectionSource connectionSource)
+                throws SQLException {
+
+                step.migrate(database, connectionSource);
+            }
+        });
+    }
+
+    /**
+     * Gets all registered migration steps ordered by target version.
+     * @return  migration steps.
+     */
+    public static List<IDbMigration> getMigrations() {
+        return Collections.unmodifiableList(MIGRATIONS);
+    }
+
+    /**
+     * Checks whether the DB of the specified version can be upgraded incrementally.
+     * @param oldVersion    DB version
+     * @param newVersion    target DB version
+     * @return  true if all migration steps required for the upgrade are available.
+     */
+    public static boolean canMigrate(int oldVersion, int newVersion) {
+        if (oldVersion < MIN_SUPPORTED_VERSION) {
+            return false;
+        }
+        int expectedVersion = oldVersion + 1;
+        for (IDbMigration migration : MIGRATIONS) {
+            if (migration.getTargetVersion() == expectedVersion && expectedVersion <= newVersion) {
+                expectedVersion++;
+            }
+        }
+        return expectedVersion > newVersion;
+    }
+
+    /**
+     * Runs all migration steps required to upgrade the DB from the old version to the new one.
+     * The caller is responsible for wrapping the call into a transaction.
+     * @param database          the database
+     * @param connectionSource  ORMLite connection source
+     * @param oldVersion        current DB version
+     * @param newVersion        target DB version
+     * @throws SQLException if any step fails
+     */
+    public static void migrate(SQLiteDatabase database, ConnectionSource connectionSource,
+                               int oldVersion, int newVersion) throws SQLException {
+
+        for (IDbMigration migration : MIGRATIONS) {
+            int targetVersion = migration.getTargetVersion();
+            if (targetVersion > oldVersion && targetVersion <= newVersion) {
+                DebugLog.i("migrating DB to version " + targetVersion);
+                migration.migrate(database, connectionSource);
+            }
+        }
+    }
+
+    /**
+     * Body of a migration step.
+     */
+    private interface Step {
+        void migrate(SQLiteDatabase database, ConnectionSource connectionSource) throws SQLException;
+    }
+}
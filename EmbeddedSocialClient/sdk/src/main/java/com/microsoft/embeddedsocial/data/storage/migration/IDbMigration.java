@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ */
+
+package com.microsoft.embeddedsocial.data.storage.migration;
+
+import com.j256.ormlite.support.ConnectionSource;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import java.sql.SQLException;
+
+/**
+ * A single step of DB schema migration.
+ */
+public interface IDbMigration {
+
+    /**
+     * Gets the DB version this step upgrades the schema to (from the previous version).
+     * @return  target DB version.
+     */
+    int getTargetVersion();
+
+    /**
+     * Performs the migration step. Steps should be idempotent, i.e. should not fail if the change
+     * they make is already present in the DB.
+     * @param database          the database
+     * @param connectionSource  ORMLite connection source
+     * @throws SQLException if the migration fails.
+     */
+    void migrate(SQLiteDatabase database, ConnectionSource connectionSource) throws SQLException;
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ */
+
+package com.microsoft.embeddedsocial.data.storage.migration;
+
+import com.j256.ormlite.support.ConnectionSource;
+import com.j256.ormlite.table.TableUtils;
+import com.microsoft.embeddedsocial.base.utils.debug.DebugLog;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.text.TextUtils;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Helpers for DB schema migration steps.
+ */
+public final class MigrationUtils {
+
+    private static final String OLD_TABLE_SUFFIX = "_migration_old";
+
+    private MigrationUtils() {  }
+
+    /**
+     * Gets the list of columns of a table.
+     * @param database  the database
+     * @param tableName table name
+     * @return  column names (empty if the table doesn't exist).
+     */
+    public static List<String> getColumns(SQLiteDatabase database, String tableName) {
+        List<String> columns = new ArrayList<>();
+        Cursor cursor = database.rawQuery("pragma table_info(`" + tableName + "`)", null);
+        try {
+            int nameColumn = cursor.getColumnIndexOrThrow("name");
+            while (cursor.moveToNext()) {
+                columns.add(cursor.getString(nameColumn));
+            }
+        } finally {
+            cursor.close();
+        }
+        return columns;
+    }
+
+    /**
+     * Checks whether a table exists.
+     * @param database  the database
+     * @param tableName table name
+     * @return  true if the table exists.
+     */
+    public static boolean tableExists(SQLiteDatabase database, String tableName) {
+        return !getColumns(database, tableName).isEmpty();
+    }
+
+    /**
+     * Adds a column to a table unless the column already exists.
+     * @param database          the database
+     * @param tableName         table name
+     * @param columnName        column name
+     * @param columnDefinition  column type and constraints, e.g. <code>BIGINT DEFAULT 0</code>
+     */
+    public static void addColumn(SQLiteDatabase database, String tableName, String columnName,
+                                 String columnDefinition) {
+
+        if (!getColumns(database, tableName).contains(columnName)) {
+            database.execSQL("alter table `" + tableName + "` add column `" + columnName + "` "
+                + columnDefinition);
+        }
+    }
+
+    /**
+     * Recreates a table from its current model class and copies all rows of the old table into it.
+     * Columns existing in both tables are copied, the others are dropped or get default values.
+     * Is used for changes ALTER TABLE can't do (changing column types or constraints, dropping columns).
+     * @param database          the database
+     * @param connectionSource  ORMLite connection source
+     * @param tableName         table name
+     * @param modelClass        DB model class of the table
+     * @throws SQLException if the table can't be recreated
+     */
+    public static void copyAndSwap(SQLiteDatabase database, ConnectionSource connectionSource,
+                                   String tableName, Class<?> modelClass) throws SQLException {
+
+        String oldTableName = tableName + OLD_TABLE_SUFFIX;
+        database.execSQL("drop table if exists `" + oldTableName + "`");
+        database.execSQL("alter table `" + tableName + "` rename to `" + oldTableName + "`");
+        TableUtils.createTable(connectionSource, modelClass);
+
+        List<String> commonColumns = getColumns(database, tableName);
+        commonColumns.retainAll(getColumns(database, oldTableName));
+        if (!commonColumns.isEmpty()) {
+            String columnList = "`" + TextUtils.join("`, `", commonColumns) + "`";
+            database.execSQL("insert into `" + tableName + "` (" + columnList + ") select "
+                + columnList + " from `" + oldTableName + "`");
+        }
+        database.execSQL("drop table `" + oldTableName + "`");
+    }
+
+    /**
+     * Drops all triggers existing in the DB.
+     * @param database  the database
+     */
+    public static void dropAllTriggers(SQLiteDatabase database) {
+        List<String> triggers = new ArrayList<>();
+        Cursor cursor = database.rawQuery("select name from sqlite_master where type = 'trigger'", null);
+        try {
+            while (cursor.moveToNext()) {
+                triggers.add(cursor.getString(0));
+            }
+        } finally {
+            cursor.close();
+        }
+        for (String trigger : triggers) {
+            DebugLog.i("dropping trigger " + trigger);
+            database.execSQL("drop trigger if exists `" + trigger + "`");
+        }
+    }
+}
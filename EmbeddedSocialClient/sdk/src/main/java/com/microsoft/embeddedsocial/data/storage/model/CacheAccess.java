@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ */
+
+package com.microsoft.embeddedsocial.data.storage.model;
+
+import com.j256.ormlite.field.DatabaseField;
+import com.j256.ormlite.table.DatabaseTable;
+import com.microsoft.embeddedsocial.data.storage.DbSchemas;
+
+/**
+ * Time of the last access to a cached entity and the time since no feed refers to it. Is used
+ * to evict least recently used content and to sweep orphaned content.
+ */
+@SuppressWarnings("unused")
+@DatabaseTable(tableName = DbSchemas.CacheAccess.TABLE_NAME)
+public class CacheAccess {
+
+    @DatabaseField(generatedId = true, columnName = DbSchemas.CacheAccess.ID)
+    private int id;
+
+    @DatabaseField(columnName = DbSchemas.CacheAccess.ENTITY_TABLE)
+    private String entityTable;
+
+    @DatabaseField(columnName = DbSchemas.CacheAccess.HANDLE)
+    private String handle;
+
+    @DatabaseField(columnName = DbSchemas.CacheAccess.LAST_ACCESS)
+    private long lastAccess;
+
+    @DatabaseField(columnName = DbSchemas.CacheAccess.ORPHAN_SINCE, defaultValue = "0")
+    private long orphanSince;
+
+    /**
+     * For ORM.
+     */
+    CacheAccess() {  }
+
+    public CacheAccess(String entityTable, String handle, long lastAccess) {
+        this.entityTable = entityTable;
+        this.handle = handle;
+        this.lastAccess = lastAccess;
+    }
+
+    public String getEntityTable() {
+        return entityTable;
+    }
+
+    public String getHandle() {
+        return handle;
+    }
+
+    public long getLastAccess() {
+        return lastAccess;
+    }
+
+    /**
+     * Gets the time since no feed refers to the entity.
+     * @return  time in milliseconds since epoch, 0 if the entity is referenced.
+     */
+    public long getOrphanSince() {
+        return orphanSince;
+    }
+}
@@ -28,15 +28,25 @@ public class CommentFeedRelation {
     @DatabaseField(columnName = DbSchemas.CommentFeedRelation.COMMENT_HANDLE)
     private String commentHandle;
 
+    @DatabaseField(columnName = DbSchemas.CommentFeedRelation.GENERATION,
+        defaultValue = "" + FeedGeneration.LIVE)
+    private int generation;
+
     /**
      * For ORM.
      */
     CommentFeedRelation() {  }
 
     public CommentFeedRelation(int feedType, String topicHandle, String commentHandle) {
+        this(feedType, topicHandle, commentHandle, FeedGeneration.LIVE);
+    }
+
+    public CommentFeedRelation(int feedType, String topicHandle, String commentHandle,
+                               int generation) {
         this.feedType = feedType;
         this.topicHandle = topicHandle;
         this.commentHandle = commentHandle;
+        this.generation = generation;
     }
 
     public String getCommentHandle() {
@@ -50,4 +60,8 @@ public class CommentFeedRelation {
     public String getTopicHandle() {
         return topicHandle;
     }
+
+    public int getGeneration() {
+        return generation;
+    }
 }
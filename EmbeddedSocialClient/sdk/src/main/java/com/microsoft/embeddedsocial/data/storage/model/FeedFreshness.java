@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ */
+
+package com.microsoft.embeddedsocial.data.storage.model;
+
+import com.j256.ormlite.field.DatabaseField;
+import com.j256.ormlite.table.DatabaseTable;
+import com.microsoft.embeddedsocial.data.storage.DbSchemas;
+
+/**
+ * Time the first page of a cached feed was last received from the server.
+ */
+@SuppressWarnings("unused")
+@DatabaseTable(tableName = DbSchemas.FeedFreshness.TABLE_NAME)
+public class FeedFreshness {
+
+    @DatabaseField(id = true, columnName = DbSchemas.FeedFreshness.FEED_KEY)
+    private String feedKey;
+
+    @DatabaseField(columnName = DbSchemas.FeedFreshness.UPDATE_TIME)
+    private long updateTime;
+
+    /**
+     * For ORM.
+     */
+    FeedFreshness() {  }
+
+    public FeedFreshness(String feedKey, long updateTime) {
+        this.feedKey = feedKey;
+        this.updateTime = updateTime;
+    }
+
+    public String getFeedKey() {
+        return feedKey;
+    }
+
+    public long getUpdateTime() {
+        return updateTime;
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ */
+
+package com.microsoft.embeddedsocial.data.storage.model;
+
+/**
+ * Generations of feed relation rows. A new snapshot of a feed is written as the staging generation
+ * and then swapped with the live one in the same transaction, so readers see either the old
+ * or the new feed, never an empty or partially written one. Retired rows are deleted later
+ * in background.
+ */
+public final class FeedGeneration {
+
+    /**
+     * Rows visible to readers. Is the default value of the column, so rows inserted one by one
+     * are live.
+     */
+    public static final int LIVE = 0;
+
+    /**
+     * Rows of the feed snapshot being written.
+     */
+    public static final int STAGING = 1;
+
+    /**
+     * Rows replaced by a newer snapshot and waiting for garbage collection.
+     */
+    public static final int RETIRED = -1;
+
+    private FeedGeneration() {  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ */
+
+package com.microsoft.embeddedsocial.data.storage.model;
+
+import com.j256.ormlite.field.DatabaseField;
+import com.j256.ormlite.table.DatabaseTable;
+import com.microsoft.embeddedsocial.data.storage.DbSchemas;
+import com.microsoft.embeddedsocial.data.storage.Outbox;
+
+/**
+ * Delivery state of a pending operation which failed to upload. The operation itself (the payload)
+ * stays in the table of its type; operations without an entry are due immediately.
+ */
+@SuppressWarnings("unused")
+@DatabaseTable(tableName = DbSchemas.Outbox.TABLE_NAME)
+public class OutboxEntry {
+
+    @DatabaseField(generatedId = true)
+    private int id;
+
+    @DatabaseField(columnName = DbSchemas.Outbox.OPERATION, uniqueCombo = true)
+    private Outbox.OperationType operation;
+
+    @DatabaseField(columnName = DbSchemas.Outbox.PAYLOAD_ID, uniqueCombo = true)
+    private int payloadId;
+
+    @DatabaseField(columnName = DbSchemas.Outbox.STATUS)
+    private Status status = Status.RETRYING;
+
+    @DatabaseField(columnName = DbSchemas.Outbox.ATTEMPTS)
+    private int attempts;
+
+    @DatabaseField(columnName = DbSchemas.Outbox.NEXT_ATTEMPT_AT)
+    private long nextAttemptAt;
+
+    @DatabaseField(columnName = DbSchemas.Outbox.LAST_ERROR)
+    private String lastError;
+
+    @DatabaseField(columnName = DbSchemas.Outbox.SENT)
+    private boolean sent;
+
+    /**
+     * For ORM.
+     */
+    OutboxEntry() {  }
+
+    public OutboxEntry(Outbox.OperationType operation, int payloadId) {
+        this.operation = operation;
+        this.payloadId = payloadId;
+    }
+
+    public Outbox.OperationType getOperation() {
+        return operation;
+    }
+
+    public int getPayloadId() {
+        return payloadId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * Gets the time the operation can be uploaded again.
+     * @return  time in milliseconds since epoch ({@link Long#MAX_VALUE} for quarantined operations).
+     */
+    public long getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    /**
+     * Checks whether a failed upload of the operation may have reached the server (e.g. it timed
+     * out or the server failed after applying it), so the operation may be applied already.
+     * @return  true if the operation may have been applied by the server.
+     */
+    public boolean isSent() {
+        return sent;
+    }
+
+    /**
+     * Records that an upload of the operation may have reached the server.
+     */
+    public void markSent() {
+        sent = true;
+    }
+
+    /**
+     * Records a failed upload.
+     * @param error         failure description
+     * @param retryTime     time of the next attempt
+     */
+    public void recordFailure(String error, long retryTime) {
+        attempts++;
+        lastError = error;
+        nextAttemptAt = retryTime;
+    }
+
+    /**
+     * Stops retrying the operation until it's released from the quarantine.
+     */
+    public void quarantine() {
+        status = Status.QUARANTINED;
+        nextAttemptAt = Long.MAX_VALUE;
+    }
+
+    /**
+     * Delivery status of an operation.
+     */
+    public enum Status {
+
+        /**
+         * The operation is retried after its backoff.
+         */
+        RETRYING,
+
+        /**
+         * The operation failed too many times and isn't retried automatically.
+         */
+        QUARANTINED
+    }
+}
@@ -18,7 +18,7 @@ public class TopicFeedRelation {
 
     public static final String DEFAULT_QUERY = "";
 
-    @DatabaseField(generatedId = true)
+    @DatabaseField(generatedId = true, columnName = DbSchemas.TopicFeedRelation.ID)
     private int id;
 
     @DatabaseField(columnName = DbSchemas.TopicFeedRelation.FEED_TYPE)
@@ -30,12 +30,21 @@ public class TopicFeedRelation {
     @DatabaseField(columnName = DbSchemas.TopicFeedRelation.TOPIC_HANDLE)
     private String topicHandle;
 
+    @DatabaseField(columnName = DbSchemas.TopicFeedRelation.GENERATION,
+        defaultValue = "" + FeedGeneration.LIVE)
+    private int generation;
+
     TopicFeedRelation() {  }
 
     public TopicFeedRelation(String query, int topicFeedType, String topicHandle) {
+        this(query, topicFeedType, topicHandle, FeedGeneration.LIVE);
+    }
+
+    public TopicFeedRelation(String query, int topicFeedType, String topicHandle, int generation) {
         this.query = query != null ? query : DEFAULT_QUERY;
         this.topicFeedType = topicFeedType;
         this.topicHandle = topicHandle;
+        this.generation = generation;
     }
 
     public String getQuery() {
@@ -49,4 +58,8 @@ public class TopicFeedRelation {
     public String getTopicHandle() {
         return topicHandle;
     }
+
+    public int getGeneration() {
+        return generation;
+    }
 }
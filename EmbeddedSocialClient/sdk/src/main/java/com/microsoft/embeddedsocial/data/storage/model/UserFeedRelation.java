@@ -19,7 +19,7 @@ import android.text.TextUtils;
 @DatabaseTable(tableName = DbSchemas.UserFeeds.TABLE_NAME)
 public class UserFeedRelation {
 
-    @DatabaseField(generatedId = true)
+    @DatabaseField(generatedId = true, columnName = DbSchemas.UserFeeds.ID)
     private int id;
 
     @DatabaseField(columnName = DbSchemas.UserFeeds.USER_HANDLE)
@@ -5,11 +5,21 @@
 
 package com.microsoft.embeddedsocial.data.storage.request.wrapper;
 
+import com.microsoft.embeddedsocial.base.GlobalObjectRegistry;
 import com.microsoft.embeddedsocial.base.utils.debug.DebugLog;
+import com.microsoft.embeddedsocial.base.utils.thread.BackgroundThreadFactory;
+import com.microsoft.embeddedsocial.data.storage.CacheCursor;
+import com.microsoft.embeddedsocial.server.NetworkAvailability;
+import com.microsoft.embeddedsocial.server.NetworkScheduler;
 import com.microsoft.embeddedsocial.server.exception.NetworkRequestException;
 import com.microsoft.embeddedsocial.server.model.BaseRequest;
+import com.microsoft.embeddedsocial.server.model.FeedUserRequest;
+import com.microsoft.embeddedsocial.server.model.ListResponse;
+import com.microsoft.embeddedsocial.server.model.UserRequest;
 
 import java.sql.SQLException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Contains general logic for content caching.
@@ -18,6 +28,17 @@ import java.sql.SQLException;
  */
 public abstract class AbstractRequestWrapper<Request extends BaseRequest, Response> {
 
+    private static final int REVALIDATION_THREADS = 2;
+
+    private static final ExecutorService REVALIDATION_EXECUTOR = Executors.newFixedThreadPool(
+        REVALIDATION_THREADS, new BackgroundThreadFactory("cache revalidation #"));
+
+    private static final String NO_CONNECTION_MESSAGE = "No network connection";
+
+    private final RequestCoalescer requestCoalescer = GlobalObjectRegistry.getObject(RequestCoalescer.class);
+    private final NetworkAvailability networkAvailability = GlobalObjectRegistry.getObject(NetworkAvailability.class);
+    private final ResponseTimeStats responseTimeStats = GlobalObjectRegistry.getObject(ResponseTimeStats.class);
+
     /**
      * Gets response from the network.
      * @param   request   data request
@@ -51,18 +72,96 @@ public abstract class AbstractRequestWrapper<Request extends BaseRequest, Respon
     }
 
     /**
-     * Gets a response corresponding to the specified request. Tries to obtain the response
-     * from the network first. If that attempt fails, switches to cache and tries to obtain
-     * the response from cache.
+     * Gets the cache policy of first data requests.
+     * <br/> Is {@link CachePolicy#NETWORK_FIRST} in default implementation.
+     * @return  cache policy.
+     */
+    protected CachePolicy getCachePolicy() {
+        return CachePolicy.NETWORK_FIRST;
+    }
+
+    /**
+     * Gets the time a cached response stays fresh after it was received from the server.
+     * <br/> Is 0 in default implementation, i.e. cached responses are always stale.
+     * @return  freshness period in milliseconds.
+     */
+    protected long getFreshnessPeriod() {
+        return 0;
+    }
+
+    /**
+     * Gets the time the cached response to a request was received from the server.
+     * <br/> Returns 0 (unknown) in default implementation.
+     * @param   request   data request
+     * @return  update time in milliseconds or 0 if unknown.
+     * @throws  SQLException    if cache fails
+     */
+    @SuppressWarnings("unused")
+    protected long getCachedResponseTime(Request request) throws SQLException {
+        return 0;
+    }
+
+    /**
+     * Gets the way requests executed concurrently share a single network call and a single
+     * {@link #storeResponse(BaseRequest, Object)}.
+     * <br/> Returns null (requests aren't coalesced) in default implementation.
+     * @return  coalescing or null.
+     */
+    protected Coalescing<Request, Response> getCoalescing() {
+        return null;
+    }
+
+    /**
+     * Builds a coalescing key from the request type, the caller's authorization and
+     * the request parameters.
+     * @param   request     data request
+     * @param   parameters  request parameters
+     * @return  coalescing key.
+     */
+    protected static String buildCoalescingKey(BaseRequest request, Object... parameters) {
+        StringBuilder key = new StringBuilder(request.getClass().getName());
+        if (request instanceof UserRequest) {
+            key.append('|').append(((UserRequest) request).getAuthorization());
+        }
+        for (Object parameter : parameters) {
+            key.append('|').append(parameter);
+        }
+        return key.toString();
+    }
+
+    /**
+     * Gets a response corresponding to the specified request according to the
+     * {@linkplain #getCachePolicy() cache policy}. With the default policy tries to obtain
+     * the response from the network first. If that attempt fails, switches to cache and tries
+     * to obtain the response from cache.
      * @param   request   data request
      * @return  response of specified type
      * @throws  NetworkRequestException if response can't be obtained neither from network nor from cache.
      */
     public Response getResponse(Request request) throws NetworkRequestException {
+        long startTime = System.nanoTime();
+        CachePolicy cachePolicy = getCachePolicy();
+        if (cachePolicy != CachePolicy.NETWORK_FIRST && !request.isCacheOnly()
+            && !request.isNetworkOnly() && isFirstDataRequest(request)) {
+
+            Response response = getUsableCachedResponse(request);
+            if (response != null) {
+                boolean fresh = isCachedResponseFresh(request);
+                if (fresh || cachePolicy == CachePolicy.STALE_WHILE_REVALIDATE) {
+                    if (!fresh) {
+                        revalidate(request);
+                    }
+                    onResponseIsReady(request, response, true);
+                    recordResponseTime(ResponseTimeStats.Source.CACHE, startTime);
+                    return response;
+                }
+            }
+        }
+
         Response response;
         boolean cachedResponse = false;
 
-        if (request.isCacheOnly()) {
+        if (request.isCacheOnly() || isCacheContinuation(request)) {
             try {
                 response = getCachedResponse(request);
                 cachedResponse = true;
@@ -70,11 +169,23 @@ public abstract class AbstractRequestWrapper<Request extends BaseRequest, Respon
                 DebugLog.logException(e);
                 throw new NetworkRequestException(e);
             }
+        } else if (!isOnline()) {
+            // don't wait for the connection timeout
+            if (!isFirstDataRequest(request)) {
+                throw new NetworkRequestException(NO_CONNECTION_MESSAGE);
+            }
+            try {
+                response = getCachedResponse(request);
+                cachedResponse = true;
+                recordResponseTime(ResponseTimeStats.Source.CACHE_OFFLINE, startTime);
+            } catch (SQLException e) {
+                DebugLog.logException(e);
+                throw new NetworkRequestException(NO_CONNECTION_MESSAGE, e);
+            }
         } else {
             try {
-                response = request.send();
-                onNetworkResponseReceived(request, response);
-                storeResponseSafely(request, response);
+                response = getNetworkResponseCoalesced(request);
+                recordResponseTime(ResponseTimeStats.Source.NETWORK, startTime);
             } catch (NetworkRequestException e) {
                 DebugLog.logException(e);
                 if (!isFirstDataRequest(request)) {
@@ -83,6 +194,7 @@ public abstract class AbstractRequestWrapper<Request extends BaseRequest, Respon
                 try {
                     response = getCachedResponse(request);
                     cachedResponse = true;
+                    recordResponseTime(ResponseTimeStats.Source.CACHE_AFTER_NETWORK_FAILURE, startTime);
                 } catch (SQLException e2) {
                     DebugLog.logException(e2);
                     // throw the original exception
@@ -96,6 +208,25 @@ public abstract class AbstractRequestWrapper<Request extends BaseRequest, Respon
         return response;
     }
 
+    /**
+     * Checks if a request asks for the next page of a feed read from the cache. Its cursor means
+     * nothing to the server, so the page is read from the cache even if the network is back.
+     */
+    private static boolean isCacheContinuation(BaseRequest request) {
+        return request instanceof FeedUserRequest
+            && CacheCursor.isCacheCursor(((FeedUserRequest) request).getCursor());
+    }
+
+    private boolean isOnline() {
+        return networkAvailability == null || networkAvailability.isNetworkAvailable();
+    }
+
+    private void recordResponseTime(ResponseTimeStats.Source source, long startTime) {
+        if (responseTimeStats != null) {
+            responseTimeStats.record(source, System.nanoTime() - startTime);
+        }
+    }
+
     /**
      * Is called immediately after a response is obtained from the server, before it's saved to cache.
      * <br/> Does nothing in default implementation.
@@ -115,6 +246,73 @@ public abstract class AbstractRequestWrapper<Request extends BaseRequest, Respon
     @SuppressWarnings("unused")
     protected void onResponseIsReady(Request request, Response response, boolean cachedResponseUsed) {  }
 
+    private Response getUsableCachedResponse(Request request) {
+        try {
+            Response response = getCachedResponse(request);
+            if (response instanceof ListResponse && ((ListResponse<?>) response).getData().isEmpty()) {
+                return null;
+            }
+            return response;
+        } catch (SQLException e) {
+            DebugLog.logException(e);
+            return null;
+        }
+    }
+
+    private boolean isCachedResponseFresh(Request request) {
+        try {
+            long age = System.currentTimeMillis() - getCachedResponseTime(request);
+            return age >= 0 && age < getFreshnessPeriod();
+        } catch (SQLException e) {
+            DebugLog.logException(e);
+            return false;
+        }
+    }
+
+    private void revalidate(Request request) {
+        BaseRequest.RevalidationListener<? super Response> listener = request.getRevalidationListener();
+        if (!isOnline()) {
+            if (listener != null) {
+                listener.onRevalidationFailed(new NetworkRequestException(NO_CONNECTION_MESSAGE));
+            }
+            return;
+        }
+        REVALIDATION_EXECUTOR.submit(() -> {
+            Response response;
+            try {
+                response = NetworkScheduler.call(NetworkScheduler.Priority.PREFETCH, null,
+                    () -> getNetworkResponseCoalesced(request));
+                onResponseIsReady(request, response, false);
+            } catch (Exception e) {
+                // the stale response is already in use
+                DebugLog.logException(e);
+                if (listener != null) {
+                    listener.onRevalidationFailed(e);
+                }
+                return;
+            }
+            if (listener != null) {
+                listener.onResponseRevalidated(response);
+            }
+        });
+    }
+
+    private Response getNetworkResponseCoalesced(Request request) throws NetworkRequestException {
+        Coalescing<Request, Response> coalescing = requestCoalescer != null ? getCoalescing() : null;
+        String key = coalescing != null ? coalescing.getKey(request) : null;
+        if (key == null) {
+            return getNetworkResponseAndStore(request);
+        }
+        return coalescing.copy(requestCoalescer.execute(key, () -> getNetworkResponseAndStore(request)));
+    }
+
+    private Response getNetworkResponseAndStore(Request request) throws NetworkRequestException {
+        Response response = request.send();
+        onNetworkResponseReceived(request, response);
+        storeResponseSafely(request, response);
+        return response;
+    }
+
     private void storeResponseSafely(Request request, Response response) {
         try {
             storeResponse(request, response);
@@ -122,4 +320,29 @@ public abstract class AbstractRequestWrapper<Request extends BaseRequest, Respon
             DebugLog.logException(e);
         }
     }
+
+    /**
+     * Identifies the requests which can share a server response and copies the shared response.
+     * Both are defined together, so a wrapper can't coalesce responses it can't copy.
+     * @param <Request>     network request type
+     * @param <Response>    network response type
+     */
+    protected abstract static class Coalescing<Request extends BaseRequest, Response> {
+
+        /**
+         * Gets the key identifying requests which can share a single network call.
+         * @param   request   data request
+         * @return  coalescing key or null if the request isn't coalesced.
+         * @see AbstractRequestWrapper#buildCoalescingKey(BaseRequest, Object...)
+         */
+        public abstract String getKey(Request request);
+
+        /**
+         * Makes a deep copy of a shared server response, so that every caller can modify its own
+         * copy (e.g. in {@link AbstractRequestWrapper#onResponseIsReady(BaseRequest, Object, boolean)}).
+         * @param   response    shared response
+         * @return  copy of the response.
+         */
+        public abstract Response copy(Response response);
+    }
 }
@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ */
+
+package com.microsoft.embeddedsocial.data.storage.request.wrapper;
+
+/**
+ * Defines how a request wrapper combines cached and server responses to the first data request.
+ * Continuation requests always go to the server.
+ */
+public enum CachePolicy {
+
+    /**
+     * The server is asked first, the cache is only used if the server can't be reached.
+     */
+    NETWORK_FIRST,
+
+    /**
+     * A fresh cached response is used without asking the server, otherwise the same as
+     * {@link #NETWORK_FIRST}.
+     */
+    CACHE_FIRST,
+
+    /**
+     * A cached response is returned immediately. If it isn't fresh, the server is asked
+     * in background and the fresh response is stored and delivered to
+     * {@link com.microsoft.embeddedsocial.server.model.BaseRequest.RevalidationListener}.
+     */
+    STALE_WHILE_REVALIDATE
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ */
+
+package com.microsoft.embeddedsocial.data.storage.request.wrapper;
+
+import com.microsoft.embeddedsocial.server.NetworkScheduler;
+import com.microsoft.embeddedsocial.server.exception.NetworkRequestException;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lets concurrent identical requests share a single call (single-flight): the first caller
+ * with a given key executes the call, callers arriving while it's in flight wait for its result.
+ * Calls aren't cached after completion.
+ * <br/> The call runs in the {@link NetworkScheduler.Scope} of the caller executing it. If that
+ * scope is canceled (e.g. the caller's screen is closed), the failure isn't shared: the waiting
+ * callers execute the call again in their own scopes.
+ */
+public final class RequestCoalescer {
+
+    private final ConcurrentHashMap<String, Flight> flights = new ConcurrentHashMap<>();
+    private final AtomicLong executedCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+
+    /**
+     * Executes a call unless an identical one is in flight, in which case waits for its result.
+     * @param key   key identifying identical calls
+     * @param call  the call
+     * @param <T>   result type
+     * @return  result of the call.
+     * @throws NetworkRequestException if the (shared) call fails
+     */
+    public <T> T execute(String key, Call<T> call) throws NetworkRequestException {
+        boolean joined = false;
+        while (true) {
+            Flight flight = new Flight();
+            Flight existing = flights.putIfAbsent(key, flight);
+            if (existing == null) {
+                return executeFlight(key, flight, call);
+            }
+            if (!joined) {
+                // a caller joining another flight after an abandoned one is counted once
+                joined = true;
+                coalescedCount.incrementAndGet();
+            }
+            existing.await();
+            if (!existing.abandoned) {
+                return existing.getResult();
+            }
+        }
+    }
+
+    private <T> T executeFlight(String key, Flight flight, Call<T> call) throws NetworkRequestException {
+        executedCount.incrementAndGet();
+        try {
+            flight.result = call.call();
+            return flight.getResult();
+        } catch (NetworkRequestException | RuntimeException e) {
+            if (NetworkScheduler.isCurrentScopeCanceled()) {
+                // the failure belongs to this caller only
+                flight.abandoned = true;
+            } else {
+                flight.error = e;
+            }
+            throw e;
+        } finally {
+            flights.remove(key, flight);
+            flight.done.countDown();
+        }
+    }
+
+    /**
+     * Gets the number of calls which were actually executed.
+     * @return  number of executed calls.
+     */
+    public long getExecutedCount() {
+        return executedCount.get();
+    }
+
+    /**
+     * Gets the number of callers which joined an identical call in flight.
+     * @return  number of deduplicated calls.
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    /**
+     * Coalesced call.
+     * @param <T>   result type
+     */
+    public interface Call<T> {
+        T call() throws NetworkRequestException;
+    }
+
+    /**
+     * Call in flight.
+     */
+    private static final class Flight {
+
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile Object result;
+        private volatile Exception error;
+        private volatile boolean abandoned;
+
+        /**
+         * Waits until the call completes.
+         * @throws NetworkRequestException if the call failed (and wasn't abandoned)
+         */
+        void await() throws NetworkRequestException {
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new NetworkRequestException(e);
+            }
+            if (error instanceof NetworkRequestException) {
+                throw (NetworkRequestException) error;
+            } else if (error != null) {
+                throw (RuntimeException) error;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> T getResult() {
+            return (T) result;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ */
+
+package com.microsoft.embeddedsocial.data.storage.request.wrapper;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Collects the time caching wrappers take to answer requests, by the way the response was obtained.
+ */
+public final class ResponseTimeStats {
+
+    private final AtomicLongArray counts = new AtomicLongArray(Source.values().length);
+    private final AtomicLongArray totalNanos = new AtomicLongArray(Source.values().length);
+
+    void record(Source source, long nanos) {
+        counts.incrementAndGet(source.ordinal());
+        totalNanos.addAndGet(source.ordinal(), nanos);
+    }
+
+    /**
+     * Gets the number of responses obtained in the given way.
+     * @param source    the way responses were obtained
+     * @return  number of responses.
+     */
+    public long getCount(Source source) {
+        return counts.get(source.ordinal());
+    }
+
+    /**
+     * Gets the average time it took to answer a request in the given way.
+     * @param source    the way responses were obtained
+     * @return  average time in milliseconds.
+     */
+    public double getAverageMillis(Source source) {
+        long count = counts.get(source.ordinal());
+        return count > 0
+            ? (double) totalNanos.get(source.ordinal()) / count / TimeUnit.MILLISECONDS.toNanos(1)
+            : 0;
+    }
+
+    /**
+     * The way a response was obtained.
+     */
+    public enum Source {
+        /**
+         * From the server.
+         */
+        NETWORK,
+        /**
+         * From the cache without contacting the server (fresh or stale-while-revalidate responses).
+         */
+        CACHE,
+        /**
+         * From the cache after a failed attempt to contact the server.
+         */
+        CACHE_AFTER_NETWORK_FAILURE,
+        /**
+         * From the cache without contacting the server because the device is offline.
+         */
+        CACHE_OFFLINE
+    }
+}
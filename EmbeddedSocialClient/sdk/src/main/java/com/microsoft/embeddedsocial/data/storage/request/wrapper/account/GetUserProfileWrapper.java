@@ -9,11 +9,27 @@ import com.microsoft.embeddedsocial.data.storage.UserCache;
 import com.microsoft.embeddedsocial.data.storage.request.wrapper.AbstractNetworkMethodWrapper;
 import com.microsoft.embeddedsocial.server.model.account.GetUserProfileRequest;
 import com.microsoft.embeddedsocial.server.model.account.GetUserProfileResponse;
+import com.microsoft.embeddedsocial.server.model.view.UserProfileView;
 
 import java.sql.SQLException;
 
 public class GetUserProfileWrapper extends AbstractNetworkMethodWrapper<GetUserProfileRequest, GetUserProfileResponse> {
 
+    private static final Coalescing<GetUserProfileRequest, GetUserProfileResponse> COALESCING =
+        new Coalescing<GetUserProfileRequest, GetUserProfileResponse>() {
+
+            @Override
+            public String getKey(GetUserProfileRequest request) {
+                return buildCoalescingKey(request, request.getQueryUserHandle());
+            }
+
+            @Override
+            public GetUserProfileResponse copy(GetUserProfileResponse response) {
+                UserProfileView user = response.getUser();
+                return new GetUserProfileResponse(user != null ? new UserProfileView(user) : null);
+            }
+        };
+
     private final UserCache userCache;
 
     public GetUserProfileWrapper(INetworkMethod<GetUserProfileRequest, GetUserProfileResponse> networkMethod,
@@ -30,6 +46,11 @@ public class GetUserProfileWrapper extends AbstractNetworkMethodWrapper<GetUserP
         userCache.storeUserProfile(response.getUser());
     }
 
+    @Override
+    protected Coalescing<GetUserProfileRequest, GetUserProfileResponse> getCoalescing() {
+        return COALESCING;
+    }
+
     @Override
     protected GetUserProfileResponse getCachedResponse(GetUserProfileRequest request)
         throws SQLException {
@@ -5,9 +5,11 @@
 
 package com.microsoft.embeddedsocial.data.storage.request.wrapper.content;
 
+import com.microsoft.embeddedsocial.base.utils.ParcelUtils;
 import com.microsoft.embeddedsocial.data.storage.ContentCache;
 import com.microsoft.embeddedsocial.data.storage.PostStorage;
 import com.microsoft.embeddedsocial.data.storage.request.wrapper.AbstractBatchNetworkMethodWrapper;
+import com.microsoft.embeddedsocial.data.storage.request.wrapper.CachePolicy;
 import com.microsoft.embeddedsocial.server.model.content.comments.GetCommentFeedRequest;
 import com.microsoft.embeddedsocial.server.model.content.comments.GetCommentFeedResponse;
 import com.microsoft.embeddedsocial.server.model.view.CommentView;
@@ -15,11 +17,36 @@ import com.microsoft.embeddedsocial.server.model.view.CommentView;
 import android.content.Context;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 public class CommentFeedRequestWrapper extends AbstractBatchNetworkMethodWrapper<GetCommentFeedRequest, GetCommentFeedResponse> {
 
+    private static final Coalescing<GetCommentFeedRequest, GetCommentFeedResponse> COALESCING =
+        new Coalescing<GetCommentFeedRequest, GetCommentFeedResponse>() {
+
+            @Override
+            public String getKey(GetCommentFeedRequest request) {
+                return buildCoalescingKey(request, request.getCommentFeedType(), request.getTopicHandle(),
+                    request.getCursor(), request.getBatchSize());
+            }
+
+            @Override
+            public GetCommentFeedResponse copy(GetCommentFeedResponse response) {
+                List<CommentView> data = new ArrayList<>(response.getData().size());
+                for (CommentView item : response.getData()) {
+                    data.add(ParcelUtils.copy(item));
+                }
+                GetCommentFeedResponse copy = new GetCommentFeedResponse(data);
+                copy.setContinuationKey(response.getContinuationKey());
+                return copy;
+            }
+        };
+
+    private static final long FRESHNESS_PERIOD = TimeUnit.SECONDS.toMillis(30);
+
     private final PostStorage postStorage;
     private ContentCache contentCache;
 
@@ -43,6 +70,26 @@ public class CommentFeedRequestWrapper extends AbstractBatchNetworkMethodWrapper
         return contentCache.getCommentFeedResponse(request);
     }
 
+    @Override
+    protected Coalescing<GetCommentFeedRequest, GetCommentFeedResponse> getCoalescing() {
+        return COALESCING;
+    }
+
+    @Override
+    protected CachePolicy getCachePolicy() {
+        return CachePolicy.STALE_WHILE_REVALIDATE;
+    }
+
+    @Override
+    protected long getFreshnessPeriod() {
+        return FRESHNESS_PERIOD;
+    }
+
+    @Override
+    protected long getCachedResponseTime(GetCommentFeedRequest request) throws SQLException {
+        return contentCache.getCommentFeedUpdateTime(request);
+    }
+
     @Override
     protected void onResponseIsReady(GetCommentFeedRequest request, GetCommentFeedResponse response,
                                      boolean cachedResponseUsed) {
@@ -5,6 +5,7 @@
 
 package com.microsoft.embeddedsocial.data.storage.request.wrapper.content;
 
+import com.microsoft.embeddedsocial.base.utils.ParcelUtils;
 import com.microsoft.embeddedsocial.data.storage.ContentCache;
 import com.microsoft.embeddedsocial.data.storage.request.wrapper.AbstractNetworkMethodWrapper;
 import com.microsoft.embeddedsocial.server.model.content.comments.GetCommentRequest;
@@ -14,6 +15,20 @@ import java.sql.SQLException;
 
 public class CommentRequestWrapper extends AbstractNetworkMethodWrapper<GetCommentRequest, GetCommentResponse> {
 
+    private static final Coalescing<GetCommentRequest, GetCommentResponse> COALESCING =
+        new Coalescing<GetCommentRequest, GetCommentResponse>() {
+
+            @Override
+            public String getKey(GetCommentRequest request) {
+                return buildCoalescingKey(request, request.getCommentHandle());
+            }
+
+            @Override
+            public GetCommentResponse copy(GetCommentResponse response) {
+                return new GetCommentResponse(ParcelUtils.copy(response.getComment()));
+            }
+        };
+
     private final ContentCache contentCache;
 
     public CommentRequestWrapper(INetworkMethod<GetCommentRequest, GetCommentResponse> networkMethod,
@@ -30,6 +45,11 @@ public class CommentRequestWrapper extends AbstractNetworkMethodWrapper<GetComme
         contentCache.storeComment(response.getComment());
     }
 
+    @Override
+    protected Coalescing<GetCommentRequest, GetCommentResponse> getCoalescing() {
+        return COALESCING;
+    }
+
     @Override
     protected GetCommentResponse getCachedResponse(GetCommentRequest request) throws SQLException {
         return new GetCommentResponse(contentCache.getComment(request.getCommentHandle()));
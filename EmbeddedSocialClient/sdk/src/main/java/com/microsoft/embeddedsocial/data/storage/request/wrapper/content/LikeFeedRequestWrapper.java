@@ -34,6 +34,7 @@ public class LikeFeedRequestWrapper extends AbstractNetworkMethodWrapper<GetLike
     protected UsersListResponse getCachedResponse(GetLikeFeedRequest request)
         throws SQLException {
 
-        return userCache.getResponse(UserCache.UserFeedType.LIKED, request.getContentHandle());
+        return userCache.getResponse(UserCache.UserFeedType.LIKED, request.getContentHandle(),
+            request.getCursor(), request.getBatchSize());
     }
 }
@@ -5,6 +5,7 @@
 
 package com.microsoft.embeddedsocial.data.storage.request.wrapper.content;
 
+import com.microsoft.embeddedsocial.base.utils.ParcelUtils;
 import com.microsoft.embeddedsocial.base.utils.debug.DebugLog;
 import com.microsoft.embeddedsocial.data.storage.ContentCache;
 import com.microsoft.embeddedsocial.data.storage.PostStorage;
@@ -16,11 +17,33 @@ import com.microsoft.embeddedsocial.server.model.view.ReplyView;
 import android.content.Context;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
 public class ReplyFeedRequestWrapper extends AbstractBatchNetworkMethodWrapper<GetReplyFeedRequest, GetReplyFeedResponse> {
 
+    private static final Coalescing<GetReplyFeedRequest, GetReplyFeedResponse> COALESCING =
+        new Coalescing<GetReplyFeedRequest, GetReplyFeedResponse>() {
+
+            @Override
+            public String getKey(GetReplyFeedRequest request) {
+                return buildCoalescingKey(request, request.getCommentHandle(), request.getCursor(),
+                    request.getBatchSize());
+            }
+
+            @Override
+            public GetReplyFeedResponse copy(GetReplyFeedResponse response) {
+                List<ReplyView> data = new ArrayList<>(response.getData().size());
+                for (ReplyView item : response.getData()) {
+                    data.add(ParcelUtils.copy(item));
+                }
+                GetReplyFeedResponse copy = new GetReplyFeedResponse(data);
+                copy.setContinuationKey(response.getContinuationKey());
+                return copy;
+            }
+        };
+
     private final ContentCache contentCache;
     private final PostStorage postStorage;
 
@@ -44,6 +67,11 @@ public class ReplyFeedRequestWrapper extends AbstractBatchNetworkMethodWrapper<G
         return contentCache.getReplyFeedResponse(request);
     }
 
+    @Override
+    protected Coalescing<GetReplyFeedRequest, GetReplyFeedResponse> getCoalescing() {
+        return COALESCING;
+    }
+
     @Override
     protected void onResponseIsReady(GetReplyFeedRequest request, GetReplyFeedResponse response,
                                      boolean cachedResponseUsed) {
@@ -6,19 +6,48 @@
 package com.microsoft.embeddedsocial.data.storage.request.wrapper.content;
 
 import com.microsoft.embeddedsocial.account.UserAccount;
+import com.microsoft.embeddedsocial.base.utils.ParcelUtils;
 import com.microsoft.embeddedsocial.data.model.TopicFeedType;
 import com.microsoft.embeddedsocial.data.storage.ContentCache;
 import com.microsoft.embeddedsocial.data.storage.PostStorage;
 import com.microsoft.embeddedsocial.data.storage.request.wrapper.AbstractBatchNetworkMethodWrapper;
+import com.microsoft.embeddedsocial.data.storage.request.wrapper.CachePolicy;
 import com.microsoft.embeddedsocial.server.model.content.topics.GetTopicFeedRequest;
 import com.microsoft.embeddedsocial.server.model.content.topics.TopicsListResponse;
+import com.microsoft.embeddedsocial.server.model.view.TopicView;
 
 import android.text.TextUtils;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 public class TopicFeedRequestWrapper extends AbstractBatchNetworkMethodWrapper<GetTopicFeedRequest, TopicsListResponse> {
 
+    private static final Coalescing<GetTopicFeedRequest, TopicsListResponse> COALESCING =
+        new Coalescing<GetTopicFeedRequest, TopicsListResponse>() {
+
+            @Override
+            public String getKey(GetTopicFeedRequest request) {
+                return buildCoalescingKey(request, request.getTopicFeedType(), request.getQuery(),
+                    request.getCursor(), request.getBatchSize());
+            }
+
+            @Override
+            public TopicsListResponse copy(TopicsListResponse response) {
+                List<TopicView> data = new ArrayList<>(response.getData().size());
+                for (TopicView item : response.getData()) {
+                    data.add(ParcelUtils.copy(item));
+                }
+                TopicsListResponse copy = new TopicsListResponse(data);
+                copy.setContinuationKey(response.getContinuationKey());
+                return copy;
+            }
+        };
+
+    private static final long FRESHNESS_PERIOD = TimeUnit.SECONDS.toMillis(30);
+
     private final ContentCache contentCache;
     private final PostStorage postStorage;
 
@@ -54,6 +83,26 @@ public class TopicFeedRequestWrapper extends AbstractBatchNetworkMethodWrapper<G
         return contentCache.getResponse(request);
     }
 
+    @Override
+    protected Coalescing<GetTopicFeedRequest, TopicsListResponse> getCoalescing() {
+        return COALESCING;
+    }
+
+    @Override
+    protected CachePolicy getCachePolicy() {
+        return CachePolicy.STALE_WHILE_REVALIDATE;
+    }
+
+    @Override
+    protected long getFreshnessPeriod() {
+        return FRESHNESS_PERIOD;
+    }
+
+    @Override
+    protected long getCachedResponseTime(GetTopicFeedRequest request) throws SQLException {
+        return contentCache.getFeedUpdateTime(request);
+    }
+
     @Override
     protected void onResponseIsReady(GetTopicFeedRequest request, TopicsListResponse response,
                                      boolean cachedResponseUsed) {
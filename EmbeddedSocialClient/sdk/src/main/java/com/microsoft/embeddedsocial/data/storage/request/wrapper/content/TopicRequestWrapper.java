@@ -5,6 +5,7 @@
 
 package com.microsoft.embeddedsocial.data.storage.request.wrapper.content;
 
+import com.microsoft.embeddedsocial.base.utils.ParcelUtils;
 import com.microsoft.embeddedsocial.data.storage.ContentCache;
 import com.microsoft.embeddedsocial.data.storage.request.wrapper.AbstractNetworkMethodWrapper;
 import com.microsoft.embeddedsocial.server.model.content.topics.GetTopicRequest;
@@ -14,6 +15,20 @@ import java.sql.SQLException;
 
 public class TopicRequestWrapper extends AbstractNetworkMethodWrapper<GetTopicRequest, GetTopicResponse> {
 
+    private static final Coalescing<GetTopicRequest, GetTopicResponse> COALESCING =
+        new Coalescing<GetTopicRequest, GetTopicResponse>() {
+
+            @Override
+            public String getKey(GetTopicRequest request) {
+                return buildCoalescingKey(request, request.getTopicHandle());
+            }
+
+            @Override
+            public GetTopicResponse copy(GetTopicResponse response) {
+                return new GetTopicResponse(ParcelUtils.copy(response.getTopic()));
+            }
+        };
+
     private final ContentCache contentCache;
 
     public TopicRequestWrapper(INetworkMethod<GetTopicRequest, GetTopicResponse> networkMethod,
@@ -33,6 +48,11 @@ public class TopicRequestWrapper extends AbstractNetworkMethodWrapper<GetTopicRe
         contentCache.storeTopic(response.getTopic());
     }
 
+    @Override
+    protected Coalescing<GetTopicRequest, GetTopicResponse> getCoalescing() {
+        return COALESCING;
+    }
+
     @Override
     protected GetTopicResponse getCachedResponse(GetTopicRequest request) throws SQLException {
         GetTopicResponse response = contentCache.getSingleTopicResponse(request);
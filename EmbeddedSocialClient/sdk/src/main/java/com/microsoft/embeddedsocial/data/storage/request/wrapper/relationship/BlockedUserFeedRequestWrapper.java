@@ -39,6 +39,7 @@ public class BlockedUserFeedRequestWrapper
     protected UsersListResponse getCachedResponse(GetBlockedUsersRequest batchUserRequest)
             throws SQLException {
 
-        return userCache.getResponse(feedType);
+        return userCache.getResponse(feedType, null, batchUserRequest.getCursor(),
+            batchUserRequest.getBatchSize());
     }
 }
@@ -38,6 +38,7 @@ public class FollowerFeedRequestWrapper
     protected UsersListResponse getCachedResponse(GetFollowerFeedRequest request)
         throws SQLException {
 
-        return userCache.getResponse(feedType, request.getQueryUserHandle());
+        return userCache.getResponse(feedType, request.getQueryUserHandle(), request.getCursor(),
+            request.getBatchSize());
     }
 }
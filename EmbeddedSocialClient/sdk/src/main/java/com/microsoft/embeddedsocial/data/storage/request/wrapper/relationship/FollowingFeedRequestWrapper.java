@@ -38,6 +38,7 @@ public class FollowingFeedRequestWrapper
     protected UsersListResponse getCachedResponse(GetFollowingFeedRequest request)
             throws SQLException {
 
-        return userCache.getResponse(feedType, request.getQueryUserHandle());
+        return userCache.getResponse(feedType, request.getQueryUserHandle(), request.getCursor(),
+            request.getBatchSize());
     }
 }
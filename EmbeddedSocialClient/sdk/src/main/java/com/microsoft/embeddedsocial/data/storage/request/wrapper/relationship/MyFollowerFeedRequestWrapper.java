@@ -38,6 +38,6 @@ public class MyFollowerFeedRequestWrapper
     protected UsersListResponse getCachedResponse(GetMyFollowerFeedRequest request)
             throws SQLException {
 
-        return userCache.getResponse(feedType);
+        return userCache.getResponse(feedType, null, request.getCursor(), request.getBatchSize());
     }
 }
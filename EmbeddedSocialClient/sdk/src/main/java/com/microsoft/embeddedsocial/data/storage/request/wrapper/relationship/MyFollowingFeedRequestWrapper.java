@@ -38,6 +38,6 @@ public class MyFollowingFeedRequestWrapper
     protected UsersListResponse getCachedResponse(GetMyFollowingUsersFeedRequest request)
             throws SQLException {
 
-        return userCache.getResponse(feedType);
+        return userCache.getResponse(feedType, null, request.getCursor(), request.getBatchSize());
     }
 }
@@ -38,6 +38,6 @@ public class MyFollowingInOtherAppsRequestWrapper
     protected UsersListResponse getCachedResponse(GetFollowingInOtherAppsRequest request)
             throws SQLException {
 
-        return userCache.getResponse(feedType);
+        return userCache.getResponse(feedType, null, request.getCursor(), request.getBatchSize());
     }
 }
@@ -39,6 +39,7 @@ public class PendingUserFeedRequestWrapper
     protected UsersListResponse getCachedResponse(GetPendingUsersRequest batchUserRequest)
         throws SQLException {
 
-        return userCache.getResponse(feedType);
+        return userCache.getResponse(feedType, null, batchUserRequest.getCursor(),
+            batchUserRequest.getBatchSize());
     }
 }
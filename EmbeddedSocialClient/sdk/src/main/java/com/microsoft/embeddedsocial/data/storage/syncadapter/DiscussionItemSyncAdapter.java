@@ -88,7 +88,8 @@ public class DiscussionItemSyncAdapter extends AbstractAutoCleanupSyncAdapter<Di
             GetReplyRequest dataRequest = new GetReplyRequest(response.getReplyHandle());
             GetReplyResponse replyResponse = contentService.getReply(dataRequest);
             if (replyResponse.getReply() != null) {
-                replyDao.createOrUpdate(replyResponse.getReply());
+                DbTransaction.performTransaction(replyDao,
+                    () -> replyDao.createOrUpdate(replyResponse.getReply()));
             } else {
                 DebugLog.e("didn't receive the posted reply from the server");
             }
@@ -120,7 +121,7 @@ public class DiscussionItemSyncAdapter extends AbstractAutoCleanupSyncAdapter<Di
             GetCommentResponse commentResponse = contentService.getComment(dataRequest);
             CommentView comment = commentResponse.getComment();
             if (comment != null) {
-                commentDao.createOrUpdate(comment);
+                DbTransaction.performTransaction(commentDao, () -> commentDao.createOrUpdate(comment));
                 CommentFeedRelation commentFeedRelation = new CommentFeedRelation(
                     CommentFeedType.RECENT.ordinal(),
                     comment.getTopicHandle(),
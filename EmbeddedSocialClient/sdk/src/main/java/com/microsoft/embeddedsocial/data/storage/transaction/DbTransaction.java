@@ -10,28 +10,64 @@ import com.j256.ormlite.dao.Dao;
 import java.sql.SQLException;
 
 /**
- * Helps to perform DB transactions.
+ * Helps to perform DB transactions. All transactions are executed by a single writer
+ * (see {@link DbWriteQueue}); reads don't go through this class and run concurrently.
+ * A transaction should only change the DB: it can be executed again if it was committed in
+ * a group with a transaction which failed.
  */
 public class DbTransaction {
 
     /**
-     * Performs a transaction on the specified dao.
+     * Performs a transaction on the specified dao and waits until it's committed.
+     * Transactions started from inside another transaction are executed in place.
      * @param dao           the dao to perform the transaction on
      * @param transaction   the transaction to perform
      * @throws SQLException if any exception happens during the transaction.
      */
-    public static synchronized void performTransaction(Dao<?, ?> dao, ISqlTransaction transaction)
+    public static void performTransaction(Dao<?, ?> dao, ISqlTransaction transaction)
         throws SQLException {
 
-        try {
-            dao.callBatchTasks(() -> {
-                transaction.performTransaction();
-                return null;
-            });
-        } catch (SQLException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new SQLException(e);
+        DbWriteQueue writeQueue = DbWriteQueue.getInstance();
+        if (writeQueue.isWriterThread()) {
+            transaction.performTransaction();
+        } else {
+            writeQueue.submit(dao, transaction, false, true).await();
         }
     }
+
+    /**
+     * Executes a task on the writer thread outside of any transaction and waits for its completion.
+     * Is meant for statements that can't run inside a transaction, e.g. VACUUM.
+     * @param dao           the dao to perform the task on
+     * @param task          the task to perform
+     * @throws SQLException if any exception happens during the task.
+     */
+    public static void performOutsideTransaction(Dao<?, ?> dao, ISqlTransaction task)
+        throws SQLException {
+
+        DbWriteQueue writeQueue = DbWriteQueue.getInstance();
+        if (writeQueue.isWriterThread()) {
+            throw new SQLException("can't leave the current transaction");
+        }
+        writeQueue.submit(dao, task, false, false).await();
+    }
+
+    /**
+     * Checks whether write transactions are waiting for the writer thread. A long task split into
+     * steps can check it between the steps to let the waiting writes go first.
+     * @return  true if a write is queued.
+     */
+    public static boolean hasPendingWrites() {
+        return DbWriteQueue.getInstance().hasWaitingJobs();
+    }
+
+    /**
+     * Enqueues a transaction on the specified dao without waiting for its completion.
+     * Errors are logged.
+     * @param dao           the dao to perform the transaction on
+     * @param transaction   the transaction to perform
+     */
+    public static void performTransactionAsync(Dao<?, ?> dao, ISqlTransaction transaction) {
+        DbWriteQueue.getInstance().submit(dao, transaction, true, true);
+    }
 }
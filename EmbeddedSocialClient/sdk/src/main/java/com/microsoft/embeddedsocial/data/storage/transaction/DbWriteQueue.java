@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ */
+
+package com.microsoft.embeddedsocial.data.storage.transaction;
+
+import com.j256.ormlite.dao.Dao;
+import com.microsoft.embeddedsocial.base.utils.debug.DebugLog;
+import com.microsoft.embeddedsocial.base.utils.thread.BackgroundThreadFactory;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single writer of the local DB. All write transactions are executed one by one on a dedicated
+ * thread, while readers are served concurrently by the write-ahead log. Write jobs arriving within
+ * a short window are committed together in one transaction (group commit), so several small writes
+ * share one fsync.
+ * <br/> A job which fails rolls back the whole group: the job gets its error without being run again,
+ * and the other jobs of the group are run again in a new transaction. So a job must only change
+ * the DB (or make changes which are safe to repeat), as it can be executed more than once when it
+ * shares a transaction with a failing job.
+ */
+final class DbWriteQueue {
+
+    private static final long GROUP_COMMIT_WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+    private static final int MAX_GROUP_SIZE = 32;
+
+    private static final DbWriteQueue INSTANCE = new DbWriteQueue();
+
+    private final BlockingDeque<WriteJob> queue = new LinkedBlockingDeque<>();
+    private final ExecutorService writerExecutor = Executors.newSingleThreadExecutor(
+        new BackgroundThreadFactory("DB_WRITER_"));
+    private final ThreadLocal<Boolean> writerThread = new ThreadLocal<Boolean>() {
+        @Override
+        protected Boolean initialValue() {
+            return false;
+        }
+    };
+
+    private DbWriteQueue() {  }
+
+    static DbWriteQueue getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Checks whether the current thread is the writer thread.
+     * @return  true if called from a write transaction.
+     */
+    boolean isWriterThread() {
+        return writerThread.get();
+    }
+
+    /**
+     * Checks whether write jobs are waiting for the writer thread.
+     * @return  true if a job is queued.
+     */
+    boolean hasWaitingJobs() {
+        return !queue.isEmpty();
+    }
+
+    /**
+     * Enqueues a write job.
+     * @param dao           the dao to perform the transaction on
+     * @param transaction   the transaction to perform
+     * @param async         true if nobody waits for the result (errors are logged then)
+     * @param transactional false to run the job alone and outside of a transaction (e.g. VACUUM)
+     * @return  the job.
+     */
+    WriteJob submit(Dao<?, ?> dao, ISqlTransaction transaction, boolean async,
+                    boolean transactional) {
+
+        WriteJob job = new WriteJob(dao, transaction, async, transactional);
+        queue.add(job);
+        writerExecutor.execute(this::drainQueue);
+        return job;
+    }
+
+    /**
+     * Executes a transaction on the current thread.
+     * @param dao           the dao to perform the transaction on
+     * @param transaction   the transaction to perform
+     * @throws SQLException if any exception happens during the transaction.
+     */
+    static void runInTransaction(Dao<?, ?> dao, ISqlTransaction transaction) throws SQLException {
+        try {
+            dao.callBatchTasks(() -> {
+                transaction.performTransaction();
+                return null;
+            });
+        } catch (SQLException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new SQLException(e);
+        }
+    }
+
+    private void drainQueue() {
+        WriteJob first = queue.poll();
+        if (first == null) {
+            return;  // already committed as a part of a previous group
+        }
+        List<WriteJob> group = new ArrayList<>();
+        group.add(first);
+        long deadline = System.nanoTime() + GROUP_COMMIT_WINDOW_NANOS;
+        try {
+            while (first.transactional && group.size() < MAX_GROUP_SIZE) {
+                long remaining = deadline - System.nanoTime();
+                WriteJob next = remaining > 0
+                    ? queue.poll(remaining, TimeUnit.NANOSECONDS)
+                    : queue.poll();
+                if (next == null) {
+                    break;
+                }
+                if (!next.transactional) {
+                    queue.offerFirst(next);  // is executed alone by the next drain
+                    break;
+                }
+                group.add(next);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        writerThread.set(true);
+        try {
+            commitGroup(group);
+        } finally {
+            writerThread.set(false);
+            for (WriteJob job : group) {
+                job.complete();
+            }
+        }
+    }
+
+    private void commitGroup(List<WriteJob> group) {
+        WriteJob first = group.get(0);
+        if (!first.transactional) {
+            try {
+                first.transaction.performTransaction();
+            } catch (SQLException e) {
+                first.error = e;
+            } catch (RuntimeException e) {
+                first.error = new SQLException(e);
+            }
+            return;
+        }
+        List<WriteJob> jobs = group;
+        while (!jobs.isEmpty()) {
+            List<WriteJob> attempt = jobs;
+            try {
+                runInTransaction(attempt.get(0).dao, () -> {
+                    for (WriteJob job : attempt) {
+                        try {
+                            job.transaction.performTransaction();
+                        } catch (SQLException e) {
+                            job.error = e;
+                            throw e;
+                        } catch (RuntimeException e) {
+                            job.error = new SQLException(e);
+                            throw e;
+                        }
+                    }
+                });
+                return;
+            } catch (SQLException e) {
+                // the group was rolled back: the failed job is done, the others are run again
+                jobs = new ArrayList<>();
+                for (WriteJob job : attempt) {
+                    if (job.error == null) {
+                        jobs.add(job);
+                    }
+                }
+                if (jobs.size() == attempt.size()) {
+                    // no job failed, the commit itself did
+                    for (WriteJob job : attempt) {
+                        job.error = e;
+                    }
+                    return;
+                }
+                if (!jobs.isEmpty()) {
+                    DebugLog.w("group commit of " + attempt.size() + " jobs failed, retrying "
+                        + jobs.size() + " jobs: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Write job waiting in the queue.
+     */
+    static final class WriteJob {
+
+        private final Dao<?, ?> dao;
+        private final ISqlTransaction transaction;
+        private final boolean async;
+        private final boolean transactional;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile SQLException error;
+
+        private WriteJob(Dao<?, ?> dao, ISqlTransaction transaction, boolean async,
+                         boolean transactional) {
+            this.dao = dao;
+            this.transaction = transaction;
+            this.async = async;
+            this.transactional = transactional;
+        }
+
+        private void complete() {
+            if (async && error != null) {
+                DebugLog.logException(error);
+            }
+            done.countDown();
+        }
+
+        /**
+         * Waits until the job is committed. The job can't be withdrawn once it's queued, so an
+         * interrupt doesn't stop the wait (the transactions are short): the outcome is always known
+         * to the caller, and the interrupted status is restored afterwards.
+         * @throws SQLException if the transaction failed
+         */
+        void await() throws SQLException {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    done.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (error != null) {
+                throw error;
+            }
+        }
+    }
+}
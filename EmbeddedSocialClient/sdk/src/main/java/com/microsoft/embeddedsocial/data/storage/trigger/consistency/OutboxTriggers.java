@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ */
+
+package com.microsoft.embeddedsocial.data.storage.trigger.consistency;
+
+import com.microsoft.embeddedsocial.base.expression.Template;
+import com.microsoft.embeddedsocial.data.storage.DbSchemas;
+import com.microsoft.embeddedsocial.data.storage.Outbox;
+import com.microsoft.embeddedsocial.data.storage.trigger.ISqlTrigger;
+import com.microsoft.embeddedsocial.data.storage.trigger.TriggerGenerator;
+
+/**
+ * Consistency triggers for the outbox: the delivery state of an operation is deleted along with
+ * the operation (when it's uploaded, compacted or replaced).
+ */
+public class OutboxTriggers {
+
+    /**
+     * All SQL triggers contained in this class.
+     */
+    public static final ISqlTrigger[] TRIGGERS = generateTriggers();
+
+    private OutboxTriggers() {  }
+
+    private static ISqlTrigger[] generateTriggers() {
+        Outbox.OperationType[] types = Outbox.OperationType.values();
+        ISqlTrigger[] triggers = new ISqlTrigger[types.length];
+        for (int i = 0; i < types.length; i++) {
+            triggers[i] = TriggerGenerator.newOnAfterDeleteTrigger(
+                "outbox_cleanup_" + types[i].name().toLowerCase(),
+                types[i].getTableName(),
+                new Template("delete from ${outbox} where ${operation} = '${type}' and ${payload_id} = old.id")
+                    .var("outbox", DbSchemas.Outbox.TABLE_NAME)
+                    .var("operation", DbSchemas.Outbox.OPERATION)
+                    .var("type", types[i].name())
+                    .var("payload_id", DbSchemas.Outbox.PAYLOAD_ID)
+                    .render()
+            );
+        }
+        return triggers;
+    }
+}
@@ -58,24 +58,7 @@ public class UserActionTriggers {
      */
     public static final ISqlTrigger[] TRIGGERS = {
 
-        TriggerGenerator.newOnBeforeInsertTrigger(
-            "pin_cleanup",
-            DbSchemas.PinStatus.TABLE_NAME,
-            new Template("delete from ${pins} where ${handle} = new.${handle}")
-                .var("pins", DbSchemas.PinStatus.TABLE_NAME)
-                .var("handle", DbSchemas.PinStatus.TOPIC_HANDLE)
-                .render()
-        ),
-
-        TriggerGenerator.newOnBeforeInsertTrigger(
-            "like_cleanup",
-            DbSchemas.LikeStatus.TABLE_NAME,
-            new Template("delete from ${likes} where ${handle} = new.${handle} and ${type} = new.${type}")
-                .var("likes", DbSchemas.LikeStatus.TABLE_NAME)
-                .var("handle", DbSchemas.LikeStatus.CONTENT_HANDLE)
-                .var("type", DbSchemas.LikeStatus.CONTENT_TYPE)
-                .render()
-        ),
+        // like and pin actions are kept as a history, see OutboxCompactor
 
         TriggerGenerator.newOnAfterInsertTrigger(
             "pin_consistency",
@@ -18,30 +18,6 @@ import com.microsoft.embeddedsocial.data.storage.trigger.TriggerGenerator;
  */
 public class UserRelationTriggers {
 
-    /**
-     * SQL triggers related to cleanup of opposite user relation operations.
-     */
-    public static final ISqlTrigger[] OPERATION_CLEANUP_TRIGGERS = {
-
-        generateCleanupTrigger(
-            "blocked_user_cleanup",
-            UserCache.UserRelationAction.BLOCK,
-            UserCache.UserRelationAction.UNBLOCK
-        ),
-
-        generateCleanupTrigger(
-            "follow_user_cleanup",
-            UserCache.UserRelationAction.FOLLOW,
-            UserCache.UserRelationAction.UNFOLLOW
-        ),
-
-        generateCleanupTrigger(
-            "accept_user_cleanup",
-            UserCache.UserRelationAction.ACCEPT,
-            UserCache.UserRelationAction.REJECT
-        ),
-    };
-
     /**
      * SQL triggers related to data consistency in user relationship database.
      */
@@ -169,28 +145,6 @@ public class UserRelationTriggers {
             ).build();
     }
 
-    private static ISqlTrigger generateCleanupTrigger(String triggerName,
-        UserCache.UserRelationAction firstAction, UserCache.UserRelationAction secondAction) {
-
-        return new TriggerGenerator.TriggerBuilder(triggerName, DbSchemas.UserRelationOperation.TABLE_NAME)
-            .setAction(TriggerGenerator.DatabaseAction.BEFORE_INSERT)
-            .setWhen(
-                new Template("new.${action} = '${a1}' or new.${action} = '${a2}'")
-                    .var("action", DbSchemas.UserRelationOperation.ACTION)
-                    .var("a1", firstAction.name())
-                    .var("a2", secondAction.name())
-                    .render()
-            ).setStatements(
-                new Template("delete from ${rel_op} where ${u_handle} = new.${u_handle} and (${action} = '${a1}' or ${action} = '${a2}')")
-                    .var("rel_op", DbSchemas.UserRelationOperation.TABLE_NAME)
-                    .var("u_handle", DbSchemas.UserRelationOperation.USER_HANDLE)
-                    .var("action", DbSchemas.UserRelationOperation.ACTION)
-                    .var("a1", firstAction.name())
-                    .var("a2", secondAction.name())
-                    .render()
-            ).build();
-    }
-
     private static ISqlTrigger generateInsertUserToFeedTrigger(String triggerName, UserCache.UserRelationAction action,
         UserCache.UserFeedType feedType, boolean useQueriedHandle) {
 
@@ -244,24 +198,20 @@ public class UserRelationTriggers {
 
     /**
      * Triggers required:
+     *  (opposite actions, e.g. follow/unfollow, are reduced to their net effect by OutboxCompactor)
      *  ! when a user is blocked:
-     *      * delete similar actions (block/unblock)
      *      * add him to blocked user feed
      *      * update his status (following = blocked) in user cache
      *  ! when a user is followed:
-     *      * delete similar actions (follow/unfollow)
      *      * update his status (pending) in user cache
      *  ! when a user is unfollowed:
-     *      * delete similar actions (follow/unfollow)
      *      * remove him from followed user feed
      *      * delete his topics from feeds
      *      ? update his status in user cache
      *  ! when a user is unblocked:
-     *      * delete similar actions (block/unblock)
      *      * remove him from blocked user feed
      *      * update his status (none) in user cache
      *  ! when a user is accepted or rejected:
-     *      * delete similar actions (accept/reject)
      *      * remove him from pending feed
      *      ! filter network pending user feed
      *  ! when a user is accepted:
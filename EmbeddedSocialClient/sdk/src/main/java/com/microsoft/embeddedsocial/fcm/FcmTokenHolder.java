@@ -5,8 +5,7 @@
 
 package com.microsoft.embeddedsocial.fcm;
 
-import com.google.gson.Gson;
-
+import com.microsoft.embeddedsocial.base.utils.JsonUtils;
 import com.microsoft.embeddedsocial.server.sync.ISynchronizable;
 
 import android.content.Context;
@@ -126,7 +125,7 @@ public class FcmTokenHolder {
         if (TextUtils.isEmpty(serializedState)) {
             result = new TokenState();
         } else {
-            result = new Gson().fromJson(serializedState, TokenState.class);
+            result = JsonUtils.getGson().fromJson(serializedState, TokenState.class);
         }
 
         return result;
@@ -134,7 +133,7 @@ public class FcmTokenHolder {
 
     private void storeTokenState(TokenState state) {
         dataStorage.edit()
-            .putString(DATA_KEY, new Gson().toJson(state))
+            .putString(DATA_KEY, JsonUtils.getGson().toJson(state))
             .apply();
     }
 
@@ -54,6 +54,8 @@ public class CommentFeedFetcher extends Fetcher<Object> {
             contentService::getCommentFeed,
             () -> new GetCommentFeedRequest(feedType, topicHandle)
         );
+        commentFeedRequestExecutor.setRevalidationHandlers(this::onCachedPageRevalidated,
+            this::onCachedPageRevalidationFailed);
     }
 
     @Override
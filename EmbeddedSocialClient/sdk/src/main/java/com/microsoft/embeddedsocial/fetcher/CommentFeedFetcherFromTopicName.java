@@ -26,6 +26,8 @@ public class CommentFeedFetcherFromTopicName extends CommentFeedFetcher {
                 contentService::getCommentFeed,
                 () -> new GetCommentFeedRequestForTopicName(feedType)
         );
+        commentFeedRequestExecutor.setRevalidationHandlers(this::onCachedPageRevalidated,
+            this::onCachedPageRevalidationFailed);
     }
 
     public synchronized String getTopicHandle() {
@@ -25,12 +25,24 @@ class DataRequestExecutor<T, R extends BaseRequest> {
 
     private final ServerMethod<? super R, ? extends ListResponse<T>> serverMethod;
     private final Producer<? extends R> requestProducer;
+    private RevalidationHandler revalidationHandler;
+    private RevalidationFailureHandler revalidationFailureHandler;
 
     DataRequestExecutor(ServerMethod<? super R, ? extends ListResponse<T>> serverMethod, Producer<? extends R> requestProducer) {
         this.requestProducer = requestProducer;
         this.serverMethod = serverMethod;
     }
 
+    /**
+     * Sets the handlers notified when a stale cached first page was revalidated by the server
+     * or when the server couldn't be reached.
+     */
+    void setRevalidationHandlers(RevalidationHandler revalidationHandler,
+                                 RevalidationFailureHandler revalidationFailureHandler) {
+        this.revalidationHandler = revalidationHandler;
+        this.revalidationFailureHandler = revalidationFailureHandler;
+    }
+
     ListResponse<T> fetchRawResponse(DataState dataState, RequestType requestType, int pageSize) throws NetworkRequestException {
         R request = createRequest(dataState, requestType, pageSize);
         ListResponse<T> response = serverMethod.call(request);
@@ -47,7 +59,37 @@ class DataRequestExecutor<T, R extends BaseRequest> {
         R request = requestProducer.createNew();
         if (requestType == RequestType.SYNC_WITH_CACHE) {
             request.forceCacheUsage();
+        } else if (requestType == RequestType.FORCE_REFRESH) {
+            request.forceNetworkUsage();
+        } else if (revalidationHandler != null) {
+            RevalidationHandler handler = revalidationHandler;
+            RevalidationFailureHandler failureHandler = revalidationFailureHandler;
+            request.setRevalidationListener(new BaseRequest.RevalidationListener<ListResponse<T>>() {
+                @Override
+                public void onResponseRevalidated(ListResponse<T> response) {
+                    handler.onRevalidated(dataState, response.getContinuationKey());
+                }
+
+                @Override
+                public void onRevalidationFailed(Exception exception) {
+                    failureHandler.onRevalidationFailed(dataState, exception);
+                }
+            });
         }
         return request;
     }
+
+    /**
+     * Handles revalidated first pages.
+     */
+    interface RevalidationHandler {
+        void onRevalidated(DataState dataState, String continuationKey);
+    }
+
+    /**
+     * Handles first pages which stay stale.
+     */
+    interface RevalidationFailureHandler {
+        void onRevalidationFailed(DataState dataState, Exception exception);
+    }
 }
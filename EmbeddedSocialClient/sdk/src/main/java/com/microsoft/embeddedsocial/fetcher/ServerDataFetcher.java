@@ -24,6 +24,8 @@ class ServerDataFetcher<T, R extends BaseRequest> extends Fetcher<T> {
 
     ServerDataFetcher(DataRequestExecutor<T, R> requestExecutor) {
         this.requestExecutor = requestExecutor;
+        requestExecutor.setRevalidationHandlers(this::onCachedPageRevalidated,
+            this::onCachedPageRevalidationFailed);
     }
 
     @Override
@@ -41,6 +41,15 @@ public class DataState extends Values {
         }
     }
 
+    /**
+     * Resumes paging from the continuation key of a page which replaced the data read so far
+     * (e.g. a fresh server page replacing a stale cached one).
+     */
+    public void resumeFrom(String continuationKey) {
+        setValue(DATA_ENDED, false);
+        setContinuationKey(continuationKey);
+    }
+
     /**
      * Returns the continuation key returned by the server during the last data request (<code>null</code> if there was no requests).
      */
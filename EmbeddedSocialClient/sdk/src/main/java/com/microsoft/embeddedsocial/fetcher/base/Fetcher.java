@@ -10,6 +10,7 @@ import com.microsoft.embeddedsocial.base.function.Predicate;
 import com.microsoft.embeddedsocial.base.utils.debug.DebugLog;
 import com.microsoft.embeddedsocial.base.utils.thread.BackgroundThreadFactory;
 import com.microsoft.embeddedsocial.base.utils.thread.ThreadUtils;
+import com.microsoft.embeddedsocial.server.NetworkScheduler;
 import com.microsoft.embeddedsocial.server.model.FeedUserRequest;
 
 import java.util.Collections;
@@ -32,6 +33,8 @@ public abstract class Fetcher<T> implements IDisposable {
     private final ExecutorService syncExecutor = Executors.newSingleThreadExecutor(new BackgroundThreadFactory(SYNC_THREAD_PRIORITY));
     private final CallbackNotifier callbackNotifier = new CallbackNotifier();
     private final DataHolder<T> data = new DataHolder<>(callbackNotifier);
+    // network requests of this fetcher, they are canceled when it's disposed
+    private final NetworkScheduler.Scope networkScope = new NetworkScheduler.Scope();
 
     private FetcherState state = FetcherState.HAS_MORE_DATA;
     private Exception errorCause;
@@ -41,6 +44,8 @@ public abstract class Fetcher<T> implements IDisposable {
     private int desiredPageSize = FeedUserRequest.DEFAULT_BATCH_SIZE;
 
     private volatile boolean dataReplacedFromCache;
+    // the data ended with a stale cached page which may not be the last one
+    private volatile boolean reloadRequired;
 
     /**
      * Sets a data loading callback
@@ -69,7 +74,16 @@ public abstract class Fetcher<T> implements IDisposable {
         if (state == FetcherState.DATA_ENDED) {
             throw new RuntimeException("no more data");
         }
-        submitDataRequest(() -> {
+        if (reloadRequired) {
+            // there is no continuation key to resume from
+            refreshData();
+            return;
+        }
+        // the first page is what the user is waiting for, next pages are loaded ahead of scrolling
+        NetworkScheduler.Priority priority = data.isEmpty()
+            ? NetworkScheduler.Priority.VISIBLE_PAGE
+            : NetworkScheduler.Priority.PREFETCH;
+        submitDataRequest(priority, () -> {
             try {
                 Exception exception = null;
                 try {
@@ -107,7 +121,7 @@ public abstract class Fetcher<T> implements IDisposable {
      * If the data request fails the data is not affected.
      */
     public final void refreshData() {
-        submitDataRequest(() -> {
+        submitDataRequest(NetworkScheduler.Priority.VISIBLE_PAGE, () -> {
             try {
                 DataState dataState = createEmptyDataState(); // create a new data state object to read data from the start
                 List<T> newData = fetchDataPageWithState(dataState, RequestType.FORCE_REFRESH);
@@ -120,6 +134,7 @@ public abstract class Fetcher<T> implements IDisposable {
                     }
                 }
                 currentDataState = dataState; // replace data state only if an attempt is successful; otherwise object's state isn't changed
+                reloadRequired = false;
                 onDataRequestSucceeded();
             } catch (Exception e) {
                 DebugLog.logException(e);
@@ -143,7 +158,69 @@ public abstract class Fetcher<T> implements IDisposable {
         });
     }
 
-    private void submitDataRequest(Runnable task) {
+    /**
+     * Is called when the server answered a request whose stale cached response was used as the
+     * first page and the fresh response was stored in the cache. Replaces the data with the
+     * cached data and continues paging from the fresh page. Runs after the request which returned
+     * the cached page is completed.
+     * @param dataState         data state the page was requested with
+     * @param continuationKey   continuation key of the fresh page
+     */
+    protected final void onCachedPageRevalidated(DataState dataState, String continuationKey) {
+        if (executor.isShutdown()) {
+            return;
+        }
+        executor.submit(() -> {
+            try {
+                synchronized (this) {
+                    if (dataState != currentDataState) {
+                        // the data was refreshed meanwhile
+                        return;
+                    }
+                    replaceDataFromCache();
+                    dataState.resumeFrom(continuationKey);
+                    reloadRequired = false;
+                    if (state != FetcherState.LOADING) {
+                        setState(dataState.isDataEnded() ? FetcherState.DATA_ENDED : FetcherState.HAS_MORE_DATA);
+                    }
+                }
+                callbackNotifier.notifyDataUpdated();
+            } catch (Exception e) {
+                DebugLog.logException(e);
+            }
+        });
+    }
+
+    /**
+     * Is called when the server couldn't revalidate a stale cached first page. If the page ended
+     * the data, the data may actually continue: the failure is reported and the next data request
+     * reloads the data from the start.
+     * @param dataState         data state the page was requested with
+     * @param exception         the failure
+     */
+    protected final void onCachedPageRevalidationFailed(DataState dataState, Exception exception) {
+        if (executor.isShutdown()) {
+            return;
+        }
+        executor.submit(() -> {
+            synchronized (this) {
+                if (dataState != currentDataState || !dataState.isDataEnded()) {
+                    // the data was refreshed meanwhile or paging goes on from the stale page
+                    return;
+                }
+                reloadRequired = true;
+                if (state != FetcherState.LOADING) {
+                    setState(FetcherState.LAST_ATTEMPT_FAILED);
+                }
+            }
+            callbackNotifier.notifyDataRequestFailed(exception);
+            if (errorCause == null) {
+                setErrorCause(exception);
+            }
+        });
+    }
+
+    private void submitDataRequest(NetworkScheduler.Priority priority, Runnable task) {
         if (executor.isShutdown()) {
             DebugLog.d("executor is shutdown, ignore new tasks");
             return;
@@ -157,7 +234,7 @@ public abstract class Fetcher<T> implements IDisposable {
         setState(FetcherState.LOADING);
         executor.submit(() -> {
             dataReplacedFromCache = false;
-            task.run();
+            NetworkScheduler.run(priority, networkScope, task);
         });
     }
 
@@ -173,7 +250,7 @@ public abstract class Fetcher<T> implements IDisposable {
         if (data.size() >= MAX_ITEMS_NUMBER) {
             currentDataState.markDataEnded();
         }
-        if (currentDataState.isDataEnded()) {
+        if (currentDataState.isDataEnded() && !reloadRequired) {
             setState(FetcherState.DATA_ENDED);
         } else {
             setState(error ? FetcherState.LAST_ATTEMPT_FAILED : FetcherState.HAS_MORE_DATA);
@@ -328,6 +405,7 @@ public abstract class Fetcher<T> implements IDisposable {
     public void dispose() {
         setCallback(null);
         executor.shutdown();
+        networkScope.cancel();
     }
 
 }
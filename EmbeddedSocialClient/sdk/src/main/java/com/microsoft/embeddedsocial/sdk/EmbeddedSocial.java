@@ -5,25 +5,31 @@
 
 package com.microsoft.embeddedsocial.sdk;
 
-import com.google.gson.FieldNamingPolicy;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-
 import com.facebook.FacebookSdk;
 import com.j256.ormlite.android.apptools.OpenHelperManager;
 import com.microsoft.embeddedsocial.account.UserAccount;
 import com.microsoft.embeddedsocial.autorest.models.PublisherType;
 import com.microsoft.embeddedsocial.base.GlobalObjectRegistry;
+import com.microsoft.embeddedsocial.base.utils.JsonUtils;
 import com.microsoft.embeddedsocial.base.utils.debug.DebugLog;
 import com.microsoft.embeddedsocial.data.Preferences;
+import com.microsoft.embeddedsocial.data.storage.CacheAccessLog;
 import com.microsoft.embeddedsocial.data.storage.DatabaseHelper;
+import com.microsoft.embeddedsocial.data.storage.Outbox;
+import com.microsoft.embeddedsocial.data.storage.request.wrapper.RequestCoalescer;
+import com.microsoft.embeddedsocial.data.storage.request.wrapper.ResponseTimeStats;
 import com.microsoft.embeddedsocial.image.ImageLoader;
+import com.microsoft.embeddedsocial.sdk.metrics.NetworkMetrics;
 import com.microsoft.embeddedsocial.sdk.ui.AppProfile;
 import com.microsoft.embeddedsocial.sdk.ui.DrawerDisplayMode;
 import com.microsoft.embeddedsocial.sdk.ui.ToolbarColorizer;
+import com.microsoft.embeddedsocial.server.CircuitBreaker;
 import com.microsoft.embeddedsocial.server.EmbeddedSocialServiceProvider;
+import com.microsoft.embeddedsocial.server.HttpCache;
 import com.microsoft.embeddedsocial.server.NetworkAvailability;
+import com.microsoft.embeddedsocial.server.NetworkScheduler;
 import com.microsoft.embeddedsocial.server.RequestInfoProvider;
+import com.microsoft.embeddedsocial.server.sync.SyncScheduler;
 import com.microsoft.embeddedsocial.service.IntentExtras;
 import com.microsoft.embeddedsocial.service.ServiceAction;
 import com.microsoft.embeddedsocial.service.WorkerService;
@@ -56,6 +62,7 @@ import android.support.annotation.StringRes;
 import android.support.v4.app.Fragment;
 import android.text.TextUtils;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
@@ -92,7 +99,7 @@ public final class EmbeddedSocial {
         }
         InputStream is = application.getResources().openRawResource(configResId);
         Reader reader = new InputStreamReader(is);
-        Options options = new Gson().fromJson(reader, Options.class);
+        Options options = JsonUtils.getGson().fromJson(reader, Options.class);
         if (appKey != null) {
             options.setAppKey(appKey);
         }
@@ -133,11 +140,19 @@ public final class EmbeddedSocial {
     }
 
     private static void initGlobalObjects(Context context, Options options) {
-        GlobalObjectRegistry.addObject(OpenHelperManager.getHelper(context, DatabaseHelper.class));
-        Gson gson = new GsonBuilder()
-            .setFieldNamingPolicy(FieldNamingPolicy.UPPER_CAMEL_CASE)
-            .create();
-        GlobalObjectRegistry.addObject(gson);
+        DatabaseHelper databaseHelper = OpenHelperManager.getHelper(context, DatabaseHelper.class);
+        GlobalObjectRegistry.addObject(databaseHelper);
+        GlobalObjectRegistry.addObject(new Outbox(databaseHelper));
+        GlobalObjectRegistry.addObject(new CacheAccessLog());
+        GlobalObjectRegistry.addObject(new RequestCoalescer());
+        GlobalObjectRegistry.addObject(new ResponseTimeStats());
+        GlobalObjectRegistry.addObject(JsonUtils.getGson());
+        GlobalObjectRegistry.addObject(new CircuitBreaker());
+        GlobalObjectRegistry.addObject(new NetworkMetrics());
+        GlobalObjectRegistry.addObject(new NetworkScheduler(NetworkScheduler.DEFAULT_MAX_REQUESTS_PER_HOST));
+        if (options.isHttpCacheEnabled()) {
+            GlobalObjectRegistry.addObject(new HttpCache(context, options));
+        }
         ImageLoader.init(context);
         EmbeddedSocialServiceProvider serviceProvider = new EmbeddedSocialServiceProvider(context);
         GlobalObjectRegistry.addObject(EmbeddedSocialServiceProvider.class, serviceProvider);
@@ -145,6 +160,7 @@ public final class EmbeddedSocial {
         GlobalObjectRegistry.addObject(new RequestInfoProvider(context));
         GlobalObjectRegistry.addObject(new UserAccount(context));
         GlobalObjectRegistry.addObject(new NotificationController(context));
+        GlobalObjectRegistry.addObject(new SyncScheduler(context));
         NetworkAvailability networkAccessibility = new NetworkAvailability();
         networkAccessibility.startMonitoring(context);
         GlobalObjectRegistry.addObject(networkAccessibility);
@@ -215,6 +231,22 @@ public final class EmbeddedSocial {
     public static void clearCache(Context context) {
         DatabaseHelper helper = new DatabaseHelper(context);
         helper.clearData();
+        HttpCache httpCache = GlobalObjectRegistry.getObject(HttpCache.class);
+        if (httpCache != null) {
+            try {
+                httpCache.clear();
+            } catch (IOException e) {
+                DebugLog.logException(e);
+            }
+        }
+    }
+
+    /**
+     * Gets the metrics of the SDK's network calls (durations, traffic, status codes, cache usage).
+     * The host app can poll them or register a listener to receive every finished call.
+     */
+    public static NetworkMetrics getNetworkMetrics() {
+        return GlobalObjectRegistry.getObject(NetworkMetrics.class);
     }
 
     public static Fragment getAddPostFragment() {
@@ -11,6 +11,7 @@ import android.text.TextUtils;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Embedded Social library options.
@@ -21,6 +22,8 @@ public final class Options {
     private Application application = null;
     private IdProviders idProviders = null;
     private DrawTheme theme = null;
+    private Cache cache = null;
+    private HttpCache httpCache = null;
 
     private Options() {
     }
@@ -50,6 +53,30 @@ public final class Options {
             || idProviders.twitter.loginEnabled)) {
             throwInvalidConfigException("login via at least one social network must be enabled");
         }
+        if (cache != null) {
+            if (cache.maxTopics <= 0 || cache.maxComments <= 0 || cache.maxReplies <= 0
+                || cache.maxUsers <= 0 || cache.maxActivities <= 0) {
+                throwInvalidConfigException("cache row limits must be greater then 0");
+            }
+            if (cache.maxSizeMb <= 0) {
+                throwInvalidConfigException("cache.maxSizeMb must be greater then 0");
+            }
+            if (cache.timeToLiveDays <= 0) {
+                throwInvalidConfigException("cache.timeToLiveDays must be greater then 0");
+            }
+            if (cache.orphanGracePeriodHours < 0) {
+                throwInvalidConfigException("cache.orphanGracePeriodHours must not be negative");
+            }
+            if (cache.compactionIntervalHours <= 0) {
+                throwInvalidConfigException("cache.compactionIntervalHours must be greater then 0");
+            }
+        }
+        if (httpCache != null) {
+            if (httpCache.maxSizeMb <= 0) {
+                throwInvalidConfigException("httpCache.maxSizeMb must be greater then 0");
+            }
+            checkValueIsNotEmpty("httpCache.directory", httpCache.directory);
+        }
     }
 
     private void throwInvalidConfigException(String message) {
@@ -146,6 +173,68 @@ public final class Options {
         }
     }
 
+    public int getMaxCachedTopics() {
+        return cache().maxTopics;
+    }
+
+    public int getMaxCachedComments() {
+        return cache().maxComments;
+    }
+
+    public int getMaxCachedReplies() {
+        return cache().maxReplies;
+    }
+
+    public int getMaxCachedUsers() {
+        return cache().maxUsers;
+    }
+
+    public int getMaxCachedActivities() {
+        return cache().maxActivities;
+    }
+
+    public long getMaxCacheSizeBytes() {
+        return cache().maxSizeMb * 1024L * 1024L;
+    }
+
+    public long getCacheTimeToLiveMillis() {
+        return TimeUnit.DAYS.toMillis(cache().timeToLiveDays);
+    }
+
+    public long getCacheOrphanGracePeriodMillis() {
+        return TimeUnit.HOURS.toMillis(cache().orphanGracePeriodHours);
+    }
+
+    public long getCacheCompactionIntervalMillis() {
+        return TimeUnit.HOURS.toMillis(cache().compactionIntervalHours);
+    }
+
+    public boolean isHttpCacheEnabled() {
+        return httpCache().enabled;
+    }
+
+    public long getHttpCacheMaxSizeBytes() {
+        return httpCache().maxSizeMb * 1024L * 1024L;
+    }
+
+    public String getHttpCacheDirectory() {
+        return httpCache().directory;
+    }
+
+    private Cache cache() {
+        if (cache == null) {
+            cache = new Cache();
+        }
+        return cache;
+    }
+
+    private HttpCache httpCache() {
+        if (httpCache == null) {
+            httpCache = new HttpCache();
+        }
+        return httpCache;
+    }
+
     /**
      * General application's options.
      */
@@ -183,6 +272,30 @@ public final class Options {
         private IdProvider twitter;
     }
 
+    /**
+     * Limits of the offline content cache (optional).
+     */
+    private static class Cache {
+        private int maxTopics = 5000;
+        private int maxComments = 10000;
+        private int maxReplies = 10000;
+        private int maxUsers = 5000;
+        private int maxActivities = 2000;
+        private int maxSizeMb = 50;
+        private int timeToLiveDays = 30;
+        private int orphanGracePeriodHours = 24;
+        private int compactionIntervalHours = 24;
+    }
+
+    /**
+     * Disk cache of server responses (optional); the directory is relative to the application's cache directory.
+     */
+    private static class HttpCache {
+        private boolean enabled = true;
+        private int maxSizeMb = 10;
+        private String directory = "embedded_social_http";
+    }
+
     private class DrawTheme {
         private ThemeGroup name;
     }
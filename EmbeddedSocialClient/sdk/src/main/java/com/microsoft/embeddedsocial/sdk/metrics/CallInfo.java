@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ */
+
+package com.microsoft.embeddedsocial.sdk.metrics;
+
+import com.microsoft.embeddedsocial.sdk.metrics.NetworkMetrics.CacheOutcome;
+import com.microsoft.embeddedsocial.sdk.metrics.NetworkMetrics.Phase;
+
+/**
+ * Measurements of a single finished HTTP call.
+ */
+public final class CallInfo {
+
+    private final String operation;
+    private final long[] phaseNanos;
+    private final long bytesSent;
+    private final long bytesReceived;
+    private final int statusCode;
+    private final CacheOutcome cacheOutcome;
+
+    CallInfo(String operation, long[] phaseNanos, long bytesSent, long bytesReceived,
+             int statusCode, CacheOutcome cacheOutcome) {
+        this.operation = operation;
+        this.phaseNanos = phaseNanos;
+        this.bytesSent = bytesSent;
+        this.bytesReceived = bytesReceived;
+        this.statusCode = statusCode;
+        this.cacheOutcome = cacheOutcome;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * Gets the duration of a call phase.
+     * @param phase     call phase
+     * @return  duration in nanoseconds, -1 if the phase didn't happen.
+     */
+    public long getPhaseNanos(Phase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    /**
+     * Gets the HTTP status code received from the server.
+     * @return  status code, 0 if the call failed or was answered from the cache without contacting the server.
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public CacheOutcome getCacheOutcome() {
+        return cacheOutcome;
+    }
+}
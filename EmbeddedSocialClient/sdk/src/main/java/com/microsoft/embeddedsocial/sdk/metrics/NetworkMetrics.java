@@ -0,0 +1,361 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ */
+
+package com.microsoft.embeddedsocial.sdk.metrics;
+
+import com.microsoft.embeddedsocial.base.utils.debug.DebugLog;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Collects metrics of the SDK's HTTP calls per server operation: phase durations, traffic,
+ * status codes and cache outcomes. Recording only updates atomic counters, so it stays enabled
+ * in release builds. The host app can poll the metrics with {@link #getOperations()} or receive
+ * every finished call with a {@link Listener}.
+ */
+public final class NetworkMetrics {
+
+    private static final String HEADER_IF_NONE_MATCH = "If-None-Match";
+    private static final String HEADER_IF_MODIFIED_SINCE = "If-Modified-Since";
+    private static final String HANDLE = "{}";
+    private static final Pattern API_VERSION = Pattern.compile("v\\d.*");
+
+    /**
+     * Path segments of the server API which aren't handles. Any other segment is replaced by
+     * "{}", so the number of operations stays bounded whatever handles the app requests.
+     */
+    private static final Set<String> RESOURCE_NAMES = new HashSet<>(Arrays.asList(
+        "activities", "apps", "autocomplete", "blobs", "blocked_users", "builds", "combined", "comments",
+        "config", "count", "featured", "followers", "following", "hashtags", "images", "info", "likes",
+        "linked_accounts", "me", "names", "notifications", "pending_users", "photo", "pins", "popular",
+        "push_registrations", "replies", "reports", "request_tokens", "search", "sessions", "topics",
+        "trending", "users", "visibility"));
+
+    private final ConcurrentHashMap<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+    // calls which never execute or which fail with a runtime exception are never finished,
+    // the weak keys let them be collected
+    private final Map<Call, CallListener> activeCalls = Collections.synchronizedMap(
+        new WeakHashMap<Call, CallListener>());
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Makes an HTTP client report its calls to this instance.
+     * @param builder   HTTP client builder
+     */
+    public void configure(OkHttpClient.Builder builder) {
+        builder.eventListenerFactory(this::createListener);
+        builder.addInterceptor(this::detectCacheHit);
+    }
+
+    /**
+     * Gets the metrics of all the operations called so far.
+     * @return  unmodifiable live view of the operation metrics.
+     */
+    public Collection<OperationMetrics> getOperations() {
+        return Collections.unmodifiableCollection(operations.values());
+    }
+
+    /**
+     * Gets the metrics of an operation.
+     * @param operation     operation name (HTTP method and path with resource handles replaced
+     *                      by "{}", e.g. "GET topics/{}/comments")
+     * @return  operation metrics or null if the operation wasn't called.
+     */
+    public OperationMetrics getOperation(String operation) {
+        return operations.get(operation);
+    }
+
+    /**
+     * Resets all the counters.
+     */
+    public void reset() {
+        for (OperationMetrics metrics : operations.values()) {
+            metrics.reset();
+        }
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    static String getOperationName(Request request) {
+        StringBuilder name = new StringBuilder(request.method());
+        List<String> segments = request.url().pathSegments();
+        // skip the API version
+        int first = !segments.isEmpty() && API_VERSION.matcher(segments.get(0)).matches() ? 1 : 0;
+        for (int i = first; i < segments.size(); i++) {
+            String segment = segments.get(i);
+            if (segment.isEmpty()) {
+                continue;
+            }
+            name.append(i == first ? ' ' : '/');
+            name.append(RESOURCE_NAMES.contains(segment) ? segment : HANDLE);
+        }
+        return name.toString();
+    }
+
+    private EventListener createListener(Call call) {
+        CallListener listener = new CallListener(getOperationName(call.request()));
+        activeCalls.put(call, listener);
+        return listener;
+    }
+
+    private Response detectCacheHit(Interceptor.Chain chain) throws IOException {
+        Response response = chain.proceed(chain.request());
+        if (response.networkResponse() == null && response.cacheResponse() != null) {
+            // no network events follow a cache hit
+            CallListener listener = activeCalls.get(chain.call());
+            if (listener != null) {
+                listener.finish(chain.call(), false);
+            }
+        }
+        return response;
+    }
+
+    private void record(CallInfo call) {
+        OperationMetrics metrics = operations.get(call.getOperation());
+        if (metrics == null) {
+            OperationMetrics newMetrics = new OperationMetrics(call.getOperation());
+            metrics = operations.putIfAbsent(call.getOperation(), newMetrics);
+            if (metrics == null) {
+                metrics = newMetrics;
+            }
+        }
+        metrics.record(call);
+        for (Listener listener : listeners) {
+            try {
+                listener.onCallFinished(call);
+            } catch (RuntimeException e) {
+                DebugLog.logException(e);
+            }
+        }
+    }
+
+    /**
+     * Phase of an HTTP call.
+     */
+    public enum Phase {
+        DNS,
+        /**
+         * TCP and TLS connection.
+         */
+        CONNECT,
+        TLS,
+        /**
+         * From sending the request headers to receiving the response headers.
+         */
+        TIME_TO_FIRST_BYTE,
+        BODY_DOWNLOAD,
+        /**
+         * The whole call.
+         */
+        TOTAL
+    }
+
+    /**
+     * How the HTTP cache was involved in a call.
+     */
+    public enum CacheOutcome {
+        /**
+         * The response came from the server (or the call failed).
+         */
+        NETWORK,
+        /**
+         * The response came from the cache without contacting the server.
+         */
+        CACHE_HIT,
+        /**
+         * The server confirmed that the cached response is still valid (304).
+         */
+        REVALIDATED,
+        /**
+         * A conditional request returned a new response.
+         */
+        CONDITIONAL_MISS
+    }
+
+    /**
+     * Receives every finished call.
+     */
+    public interface Listener {
+
+        /**
+         * Is called on the thread which made the call, should return quickly.
+         * @param call  call measurements
+         */
+        void onCallFinished(CallInfo call);
+    }
+
+    /**
+     * Measures a single call; OkHttp reports the events of a call sequentially.
+     */
+    private final class CallListener extends EventListener {
+
+        private final String operation;
+        private final long[] phaseStarts = new long[Phase.values().length];
+        private final long[] phaseNanos = new long[Phase.values().length];
+        private long bytesSent;
+        private long bytesReceived;
+        private int statusCode;
+        private boolean conditional;
+        private boolean finished;
+
+        CallListener(String operation) {
+            this.operation = operation;
+            Arrays.fill(phaseNanos, -1);
+        }
+
+        private void start(Phase phase) {
+            phaseStarts[phase.ordinal()] = System.nanoTime();
+        }
+
+        private void end(Phase phase) {
+            long start = phaseStarts[phase.ordinal()];
+            if (start != 0) {
+                // phases repeated by retries and redirects are summed up
+                long previous = Math.max(0, phaseNanos[phase.ordinal()]);
+                phaseNanos[phase.ordinal()] = previous + System.nanoTime() - start;
+                phaseStarts[phase.ordinal()] = 0;
+            }
+        }
+
+        synchronized void finish(Call call, boolean failed) {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            activeCalls.remove(call);
+            end(Phase.TOTAL);
+            CacheOutcome cacheOutcome;
+            if (failed) {
+                cacheOutcome = CacheOutcome.NETWORK;
+            } else if (statusCode == 0) {
+                cacheOutcome = CacheOutcome.CACHE_HIT;
+            } else if (conditional) {
+                cacheOutcome = statusCode == HttpURLConnection.HTTP_NOT_MODIFIED ? CacheOutcome.REVALIDATED : CacheOutcome.CONDITIONAL_MISS;
+            } else {
+                cacheOutcome = CacheOutcome.NETWORK;
+            }
+            record(new CallInfo(operation, phaseNanos.clone(), bytesSent, bytesReceived,
+                failed ? 0 : statusCode, cacheOutcome));
+        }
+
+        @Override
+        public void callStart(Call call) {
+            start(Phase.TOTAL);
+        }
+
+        @Override
+        public void dnsStart(Call call, String domainName) {
+            start(Phase.DNS);
+        }
+
+        @Override
+        public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+            end(Phase.DNS);
+        }
+
+        @Override
+        public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+            start(Phase.CONNECT);
+        }
+
+        @Override
+        public void secureConnectStart(Call call) {
+            start(Phase.TLS);
+        }
+
+        @Override
+        public void secureConnectEnd(Call call, Handshake handshake) {
+            end(Phase.TLS);
+        }
+
+        @Override
+        public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+            end(Phase.CONNECT);
+        }
+
+        @Override
+        public void connectFailed(Call call, InetSocketAddress inetSocketAddress, Proxy proxy,
+                                  Protocol protocol, IOException ioe) {
+            end(Phase.CONNECT);
+        }
+
+        @Override
+        public void requestHeadersStart(Call call) {
+            start(Phase.TIME_TO_FIRST_BYTE);
+        }
+
+        @Override
+        public void requestHeadersEnd(Call call, Request request) {
+            conditional = request.header(HEADER_IF_NONE_MATCH) != null
+                || request.header(HEADER_IF_MODIFIED_SINCE) != null;
+        }
+
+        @Override
+        public void requestBodyEnd(Call call, long byteCount) {
+            bytesSent += byteCount;
+        }
+
+        @Override
+        public void responseHeadersStart(Call call) {
+            end(Phase.TIME_TO_FIRST_BYTE);
+        }
+
+        @Override
+        public void responseHeadersEnd(Call call, Response response) {
+            statusCode = response.code();
+        }
+
+        @Override
+        public void responseBodyStart(Call call) {
+            start(Phase.BODY_DOWNLOAD);
+        }
+
+        @Override
+        public void responseBodyEnd(Call call, long byteCount) {
+            end(Phase.BODY_DOWNLOAD);
+            bytesReceived += byteCount;
+        }
+
+        @Override
+        public void callEnd(Call call) {
+            finish(call, false);
+        }
+
+        @Override
+        public void callFailed(Call call, IOException ioe) {
+            finish(call, true);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ */
+
+package com.microsoft.embeddedsocial.sdk.metrics;
+
+import com.microsoft.embeddedsocial.sdk.metrics.NetworkMetrics.CacheOutcome;
+import com.microsoft.embeddedsocial.sdk.metrics.NetworkMetrics.Phase;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Metrics of the HTTP calls of a server operation (e.g. "GET topics/{}/comments").
+ */
+public final class OperationMetrics {
+
+    /**
+     * Index of the calls which failed without a response in {@link #getStatusClassCounts()}.
+     */
+    public static final int STATUS_FAILED = 0;
+
+    private static final int STATUS_CLASS_COUNT = 6;
+
+    private final String operation;
+    private final Histogram[] histograms = new Histogram[Phase.values().length];
+    private final AtomicLong bytesSent = new AtomicLong();
+    private final AtomicLong bytesReceived = new AtomicLong();
+    private final AtomicLongArray statusClasses = new AtomicLongArray(STATUS_CLASS_COUNT);
+    private final AtomicLongArray cacheOutcomes = new AtomicLongArray(CacheOutcome.values().length);
+
+    OperationMetrics(String operation) {
+        this.operation = operation;
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new Histogram();
+        }
+    }
+
+    void record(CallInfo call) {
+        for (Phase phase : Phase.values()) {
+            long nanos = call.getPhaseNanos(phase);
+            if (nanos >= 0) {
+                histograms[phase.ordinal()].record(nanos);
+            }
+        }
+        bytesSent.addAndGet(call.getBytesSent());
+        bytesReceived.addAndGet(call.getBytesReceived());
+        int statusCode = call.getStatusCode();
+        if (statusCode > 0 && statusCode / 100 < STATUS_CLASS_COUNT) {
+            statusClasses.incrementAndGet(statusCode / 100);
+        } else if (call.getCacheOutcome() != CacheOutcome.CACHE_HIT) {
+            statusClasses.incrementAndGet(STATUS_FAILED);
+        }
+        cacheOutcomes.incrementAndGet(call.getCacheOutcome().ordinal());
+    }
+
+    void reset() {
+        for (Histogram histogram : histograms) {
+            histogram.reset();
+        }
+        bytesSent.set(0);
+        bytesReceived.set(0);
+        for (int i = 0; i < STATUS_CLASS_COUNT; i++) {
+            statusClasses.set(i, 0);
+        }
+        for (int i = 0; i < cacheOutcomes.length(); i++) {
+            cacheOutcomes.set(i, 0);
+        }
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * Gets the histogram of a call phase. Phases which didn't happen in a call (e.g. DNS lookup
+     * on a reused connection) aren't recorded for it.
+     * @param phase     call phase
+     * @return  histogram of the phase durations.
+     */
+    public Histogram getHistogram(Phase phase) {
+        return histograms[phase.ordinal()];
+    }
+
+    public long getBytesSent() {
+        return bytesSent.get();
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived.get();
+    }
+
+    /**
+     * Gets the number of calls by HTTP status class.
+     * @return  array indexed by the first digit of the status code ({@link #STATUS_FAILED} for
+     *          calls without a response); cache hits aren't counted.
+     */
+    public long[] getStatusClassCounts() {
+        long[] result = new long[STATUS_CLASS_COUNT];
+        for (int i = 0; i < STATUS_CLASS_COUNT; i++) {
+            result[i] = statusClasses.get(i);
+        }
+        return result;
+    }
+
+    public long getCacheOutcomeCount(CacheOutcome outcome) {
+        return cacheOutcomes.get(outcome.ordinal());
+    }
+}
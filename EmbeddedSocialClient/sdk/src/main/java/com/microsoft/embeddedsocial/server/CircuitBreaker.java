@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ */
+
+package com.microsoft.embeddedsocial.server;
+
+import com.microsoft.embeddedsocial.base.utils.Clock;
+import com.microsoft.embeddedsocial.base.utils.debug.DebugLog;
+
+import android.text.TextUtils;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Stops sending requests to a group of server operations which keeps failing (server errors,
+ * throttling, network errors). After {@link #FAILURE_THRESHOLD} consecutive failures the circuit
+ * of the group opens and its requests fail immediately with {@link OpenCircuitException}; once the
+ * backoff delay passes, a single trial request is let through and either closes the circuit or
+ * opens it again for twice as long. The delay is randomized so that clients don't retry in sync,
+ * and a Retry-After header sent by the server is respected.
+ */
+public final class CircuitBreaker {
+
+    public static final int FAILURE_THRESHOLD = 3;
+    public static final long MIN_BACKOFF_MS = TimeUnit.SECONDS.toMillis(5);
+    public static final long MAX_BACKOFF_MS = TimeUnit.MINUTES.toMillis(5);
+
+    private static final int MAX_BACKOFF_SHIFT = 16;
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final String HEADER_RETRY_AFTER = "Retry-After";
+    private static final String HTTP_DATE_FORMAT = "EEE, dd MMM yyyy HH:mm:ss zzz";
+
+    private final Circuit[] circuits = new Circuit[OperationGroup.values().length];
+    private final Clock clock;
+    private final Random random;
+
+    public CircuitBreaker() {
+        this(Clock.SYSTEM, new Random());
+    }
+
+    /**
+     * Creates an instance with the given sources of time and jitter.
+     * @param clock     monotonic clock
+     * @param random    random generator for the backoff jitter
+     */
+    public CircuitBreaker(Clock clock, Random random) {
+        this.clock = clock;
+        this.random = random;
+        for (int i = 0; i < circuits.length; i++) {
+            circuits[i] = new Circuit();
+        }
+    }
+
+    /**
+     * Makes an HTTP client check circuits before sending requests.
+     * @param builder   HTTP client builder
+     */
+    public void configure(OkHttpClient.Builder builder) {
+        builder.addInterceptor(this::intercept);
+    }
+
+    /**
+     * Checks whether requests of an operation group are currently rejected.
+     * @param group     operation group
+     * @return  true if the circuit of the group is open.
+     */
+    public boolean isOpen(OperationGroup group) {
+        return getRetryDelay(group) > 0;
+    }
+
+    /**
+     * Gets the time left until requests of an operation group are let through again.
+     * @param group     operation group
+     * @return  delay in milliseconds, 0 if the circuit is closed.
+     */
+    public long getRetryDelay(OperationGroup group) {
+        if (!group.isProtected()) {
+            return 0;
+        }
+        Circuit circuit = circuits[group.ordinal()];
+        synchronized (circuit) {
+            return Math.max(0, circuit.openUntil - clock.now());
+        }
+    }
+
+    private Response intercept(Interceptor.Chain chain) throws IOException {
+        Request request = chain.request();
+        OperationGroup group = OperationGroup.fromPath(request.url().pathSegments());
+        if (!group.isProtected()) {
+            return chain.proceed(request);
+        }
+
+        Circuit circuit = circuits[group.ordinal()];
+        boolean trial = acquire(circuit, group);
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            if (isCanceled(chain, e)) {
+                // the server didn't fail, but the trial is over
+                circuit.release(trial);
+            } else {
+                onFailure(circuit, group, 0, trial);
+            }
+            throw e;
+        } catch (RuntimeException | Error e) {
+            // not a server failure, but the trial is over: let the next request try again
+            circuit.release(trial);
+            throw e;
+        }
+
+        int code = response.code();
+        if (code >= HttpURLConnection.HTTP_INTERNAL_ERROR || code == HTTP_TOO_MANY_REQUESTS) {
+            onFailure(circuit, group, parseRetryAfter(response.header(HEADER_RETRY_AFTER)), trial);
+        } else {
+            onSuccess(circuit, trial);
+        }
+        return response;
+    }
+
+    /**
+     * Checks whether a request failed because the caller gave it up. The network scheduler rejects
+     * requests of canceled scopes and interrupted threads without canceling the call.
+     */
+    private static boolean isCanceled(Interceptor.Chain chain, IOException e) {
+        return e instanceof NetworkScheduler.RequestCanceledException
+            || chain.call().isCanceled()
+            || NetworkScheduler.isCurrentScopeCanceled()
+            || Thread.currentThread().isInterrupted();
+    }
+
+    /**
+     * Lets a request through or rejects it.
+     * @return  true if the request is the trial of a half-open circuit.
+     */
+    private boolean acquire(Circuit circuit, OperationGroup group) throws OpenCircuitException {
+        synchronized (circuit) {
+            long now = clock.now();
+            if (now < circuit.openUntil || circuit.trialRunning) {
+                throw new OpenCircuitException(group, Math.max(0, circuit.openUntil - now));
+            }
+            if (circuit.openCount > 0) {
+                // half-open: let a single trial request through
+                circuit.trialRunning = true;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private void onSuccess(Circuit circuit, boolean trial) {
+        synchronized (circuit) {
+            circuit.failures = 0;
+            circuit.openCount = 0;
+            circuit.release(trial);
+        }
+    }
+
+    private void onFailure(Circuit circuit, OperationGroup group, long retryAfterMs, boolean trial) {
+        synchronized (circuit) {
+            circuit.failures++;
+            circuit.release(trial);
+            if (!trial && retryAfterMs == 0 && circuit.failures < FAILURE_THRESHOLD) {
+                return;
+            }
+            long delay = Math.max(retryAfterMs, getBackoff(circuit.openCount));
+            circuit.openCount++;
+            circuit.openUntil = clock.now() + delay;
+            DebugLog.w("circuit for " + group + " is open for " + delay + " ms");
+        }
+    }
+
+    /**
+     * Exponential backoff with "equal jitter": half of the delay is fixed, the other half is random.
+     */
+    private long getBackoff(int openCount) {
+        long backoff = Math.min(MIN_BACKOFF_MS << Math.min(openCount, MAX_BACKOFF_SHIFT), MAX_BACKOFF_MS);
+        long half = backoff / 2;
+        synchronized (random) {
+            return half + (long) (random.nextDouble() * half);
+        }
+    }
+
+    private static long parseRetryAfter(String retryAfter) {
+        if (TextUtils.isEmpty(retryAfter)) {
+            return 0;
+        }
+        long delay;
+        try {
+            delay = TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.trim()));
+        } catch (NumberFormatException e) {
+            try {
+                Date date = new SimpleDateFormat(HTTP_DATE_FORMAT, Locale.US).parse(retryAfter);
+                delay = date.getTime() - System.currentTimeMillis();
+            } catch (ParseException e2) {
+                DebugLog.w("invalid Retry-After header: " + retryAfter);
+                return 0;
+            }
+        }
+        return Math.min(Math.max(0, delay), MAX_BACKOFF_MS);
+    }
+
+    /**
+     * Group of server operations sharing a circuit.
+     */
+    public enum OperationGroup {
+        TOPICS,
+        COMMENTS,
+        LIKES,
+        RELATIONSHIPS,
+        PINS,
+        HIDDEN_TOPICS,
+        REPORTS,
+        IMAGES,
+        /**
+         * Operations which are never rejected (authentication, push registration, etc).
+         */
+        OTHER;
+
+        boolean isProtected() {
+            return this != OTHER;
+        }
+
+        static OperationGroup fromPath(List<String> pathSegments) {
+            // the first segment is the API version
+            String resource = pathSegments.size() > 1 ? pathSegments.get(1) : "";
+            if ("images".equals(resource) || "blobs".equals(resource)) {
+                return IMAGES;
+            }
+            if (pathSegments.contains("reports")) {
+                return REPORTS;
+            }
+            if (pathSegments.contains("likes")) {
+                return LIKES;
+            }
+            if (pathSegments.contains("pins")) {
+                return PINS;
+            }
+            // a topic is hidden by removing it from the combined following feed
+            int combined = pathSegments.indexOf("combined");
+            if (combined >= 0 && combined < pathSegments.size() - 1) {
+                return HIDDEN_TOPICS;
+            }
+            if (pathSegments.contains("following") || pathSegments.contains("followers")
+                || pathSegments.contains("blocked_users") || pathSegments.contains("pending_users")) {
+                return RELATIONSHIPS;
+            }
+            if (pathSegments.contains("comments") || pathSegments.contains("replies")) {
+                return COMMENTS;
+            }
+            if (pathSegments.contains("topics")) {
+                return TOPICS;
+            }
+            return OTHER;
+        }
+    }
+
+    /**
+     * Is thrown instead of sending a request when the circuit of its operation group is open.
+     */
+    public static final class OpenCircuitException extends IOException {
+
+        private final OperationGroup group;
+        private final long retryDelay;
+
+        OpenCircuitException(OperationGroup group, long retryDelay) {
+            super("Requests to " + group + " are suspended for " + retryDelay + " ms");
+            this.group = group;
+            this.retryDelay = retryDelay;
+        }
+
+        public OperationGroup getGroup() {
+            return group;
+        }
+
+        public long getRetryDelay() {
+            return retryDelay;
+        }
+    }
+
+    /**
+     * State of an operation group's circuit.
+     */
+    private static final class Circuit {
+
+        int failures;
+        int openCount;
+        long openUntil;
+        boolean trialRunning;
+
+        synchronized void release(boolean trial) {
+            if (trial) {
+                trialRunning = false;
+            }
+        }
+    }
+}
@@ -41,13 +41,25 @@ public final class EmbeddedSocialServiceProvider {
      * Constructor
      */
     public EmbeddedSocialServiceProvider(Context context) {
+        this(context, new ContentServiceCachingWrapper(context), new ReportServiceWrapper());
+    }
+
+    /**
+     * Creates an instance which sends content operations and reports through the given services
+     * (e.g. services answered by a local server).
+     * @param context           valid context
+     * @param contentService    the content service
+     * @param reportService     the report service
+     */
+    public EmbeddedSocialServiceProvider(Context context, IContentService contentService,
+                                         IReportService reportService) {
         accountService = new AccountServiceCachingWrapper();
         activityService = new ActivityServiceCachingWrapper(context);
         authenticationService = new AuthenticationServiceWrapper();
-        contentService = new ContentServiceCachingWrapper(context);
+        this.contentService = contentService;
         notificationService = new NotificationServiceCachingWrapper(context);
         relationshipService = new RelationshipServiceCachingWrapper();
-        reportService = new ReportServiceWrapper();
+        this.reportService = reportService;
         searchService = new SearchServiceCachingWrapper();
         imageService = new ImageServiceWrapper();
         blobService = new BlobServiceWrapper();
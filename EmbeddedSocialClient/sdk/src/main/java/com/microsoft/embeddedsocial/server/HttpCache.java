@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ */
+
+package com.microsoft.embeddedsocial.server;
+
+import com.microsoft.embeddedsocial.sdk.Options;
+
+import android.content.Context;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Cache;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Disk cache of server responses. Responses to GET requests for feeds, topics, comments, replies,
+ * profiles and hashtags are stored on disk if they carry a validator (ETag or Last-Modified)
+ * and are always revalidated with a conditional request (If-None-Match / If-Modified-Since),
+ * so the body is downloaded again only if it has changed; a 304 response is answered from disk.
+ */
+public final class HttpCache {
+
+    private static final String CACHE_CONTROL = "Cache-Control";
+    private static final String PRAGMA = "Pragma";
+    private static final String ETAG = "ETag";
+    private static final String LAST_MODIFIED = "Last-Modified";
+    private static final String CONTENT_LENGTH = "Content-Length";
+    private static final String REVALIDATE = "no-cache";
+    private static final String DO_NOT_STORE = "no-store";
+    private static final Set<String> CACHEABLE_RESOURCES = new HashSet<>(
+        Arrays.asList("topics", "comments", "replies", "users", "hashtags"));
+
+    private final Cache cache;
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong revalidatedCount = new AtomicLong();
+    private final AtomicLong bytesSaved = new AtomicLong();
+
+    /**
+     * Creates an instance.
+     * @param context   context
+     * @param options   library options
+     */
+    public HttpCache(Context context, Options options) {
+        File directory = new File(context.getCacheDir(), options.getHttpCacheDirectory());
+        cache = new Cache(directory, options.getHttpCacheMaxSizeBytes());
+    }
+
+    /**
+     * Makes an HTTP client use the cache.
+     * @param builder   HTTP client builder
+     */
+    public void configure(OkHttpClient.Builder builder) {
+        builder.cache(cache)
+            .addInterceptor(this::countResponse)
+            .addNetworkInterceptor(this::setCachingHeaders);
+    }
+
+    /**
+     * Gets the number of server requests made through the cache.
+     * @return  number of requests.
+     */
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * Gets the number of requests answered from disk after the server confirmed
+     * the stored response is still valid (responded with 304).
+     * @return  number of revalidated requests.
+     */
+    public long getRevalidatedCount() {
+        return revalidatedCount.get();
+    }
+
+    /**
+     * Gets the share of requests answered by revalidation.
+     * @return  value from 0 to 1.
+     */
+    public double getRevalidatedShare() {
+        long requests = requestCount.get();
+        return requests > 0 ? (double) revalidatedCount.get() / requests : 0;
+    }
+
+    /**
+     * Gets the number of response body bytes which weren't downloaded because
+     * they were read from disk.
+     * @return  number of bytes.
+     */
+    public long getBytesSaved() {
+        return bytesSaved.get();
+    }
+
+    /**
+     * Gets the number of responses stored on disk.
+     * @return  number of responses.
+     * @throws IOException if the cache directory can't be read
+     */
+    public int getStoredResponseCount() throws IOException {
+        int count = 0;
+        for (Iterator<String> urls = cache.urls(); urls.hasNext(); urls.next()) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Removes all the stored responses (e.g. when the user signs out).
+     * @throws IOException if the cache directory can't be cleared
+     */
+    public void clear() throws IOException {
+        cache.evictAll();
+    }
+
+    private Response countResponse(Interceptor.Chain chain) throws IOException {
+        Response response = chain.proceed(chain.request());
+        requestCount.incrementAndGet();
+        Response networkResponse = response.networkResponse();
+        Response cacheResponse = response.cacheResponse();
+        if (cacheResponse != null && networkResponse != null
+            && networkResponse.code() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+
+            revalidatedCount.incrementAndGet();
+            String length = cacheResponse.header(CONTENT_LENGTH);
+            if (length != null) {
+                try {
+                    bytesSaved.addAndGet(Long.parseLong(length));
+                } catch (NumberFormatException e) {
+                    // the size is unknown
+                }
+            }
+        }
+        return response;
+    }
+
+    private Response setCachingHeaders(Interceptor.Chain chain) throws IOException {
+        Request request = chain.request();
+        Response response = chain.proceed(request);
+        if (!"GET".equals(request.method())) {
+            return response;
+        }
+        boolean hasValidator = response.header(ETAG) != null || response.header(LAST_MODIFIED) != null;
+        boolean notModified = response.code() == HttpURLConnection.HTTP_NOT_MODIFIED;
+        boolean store = isCacheableResource(request) && (hasValidator || notModified);
+        return response.newBuilder()
+            .removeHeader(PRAGMA)
+            .header(CACHE_CONTROL, store ? REVALIDATE : DO_NOT_STORE)
+            .build();
+    }
+
+    private static boolean isCacheableResource(Request request) {
+        // paths look like /<api version>/<resource>/...
+        List<String> segments = request.url().pathSegments();
+        return segments.size() > 1 && CACHEABLE_RESOURCES.contains(segments.get(1));
+    }
+}
@@ -5,19 +5,33 @@
 
 package com.microsoft.embeddedsocial.server;
 
+import com.microsoft.embeddedsocial.base.GlobalObjectRegistry;
+import com.microsoft.embeddedsocial.base.event.EventBus;
+import com.microsoft.embeddedsocial.event.data.NetworkRestoredEvent;
+import com.microsoft.embeddedsocial.server.sync.SyncScheduler;
+
 import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
 import android.content.IntentFilter;
 import android.net.ConnectivityManager;
 import android.net.NetworkInfo;
+import android.os.Handler;
+import android.os.Looper;
 
 /**
- * Tracks network availability.
+ * Tracks network availability. When the connection is restored, offline changes are synchronized
+ * and {@link NetworkRestoredEvent} is posted; flapping connections are debounced so that it
+ * happens once per reconnection.
  */
 public class NetworkAvailability {
 
-    private boolean networkAvailable = true;
+    private static final long RESTORE_DELAY_MS = 2000;
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable onNetworkRestored = this::onNetworkRestored;
+
+    private volatile boolean networkAvailable = true;
 
     public void startMonitoring(Context context) {
         context.registerReceiver(
@@ -34,7 +48,21 @@ public class NetworkAvailability {
     private void checkActiveNetwork(Context context) {
         ConnectivityManager connectivityManager = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
         NetworkInfo activeNetworkInfo = connectivityManager.getActiveNetworkInfo();
+        boolean wasAvailable = networkAvailable;
         networkAvailable = activeNetworkInfo != null && activeNetworkInfo.isConnected();
+        RequestContext.invalidate();
+        handler.removeCallbacks(onNetworkRestored);
+        if (!wasAvailable && networkAvailable) {
+            handler.postDelayed(onNetworkRestored, RESTORE_DELAY_MS);
+        }
+    }
+
+    private void onNetworkRestored() {
+        if (networkAvailable) {
+            // the sync failures were likely caused by the network, don't wait for their backoff
+            GlobalObjectRegistry.getObject(SyncScheduler.class).requestSyncNow();
+            EventBus.post(new NetworkRestoredEvent());
+        }
     }
 
     public boolean isNetworkAvailable() {
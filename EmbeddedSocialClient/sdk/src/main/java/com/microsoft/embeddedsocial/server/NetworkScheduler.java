@@ -0,0 +1,346 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ */
+
+package com.microsoft.embeddedsocial.server;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import okhttp3.Call;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Response;
+
+/**
+ * Schedules HTTP requests by priority. The number of concurrent requests to a host is limited;
+ * requests waiting for a free slot are started in the order of their priority, and one slot per host
+ * is kept for interactive ({@link Priority#VISIBLE_PAGE}, {@link Priority#PREFETCH}) requests, so
+ * a burst of background requests can't delay the page the user is looking at.
+ * <br/> Requests are executed synchronously, so the priority and the {@link Scope} of a request are
+ * bound to the calling thread with {@link #run(Priority, Scope, Runnable)} or
+ * {@link #call(Priority, Scope, Task)}. Canceling a scope cancels its waiting and running requests;
+ * the requests which didn't start fail with {@link RequestCanceledException}.
+ */
+public final class NetworkScheduler {
+
+    public static final int DEFAULT_MAX_REQUESTS_PER_HOST = 4;
+
+    private static final Priority DEFAULT_PRIORITY = Priority.PREFETCH;
+    private static final ThreadLocal<Binding> BINDING = new ThreadLocal<>();
+
+    private final int maxRequestsPerHost;
+    private final int maxBackgroundRequestsPerHost;
+    private final Map<String, HostQueue> hosts = new HashMap<>();
+
+    /**
+     * Creates an instance.
+     * @param maxRequestsPerHost    max number of concurrent requests to a host
+     */
+    public NetworkScheduler(int maxRequestsPerHost) {
+        this.maxRequestsPerHost = maxRequestsPerHost;
+        this.maxBackgroundRequestsPerHost = Math.max(1, maxRequestsPerHost - 1);
+    }
+
+    /**
+     * Makes an HTTP client schedule its requests.
+     * @param builder   HTTP client builder
+     */
+    public void configure(OkHttpClient.Builder builder) {
+        builder.addInterceptor(this::schedule);
+    }
+
+    /**
+     * Runs a task making network requests with the given priority and scope.
+     * @param priority  priority of the requests
+     * @param scope     scope of the requests (can be null)
+     * @param task      the task
+     */
+    public static void run(Priority priority, Scope scope, Runnable task) {
+        call(priority, scope, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs a task making network requests with the given priority and scope.
+     * @param priority  priority of the requests
+     * @param scope     scope of the requests (can be null)
+     * @param task      the task
+     * @param <T>       result type
+     * @param <E>       exception type
+     * @return  the result of the task.
+     * @throws E if the task fails
+     */
+    public static <T, E extends Exception> T call(Priority priority, Scope scope, Task<T, E> task) throws E {
+        Binding previous = BINDING.get();
+        BINDING.set(new Binding(priority, scope));
+        try {
+            return task.run();
+        } finally {
+            if (previous != null) {
+                BINDING.set(previous);
+            } else {
+                BINDING.remove();
+            }
+        }
+    }
+
+    /**
+     * Checks whether the scope bound to the calling thread is canceled.
+     * @return  true if the calling thread runs in a canceled scope.
+     */
+    public static boolean isCurrentScopeCanceled() {
+        Binding binding = BINDING.get();
+        return binding != null && binding.scope != null && binding.scope.isCanceled();
+    }
+
+    private Response schedule(Interceptor.Chain chain) throws IOException {
+        Binding binding = BINDING.get();
+        Priority priority = binding != null ? binding.priority : DEFAULT_PRIORITY;
+        Scope scope = binding != null ? binding.scope : null;
+        Call call = chain.call();
+        HostQueue host = getHostQueue(chain.request().url().host());
+
+        host.acquire(priority, scope);
+        try {
+            if (scope != null) {
+                scope.addCall(call);
+            }
+            return chain.proceed(chain.request());
+        } finally {
+            if (scope != null) {
+                scope.removeCall(call);
+            }
+            host.release(priority);
+        }
+    }
+
+    private synchronized HostQueue getHostQueue(String hostName) {
+        HostQueue host = hosts.get(hostName);
+        if (host == null) {
+            host = new HostQueue();
+            hosts.put(hostName, host);
+        }
+        return host;
+    }
+
+    /**
+     * Request priority, from the highest to the lowest.
+     */
+    public enum Priority {
+        /**
+         * A page the user is waiting for.
+         */
+        VISIBLE_PAGE,
+        /**
+         * Data the user is likely to need soon (next pages, cache revalidation).
+         */
+        PREFETCH,
+        /**
+         * Uploads of offline changes.
+         */
+        SYNC,
+        /**
+         * Periodic background requests.
+         */
+        TELEMETRY;
+
+        boolean isBackground() {
+            return this == SYNC || this == TELEMETRY;
+        }
+    }
+
+    /**
+     * Group of requests which can be canceled together (e.g. the requests of a disposed screen).
+     */
+    public static final class Scope {
+
+        private final Set<Call> calls = new HashSet<>();
+        // several requests of a scope can wait for the same host
+        private final Set<Waiter> waiters = new HashSet<>();
+        private boolean canceled;
+
+        /**
+         * Cancels the requests running or waiting in the scope and the requests started in it later.
+         */
+        public void cancel() {
+            List<Call> callsToCancel;
+            List<Waiter> waitersToWake;
+            synchronized (this) {
+                canceled = true;
+                callsToCancel = new ArrayList<>(calls);
+                waitersToWake = new ArrayList<>(waiters);
+            }
+            for (Call call : callsToCancel) {
+                call.cancel();
+            }
+            for (Waiter waiter : waitersToWake) {
+                waiter.host.wakeUp();
+            }
+        }
+
+        public synchronized boolean isCanceled() {
+            return canceled;
+        }
+
+        private void addCall(Call call) throws IOException {
+            synchronized (this) {
+                if (!canceled) {
+                    calls.add(call);
+                    return;
+                }
+            }
+            throw new RequestCanceledException("Canceled", null);
+        }
+
+        private synchronized void removeCall(Call call) {
+            calls.remove(call);
+        }
+
+        private synchronized void addWaiter(Waiter waiter) {
+            waiters.add(waiter);
+        }
+
+        private synchronized void removeWaiter(Waiter waiter) {
+            waiters.remove(waiter);
+        }
+    }
+
+    /**
+     * Is thrown instead of sending a request whose scope is canceled or whose thread is interrupted.
+     */
+    public static final class RequestCanceledException extends IOException {
+
+        RequestCanceledException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    /**
+     * Task making network requests.
+     * @param <T>   result type
+     * @param <E>   exception type
+     */
+    public interface Task<T, E extends Exception> {
+        T run() throws E;
+    }
+
+    /**
+     * Priority and scope bound to a thread.
+     */
+    private static final class Binding {
+
+        final Priority priority;
+        final Scope scope;
+
+        Binding(Priority priority, Scope scope) {
+            this.priority = priority;
+            this.scope = scope;
+        }
+    }
+
+    /**
+     * Request waiting for a free slot.
+     */
+    private static final class Waiter {
+
+        final HostQueue host;
+        final Priority priority;
+        boolean granted;
+
+        Waiter(HostQueue host, Priority priority) {
+            this.host = host;
+            this.priority = priority;
+        }
+    }
+
+    /**
+     * Running and waiting requests to a host.
+     */
+    private final class HostQueue {
+
+        private final List<ArrayDeque<Waiter>> waiters = new ArrayList<>();
+        private int running;
+        private int runningBackground;
+
+        HostQueue() {
+            for (int i = 0; i < Priority.values().length; i++) {
+                waiters.add(new ArrayDeque<>());
+            }
+        }
+
+        void acquire(Priority priority, Scope scope) throws IOException {
+            Waiter waiter = new Waiter(this, priority);
+            if (scope != null) {
+                scope.addWaiter(waiter);
+            }
+            try {
+                synchronized (this) {
+                    waiters.get(priority.ordinal()).add(waiter);
+                    startWaiters();
+                    while (!waiter.granted) {
+                        if (scope != null && scope.isCanceled()) {
+                            waiters.get(priority.ordinal()).remove(waiter);
+                            throw new RequestCanceledException("Canceled", null);
+                        }
+                        try {
+                            wait();
+                        } catch (InterruptedException e) {
+                            waiters.get(priority.ordinal()).remove(waiter);
+                            Thread.currentThread().interrupt();
+                            throw new RequestCanceledException("Interrupted", e);
+                        }
+                    }
+                }
+            } finally {
+                if (scope != null) {
+                    scope.removeWaiter(waiter);
+                }
+            }
+        }
+
+        synchronized void release(Priority priority) {
+            running--;
+            if (priority.isBackground()) {
+                runningBackground--;
+            }
+            startWaiters();
+        }
+
+        synchronized void wakeUp() {
+            notifyAll();
+        }
+
+        private void startWaiters() {
+            boolean started = false;
+            for (ArrayDeque<Waiter> queue : waiters) {
+                while (!queue.isEmpty() && canStart(queue.peek().priority)) {
+                    Waiter waiter = queue.poll();
+                    waiter.granted = true;
+                    running++;
+                    if (waiter.priority.isBackground()) {
+                        runningBackground++;
+                    }
+                    started = true;
+                }
+            }
+            if (started) {
+                notifyAll();
+            }
+        }
+
+        private boolean canStart(Priority priority) {
+            return running < maxRequestsPerHost
+                && (!priority.isBackground() || runningBackground < maxBackgroundRequestsPerHost);
+        }
+    }
+}
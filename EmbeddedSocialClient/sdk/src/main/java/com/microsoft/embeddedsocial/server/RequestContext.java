@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ */
+
+package com.microsoft.embeddedsocial.server;
+
+import com.microsoft.embeddedsocial.base.GlobalObjectRegistry;
+import com.microsoft.embeddedsocial.data.Preferences;
+import com.microsoft.embeddedsocial.sdk.Options;
+import com.microsoft.embeddedsocial.server.model.UserRequest;
+
+import android.text.TextUtils;
+
+import java.util.Locale;
+
+/**
+ * Immutable snapshot of the data every request carries (language, network type, app key,
+ * instance id, current user and authorization). The snapshot is shared by all the requests
+ * and is rebuilt only after it's {@linkplain #invalidate() invalidated}: on sign-in, sign-out,
+ * authorization change, locale or network change.
+ */
+public final class RequestContext {
+
+    private static final Object LOCK = new Object();
+
+    private static volatile RequestContext current;
+
+    private final String language;
+    private final int networkType;
+    private final String appKey;
+    private final String instanceId;
+    private final String userHandle;
+    private final String authorization;
+
+    private RequestContext(String language, int networkType, String appKey, String instanceId,
+                           String userHandle, String authorization) {
+        this.language = language;
+        this.networkType = networkType;
+        this.appKey = appKey;
+        this.instanceId = instanceId;
+        this.userHandle = userHandle;
+        this.authorization = authorization;
+    }
+
+    /**
+     * Gets the current snapshot, building it if it was invalidated.
+     * @return  current request context.
+     */
+    public static RequestContext getCurrent() {
+        RequestContext context = current;
+        if (context == null) {
+            synchronized (LOCK) {
+                context = current;
+                if (context == null) {
+                    context = build();
+                    current = context;
+                }
+            }
+        }
+        return context;
+    }
+
+    /**
+     * Discards the current snapshot, the next request gets a new one.
+     */
+    public static void invalidate() {
+        synchronized (LOCK) {
+            current = null;
+        }
+    }
+
+    private static RequestContext build() {
+        Options options = GlobalObjectRegistry.getObject(Options.class);
+        Preferences preferences = Preferences.getInstance();
+        RequestInfoProvider requestInfoProvider = GlobalObjectRegistry.getObject(RequestInfoProvider.class);
+        String appKey = options.getAppKey();
+        String authorization = preferences.getAuthorizationToken();
+        if (authorization == null) {
+            authorization = String.format(UserRequest.ANONYMOUS, appKey);
+            preferences.setAuthorizationToken(authorization);
+        }
+        return new RequestContext(
+            getLocaleCode(),
+            requestInfoProvider.getNetworkType(),
+            appKey,
+            requestInfoProvider.getInstanceId(),
+            preferences.getUserHandle(),
+            authorization
+        );
+    }
+
+    private static String getLocaleCode() {
+        Locale locale = Locale.getDefault();
+        String language = locale.getLanguage();
+        String country = locale.getCountry();
+        String localeCode = null;
+        if (!TextUtils.isEmpty(language)) {
+            if (!TextUtils.isEmpty(country)) {
+                localeCode = language + "-" + country;
+            } else {
+                localeCode = language;
+            }
+        }
+        return localeCode;
+    }
+
+    public String getLanguage() {
+        return language;
+    }
+
+    public int getNetworkType() {
+        return networkType;
+    }
+
+    public String getAppKey() {
+        return appKey;
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    public String getUserHandle() {
+        return userHandle;
+    }
+
+    public String getAuthorization() {
+        return authorization;
+    }
+}
@@ -8,7 +8,10 @@ package com.microsoft.embeddedsocial.server;
 import com.microsoft.embeddedsocial.base.GlobalObjectRegistry;
 import com.microsoft.embeddedsocial.data.Preferences;
 
+import android.content.BroadcastReceiver;
 import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
 import android.telephony.TelephonyManager;
 import android.text.TextUtils;
 
@@ -27,6 +30,14 @@ public class RequestInfoProvider {
      */
     public RequestInfoProvider(Context context) {
         telephonyManager = (TelephonyManager)context.getApplicationContext().getSystemService(Context.TELEPHONY_SERVICE);
+        context.getApplicationContext().registerReceiver(
+                new BroadcastReceiver() {
+                    @Override
+                    public void onReceive(Context context, Intent intent) {
+                        RequestContext.invalidate();
+                    }
+                },
+                new IntentFilter(Intent.ACTION_LOCALE_CHANGED));
     }
 
     /**
@@ -11,8 +11,6 @@ import com.microsoft.embeddedsocial.autorest.CommentRepliesOperations;
 import com.microsoft.embeddedsocial.autorest.CommentRepliesOperationsImpl;
 import com.microsoft.embeddedsocial.autorest.CommentsOperations;
 import com.microsoft.embeddedsocial.autorest.CommentsOperationsImpl;
-import com.microsoft.embeddedsocial.autorest.EmbeddedSocialClient;
-import com.microsoft.embeddedsocial.autorest.EmbeddedSocialClientImpl;
 import com.microsoft.embeddedsocial.autorest.MyFollowingOperations;
 import com.microsoft.embeddedsocial.autorest.MyFollowingOperationsImpl;
 import com.microsoft.embeddedsocial.autorest.RepliesOperations;
@@ -26,98 +24,50 @@ import com.microsoft.embeddedsocial.autorest.TopicLikesOperationsImpl;
 import com.microsoft.embeddedsocial.autorest.TopicsOperations;
 import com.microsoft.embeddedsocial.autorest.TopicsOperationsImpl;
 import com.microsoft.embeddedsocial.autorest.models.Platform;
-import com.microsoft.embeddedsocial.base.GlobalObjectRegistry;
-import com.microsoft.embeddedsocial.sdk.BuildConfig;
-import com.microsoft.embeddedsocial.sdk.Options;
-import com.microsoft.embeddedsocial.server.RequestInfoProvider;
+import com.microsoft.embeddedsocial.server.RequestContext;
 import com.microsoft.embeddedsocial.server.exception.NetworkRequestException;
 import com.microsoft.rest.ServiceException;
 import com.microsoft.rest.ServiceResponse;
 
-import android.text.TextUtils;
-
 import java.io.IOException;
-import java.util.Locale;
 
-import okhttp3.OkHttpClient;
-import okhttp3.logging.HttpLoggingInterceptor;
 import retrofit2.Response;
-import retrofit2.Retrofit;
-import retrofit2.converter.gson.GsonConverterFactory;
 
 /**
  *
  */
 public class BaseRequest {
-    protected static final Retrofit RETROFIT;
-    protected static final EmbeddedSocialClient CLIENT;
-
-    protected static final TopicsOperations TOPICS;
-    protected static final MyFollowingOperations FOLLOWING;
-    protected static final TopicCommentsOperations TOPIC_COMMENTS;
-    protected static final CommentsOperations COMMENTS;
-    protected static final RepliesOperations REPLIES;
-    protected static final CommentRepliesOperations COMMENT_REPLIES;
-    protected static final TopicLikesOperations TOPIC_LIKES;
-    protected static final CommentLikesOperations COMMENT_LIKES;
-    protected static final ReplyLikesOperations REPLY_LIKES;
-
-    static {
-        OkHttpClient.Builder httpClient = new OkHttpClient.Builder();
-
-        if (BuildConfig.DEBUG) {
-            // add http logging if this is a debug build
-            HttpLoggingInterceptor logging = new HttpLoggingInterceptor();
-            logging.setLevel(HttpLoggingInterceptor.Level.BODY);
-            httpClient.addInterceptor(logging);
-        }
-
-        RETROFIT = new Retrofit.Builder()
-                .baseUrl(GlobalObjectRegistry.getObject(Options.class).getServerUrl())
-                .addConverterFactory(GsonConverterFactory.create())
-                .client(httpClient.build())
-                .build();
-        CLIENT = new EmbeddedSocialClientImpl();
-        TOPICS = new TopicsOperationsImpl(RETROFIT, CLIENT);
-        FOLLOWING = new MyFollowingOperationsImpl(RETROFIT, CLIENT);
-        TOPIC_COMMENTS = new TopicCommentsOperationsImpl(RETROFIT, CLIENT);
-        COMMENTS = new CommentsOperationsImpl(RETROFIT, CLIENT);
-        REPLIES = new RepliesOperationsImpl(RETROFIT, CLIENT);
-        COMMENT_REPLIES = new CommentRepliesOperationsImpl(RETROFIT, CLIENT);
-        TOPIC_LIKES = new TopicLikesOperationsImpl(RETROFIT, CLIENT);
-        COMMENT_LIKES = new CommentLikesOperationsImpl(RETROFIT, CLIENT);
-        REPLY_LIKES = new ReplyLikesOperationsImpl(RETROFIT, CLIENT);
-    }
+    protected static final OperationsHolder<TopicsOperations> TOPICS =
+            new OperationsHolder<>(TopicsOperationsImpl::new);
+    protected static final OperationsHolder<MyFollowingOperations> FOLLOWING =
+            new OperationsHolder<>(MyFollowingOperationsImpl::new);
+    protected static final OperationsHolder<TopicCommentsOperations> TOPIC_COMMENTS =
+            new OperationsHolder<>(TopicCommentsOperationsImpl::new);
+    protected static final OperationsHolder<CommentsOperations> COMMENTS =
+            new OperationsHolder<>(CommentsOperationsImpl::new);
+    protected static final OperationsHolder<RepliesOperations> REPLIES =
+            new OperationsHolder<>(RepliesOperationsImpl::new);
+    protected static final OperationsHolder<CommentRepliesOperations> COMMENT_REPLIES =
+            new OperationsHolder<>(CommentRepliesOperationsImpl::new);
+    protected static final OperationsHolder<TopicLikesOperations> TOPIC_LIKES =
+            new OperationsHolder<>(TopicLikesOperationsImpl::new);
+    protected static final OperationsHolder<CommentLikesOperations> COMMENT_LIKES =
+            new OperationsHolder<>(CommentLikesOperationsImpl::new);
+    protected static final OperationsHolder<ReplyLikesOperations> REPLY_LIKES =
+            new OperationsHolder<>(ReplyLikesOperationsImpl::new);
 
     //TODO: init all fields
     protected final Platform platform = Platform.ANDROID;
     private String location;
     private final long time = System.currentTimeMillis();
     private final long sequenceId = System.currentTimeMillis();
-    protected final String language;
-    private final int networkType;
-    protected final String appKey;
-    protected final String instanceId;
+    protected final RequestContext requestContext = RequestContext.getCurrent();
 
     private transient boolean useCacheOnly;
+    private transient boolean useNetworkOnly;
+    private transient RevalidationListener<?> revalidationListener;
 
     protected BaseRequest() {
-        RequestInfoProvider requestInfoProvider = GlobalObjectRegistry.getObject(RequestInfoProvider.class);
-        networkType = requestInfoProvider.getNetworkType();
-        Locale locale = Locale.getDefault();
-        String language = locale.getLanguage();
-        String country = locale.getCountry();
-        String localeCode = null;
-        if (!TextUtils.isEmpty(language)) {
-            if (!TextUtils.isEmpty(country)) {
-                localeCode = language + "-" + country;
-            } else {
-                localeCode = language;
-            }
-        }
-        this.language = localeCode;
-        appKey = GlobalObjectRegistry.getObject(Options.class).getAppKey();
-        instanceId = requestInfoProvider.getInstanceId();
     }
 
     /**
@@ -146,4 +96,56 @@ public class BaseRequest {
     public boolean isCacheOnly() {
         return useCacheOnly;
     }
+
+    /**
+     * Makes the request go to the server even if a cached response could be used first; the cache
+     * is still used if the server can't be reached (e.g. for pull-to-refresh).
+     */
+    public void forceNetworkUsage() {
+        useNetworkOnly = true;
+    }
+
+    public boolean isNetworkOnly() {
+        return useNetworkOnly;
+    }
+
+    /**
+     * Sets the listener notified when a stale cached response returned to this request is revalidated.
+     * @param revalidationListener  the listener, it must accept the responses to this request
+     * @param <R>                   response type
+     */
+    public <R> void setRevalidationListener(RevalidationListener<R> revalidationListener) {
+        this.revalidationListener = revalidationListener;
+    }
+
+    /**
+     * Gets the listener notified when a stale cached response returned to this request is revalidated.
+     * @param <R>   response type of this request
+     * @return  the listener or null.
+     */
+    @SuppressWarnings("unchecked")
+    public <R> RevalidationListener<? super R> getRevalidationListener() {
+        return (RevalidationListener<? super R>) revalidationListener;
+    }
+
+    /**
+     * Is notified when a stale cached response returned to a request was replaced in the cache
+     * by a fresh one from the server, or couldn't be replaced.
+     * @param <R>   response type
+     */
+    public interface RevalidationListener<R> {
+
+        /**
+         * Is called on a background thread after the fresh response is stored in the cache.
+         * @param response  fresh response
+         */
+        void onResponseRevalidated(R response);
+
+        /**
+         * Is called on a background thread if the server couldn't be reached, so the stale
+         * response (e.g. a page which seems to end the data) stays in use.
+         * @param exception the failure
+         */
+        void onRevalidationFailed(Exception exception);
+    }
 }
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ */
+
+package com.microsoft.embeddedsocial.server.model;
+
+import com.microsoft.embeddedsocial.autorest.EmbeddedSocialClient;
+
+import retrofit2.Retrofit;
+
+/**
+ * Thread-safe lazy holder of an autorest operation group; the operations are created on the first
+ * request which uses them.
+ *
+ * @param <T> operations type
+ */
+public final class OperationsHolder<T> {
+
+    private final Factory<T> factory;
+    private volatile T operations;
+
+    public OperationsHolder(Factory<T> factory) {
+        this.factory = factory;
+    }
+
+    public T get() {
+        T result = operations;
+        if (result == null) {
+            synchronized (this) {
+                result = operations;
+                if (result == null) {
+                    result = factory.create(RestClient.getRetrofit(), RestClient.getClient());
+                    operations = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates operations (normally the constructor of an autorest *OperationsImpl class).
+     *
+     * @param <T> operations type
+     */
+    public interface Factory<T> {
+        T create(Retrofit retrofit, EmbeddedSocialClient client);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ */
+
+package com.microsoft.embeddedsocial.server.model;
+
+import com.microsoft.embeddedsocial.autorest.EmbeddedSocialClient;
+import com.microsoft.embeddedsocial.autorest.EmbeddedSocialClientImpl;
+import com.microsoft.embeddedsocial.base.GlobalObjectRegistry;
+import com.microsoft.embeddedsocial.base.utils.JsonUtils;
+import com.microsoft.embeddedsocial.base.utils.debug.DebugLog;
+import com.microsoft.embeddedsocial.sdk.BuildConfig;
+import com.microsoft.embeddedsocial.sdk.Options;
+import com.microsoft.embeddedsocial.sdk.metrics.NetworkMetrics;
+import com.microsoft.embeddedsocial.server.CircuitBreaker;
+import com.microsoft.embeddedsocial.server.HttpCache;
+import com.microsoft.embeddedsocial.server.NetworkScheduler;
+
+import android.os.Build;
+import android.os.Trace;
+
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.logging.HttpLoggingInterceptor;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+/**
+ * Holds the HTTP client, Retrofit and autorest client shared by all the requests. They are built
+ * on first use (normally by {@link #prepare()} on a background thread during the SDK initialization),
+ * so loading request classes doesn't build them.
+ */
+public final class RestClient {
+
+    private static final String TRACE_SECTION = "EmbeddedSocial.RestClient";
+
+    private RestClient() {
+    }
+
+    /**
+     * Builds the client if it's not built yet. Should be called on a background thread.
+     */
+    public static void prepare() {
+        getRetrofit();
+    }
+
+    static Retrofit getRetrofit() {
+        return Holder.RETROFIT;
+    }
+
+    static EmbeddedSocialClient getClient() {
+        return Holder.CLIENT;
+    }
+
+    private static Retrofit buildRetrofit() {
+        long startTime = System.nanoTime();
+        beginTraceSection();
+        try {
+            OkHttpClient.Builder httpClient = new OkHttpClient.Builder();
+
+            // rejected requests shouldn't wait for a free slot
+            CircuitBreaker circuitBreaker = GlobalObjectRegistry.getObject(CircuitBreaker.class);
+            if (circuitBreaker != null) {
+                circuitBreaker.configure(httpClient);
+            }
+
+            NetworkScheduler networkScheduler = GlobalObjectRegistry.getObject(NetworkScheduler.class);
+            if (networkScheduler != null) {
+                networkScheduler.configure(httpClient);
+            }
+
+            if (BuildConfig.DEBUG) {
+                // add http logging if this is a debug build
+                HttpLoggingInterceptor logging = new HttpLoggingInterceptor();
+                logging.setLevel(HttpLoggingInterceptor.Level.BODY);
+                httpClient.addInterceptor(logging);
+            }
+
+            HttpCache httpCache = GlobalObjectRegistry.getObject(HttpCache.class);
+            if (httpCache != null) {
+                httpCache.configure(httpClient);
+            }
+
+            NetworkMetrics networkMetrics = GlobalObjectRegistry.getObject(NetworkMetrics.class);
+            if (networkMetrics != null) {
+                networkMetrics.configure(httpClient);
+            }
+
+            return new Retrofit.Builder()
+                    .baseUrl(GlobalObjectRegistry.getObject(Options.class).getServerUrl())
+                    .addConverterFactory(GsonConverterFactory.create(JsonUtils.getGson()))
+                    .client(httpClient.build())
+                    .build();
+        } finally {
+            endTraceSection();
+            DebugLog.i("REST client built in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) + " ms on "
+                + Thread.currentThread().getName());
+        }
+    }
+
+    private static void beginTraceSection() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            Trace.beginSection(TRACE_SECTION);
+        }
+    }
+
+    private static void endTraceSection() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            Trace.endSection();
+        }
+    }
+
+    /**
+     * The class is initialized (thread-safely, by the class loader) on the first access to the client.
+     */
+    private static final class Holder {
+        static final Retrofit RETROFIT = buildRetrofit();
+        static final EmbeddedSocialClient CLIENT = new EmbeddedSocialClientImpl();
+    }
+}
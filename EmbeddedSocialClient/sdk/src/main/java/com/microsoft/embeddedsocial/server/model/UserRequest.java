@@ -33,7 +33,6 @@ import com.microsoft.embeddedsocial.autorest.SessionsOperationsImpl;
 import com.microsoft.embeddedsocial.autorest.UsersOperations;
 import com.microsoft.embeddedsocial.autorest.UsersOperationsImpl;
 import com.microsoft.embeddedsocial.autorest.models.IdentityProvider;
-import com.microsoft.embeddedsocial.data.Preferences;
 import com.microsoft.embeddedsocial.server.exception.NetworkRequestException;
 import com.microsoft.embeddedsocial.server.exception.UnauthorizedException;
 import com.microsoft.rest.ServiceResponse;
@@ -44,35 +43,32 @@ public class UserRequest extends BaseRequest {
     public static final String OAUTH_TEMPLATE = "%s AK=%s|TK=%s";
     public static final String TWITTER_TEMPLATE = "%s AK=%s|RT=%s|TK=%s";
 
-    protected static final UsersOperations USERS;
-    protected static final MyNotificationsOperations NOTIFICATIONS;
-    protected static final MyPushRegistrationsOperations PUSH_REGISTRATION;
-    protected static final SessionsOperations SESSION;
-    protected static final MyPinsOperations PINS;
-    protected static final MyBlockedUsersOperations BLOCKED;
-    protected static final MyPendingUsersOperations PENDING;
-    protected static final MyFollowersOperations MY_FOLLOWERS;
-    protected static final MyFollowingOperations MY_FOLLOWING;
-    protected static final HashtagsOperations HASHTAGS;
-    protected static final MyLinkedAccountsOperations LINKED_ACCOUNTS;
-    protected static final MyTopicsOperations MY_TOPICS;
-    protected static final MyLikesOperations LIKES;
-
-    static {
-        USERS = new UsersOperationsImpl(RETROFIT, CLIENT);
-        NOTIFICATIONS = new MyNotificationsOperationsImpl(RETROFIT, CLIENT);
-        PUSH_REGISTRATION = new MyPushRegistrationsOperationsImpl(RETROFIT, CLIENT);
-        SESSION = new SessionsOperationsImpl(RETROFIT, CLIENT);
-        PINS = new MyPinsOperationsImpl(RETROFIT, CLIENT);
-        BLOCKED = new MyBlockedUsersOperationsImpl(RETROFIT, CLIENT);
-        PENDING = new MyPendingUsersOperationsImpl(RETROFIT, CLIENT);
-        MY_FOLLOWERS = new MyFollowersOperationsImpl(RETROFIT, CLIENT);
-        MY_FOLLOWING = new MyFollowingOperationsImpl(RETROFIT, CLIENT);
-        HASHTAGS = new HashtagsOperationsImpl(RETROFIT, CLIENT);
-        LINKED_ACCOUNTS = new MyLinkedAccountsOperationsImpl(RETROFIT, CLIENT);
-        MY_TOPICS = new MyTopicsOperationsImpl(RETROFIT, CLIENT);
-        LIKES = new MyLikesOperationsImpl(RETROFIT, CLIENT);
-    }
+    protected static final OperationsHolder<UsersOperations> USERS =
+            new OperationsHolder<>(UsersOperationsImpl::new);
+    protected static final OperationsHolder<MyNotificationsOperations> NOTIFICATIONS =
+            new OperationsHolder<>(MyNotificationsOperationsImpl::new);
+    protected static final OperationsHolder<MyPushRegistrationsOperations> PUSH_REGISTRATION =
+            new OperationsHolder<>(MyPushRegistrationsOperationsImpl::new);
+    protected static final OperationsHolder<SessionsOperations> SESSION =
+            new OperationsHolder<>(SessionsOperationsImpl::new);
+    protected static final OperationsHolder<MyPinsOperations> PINS =
+            new OperationsHolder<>(MyPinsOperationsImpl::new);
+    protected static final OperationsHolder<MyBlockedUsersOperations> BLOCKED =
+            new OperationsHolder<>(MyBlockedUsersOperationsImpl::new);
+    protected static final OperationsHolder<MyPendingUsersOperations> PENDING =
+            new OperationsHolder<>(MyPendingUsersOperationsImpl::new);
+    protected static final OperationsHolder<MyFollowersOperations> MY_FOLLOWERS =
+            new OperationsHolder<>(MyFollowersOperationsImpl::new);
+    protected static final OperationsHolder<MyFollowingOperations> MY_FOLLOWING =
+            new OperationsHolder<>(MyFollowingOperationsImpl::new);
+    protected static final OperationsHolder<HashtagsOperations> HASHTAGS =
+            new OperationsHolder<>(HashtagsOperationsImpl::new);
+    protected static final OperationsHolder<MyLinkedAccountsOperations> LINKED_ACCOUNTS =
+            new OperationsHolder<>(MyLinkedAccountsOperationsImpl::new);
+    protected static final OperationsHolder<MyTopicsOperations> MY_TOPICS =
+            new OperationsHolder<>(MyTopicsOperationsImpl::new);
+    protected static final OperationsHolder<MyLikesOperations> LIKES =
+            new OperationsHolder<>(MyLikesOperationsImpl::new);
 
     //TODO: init all fields
 
@@ -84,13 +80,8 @@ public class UserRequest extends BaseRequest {
 
     public UserRequest() {
         userSessionSignature = "OK";
-        userHandle = Preferences.getInstance().getUserHandle();
-        authorization = Preferences.getInstance().getAuthorizationToken();
-
-        if (authorization == null) {
-            authorization = String.format(ANONYMOUS, appKey);
-            Preferences.getInstance().setAuthorizationToken(authorization);
-        }
+        userHandle = requestContext.getUserHandle();
+        authorization = requestContext.getAuthorization();
     }
 
     public static String createSessionAuthorization(String sessionToken) {
@@ -100,9 +91,9 @@ public class UserRequest extends BaseRequest {
     public String createThirdPartyAuthorization(IdentityProvider identityProvider,
                                                 String accessToken, String requestToken) {
         if (identityProvider == IdentityProvider.TWITTER) {
-            return String.format(TWITTER_TEMPLATE, identityProvider, appKey, requestToken, accessToken);
+            return String.format(TWITTER_TEMPLATE, identityProvider, requestContext.getAppKey(), requestToken, accessToken);
         }
-        return String.format(OAUTH_TEMPLATE, identityProvider, appKey, accessToken);
+        return String.format(OAUTH_TEMPLATE, identityProvider, requestContext.getAppKey(), accessToken);
     }
 
     public String getUserHandle() {
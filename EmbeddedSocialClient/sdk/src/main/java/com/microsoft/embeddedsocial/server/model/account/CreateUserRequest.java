@@ -25,7 +25,7 @@ public final class CreateUserRequest extends UserRequest {
 
     private CreateUserRequest() {
         body = new PostUserRequest();
-        body.setInstanceId(instanceId);
+        body.setInstanceId(requestContext.getInstanceId());
     }
 
     @Override
@@ -33,7 +33,7 @@ public final class CreateUserRequest extends UserRequest {
         ServiceResponse<PostUserResponse> serviceResponse;
         authorization = createThirdPartyAuthorization(identityProvider, accessToken, requestToken);
         try {
-            serviceResponse = USERS.postUser(body, authorization);
+            serviceResponse = USERS.get().postUser(body, authorization);
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
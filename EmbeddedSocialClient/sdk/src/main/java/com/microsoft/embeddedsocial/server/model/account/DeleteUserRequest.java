@@ -20,7 +20,7 @@ public class DeleteUserRequest extends UserRequest {
     public Response send() throws NetworkRequestException {
         ServiceResponse<Object> serviceResponse;
         try {
-            serviceResponse = USERS.deleteUser(authorization);
+            serviceResponse = USERS.get().deleteUser(authorization);
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
@@ -20,7 +20,7 @@ public class GetLinkedAccountsRequest extends UserRequest {
     public List<LinkedAccountView> send() throws NetworkRequestException {
         ServiceResponse<List<LinkedAccountView>> serviceResponse;
         try {
-            serviceResponse = LINKED_ACCOUNTS.getLinkedAccounts(authorization);
+            serviceResponse = LINKED_ACCOUNTS.get().getLinkedAccounts(authorization);
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
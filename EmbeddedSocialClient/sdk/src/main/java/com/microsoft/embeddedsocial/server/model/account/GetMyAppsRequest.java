@@ -10,6 +10,7 @@ import com.microsoft.embeddedsocial.autorest.MyAppsOperationsImpl;
 import com.microsoft.embeddedsocial.autorest.models.AppCompactView;
 import com.microsoft.embeddedsocial.server.exception.NetworkRequestException;
 import com.microsoft.embeddedsocial.server.model.FeedUserRequest;
+import com.microsoft.embeddedsocial.server.model.OperationsHolder;
 import com.microsoft.rest.ServiceException;
 import com.microsoft.rest.ServiceResponse;
 
@@ -18,14 +19,14 @@ import java.util.List;
 
 
 public class GetMyAppsRequest extends FeedUserRequest {
-    private static final MyAppsOperations MY_APPS =
-            new MyAppsOperationsImpl(RETROFIT, CLIENT);
+    private static final OperationsHolder<MyAppsOperations> MY_APPS =
+            new OperationsHolder<>(MyAppsOperationsImpl::new);
 
     @Override
     public List<AppCompactView> send() throws NetworkRequestException {
         ServiceResponse<List<AppCompactView>> serviceResponse;
         try {
-            serviceResponse = MY_APPS.getApps(authorization /* TODO add cursor and limit when server side fixed*/);
+            serviceResponse = MY_APPS.get().getApps(authorization /* TODO add cursor and limit when server side fixed*/);
         } catch (ServiceException |IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
@@ -28,7 +28,7 @@ public class GetMyProfileRequest extends UserRequest {
     public GetUserProfileResponse send() throws NetworkRequestException {
         ServiceResponse<UserProfileView> serviceResponse;
         try {
-            serviceResponse = USERS.getMyProfile(authorization);
+            serviceResponse = USERS.get().getMyProfile(authorization);
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
@@ -29,8 +29,8 @@ public class GetUserAccountRequest extends UserRequest {
         ServiceResponse<UserProfileView> myProfileResponse;
         ServiceResponse<List<LinkedAccountView>> myLinkedAccountsResponse;
         try {
-            myProfileResponse = USERS.getMyProfile(authorization);
-            myLinkedAccountsResponse = LINKED_ACCOUNTS.getLinkedAccounts(authorization);
+            myProfileResponse = USERS.get().getMyProfile(authorization);
+            myLinkedAccountsResponse = LINKED_ACCOUNTS.get().getLinkedAccounts(authorization);
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
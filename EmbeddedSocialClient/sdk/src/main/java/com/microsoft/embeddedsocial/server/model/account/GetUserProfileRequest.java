@@ -35,7 +35,7 @@ public class GetUserProfileRequest extends UserRequest {
     public GetUserProfileResponse send() throws NetworkRequestException {
         ServiceResponse<UserProfileView> serviceResponse;
         try {
-            serviceResponse = USERS.getUser(queryUserHandle, authorization);
+            serviceResponse = USERS.get().getUser(queryUserHandle, authorization);
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
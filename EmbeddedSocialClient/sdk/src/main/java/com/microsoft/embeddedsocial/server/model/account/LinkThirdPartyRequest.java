@@ -32,7 +32,7 @@ public class LinkThirdPartyRequest extends UserRequest {
     public Response send() throws NetworkRequestException {
         ServiceResponse<Object> serviceResponse;
         try {
-            serviceResponse = LINKED_ACCOUNTS.postLinkedAccount(request, authorization);
+            serviceResponse = LINKED_ACCOUNTS.get().postLinkedAccount(request, authorization);
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
@@ -27,7 +27,7 @@ public class UnlinkUserThirdPartyAccountRequest extends UserRequest {
     public Response send() throws NetworkRequestException {
         ServiceResponse<Object> serviceResponse;
         try {
-            serviceResponse = LINKED_ACCOUNTS.deleteLinkedAccount(identityProvider, authorization);
+            serviceResponse = LINKED_ACCOUNTS.get().deleteLinkedAccount(identityProvider, authorization);
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
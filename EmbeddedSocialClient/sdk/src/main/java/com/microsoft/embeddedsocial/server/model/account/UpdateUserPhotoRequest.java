@@ -31,7 +31,7 @@ public class UpdateUserPhotoRequest extends UserRequest {
     public Response send() throws NetworkRequestException {
         ServiceResponse<Object> serviceResponse;
         try {
-            serviceResponse = USERS.putUserPhoto(request, authorization);
+            serviceResponse = USERS.get().putUserPhoto(request, authorization);
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
@@ -20,7 +20,7 @@ public class ActivityFeedRequest extends FeedUserRequest {
         ServiceResponse<FeedResponseActivityView> serviceResponse;
         try {
             serviceResponse =
-                    MY_FOLLOWING.getActivities(authorization, getCursor(), getBatchSize());
+                    MY_FOLLOWING.get().getActivities(authorization, getCursor(), getBatchSize());
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
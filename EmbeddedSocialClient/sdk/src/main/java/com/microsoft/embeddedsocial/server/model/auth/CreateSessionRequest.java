@@ -25,7 +25,7 @@ public class CreateSessionRequest extends UserRequest {
     public CreateSessionRequest(IdentityProvider identityProvider, String accessToken, String requestToken) {
         request = new PostSessionRequest();
         request.setUserHandle(getUserHandle());
-        request.setInstanceId(instanceId);
+        request.setInstanceId(requestContext.getInstanceId());
 
         authorization = createThirdPartyAuthorization(identityProvider, accessToken, requestToken);
     }
@@ -38,7 +38,7 @@ public class CreateSessionRequest extends UserRequest {
     public AuthenticationResponse send() throws NetworkRequestException {
         ServiceResponse<PostSessionResponse> serviceResponse;
         try {
-            serviceResponse = SESSION.postSession(request, authorization);
+            serviceResponse = SESSION.get().postSession(request, authorization);
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
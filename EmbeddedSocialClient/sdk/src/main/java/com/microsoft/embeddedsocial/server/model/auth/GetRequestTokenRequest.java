@@ -10,6 +10,7 @@ import com.microsoft.embeddedsocial.autorest.RequestTokensOperationsImpl;
 import com.microsoft.embeddedsocial.autorest.models.GetRequestTokenResponse;
 import com.microsoft.embeddedsocial.autorest.models.IdentityProvider;
 import com.microsoft.embeddedsocial.server.exception.NetworkRequestException;
+import com.microsoft.embeddedsocial.server.model.OperationsHolder;
 import com.microsoft.embeddedsocial.server.model.UserRequest;
 import com.microsoft.rest.ServiceException;
 import com.microsoft.rest.ServiceResponse;
@@ -18,8 +19,8 @@ import java.io.IOException;
 
 public class GetRequestTokenRequest extends UserRequest {
 
-    private static final RequestTokensOperations REQUEST_TOKENS
-            = new RequestTokensOperationsImpl(RETROFIT, CLIENT);
+    private static final OperationsHolder<RequestTokensOperations> REQUEST_TOKENS =
+            new OperationsHolder<>(RequestTokensOperationsImpl::new);
 
     private IdentityProvider identityProvider;
 
@@ -31,7 +32,7 @@ public class GetRequestTokenRequest extends UserRequest {
     public GetRequestTokenResponse send() throws NetworkRequestException {
         ServiceResponse<GetRequestTokenResponse> serviceResponse;
         try {
-            serviceResponse = REQUEST_TOKENS.getRequestToken(identityProvider, authorization);
+            serviceResponse = REQUEST_TOKENS.get().getRequestToken(identityProvider, authorization);
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
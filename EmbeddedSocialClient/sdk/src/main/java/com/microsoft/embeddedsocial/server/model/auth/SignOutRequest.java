@@ -29,7 +29,7 @@ public class SignOutRequest extends UserRequest {
     public Response send() throws NetworkRequestException {
         ServiceResponse<Object> serviceResponse;
         try {
-            serviceResponse = SESSION.deleteSession(authorization);
+            serviceResponse = SESSION.get().deleteSession(authorization);
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
@@ -9,6 +9,7 @@ import com.microsoft.embeddedsocial.autorest.BlobsOperations;
 import com.microsoft.embeddedsocial.autorest.BlobsOperationsImpl;
 import com.microsoft.embeddedsocial.autorest.models.PostBlobResponse;
 import com.microsoft.embeddedsocial.server.exception.NetworkRequestException;
+import com.microsoft.embeddedsocial.server.model.OperationsHolder;
 import com.microsoft.embeddedsocial.server.model.UserRequest;
 import com.microsoft.rest.ServiceException;
 import com.microsoft.rest.ServiceResponse;
@@ -16,7 +17,8 @@ import com.microsoft.rest.ServiceResponse;
 import java.io.IOException;
 
 public class AddBlobRequest extends UserRequest {
-    private static final BlobsOperations BLOBS = new BlobsOperationsImpl(RETROFIT, CLIENT);
+    private static final OperationsHolder<BlobsOperations> BLOBS =
+            new OperationsHolder<>(BlobsOperationsImpl::new);
 
     private byte[] blob;
 
@@ -28,7 +30,7 @@ public class AddBlobRequest extends UserRequest {
     public String send() throws NetworkRequestException {
         ServiceResponse<PostBlobResponse> serviceResponse;
         try {
-            serviceResponse = BLOBS.postBlob(authorization, blob);
+            serviceResponse = BLOBS.get().postBlob(authorization, blob);
         } catch (ServiceException |IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
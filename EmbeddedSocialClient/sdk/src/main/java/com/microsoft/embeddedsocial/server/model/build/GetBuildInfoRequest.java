@@ -9,6 +9,7 @@ import com.microsoft.embeddedsocial.autorest.BuildsOperations;
 import com.microsoft.embeddedsocial.autorest.BuildsOperationsImpl;
 import com.microsoft.embeddedsocial.autorest.models.BuildsCurrentResponse;
 import com.microsoft.embeddedsocial.server.exception.NetworkRequestException;
+import com.microsoft.embeddedsocial.server.model.OperationsHolder;
 import com.microsoft.embeddedsocial.server.model.UserRequest;
 import com.microsoft.rest.ServiceException;
 import com.microsoft.rest.ServiceResponse;
@@ -17,13 +18,14 @@ import java.io.IOException;
 
 public class GetBuildInfoRequest extends UserRequest {
 
-    private static final BuildsOperations BUILDS_OPERATIONS = new BuildsOperationsImpl(RETROFIT, CLIENT);
+    private static final OperationsHolder<BuildsOperations> BUILDS_OPERATIONS =
+            new OperationsHolder<>(BuildsOperationsImpl::new);
 
     @Override
     public BuildsCurrentResponse send() throws NetworkRequestException {
         ServiceResponse<BuildsCurrentResponse> serviceResponse;
         try {
-            serviceResponse = BUILDS_OPERATIONS.getBuildsCurrent();
+            serviceResponse = BUILDS_OPERATIONS.get().getBuildsCurrent();
         } catch (ServiceException |IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
@@ -26,7 +26,7 @@ public class AddCommentRequest extends UserRequest {
         request.setText(contentText);
         request.setBlobType(contentBlobType);
         request.setBlobHandle(contentBlobUrl);
-        request.setLanguage(language);
+        request.setLanguage(requestContext.getLanguage());
     }
 
     public AddCommentRequest(String topicHandle, String contentText) {
@@ -37,7 +37,7 @@ public class AddCommentRequest extends UserRequest {
     public AddCommentResponse send() throws NetworkRequestException {
         ServiceResponse<PostCommentResponse> serviceResponse;
         try {
-            serviceResponse = TOPIC_COMMENTS.postComment(topicHandle, request, authorization);
+            serviceResponse = TOPIC_COMMENTS.get().postComment(topicHandle, request, authorization);
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
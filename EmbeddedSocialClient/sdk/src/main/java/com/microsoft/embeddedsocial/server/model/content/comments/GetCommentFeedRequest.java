@@ -40,7 +40,7 @@ public class GetCommentFeedRequest extends FeedUserRequest {
     public GetCommentFeedResponse send() throws NetworkRequestException {
         ServiceResponse<FeedResponseCommentView> serviceResponse;
         try {
-            serviceResponse = TOPIC_COMMENTS.getTopicComments(topicHandle, authorization,
+            serviceResponse = TOPIC_COMMENTS.get().getTopicComments(topicHandle, authorization,
                     getCursor(), getBatchSize());
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
@@ -23,14 +23,14 @@ public class AddReplyRequest extends UserRequest {
         this.commentHandle = commentHandle;
         request = new PostReplyRequest();
         request.setText(contentText);
-        request.setLanguage(language);
+        request.setLanguage(requestContext.getLanguage());
     }
 
     @Override
     public AddReplyResponse send() throws NetworkRequestException {
         ServiceResponse<PostReplyResponse> serviceResponse;
         try {
-            serviceResponse = COMMENT_REPLIES.postReply(commentHandle, request, authorization);
+            serviceResponse = COMMENT_REPLIES.get().postReply(commentHandle, request, authorization);
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
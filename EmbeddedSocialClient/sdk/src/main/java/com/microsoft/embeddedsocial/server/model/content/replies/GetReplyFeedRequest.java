@@ -29,7 +29,7 @@ public class GetReplyFeedRequest extends FeedUserRequest {
     public GetReplyFeedResponse send() throws NetworkRequestException {
         ServiceResponse<FeedResponseReplyView> serviceResponse;
         try {
-            serviceResponse = COMMENT_REPLIES.getReplies(commentHandle, authorization,
+            serviceResponse = COMMENT_REPLIES.get().getReplies(commentHandle, authorization,
                     getCursor(), getBatchSize());
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
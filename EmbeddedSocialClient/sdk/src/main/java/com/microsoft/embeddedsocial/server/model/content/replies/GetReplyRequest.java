@@ -21,7 +21,7 @@ public class GetReplyRequest extends GenericReplyRequest {
     public GetReplyResponse send() throws NetworkRequestException {
         ServiceResponse<ReplyView> serviceResponse;
         try {
-            serviceResponse = REPLIES.getReply(replyHandle, authorization);
+            serviceResponse = REPLIES.get().getReply(replyHandle, authorization);
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
@@ -23,7 +23,7 @@ public class RemoveReplyRequest extends GenericReplyRequest {
     public Response send() throws NetworkRequestException {
         ServiceResponse<Object> serviceResponse;
         try {
-            serviceResponse = REPLIES.deleteReply(replyHandle, authorization);
+            serviceResponse = REPLIES.get().deleteReply(replyHandle, authorization);
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
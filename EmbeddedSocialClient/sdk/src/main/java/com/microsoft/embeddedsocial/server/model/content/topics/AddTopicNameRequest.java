@@ -31,7 +31,7 @@ public class AddTopicNameRequest extends UserRequest {
     public Response send() throws NetworkRequestException {
         ServiceResponse<Object> serviceResponse;
         try {
-            serviceResponse = TOPICS.postTopicName(requestBody, authorization);
+            serviceResponse = TOPICS.get().postTopicName(requestBody, authorization);
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
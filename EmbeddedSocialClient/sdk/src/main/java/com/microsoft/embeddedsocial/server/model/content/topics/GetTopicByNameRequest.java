@@ -28,7 +28,7 @@ public class GetTopicByNameRequest extends UserRequest {
     public String send() throws NetworkRequestException {
         ServiceResponse<GetTopicByNameResponse> serviceResponse;
         try {
-            serviceResponse = TOPICS.getTopicByName(topicName, publisherType, authorization);
+            serviceResponse = TOPICS.get().getTopicByName(topicName, publisherType, authorization);
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
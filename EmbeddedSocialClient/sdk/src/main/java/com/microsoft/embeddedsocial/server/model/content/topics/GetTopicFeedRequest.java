@@ -12,6 +12,7 @@ import com.microsoft.embeddedsocial.autorest.models.TimeRange;
 import com.microsoft.embeddedsocial.data.model.TopicFeedType;
 import com.microsoft.embeddedsocial.server.exception.NetworkRequestException;
 import com.microsoft.embeddedsocial.server.model.FeedUserRequest;
+import com.microsoft.embeddedsocial.server.model.OperationsHolder;
 import com.microsoft.rest.ServiceException;
 import com.microsoft.rest.ServiceResponse;
 
@@ -19,8 +20,8 @@ import java.io.IOException;
 
 public final class GetTopicFeedRequest extends FeedUserRequest {
 
-    private static final UserTopicsOperations USER_TOPICS =
-            new UserTopicsOperationsImpl(RETROFIT, CLIENT);
+    private static final OperationsHolder<UserTopicsOperations> USER_TOPICS =
+            new OperationsHolder<>(UserTopicsOperationsImpl::new);
     private final TopicFeedType topicFeedType;
     private final String query;
 
@@ -50,23 +51,23 @@ public final class GetTopicFeedRequest extends FeedUserRequest {
             switch (topicFeedType) {
                 case USER_RECENT:
                     // {userHandle}/topics
-                    serviceResponse = USER_TOPICS.getTopics(query, authorization, cursor, limit);
+                    serviceResponse = USER_TOPICS.get().getTopics(query, authorization, cursor, limit);
                     break;
                 case FOLLOWING_RECENT:
                     // users/me/following/topics
-                    serviceResponse = MY_FOLLOWING.getTopics(authorization, cursor, limit);
+                    serviceResponse = MY_FOLLOWING.get().getTopics(authorization, cursor, limit);
                     break;
                 case EVERYONE_RECENT:
-                    serviceResponse = TOPICS.getTopics(authorization, cursor, limit);
+                    serviceResponse = TOPICS.get().getTopics(authorization, cursor, limit);
                     break;
                 case MY_RECENT:
-                    serviceResponse = MY_TOPICS.getTopics(authorization, cursor, limit);
+                    serviceResponse = MY_TOPICS.get().getTopics(authorization, cursor, limit);
                     break;
                 case MY_LIKED:
-                    serviceResponse = LIKES.getLikedTopics(authorization, cursor, limit);
+                    serviceResponse = LIKES.get().getLikedTopics(authorization, cursor, limit);
                     break;
                 case FEATURED:
-                    serviceResponse = TOPICS.getFeaturedTopics(authorization, cursor, limit);
+                    serviceResponse = TOPICS.get().getFeaturedTopics(authorization, cursor, limit);
                     break;
                 default: // Based on popularity
                     serviceResponse = getPopularTopics(getIntCursor(), limit);
@@ -82,12 +83,12 @@ public final class GetTopicFeedRequest extends FeedUserRequest {
             throws ServiceException, IOException {
         if (topicFeedType == TopicFeedType.USER_POPULAR) {
             // {userHandle}/topics/popular
-            return USER_TOPICS.getPopularTopics(query, authorization, cursor, limit);
+            return USER_TOPICS.get().getPopularTopics(query, authorization, cursor, limit);
         } else if (topicFeedType == TopicFeedType.MY_POPULAR) {
-            return MY_TOPICS.getPopularTopics(authorization, cursor, limit);
+            return MY_TOPICS.get().getPopularTopics(authorization, cursor, limit);
         } else { // EVERYONE_POPULAR
             TimeRange timeRange = getTimeRange();
-            return TOPICS.getPopularTopics(timeRange, authorization, cursor, limit);
+            return TOPICS.get().getPopularTopics(timeRange, authorization, cursor, limit);
         }
     }
 
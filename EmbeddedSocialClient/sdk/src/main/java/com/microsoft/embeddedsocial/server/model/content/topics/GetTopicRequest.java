@@ -35,7 +35,7 @@ public class GetTopicRequest extends GenericTopicRequest {
     public GetTopicResponse send() throws NetworkRequestException {
         ServiceResponse<TopicView> serviceResponse;
         try {
-            serviceResponse = BaseRequest.TOPICS.getTopic(topicHandle, authorization);
+            serviceResponse = BaseRequest.TOPICS.get().getTopic(topicHandle, authorization);
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
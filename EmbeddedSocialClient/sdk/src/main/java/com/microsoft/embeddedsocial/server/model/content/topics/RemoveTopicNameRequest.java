@@ -31,7 +31,7 @@ public class RemoveTopicNameRequest extends UserRequest {
     public Response send() throws NetworkRequestException {
         ServiceResponse<Object> serviceResponse;
         try {
-            serviceResponse = TOPICS.deleteTopicName(topicName, requestBody, authorization);
+            serviceResponse = TOPICS.get().deleteTopicName(topicName, requestBody, authorization);
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
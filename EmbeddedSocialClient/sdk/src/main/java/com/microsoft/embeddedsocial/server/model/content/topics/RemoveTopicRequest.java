@@ -23,7 +23,7 @@ public class RemoveTopicRequest extends GenericTopicRequest {
     public Response send() throws NetworkRequestException {
         ServiceResponse<Object> serviceResponse;
         try {
-            serviceResponse = TOPICS.deleteTopic(topicHandle, authorization);
+            serviceResponse = TOPICS.get().deleteTopic(topicHandle, authorization);
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
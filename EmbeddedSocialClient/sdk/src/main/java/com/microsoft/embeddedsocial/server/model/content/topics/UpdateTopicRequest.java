@@ -31,7 +31,7 @@ public class UpdateTopicRequest extends GenericTopicRequest {
     public Response send() throws NetworkRequestException {
         ServiceResponse<Object> serviceResponse;
         try {
-            serviceResponse = BaseRequest.TOPICS.putTopic(topicHandle, request, authorization);
+            serviceResponse = BaseRequest.TOPICS.get().putTopic(topicHandle, request, authorization);
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
@@ -10,6 +10,7 @@ import com.microsoft.embeddedsocial.autorest.ImagesOperationsImpl;
 import com.microsoft.embeddedsocial.autorest.models.ImageType;
 import com.microsoft.embeddedsocial.autorest.models.PostImageResponse;
 import com.microsoft.embeddedsocial.server.exception.NetworkRequestException;
+import com.microsoft.embeddedsocial.server.model.OperationsHolder;
 import com.microsoft.embeddedsocial.server.model.UserRequest;
 import com.microsoft.rest.ServiceException;
 import com.microsoft.rest.ServiceResponse;
@@ -20,7 +21,8 @@ import java.io.IOException;
  * Model for add image request.
  */
 public class AddImageRequest extends UserRequest {
-    private static final ImagesOperations IMAGES = new ImagesOperationsImpl(RETROFIT, CLIENT);
+    private static final OperationsHolder<ImagesOperations> IMAGES =
+            new OperationsHolder<>(ImagesOperationsImpl::new);
 
     private final byte[] image;
     private final ImageType imageType;
@@ -34,7 +36,7 @@ public class AddImageRequest extends UserRequest {
     public String send() throws NetworkRequestException {
         ServiceResponse<PostImageResponse> serviceResponse;
         try {
-            serviceResponse = IMAGES.postImage(imageType, authorization, image);
+            serviceResponse = IMAGES.get().postImage(imageType, authorization, image);
         } catch (ServiceException |IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
@@ -25,13 +25,13 @@ public class AddLikeRequest extends GenericLikeRequest {
         try {
             switch (contentType) {
                 case TOPIC:
-                    serviceResponse = TOPIC_LIKES.postLike(contentHandle, authorization);
+                    serviceResponse = TOPIC_LIKES.get().postLike(contentHandle, authorization);
                     break;
                 case COMMENT:
-                    serviceResponse = COMMENT_LIKES.postLike(contentHandle, authorization);
+                    serviceResponse = COMMENT_LIKES.get().postLike(contentHandle, authorization);
                     break;
                 case REPLY:
-                    serviceResponse = REPLY_LIKES.postLike(contentHandle, authorization);
+                    serviceResponse = REPLY_LIKES.get().postLike(contentHandle, authorization);
                     break;
                 default:
                     throw new IllegalStateException("Unknown type for like");
@@ -43,15 +43,15 @@ public class GetLikeFeedRequest extends FeedUserRequest {
         try {
             switch (contentType) {
                 case TOPIC:
-                    serviceResponse = TOPIC_LIKES.getLikes(contentHandle, authorization,
+                    serviceResponse = TOPIC_LIKES.get().getLikes(contentHandle, authorization,
                             cursor, batchSize);
                     break;
                 case COMMENT:
-                    serviceResponse = COMMENT_LIKES.getLikes(contentHandle, authorization,
+                    serviceResponse = COMMENT_LIKES.get().getLikes(contentHandle, authorization,
                             cursor, batchSize);
                     break;
                 case REPLY:
-                    serviceResponse = REPLY_LIKES.getLikes(contentHandle, authorization,
+                    serviceResponse = REPLY_LIKES.get().getLikes(contentHandle, authorization,
                             cursor, batchSize);
                     break;
                 default:
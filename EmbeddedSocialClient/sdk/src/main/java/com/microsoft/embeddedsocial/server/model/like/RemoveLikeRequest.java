@@ -25,13 +25,13 @@ public class RemoveLikeRequest extends GenericLikeRequest {
         try {
             switch (contentType) {
                 case TOPIC:
-                    serviceResponse = TOPIC_LIKES.deleteLike(contentHandle, authorization);
+                    serviceResponse = TOPIC_LIKES.get().deleteLike(contentHandle, authorization);
                     break;
                 case COMMENT:
-                    serviceResponse = COMMENT_LIKES.deleteLike(contentHandle, authorization);
+                    serviceResponse = COMMENT_LIKES.get().deleteLike(contentHandle, authorization);
                     break;
                 case REPLY:
-                    serviceResponse = REPLY_LIKES.deleteLike(contentHandle, authorization);
+                    serviceResponse = REPLY_LIKES.get().deleteLike(contentHandle, authorization);
                     break;
                 default:
                     throw new IllegalStateException("Unknown type for like");
@@ -19,7 +19,7 @@ public class GetNotificationCountRequest extends UserRequest {
     public CountResponse send() throws NetworkRequestException {
         ServiceResponse<CountResponse> serviceResponse;
         try {
-            serviceResponse = NOTIFICATIONS.getNotificationsCount(authorization);
+            serviceResponse = NOTIFICATIONS.get().getNotificationsCount(authorization);
         } catch (ServiceException |IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
@@ -19,7 +19,7 @@ public class GetNotificationFeedRequest extends FeedUserRequest {
     public GetNotificationFeedResponse send() throws NetworkRequestException {
         ServiceResponse<FeedResponseActivityView> serviceResponse;
         try {
-            serviceResponse = NOTIFICATIONS.getNotifications(authorization, getCursor(), getBatchSize());
+            serviceResponse = NOTIFICATIONS.get().getNotifications(authorization, getCursor(), getBatchSize());
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
@@ -28,14 +28,14 @@ public class RegisterPushNotificationRequest extends UserRequest {
         request = new PutPushRegistrationRequest();
         DateTimeFormatter fmt = ISODateTimeFormat.dateTime();
         request.setLastUpdatedTime(fmt.print(lastUpdatedTime));
-        request.setLanguage(language);
+        request.setLanguage(requestContext.getLanguage());
     }
 
     @Override
     public Response send() throws NetworkRequestException {
         ServiceResponse<Object> serviceResponse;
         try {
-            serviceResponse = PUSH_REGISTRATION.putPushRegistration(platform, registrationID, request, authorization);
+            serviceResponse = PUSH_REGISTRATION.get().putPushRegistration(platform, registrationID, request, authorization);
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
@@ -26,7 +26,7 @@ public class UnRegisterPushNotificationRequest extends UserRequest {
     public Response send() throws NetworkRequestException {
         ServiceResponse<Object> serviceResponse;
         try {
-            serviceResponse = PUSH_REGISTRATION.deletePushRegistration(platform, registrationID, authorization);
+            serviceResponse = PUSH_REGISTRATION.get().deletePushRegistration(platform, registrationID, authorization);
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
@@ -28,7 +28,7 @@ public class UpdateNotificationStatusRequest extends UserRequest {
     public Response send() throws NetworkRequestException {
         ServiceResponse<Object> serviceResponse;
         try {
-            serviceResponse = NOTIFICATIONS.putNotificationsStatus(request, authorization);
+            serviceResponse = NOTIFICATIONS.get().putNotificationsStatus(request, authorization);
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
@@ -26,7 +26,7 @@ public class AddPinRequest extends GenericPinRequest {
         request.setTopicHandle(topicHandle);
         ServiceResponse<Object> serviceResponse;
         try {
-            serviceResponse = PINS.postPin(request, authorization);
+            serviceResponse = PINS.get().postPin(request, authorization);
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
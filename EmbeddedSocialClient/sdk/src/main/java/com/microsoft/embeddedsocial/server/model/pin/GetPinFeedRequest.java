@@ -20,7 +20,7 @@ public class GetPinFeedRequest extends FeedUserRequest {
     public TopicsListResponse send() throws NetworkRequestException {
         ServiceResponse<FeedResponseTopicView> serviceResponse;
         try {
-            serviceResponse = PINS.getPins(authorization, getCursor(), getBatchSize());
+            serviceResponse = PINS.get().getPins(authorization, getCursor(), getBatchSize());
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
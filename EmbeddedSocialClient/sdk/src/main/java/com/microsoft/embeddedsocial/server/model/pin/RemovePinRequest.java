@@ -23,7 +23,7 @@ public class RemovePinRequest extends GenericPinRequest {
     public Response send() throws NetworkRequestException {
         ServiceResponse<Object> serviceResponse;
         try {
-            serviceResponse = PINS.deletePin(topicHandle, authorization);
+            serviceResponse = PINS.get().deletePin(topicHandle, authorization);
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
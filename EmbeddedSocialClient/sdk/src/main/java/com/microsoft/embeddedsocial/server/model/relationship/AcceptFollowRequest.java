@@ -26,7 +26,7 @@ public class AcceptFollowRequest extends UserRelationshipRequest {
         request.setUserHandle(relationshipUserHandle);
         ServiceResponse<Object> serviceResponse;
         try {
-            serviceResponse = MY_FOLLOWERS.postFollower(request, authorization);
+            serviceResponse = MY_FOLLOWERS.get().postFollower(request, authorization);
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
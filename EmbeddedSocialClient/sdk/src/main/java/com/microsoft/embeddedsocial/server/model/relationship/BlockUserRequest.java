@@ -26,7 +26,7 @@ public class BlockUserRequest extends UserRelationshipRequest {
         request.setUserHandle(relationshipUserHandle);
         ServiceResponse<Object> serviceResponse;
         try {
-            serviceResponse = BLOCKED.postBlockedUser(request, authorization);
+            serviceResponse = BLOCKED.get().postBlockedUser(request, authorization);
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
@@ -26,7 +26,7 @@ public class FollowUserRequest extends UserRelationshipRequest {
         request.setUserHandle(relationshipUserHandle);
         ServiceResponse<Object> serviceResponse;
         try {
-            serviceResponse = UserRequest.MY_FOLLOWING.postFollowingUser(request, authorization);
+            serviceResponse = UserRequest.MY_FOLLOWING.get().postFollowingUser(request, authorization);
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
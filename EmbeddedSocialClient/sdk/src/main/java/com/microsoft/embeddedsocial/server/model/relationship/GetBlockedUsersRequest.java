@@ -20,7 +20,7 @@ public class GetBlockedUsersRequest extends FeedUserRequest {
     public UsersListResponse send() throws NetworkRequestException {
         ServiceResponse<FeedResponseUserCompactView> serviceResponse;
         try {
-            serviceResponse = BLOCKED.getBlockedUsers(authorization, getCursor(), getBatchSize());
+            serviceResponse = BLOCKED.get().getBlockedUsers(authorization, getCursor(), getBatchSize());
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
@@ -9,6 +9,7 @@ import com.microsoft.embeddedsocial.autorest.UserFollowersOperations;
 import com.microsoft.embeddedsocial.autorest.UserFollowersOperationsImpl;
 import com.microsoft.embeddedsocial.autorest.models.FeedResponseUserCompactView;
 import com.microsoft.embeddedsocial.server.exception.NetworkRequestException;
+import com.microsoft.embeddedsocial.server.model.OperationsHolder;
 import com.microsoft.embeddedsocial.server.model.UsersListResponse;
 import com.microsoft.rest.ServiceException;
 import com.microsoft.rest.ServiceResponse;
@@ -16,8 +17,8 @@ import com.microsoft.rest.ServiceResponse;
 import java.io.IOException;
 
 public final class GetFollowerFeedRequest extends GetFollowFeedRequest {
-    private static final UserFollowersOperations USER_FOLLOWERS =
-            new UserFollowersOperationsImpl(RETROFIT, CLIENT);
+    private static final OperationsHolder<UserFollowersOperations> USER_FOLLOWERS =
+            new OperationsHolder<>(UserFollowersOperationsImpl::new);
 
     public GetFollowerFeedRequest(String queryUserHandle) {
         super(queryUserHandle);
@@ -27,7 +28,7 @@ public final class GetFollowerFeedRequest extends GetFollowFeedRequest {
     public UsersListResponse send() throws NetworkRequestException {
         ServiceResponse<FeedResponseUserCompactView> serviceResponse;
         try {
-            serviceResponse = USER_FOLLOWERS.getFollowers(getQueryUserHandle(), authorization,
+            serviceResponse = USER_FOLLOWERS.get().getFollowers(getQueryUserHandle(), authorization,
                     getCursor(), getBatchSize());
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
@@ -9,6 +9,7 @@ import com.microsoft.embeddedsocial.autorest.UserFollowingOperations;
 import com.microsoft.embeddedsocial.autorest.UserFollowingOperationsImpl;
 import com.microsoft.embeddedsocial.autorest.models.FeedResponseUserCompactView;
 import com.microsoft.embeddedsocial.server.exception.NetworkRequestException;
+import com.microsoft.embeddedsocial.server.model.OperationsHolder;
 import com.microsoft.embeddedsocial.server.model.UsersListResponse;
 import com.microsoft.rest.ServiceException;
 import com.microsoft.rest.ServiceResponse;
@@ -16,8 +17,8 @@ import com.microsoft.rest.ServiceResponse;
 import java.io.IOException;
 
 public final class GetFollowingFeedRequest extends GetFollowFeedRequest {
-    private static final UserFollowingOperations USER_FOLLOWING =
-            new UserFollowingOperationsImpl(RETROFIT, CLIENT);
+    private static final OperationsHolder<UserFollowingOperations> USER_FOLLOWING =
+            new OperationsHolder<>(UserFollowingOperationsImpl::new);
 
     public GetFollowingFeedRequest(String queryUserHandle) {
         super(queryUserHandle);
@@ -27,7 +28,7 @@ public final class GetFollowingFeedRequest extends GetFollowFeedRequest {
     public UsersListResponse send() throws NetworkRequestException {
         ServiceResponse<FeedResponseUserCompactView> serviceResponse;
         try {
-            serviceResponse = USER_FOLLOWING.getFollowing(getQueryUserHandle(), authorization,
+            serviceResponse = USER_FOLLOWING.get().getFollowing(getQueryUserHandle(), authorization,
                     getCursor(), getBatchSize());
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
@@ -10,6 +10,7 @@ import com.microsoft.embeddedsocial.autorest.MyAppFollowingOperationsImpl;
 import com.microsoft.embeddedsocial.autorest.models.FeedResponseUserCompactView;
 import com.microsoft.embeddedsocial.server.exception.NetworkRequestException;
 import com.microsoft.embeddedsocial.server.model.FeedUserRequest;
+import com.microsoft.embeddedsocial.server.model.OperationsHolder;
 import com.microsoft.embeddedsocial.server.model.UsersListResponse;
 import com.microsoft.rest.ServiceException;
 import com.microsoft.rest.ServiceResponse;
@@ -17,14 +18,14 @@ import com.microsoft.rest.ServiceResponse;
 import java.io.IOException;
 
 public class GetFollowingInOtherAppsRequest extends FeedUserRequest {
-    private static final MyAppFollowingOperations APP_FOLLOWING_OPERATIONS =
-            new MyAppFollowingOperationsImpl(RETROFIT, CLIENT);
+    private static final OperationsHolder<MyAppFollowingOperations> APP_FOLLOWING_OPERATIONS =
+            new OperationsHolder<>(MyAppFollowingOperationsImpl::new);
 
     @Override
     public UsersListResponse send() throws NetworkRequestException {
         ServiceResponse<FeedResponseUserCompactView> serviceResponse;
         try {
-            serviceResponse = APP_FOLLOWING_OPERATIONS.getUsers(appKey, authorization,
+            serviceResponse = APP_FOLLOWING_OPERATIONS.get().getUsers(requestContext.getAppKey(), authorization,
                     getCursor() /*TODO add limit once server is fixed*/);
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
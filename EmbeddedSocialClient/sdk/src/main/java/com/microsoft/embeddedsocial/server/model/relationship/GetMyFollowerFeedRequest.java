@@ -21,7 +21,7 @@ public class GetMyFollowerFeedRequest extends FeedUserRequest {
         ServiceResponse<FeedResponseUserCompactView> serviceResponse;
         try {
             serviceResponse =
-                    MY_FOLLOWERS.getFollowers(authorization, getCursor(), getBatchSize());
+                    MY_FOLLOWERS.get().getFollowers(authorization, getCursor(), getBatchSize());
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
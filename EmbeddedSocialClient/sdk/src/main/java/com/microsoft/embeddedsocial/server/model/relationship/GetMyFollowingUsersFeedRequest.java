@@ -21,7 +21,7 @@ public class GetMyFollowingUsersFeedRequest extends FeedUserRequest {
         ServiceResponse<FeedResponseUserCompactView> serviceResponse;
         try {
             serviceResponse =
-                    MY_FOLLOWING.getFollowingUsers(authorization, getCursor(), getBatchSize());
+                    MY_FOLLOWING.get().getFollowingUsers(authorization, getCursor(), getBatchSize());
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
@@ -21,7 +21,7 @@ public class GetPendingUsersRequest extends FeedUserRequest {
         ServiceResponse<FeedResponseUserCompactView> serviceResponse;
         try {
             serviceResponse =
-                    PENDING.getPendingUsers(authorization, getCursor(), getBatchSize());
+                    PENDING.get().getPendingUsers(authorization, getCursor(), getBatchSize());
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
@@ -24,7 +24,7 @@ public class RemoveFollowerRequest extends UserRelationshipRequest {
     public Response send() throws NetworkRequestException {
         ServiceResponse<Object> serviceResponse;
         try {
-            serviceResponse = UserRequest.MY_FOLLOWERS.deleteFollower(relationshipUserHandle, authorization);
+            serviceResponse = UserRequest.MY_FOLLOWERS.get().deleteFollower(relationshipUserHandle, authorization);
         } catch (ServiceException |IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
@@ -24,7 +24,7 @@ public class UnfollowUserRequest extends UserRelationshipRequest {
     public Response send() throws NetworkRequestException {
         ServiceResponse<Object> serviceResponse;
         try {
-            serviceResponse = UserRequest.MY_FOLLOWING.deleteFollowingUser(relationshipUserHandle, authorization);
+            serviceResponse = UserRequest.MY_FOLLOWING.get().deleteFollowingUser(relationshipUserHandle, authorization);
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
@@ -15,6 +15,7 @@ import com.microsoft.embeddedsocial.autorest.models.ContentType;
 import com.microsoft.embeddedsocial.autorest.models.PostReportRequest;
 import com.microsoft.embeddedsocial.autorest.models.Reason;
 import com.microsoft.embeddedsocial.server.exception.NetworkRequestException;
+import com.microsoft.embeddedsocial.server.model.OperationsHolder;
 import com.microsoft.embeddedsocial.server.model.UserRequest;
 import com.microsoft.rest.ServiceException;
 import com.microsoft.rest.ServiceResponse;
@@ -25,15 +26,12 @@ import retrofit2.Response;
 
 public class ReportContentRequest extends UserRequest {
 
-    private static final TopicReportsOperations TOPIC_REPORT;
-    private static final CommentReportsOperations COMMENT_REPORT;
-    private static final ReplyReportsOperations REPLY_REPORT;
-
-    static {
-        TOPIC_REPORT = new TopicReportsOperationsImpl(RETROFIT, CLIENT);
-        COMMENT_REPORT = new CommentReportsOperationsImpl(RETROFIT, CLIENT);
-        REPLY_REPORT = new ReplyReportsOperationsImpl(RETROFIT, CLIENT);
-    }
+    private static final OperationsHolder<TopicReportsOperations> TOPIC_REPORT =
+            new OperationsHolder<>(TopicReportsOperationsImpl::new);
+    private static final OperationsHolder<CommentReportsOperations> COMMENT_REPORT =
+            new OperationsHolder<>(CommentReportsOperationsImpl::new);
+    private static final OperationsHolder<ReplyReportsOperations> REPLY_REPORT =
+            new OperationsHolder<>(ReplyReportsOperationsImpl::new);
 
     private PostReportRequest request;
     private String contentHandle;
@@ -58,13 +56,13 @@ public class ReportContentRequest extends UserRequest {
         try {
             switch (contentType) {
                 case TOPIC:
-                    serviceResponse = TOPIC_REPORT.postReport(contentHandle, request, authorization);
+                    serviceResponse = TOPIC_REPORT.get().postReport(contentHandle, request, authorization);
                     break;
                 case COMMENT:
-                    serviceResponse = COMMENT_REPORT.postReport(contentHandle, request, authorization);
+                    serviceResponse = COMMENT_REPORT.get().postReport(contentHandle, request, authorization);
                     break;
                 case REPLY:
-                    serviceResponse = REPLY_REPORT.postReport(contentHandle, request, authorization);
+                    serviceResponse = REPLY_REPORT.get().postReport(contentHandle, request, authorization);
                     break;
                 default:
                     throw new IllegalStateException("Unknown type for like");
@@ -10,6 +10,7 @@ import com.microsoft.embeddedsocial.autorest.UserReportsOperationsImpl;
 import com.microsoft.embeddedsocial.autorest.models.PostReportRequest;
 import com.microsoft.embeddedsocial.autorest.models.Reason;
 import com.microsoft.embeddedsocial.server.exception.NetworkRequestException;
+import com.microsoft.embeddedsocial.server.model.OperationsHolder;
 import com.microsoft.embeddedsocial.server.model.UserRequest;
 import com.microsoft.rest.ServiceException;
 import com.microsoft.rest.ServiceResponse;
@@ -20,11 +21,9 @@ import retrofit2.Response;
 
 public class ReportUserRequest extends UserRequest {
 
-    private static final UserReportsOperations USER_REPORTS;
+    private static final OperationsHolder<UserReportsOperations> USER_REPORTS =
+            new OperationsHolder<>(UserReportsOperationsImpl::new);
 
-    static {
-        USER_REPORTS = new UserReportsOperationsImpl(RETROFIT, CLIENT);
-    }
     private final String reportUserHandle;
     private final PostReportRequest request;
 
@@ -38,7 +37,7 @@ public class ReportUserRequest extends UserRequest {
     public Response send() throws NetworkRequestException {
         ServiceResponse<Object> serviceResponse;
         try {
-            serviceResponse = USER_REPORTS.postReport(reportUserHandle, request, authorization);
+            serviceResponse = USER_REPORTS.get().postReport(reportUserHandle, request, authorization);
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
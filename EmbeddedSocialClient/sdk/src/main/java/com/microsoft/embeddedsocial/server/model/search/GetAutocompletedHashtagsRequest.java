@@ -23,7 +23,7 @@ public class GetAutocompletedHashtagsRequest extends SearchRequest {
     public AutocompletedHashtagsResponse send() throws NetworkRequestException {
         ServiceResponse<List<String>> serviceResponse;
         try {
-            serviceResponse = UserRequest.HASHTAGS.getAutocompletedHashtags(query, authorization);
+            serviceResponse = UserRequest.HASHTAGS.get().getAutocompletedHashtags(query, authorization);
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
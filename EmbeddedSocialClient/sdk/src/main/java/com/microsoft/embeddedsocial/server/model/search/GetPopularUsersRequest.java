@@ -21,7 +21,7 @@ public class GetPopularUsersRequest extends FeedUserRequest {
         ServiceResponse<FeedResponseUserProfileView> serviceResponse;
         try {
             serviceResponse =
-                    USERS.getPopularUsers(authorization, getIntCursor(), getBatchSize());
+                    USERS.get().getPopularUsers(authorization, getIntCursor(), getBatchSize());
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
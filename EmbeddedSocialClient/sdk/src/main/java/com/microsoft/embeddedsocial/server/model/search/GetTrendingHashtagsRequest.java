@@ -19,7 +19,7 @@ public class GetTrendingHashtagsRequest extends UserRequest {
     public GetTrendingHashtagsResponse send() throws NetworkRequestException {
         ServiceResponse<List<String>> serviceResponse;
         try {
-            serviceResponse = HASHTAGS.getTrendingHashtags(authorization);
+            serviceResponse = HASHTAGS.get().getTrendingHashtags(authorization);
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
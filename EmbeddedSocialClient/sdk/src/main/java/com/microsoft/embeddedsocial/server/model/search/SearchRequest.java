@@ -8,10 +8,12 @@ package com.microsoft.embeddedsocial.server.model.search;
 import com.microsoft.embeddedsocial.autorest.SearchOperations;
 import com.microsoft.embeddedsocial.autorest.SearchOperationsImpl;
 import com.microsoft.embeddedsocial.server.model.FeedUserRequest;
+import com.microsoft.embeddedsocial.server.model.OperationsHolder;
 
 public class SearchRequest extends FeedUserRequest {
 
-    protected static final SearchOperations SEARCH = new SearchOperationsImpl(RETROFIT, CLIENT);
+    protected static final OperationsHolder<SearchOperations> SEARCH =
+            new OperationsHolder<>(SearchOperationsImpl::new);
 
     protected final String query;
 
@@ -24,7 +24,7 @@ public class SearchTopicsRequest extends SearchRequest {
         ServiceResponse<FeedResponseTopicView> serviceResponse;
         try {
             serviceResponse =
-                    SEARCH.getTopics(query, authorization, getIntCursor(), getBatchSize());
+                    SEARCH.get().getTopics(query, authorization, getIntCursor(), getBatchSize());
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
@@ -24,7 +24,7 @@ public class SearchUsersRequest extends SearchRequest {
         ServiceResponse<FeedResponseUserCompactView> serviceResponse;
         try {
             serviceResponse =
-                    SEARCH.getUsers(query, authorization, getIntCursor(), getBatchSize());
+                    SEARCH.get().getUsers(query, authorization, getIntCursor(), getBatchSize());
         } catch (ServiceException|IOException e) {
             throw new NetworkRequestException(e.getMessage());
         }
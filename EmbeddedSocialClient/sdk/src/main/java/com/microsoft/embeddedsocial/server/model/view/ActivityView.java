@@ -51,10 +51,12 @@ public class ActivityView implements UniqueItem, TimedItem {
     @DatabaseField
     private String actedOnContentBlobUrl;
 
-    @DatabaseField(foreign = true, foreignAutoCreate = true, foreignAutoRefresh = true)
+    @DatabaseField(foreign = true, foreignAutoCreate = true, foreignAutoRefresh = true,
+        columnName = DbSchemas.UserActivity.ACTED_ON_USER)
     private UserCompactView actedOnUser;
 
-    @DatabaseField(foreign = true, foreignAutoCreate = true, foreignAutoRefresh = true)
+    @DatabaseField(foreign = true, foreignAutoCreate = true, foreignAutoRefresh = true,
+        columnName = DbSchemas.UserActivity.APP)
     private AppCompactView app;
 
     @DatabaseField
@@ -144,10 +146,18 @@ public class ActivityView implements UniqueItem, TimedItem {
         return actedOnUser;
     }
 
+    public void setActedOnUser(UserCompactView actedOnUser) {
+        this.actedOnUser = actedOnUser;
+    }
+
     public AppCompactView getApp() {
         return app;
     }
 
+    public void setApp(AppCompactView app) {
+        this.app = app;
+    }
+
     @Override
     public long getElapsedSeconds() {
         return TimeUtils.elapsedSeconds(createdTime);
@@ -19,7 +19,7 @@ import android.os.Parcelable;
 @DatabaseTable(tableName = DbSchemas.Apps.TABLE_NAME)
 public class AppCompactView implements Parcelable, UniqueItem {
 
-    @DatabaseField(id = true)
+    @DatabaseField(id = true, columnName = DbSchemas.Apps.APP_HANDLE)
     private String appHandle;
 
     @DatabaseField
@@ -41,7 +41,8 @@ public class TopicView implements Parcelable, UniqueItem, TimedItem {
         columnName = DbSchemas.Topics.USER)
     private UserCompactView user;
 
-    @DatabaseField(foreign = true, foreignAutoCreate = true, foreignAutoRefresh = true)
+    @DatabaseField(foreign = true, foreignAutoCreate = true, foreignAutoRefresh = true,
+        columnName = DbSchemas.Topics.APP)
     private AppCompactView app;
 
     @DatabaseField
@@ -261,7 +262,7 @@ public class TopicView implements Parcelable, UniqueItem, TimedItem {
         localPostId = in.readInt();
     }
 
-    private void setApp(AppCompactView app) {
+    public void setApp(AppCompactView app) {
         this.app = app;
     }
 
@@ -313,7 +314,7 @@ public class TopicView implements Parcelable, UniqueItem, TimedItem {
         this.topicType = topicType;
     }
 
-    private void setUser(UserCompactView user) {
+    public void setUser(UserCompactView user) {
         this.user = user;
     }
 
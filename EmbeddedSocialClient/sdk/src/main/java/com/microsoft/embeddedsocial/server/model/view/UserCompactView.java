@@ -21,7 +21,7 @@ import android.os.Parcelable;
 @DatabaseTable(tableName = DbSchemas.CompactUserData.TABLE_NAME)
 public class UserCompactView implements Parcelable, UniqueItem {
 
-    @DatabaseField(id = true)
+    @DatabaseField(id = true, columnName = DbSchemas.CompactUserData.USER_HANDLE)
     private String userHandle;
 
     @DatabaseField
@@ -58,6 +58,24 @@ public class UserProfileView implements UniqueItem {
     UserProfileView() {
     }
 
+    /**
+     * Creates a copy of a profile.
+     * @param other the profile to copy
+     */
+    public UserProfileView(UserProfileView other) {
+        userHandle = other.userHandle;
+        firstName = other.firstName;
+        lastName = other.lastName;
+        userPhotoUrl = other.userPhotoUrl;
+        bio = other.bio;
+        isPrivate = other.isPrivate;
+        totalTopics = other.totalTopics;
+        totalFollowers = other.totalFollowers;
+        totalFollowings = other.totalFollowings;
+        followerStatus = other.followerStatus;
+        followingStatus = other.followingStatus;
+    }
+
     public UserProfileView(com.microsoft.embeddedsocial.autorest.models.UserProfileView view) {
         userHandle = view.getUserHandle();
         firstName = view.getFirstName();
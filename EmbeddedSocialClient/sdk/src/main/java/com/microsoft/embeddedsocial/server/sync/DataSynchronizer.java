@@ -5,20 +5,48 @@
 
 package com.microsoft.embeddedsocial.server.sync;
 
+import com.microsoft.embeddedsocial.base.GlobalObjectRegistry;
 import com.microsoft.embeddedsocial.base.utils.debug.DebugLog;
+import com.microsoft.embeddedsocial.base.utils.thread.BackgroundThreadFactory;
+import com.microsoft.embeddedsocial.server.CircuitBreaker;
+import com.microsoft.embeddedsocial.server.CircuitBreaker.OperationGroup;
+import com.microsoft.embeddedsocial.server.NetworkScheduler;
+import com.microsoft.embeddedsocial.server.sync.exception.OperationDeferredException;
 import com.microsoft.embeddedsocial.server.sync.exception.OperationRejectedException;
 import com.microsoft.embeddedsocial.server.sync.exception.SynchronizationException;
 
-import java.util.LinkedHashSet;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
- * Uploads all syncable data to the server.
+ * Uploads all syncable data to the server. Producers run in parallel unless one depends on
+ * another (e.g. edits of a post are uploaded after the post itself); entities of a producer are
+ * uploaded one by one in their order unless the producer allows concurrent uploads. A failed
+ * entity doesn't stop the others. Producers whose server operations are suspended by
+ * the {@link CircuitBreaker} are skipped; that isn't a failure, the caller should rather run
+ * the next synchronization when the operations are resumed (see {@link #getSkippedRetryDelay()}).
  */
 public class DataSynchronizer {
 
-    private final Set<SyncProducer> syncProducers = new LinkedHashSet<>();
+    private static final int PRODUCER_THREADS = 4;
+
+    private static final ExecutorService PRODUCER_EXECUTOR = Executors.newFixedThreadPool(
+        PRODUCER_THREADS, new BackgroundThreadFactory("sync producer #"));
+
+    private final Map<String, SyncProducer> syncProducers = new LinkedHashMap<>();
+    private final CircuitBreaker circuitBreaker = GlobalObjectRegistry.getObject(CircuitBreaker.class);
+    private long skippedRetryDelay = -1;
 
     /**
      * Registers a sync producer with this synchronizer.
@@ -26,7 +54,45 @@ public class DataSynchronizer {
      * @param   name        producer name (used mostly for logging)
      */
     public void registerSyncProducer(ISynchronizableProducer producer, String name) {
-        syncProducers.add(new SyncProducer(producer, name));
+        registerSyncProducer(producer, name, OperationGroup.OTHER);
+    }
+
+    /**
+     * Registers a sync producer with this synchronizer. The producer is skipped while the server
+     * operations it uses are failing.
+     * @param   producer    sync producer
+     * @param   name        producer name (used mostly for logging)
+     * @param   group       group of server operations used by the producer
+     */
+    public void registerSyncProducer(ISynchronizableProducer producer, String name, OperationGroup group) {
+        registerSyncProducer(producer, name, group, 1);
+    }
+
+    /**
+     * Registers a sync producer with this synchronizer.
+     * @param   producer        sync producer
+     * @param   name            producer name (used mostly for logging and dependencies)
+     * @param   group           group of server operations used by the producer
+     * @param   maxConcurrency  max number of the producer's entities uploaded at the same time
+     *                          (1 if they must be uploaded in order, see {@link PipelinedUploader})
+     */
+    public void registerSyncProducer(ISynchronizableProducer producer, String name, OperationGroup group,
+                                     int maxConcurrency) {
+        syncProducers.put(name, new SyncProducer(producer, name, group, maxConcurrency));
+    }
+
+    /**
+     * Makes a producer start only after another one has finished.
+     * @param   producerName    name of the dependent producer
+     * @param   dependencyName  name of the producer which must finish first
+     */
+    public void addDependency(String producerName, String dependencyName) {
+        SyncProducer producer = syncProducers.get(producerName);
+        if (producer == null || !syncProducers.containsKey(dependencyName)) {
+            throw new IllegalArgumentException("Unknown sync producer: "
+                + (producer == null ? producerName : dependencyName));
+        }
+        producer.dependencies.add(dependencyName);
     }
 
     /**
@@ -34,41 +100,122 @@ public class DataSynchronizer {
      * @return  true if synchronization finishes successfully.
      */
     public boolean synchronize() {
+        synchronized (this) {
+            skippedRetryDelay = -1;
+        }
         boolean result = true;
+        CompletionService<Boolean> completionService = new ExecutorCompletionService<>(PRODUCER_EXECUTOR);
+        Map<Future<Boolean>, SyncProducer> running = new LinkedHashMap<>();
+        List<SyncProducer> waiting = new ArrayList<>(syncProducers.values());
+        Set<String> finished = new HashSet<>();
+        NetworkScheduler.Scope scope = new NetworkScheduler.Scope();
 
-        for (SyncProducer producerInfo : syncProducers) {
-            ISynchronizableProducer producer = producerInfo.producer;
+        while (!waiting.isEmpty() || !running.isEmpty()) {
+            startReadyProducers(completionService, scope, waiting, finished, running);
+            if (running.isEmpty()) {
+                // can't happen unless dependencies are circular
+                DebugLog.e("sync producers with unmet dependencies: " + waiting.size());
+                return false;
+            }
             try {
-                int syncedEntities = synchronizeProducer(producer, producerInfo.producerName);
-                if (syncedEntities > 0) {
-                    DebugLog.i("synced " + syncedEntities + " items from '"
-                        + producerInfo.producerName + "'");
+                Future<Boolean> future = completionService.take();
+                SyncProducer producerInfo = running.remove(future);
+                finished.add(producerInfo.producerName);
+                result &= future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                // the interrupted producers cancel their own pipelined uploads
+                scope.cancel();
+                for (Future<Boolean> future : running.keySet()) {
+                    future.cancel(true);
                 }
-            } catch (SynchronizationException e) {
-                DebugLog.e("error in sync producer '" + producerInfo.producerName + "'");
+                return false;
+            } catch (ExecutionException e) {
                 DebugLog.logException(e);
                 result = false;
-                // we continue synchronization on failure to give a chance to other
-                // sync producers (in case some server features failed, but other
-                // still work)
             }
         }
 
         return result;
     }
 
-    private int synchronizeProducer(ISynchronizableProducer producer, String producerName)
-        throws SynchronizationException {
+    /**
+     * Gets the time until the producers skipped by the last synchronization can run.
+     * @return  delay in milliseconds, -1 if no producer was skipped.
+     */
+    public synchronized long getSkippedRetryDelay() {
+        return skippedRetryDelay;
+    }
+
+    private synchronized void onProducerSkipped(long retryDelay) {
+        if (skippedRetryDelay < 0 || retryDelay < skippedRetryDelay) {
+            skippedRetryDelay = retryDelay;
+        }
+    }
+
+    private void startReadyProducers(CompletionService<Boolean> completionService, NetworkScheduler.Scope scope,
+                                     List<SyncProducer> waiting, Set<String> finished,
+                                     Map<Future<Boolean>, SyncProducer> running) {
+
+        Iterator<SyncProducer> iterator = waiting.iterator();
+        while (iterator.hasNext()) {
+            SyncProducer producerInfo = iterator.next();
+            if (finished.containsAll(producerInfo.dependencies)) {
+                iterator.remove();
+                running.put(completionService.submit(() -> NetworkScheduler.call(
+                    NetworkScheduler.Priority.SYNC, scope, () -> runProducer(producerInfo))), producerInfo);
+            }
+        }
+    }
+
+    private boolean runProducer(SyncProducer producerInfo) {
+        if (isCircuitOpen(producerInfo.group)) {
+            DebugLog.w("skipping sync producer '" + producerInfo.producerName + "': "
+                + producerInfo.group + " requests are suspended");
+            onProducerSkipped(circuitBreaker.getRetryDelay(producerInfo.group));
+            return true;
+        }
+        try {
+            int syncedEntities = synchronizeProducer(producerInfo);
+            if (syncedEntities > 0) {
+                DebugLog.i("synced " + syncedEntities + " items from '"
+                    + producerInfo.producerName + "'");
+            }
+            return true;
+        } catch (SynchronizationException e) {
+            DebugLog.e("error in sync producer '" + producerInfo.producerName + "'");
+            DebugLog.logException(e);
+            // other sync producers continue (in case some server features failed,
+            // but other still work)
+            return false;
+        }
+    }
+
+    private boolean isCircuitOpen(OperationGroup group) {
+        return circuitBreaker != null && circuitBreaker.isOpen(group);
+    }
+
+    private int synchronizeProducer(SyncProducer producerInfo) throws SynchronizationException {
+        List<ISynchronizable> entities = producerInfo.producer.getSynchronizableEntities();
+        if (producerInfo.maxConcurrency > 1 && entities.size() > 1) {
+            return new PipelinedUploader(producerInfo.producerName, producerInfo.group,
+                producerInfo.maxConcurrency).upload(entities);
+        }
 
-        List<ISynchronizable> entities = producer.getSynchronizableEntities();
         int syncedEntities = 0;
         // Store the first exception from this producer
         SynchronizationException exception = null;
 
         for (ISynchronizable entity : entities) {
+            if (exception != null && isCircuitOpen(producerInfo.group)) {
+                // the rest would fail the same way, leave it for the next synchronization
+                break;
+            }
             try {
-                synchronizeEntity(entity, producerName);
+                synchronizeEntity(entity, producerInfo.producerName);
                 ++syncedEntities;
+            } catch (OperationDeferredException e) {
+                logDeferred(producerInfo.producerName, entity);
             } catch (SynchronizationException e) {
                 if (exception == null) {
                     exception = e;
@@ -87,7 +234,7 @@ public class DataSynchronizer {
         return syncedEntities;
     }
 
-    private void synchronizeEntity(ISynchronizable entity, String producerName)
+    static void synchronizeEntity(ISynchronizable entity, String producerName)
         throws SynchronizationException {
 
         try {
@@ -102,26 +249,30 @@ public class DataSynchronizer {
     }
 
     /**
-     * Stores a sync producer along with its name.
+     * Logs an entity whose failure is tracked by the outbox: it is retried on its own schedule,
+     * so it doesn't fail the synchronization.
+     */
+    static void logDeferred(String producerName, Object entity) {
+        DebugLog.w(producerName + ": sync of " + entity + " failed, retry scheduled");
+    }
+
+    /**
+     * Stores a sync producer along with its name, dependencies and concurrency.
      */
     private static class SyncProducer {
 
         private final ISynchronizableProducer producer;
         private final String producerName;
+        private final OperationGroup group;
+        private final int maxConcurrency;
+        private final Set<String> dependencies = new HashSet<>();
 
-        SyncProducer(ISynchronizableProducer producer, String producerName) {
+        SyncProducer(ISynchronizableProducer producer, String producerName, OperationGroup group,
+                     int maxConcurrency) {
             this.producer = producer;
             this.producerName = producerName;
-        }
-
-        @Override
-        public boolean equals(Object o) {
-            return producer.equals(o);
-        }
-
-        @Override
-        public int hashCode() {
-            return producer.hashCode();
+            this.group = group;
+            this.maxConcurrency = maxConcurrency;
         }
     }
 }
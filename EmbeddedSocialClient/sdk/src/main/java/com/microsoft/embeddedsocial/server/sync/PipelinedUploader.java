@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ */
+
+package com.microsoft.embeddedsocial.server.sync;
+
+import com.microsoft.embeddedsocial.base.GlobalObjectRegistry;
+import com.microsoft.embeddedsocial.base.utils.thread.BackgroundThreadFactory;
+import com.microsoft.embeddedsocial.server.CircuitBreaker;
+import com.microsoft.embeddedsocial.server.CircuitBreaker.OperationGroup;
+import com.microsoft.embeddedsocial.server.NetworkScheduler;
+import com.microsoft.embeddedsocial.server.sync.exception.OperationDeferredException;
+import com.microsoft.embeddedsocial.server.sync.exception.SynchronizationException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Uploads independent entities keeping up to a fixed number of requests in flight, so that their
+ * round trips overlap on the pooled connections of the HTTP client instead of adding up. A new
+ * upload starts as soon as one of the running ones finishes. Success callbacks run on the upload
+ * threads, so they should be cheap (e.g. defer deletions to a batch) not to hold a request slot.
+ */
+public class PipelinedUploader {
+
+    /**
+     * Max number of requests in flight, for all uploaders together.
+     */
+    public static final int MAX_DEPTH = 4;
+
+    private static final ExecutorService UPLOAD_EXECUTOR = Executors.newFixedThreadPool(
+        MAX_DEPTH, new BackgroundThreadFactory("sync upload #"));
+
+    private final String name;
+    private final OperationGroup group;
+    private final int depth;
+    private final CircuitBreaker circuitBreaker = GlobalObjectRegistry.getObject(CircuitBreaker.class);
+
+    /**
+     * Creates an instance.
+     * @param name      name of the uploaded data (used for logging)
+     * @param group     group of server operations used by the uploads
+     * @param depth     max number of requests in flight (capped by {@link #MAX_DEPTH})
+     */
+    public PipelinedUploader(String name, OperationGroup group, int depth) {
+        this.name = name;
+        this.group = group;
+        this.depth = Math.max(1, Math.min(depth, MAX_DEPTH));
+    }
+
+    /**
+     * Uploads the entities and waits until all the started uploads finish. A failed entity doesn't
+     * stop the others unless the server operations get suspended. If the calling thread is
+     * interrupted, the started uploads are canceled.
+     * @param entities  the entities to upload
+     * @return  number of entities uploaded.
+     * @throws SynchronizationException the first failure, if any (except the deferred ones)
+     */
+    public int upload(List<ISynchronizable> entities) throws SynchronizationException {
+        Semaphore permits = new Semaphore(depth);
+        NetworkScheduler.Scope scope = new NetworkScheduler.Scope();
+        List<ISynchronizable> started = new ArrayList<>(entities.size());
+        List<Future<?>> uploads = new ArrayList<>(entities.size());
+        SynchronizationException exception = null;
+
+        try {
+            for (ISynchronizable entity : entities) {
+                permits.acquire();
+                if (isCircuitOpen()) {
+                    // the rest would fail the same way, leave it for the next synchronization
+                    permits.release();
+                    break;
+                }
+                started.add(entity);
+                uploads.add(UPLOAD_EXECUTOR.submit(() -> {
+                    try {
+                        NetworkScheduler.call(NetworkScheduler.Priority.SYNC, scope, () -> {
+                            DataSynchronizer.synchronizeEntity(entity, name);
+                            return null;
+                        });
+                        return null;
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+        } catch (InterruptedException e) {
+            throw cancel(scope, uploads, e);
+        }
+
+        int syncedEntities = 0;
+        for (int i = 0; i < uploads.size(); i++) {
+            try {
+                uploads.get(i).get();
+                ++syncedEntities;
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof OperationDeferredException) {
+                    DataSynchronizer.logDeferred(name, started.get(i));
+                } else if (exception == null) {
+                    exception = cause instanceof SynchronizationException
+                        ? (SynchronizationException) cause
+                        : new SynchronizationException("Synchronization failed: " + cause.getMessage(), cause);
+                }
+            } catch (InterruptedException e) {
+                throw cancel(scope, uploads.subList(i, uploads.size()), e);
+            }
+        }
+
+        if (exception != null) {
+            throw exception;
+        }
+
+        return syncedEntities;
+    }
+
+    /**
+     * Stops the uploads when the synchronization is canceled: the running requests are canceled
+     * and the uploads waiting for a thread are dropped.
+     * @return  the exception to throw.
+     */
+    private static SynchronizationException cancel(NetworkScheduler.Scope scope, List<Future<?>> uploads,
+                                                   InterruptedException e) {
+        scope.cancel();
+        for (Future<?> upload : uploads) {
+            upload.cancel(true);
+        }
+        Thread.currentThread().interrupt();
+        return new SynchronizationException("Synchronization interrupted", e);
+    }
+
+    private boolean isCircuitOpen() {
+        return circuitBreaker != null && circuitBreaker.isOpen(group);
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ */
+
+package com.microsoft.embeddedsocial.server.sync;
+
+import com.microsoft.embeddedsocial.base.utils.Clock;
+import com.microsoft.embeddedsocial.base.utils.debug.DebugLog;
+import com.microsoft.embeddedsocial.service.ServiceAction;
+import com.microsoft.embeddedsocial.service.WorkerService;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules synchronization passes ({@link ServiceAction#SYNC_DATA}). Sync requests made within
+ * a short window are coalesced into one pass; there is at most one running pass and one pending
+ * pass, so a burst of user actions doesn't queue a pass per action. After a failed pass the next
+ * one is delayed (exponentially, up to {@link #MAX_BACKOFF_MS}) and is scheduled automatically;
+ * {@link #requestSyncNow()} ends the backoff when the cause of the failures is likely gone.
+ */
+public final class SyncScheduler {
+
+    public static final long DEBOUNCE_MS = 1000;
+    public static final long MIN_BACKOFF_MS = TimeUnit.SECONDS.toMillis(10);
+    public static final long MAX_BACKOFF_MS = TimeUnit.MINUTES.toMillis(10);
+
+    private static final int MAX_BACKOFF_SHIFT = 16;
+
+    private final Clock clock;
+    private final Timer timer;
+    private final Runnable launchPass;
+
+    private boolean launchScheduled;
+    private long scheduledLaunchTime;
+    private boolean running;
+    private boolean pending;
+    private int pendingRequests;
+    private int consecutiveFailures;
+    private long nextAllowedStart;
+
+    private long completedPasses;
+    private long lastPassStartTime;
+    private long lastPassDuration;
+    private int lastPassRequests;
+    private boolean lastPassSuccessful = true;
+
+    public SyncScheduler(Context context) {
+        this(Clock.SYSTEM, new HandlerTimer(), createLauncher(context.getApplicationContext()));
+    }
+
+    /**
+     * Creates an instance.
+     * @param clock     time source of the delays
+     * @param timer     runs the pass launches
+     * @param launcher  launches a pass
+     */
+    public SyncScheduler(Clock clock, Timer timer, Runnable launcher) {
+        this.clock = clock;
+        this.timer = timer;
+        this.launchPass = launcher;
+    }
+
+    private static Runnable createLauncher(Context context) {
+        return () -> WorkerService.getLauncher(context).launchService(ServiceAction.SYNC_DATA);
+    }
+
+    /**
+     * Requests a synchronization pass. The pass starts after {@link #DEBOUNCE_MS} (or when the
+     * failure backoff ends) unless one is already waiting; if a pass is running, another one
+     * follows it.
+     */
+    public synchronized void requestSync() {
+        pendingRequests++;
+        if (running) {
+            pending = true;
+        } else {
+            schedulePass(DEBOUNCE_MS);
+        }
+    }
+
+    /**
+     * Requests a synchronization pass ending the failure backoff, e.g. when the network is restored.
+     */
+    public synchronized void requestSyncNow() {
+        consecutiveFailures = 0;
+        nextAllowedStart = 0;
+        requestSync();
+    }
+
+    /**
+     * Requests a synchronization pass after a delay, e.g. when a delayed operation can be retried.
+     * A pass requested earlier isn't postponed.
+     * @param delayMillis   delay in milliseconds
+     */
+    public synchronized void requestSync(long delayMillis) {
+        if (running) {
+            pending = true;
+        } else {
+            schedulePass(Math.max(delayMillis, DEBOUNCE_MS));
+        }
+    }
+
+    /**
+     * Is called by the sync handler before a pass.
+     * @return  false if another pass is running (the request is then coalesced into a pending pass).
+     */
+    public synchronized boolean onPassStarted() {
+        if (running) {
+            pending = true;
+            return false;
+        }
+        running = true;
+        launchScheduled = false;
+        timer.cancel(launchPass);
+        lastPassRequests = pendingRequests;
+        pendingRequests = 0;
+        lastPassStartTime = System.currentTimeMillis();
+        return true;
+    }
+
+    /**
+     * Is called by the sync handler after a pass.
+     * @param successful    whether all the data was uploaded
+     */
+    public synchronized void onPassFinished(boolean successful) {
+        running = false;
+        completedPasses++;
+        lastPassDuration = System.currentTimeMillis() - lastPassStartTime;
+        lastPassSuccessful = successful;
+        if (successful) {
+            consecutiveFailures = 0;
+            nextAllowedStart = 0;
+        } else {
+            long backoff = Math.min(MIN_BACKOFF_MS << Math.min(consecutiveFailures, MAX_BACKOFF_SHIFT),
+                MAX_BACKOFF_MS);
+            consecutiveFailures++;
+            nextAllowedStart = clock.now() + backoff;
+            DebugLog.i("sync failed " + consecutiveFailures + " times, retrying in " + backoff + " ms");
+            // what failed is still pending, retry it
+            pending = true;
+        }
+        if (pending) {
+            pending = false;
+            schedulePass(DEBOUNCE_MS);
+        }
+    }
+
+    private void schedulePass(long delay) {
+        long now = clock.now();
+        long launchTime = now + Math.max(delay, nextAllowedStart - now);
+        if (launchScheduled) {
+            if (launchTime >= scheduledLaunchTime) {
+                return;
+            }
+            timer.cancel(launchPass);
+        }
+        launchScheduled = true;
+        scheduledLaunchTime = launchTime;
+        timer.schedule(launchPass, launchTime - now);
+    }
+
+    /**
+     * Gets the number of sync requests waiting for the next pass.
+     * @return  number of coalesced requests.
+     */
+    public synchronized int getQueueDepth() {
+        return pendingRequests;
+    }
+
+    public synchronized boolean isRunning() {
+        return running;
+    }
+
+    public synchronized boolean isPassScheduled() {
+        return launchScheduled || pending;
+    }
+
+    public synchronized long getCompletedPassCount() {
+        return completedPasses;
+    }
+
+    /**
+     * Gets the start time of the last pass.
+     * @return  time in milliseconds since epoch, 0 if no pass was run.
+     */
+    public synchronized long getLastPassStartTime() {
+        return lastPassStartTime;
+    }
+
+    public synchronized long getLastPassDurationMillis() {
+        return lastPassDuration;
+    }
+
+    /**
+     * Gets the number of sync requests served by the last pass.
+     * @return  number of coalesced requests.
+     */
+    public synchronized int getLastPassRequestCount() {
+        return lastPassRequests;
+    }
+
+    public synchronized boolean isLastPassSuccessful() {
+        return lastPassSuccessful;
+    }
+
+    public synchronized int getConsecutiveFailureCount() {
+        return consecutiveFailures;
+    }
+
+    /**
+     * Runs delayed tasks; can be replaced in tests.
+     */
+    public interface Timer {
+
+        void schedule(Runnable task, long delayMillis);
+
+        void cancel(Runnable task);
+    }
+
+    /**
+     * Runs the tasks on the main thread.
+     */
+    private static final class HandlerTimer implements Timer {
+
+        private final Handler handler = new Handler(Looper.getMainLooper());
+
+        @Override
+        public void schedule(Runnable task, long delayMillis) {
+            handler.postDelayed(task, delayMillis);
+        }
+
+        @Override
+        public void cancel(Runnable task) {
+            handler.removeCallbacks(task);
+        }
+    }
+}
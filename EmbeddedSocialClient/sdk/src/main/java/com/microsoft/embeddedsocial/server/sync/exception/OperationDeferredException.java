@@ -0,0 +1,25 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ */
+
+package com.microsoft.embeddedsocial.server.sync.exception;
+
+/**
+ * Is thrown when an operation fails, but the failure is recorded and a retry of the operation is
+ * already scheduled. Such a failure doesn't fail the synchronization as a whole.
+ */
+public class OperationDeferredException extends SynchronizationException {
+
+    public OperationDeferredException(String detailMessage) {
+        super(detailMessage);
+    }
+
+    public OperationDeferredException(String detailMessage, Throwable throwable) {
+        super(detailMessage, throwable);
+    }
+
+    public OperationDeferredException(Throwable throwable) {
+        super(throwable);
+    }
+}
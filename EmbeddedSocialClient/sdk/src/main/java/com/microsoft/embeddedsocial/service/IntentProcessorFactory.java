@@ -8,6 +8,7 @@ package com.microsoft.embeddedsocial.service;
 import com.microsoft.embeddedsocial.base.service.IServiceIntentProcessor;
 import com.microsoft.embeddedsocial.base.service.IntentProcessor;
 import com.microsoft.embeddedsocial.service.handler.BackgroundInitializationHandler;
+import com.microsoft.embeddedsocial.service.handler.CacheCompactionHandler;
 import com.microsoft.embeddedsocial.service.handler.CreateAccountHandler;
 import com.microsoft.embeddedsocial.service.handler.DeleteAccountHandler;
 import com.microsoft.embeddedsocial.service.handler.DeleteSearchHistoryHandler;
@@ -56,6 +57,7 @@ public class IntentProcessorFactory {
         processor.registerIntentHandler(ServiceAction.LINK_USER_THIRD_PARTY_ACCOUNT, new LinkUserThirdPartyAccountHandler());
         processor.registerIntentHandler(ServiceAction.UNLINK_USER_THIRD_PARTY_ACCOUNT, new UnlinkUserThirdPartyAccountHandler());
         processor.registerIntentHandler(ServiceAction.REMOVE_FOLLOWER, new RemoveFollowerHandler());
+        processor.registerIntentHandler(ServiceAction.COMPACT_CACHE, new CacheCompactionHandler());
 
         return processor;
     }
@@ -12,6 +12,8 @@ public enum ServiceAction {
 
     BACKGROUND_INIT,
 
+    COMPACT_CACHE,
+
     DELETE_ACCOUNT,
 
     DELETE_SEARCH_HISTORY,
@@ -6,6 +6,7 @@
 package com.microsoft.embeddedsocial.service.handler;
 
 import com.microsoft.embeddedsocial.base.service.IServiceIntentHandler;
+import com.microsoft.embeddedsocial.server.model.RestClient;
 import com.microsoft.embeddedsocial.service.ServiceAction;
 import com.microsoft.embeddedsocial.service.WorkerService;
 
@@ -22,7 +23,10 @@ public class BackgroundInitializationHandler implements IServiceIntentHandler<Se
 
     @Override
     public void handleIntent(ServiceAction action, Intent intent) {
+        // build the HTTP stack here rather than on the main thread with the first request
+        RestClient.prepare();
         WorkerService.getLauncher(context).launchService(ServiceAction.FCM_REGISTER);
+        WorkerService.getLauncher(context).launchService(ServiceAction.COMPACT_CACHE);
     }
 
     @Override
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ */
+
+package com.microsoft.embeddedsocial.service.handler;
+
+import com.microsoft.embeddedsocial.base.GlobalObjectRegistry;
+import com.microsoft.embeddedsocial.base.service.IServiceIntentHandler;
+import com.microsoft.embeddedsocial.base.utils.debug.DebugLog;
+import com.microsoft.embeddedsocial.data.Preferences;
+import com.microsoft.embeddedsocial.data.storage.CacheBudget;
+import com.microsoft.embeddedsocial.data.storage.CacheCompactor;
+import com.microsoft.embeddedsocial.data.storage.DatabaseHelper;
+import com.microsoft.embeddedsocial.sdk.Options;
+import com.microsoft.embeddedsocial.server.sync.SyncScheduler;
+import com.microsoft.embeddedsocial.service.ServiceAction;
+
+import android.content.Intent;
+
+import java.sql.SQLException;
+
+/**
+ * Keeps the offline content cache within the configured limits. Runs at most once per
+ * compaction interval. The DB file is shrunk only when no sync pass is running or scheduled,
+ * so the vacuum doesn't delay the writes of the pass.
+ */
+public class CacheCompactionHandler implements IServiceIntentHandler<ServiceAction> {
+
+    @Override
+    public void handleIntent(ServiceAction action, Intent intent) {
+        Options options = GlobalObjectRegistry.getObject(Options.class);
+        CacheBudget budget = options != null ? CacheBudget.fromOptions(options) : new CacheBudget();
+        Preferences preferences = Preferences.getInstance();
+        long now = System.currentTimeMillis();
+        if (now - preferences.getLastCacheCompactionTime() < budget.getCompactionIntervalMillis()) {
+            return;
+        }
+        try {
+            CacheCompactor compactor = new CacheCompactor(GlobalObjectRegistry.getObject(DatabaseHelper.class), budget);
+            int evicted = compactor.compact();
+            preferences.setLastCacheCompactionTime(now);
+            DebugLog.i("cache compacted, " + evicted + " entities evicted");
+            if (isSyncIdle()) {
+                DebugLog.i("DB file shrunk by " + compactor.shrink() + " pages");
+            }
+        } catch (SQLException e) {
+            DebugLog.logException(e);
+        }
+    }
+
+    private static boolean isSyncIdle() {
+        SyncScheduler syncScheduler = GlobalObjectRegistry.getObject(SyncScheduler.class);
+        return syncScheduler == null || !(syncScheduler.isRunning() || syncScheduler.isPassScheduled());
+    }
+
+    @Override
+    public void dispose() {
+
+    }
+}
@@ -10,11 +10,12 @@ import com.google.android.gms.tasks.OnSuccessListener;
 import com.google.firebase.iid.FirebaseInstanceId;
 import com.google.firebase.iid.InstanceIdResult;
 
+import com.microsoft.embeddedsocial.base.GlobalObjectRegistry;
 import com.microsoft.embeddedsocial.base.service.IServiceIntentHandler;
 import com.microsoft.embeddedsocial.base.utils.debug.DebugLog;
 import com.microsoft.embeddedsocial.fcm.FcmTokenHolder;
+import com.microsoft.embeddedsocial.server.sync.SyncScheduler;
 import com.microsoft.embeddedsocial.service.ServiceAction;
-import com.microsoft.embeddedsocial.service.WorkerService;
 
 import android.content.Context;
 import android.content.Intent;
@@ -44,7 +45,7 @@ public class GetFcmIdHandler implements IServiceIntentHandler<ServiceAction> {
                     FcmTokenHolder.create(context).storeToken(instanceIdResult.getToken());
                     DebugLog.i("FCM token obtained successfully");
 
-                    WorkerService.getLauncher(context).launchService(ServiceAction.SYNC_DATA);
+                    GlobalObjectRegistry.getObject(SyncScheduler.class).requestSync();
                 }
             }).addOnFailureListener(new OnFailureListener() {
                 @Override
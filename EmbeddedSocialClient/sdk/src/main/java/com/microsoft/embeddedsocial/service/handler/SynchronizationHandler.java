@@ -5,14 +5,18 @@
 
 package com.microsoft.embeddedsocial.service.handler;
 
+import com.microsoft.embeddedsocial.base.GlobalObjectRegistry;
 import com.microsoft.embeddedsocial.base.service.IServiceIntentHandler;
 import com.microsoft.embeddedsocial.base.utils.debug.DebugLog;
 import com.microsoft.embeddedsocial.data.storage.ActivityCache;
+import com.microsoft.embeddedsocial.data.storage.Outbox;
 import com.microsoft.embeddedsocial.data.storage.PostStorage;
 import com.microsoft.embeddedsocial.data.storage.UserActionCache;
 import com.microsoft.embeddedsocial.data.storage.UserCache;
 import com.microsoft.embeddedsocial.fcm.FcmTokenHolder;
+import com.microsoft.embeddedsocial.server.CircuitBreaker.OperationGroup;
 import com.microsoft.embeddedsocial.server.sync.DataSynchronizer;
+import com.microsoft.embeddedsocial.server.sync.SyncScheduler;
 import com.microsoft.embeddedsocial.service.ServiceAction;
 
 import android.content.Context;
@@ -25,6 +29,11 @@ public class SynchronizationHandler implements IServiceIntentHandler<ServiceActi
 
     public static final String PENDING_POST_SYNC_NAME = "posts";
 
+    private static final String COMMENTS_SYNC_NAME = "comments/replies";
+    private static final String TOPIC_EDITS_SYNC_NAME = "topic edits";
+    private static final String REMOVALS_SYNC_NAME = "removals";
+    private static final int PARALLEL_UPLOADS = 3;
+
     private final DataSynchronizer synchronizer = new DataSynchronizer();
 
     /**
@@ -33,30 +42,72 @@ public class SynchronizationHandler implements IServiceIntentHandler<ServiceActi
     public SynchronizationHandler(Context context) {
         UserActionCache userActionCache = new UserActionCache();
         PostStorage postStorage = new PostStorage(context);
-        synchronizer.registerSyncProducer(postStorage::getPendingPosts, PENDING_POST_SYNC_NAME);
-        synchronizer.registerSyncProducer(postStorage::getPendingDiscussionItems, "comments/replies");
-        synchronizer.registerSyncProducer(postStorage::getPendingEditedTopics, "topic edits");
-        synchronizer.registerSyncProducer(userActionCache::getPendingLikeActions, "likes");
-        synchronizer.registerSyncProducer(userActionCache::getPendingPinActions, "pins");
-        synchronizer.registerSyncProducer(userActionCache::getPendingHideTopicActions, "hidden topics");
+        // posts, comments and replies are uploaded in order, so that a comment goes before replies to it
+        synchronizer.registerSyncProducer(postStorage::getPendingPosts, PENDING_POST_SYNC_NAME,
+            OperationGroup.TOPICS);
+        synchronizer.registerSyncProducer(postStorage::getPendingDiscussionItems, COMMENTS_SYNC_NAME,
+            OperationGroup.COMMENTS);
+        synchronizer.registerSyncProducer(postStorage::getPendingEditedTopics, TOPIC_EDITS_SYNC_NAME,
+            OperationGroup.TOPICS);
+        // the outbox compaction leaves one like/pin per content, hiding and reporting are independent:
+        // order doesn't matter, the requests are pipelined
+        synchronizer.registerSyncProducer(userActionCache::getPendingLikeActions, "likes",
+            OperationGroup.LIKES, PARALLEL_UPLOADS);
+        synchronizer.registerSyncProducer(userActionCache::getPendingPinActions, "pins",
+            OperationGroup.PINS, PARALLEL_UPLOADS);
+        synchronizer.registerSyncProducer(userActionCache::getPendingHideTopicActions, "hidden topics",
+            OperationGroup.HIDDEN_TOPICS, PARALLEL_UPLOADS);
         synchronizer.registerSyncProducer(userActionCache::getPendingReportContentActions,
-            "reported content");
+            "reported content", OperationGroup.REPORTS, PARALLEL_UPLOADS);
         synchronizer.registerSyncProducer(new ActivityCache(context)::getActivityHandleSyncActions,
             "notification updates");
+        // several operations on the same user (follow, unfollow, block) must keep their order
         synchronizer.registerSyncProducer(new UserCache()::getPendingUserRelationOperations,
-            "user relations");
+            "user relations", OperationGroup.RELATIONSHIPS);
         synchronizer.registerSyncProducer(userActionCache::getPendingContentRemovalActions,
-            "removals");
+            REMOVALS_SYNC_NAME);
         synchronizer.registerSyncProducer(FcmTokenHolder.create(context)::getTokenSyncOperations,
             "fcm");
+
+        synchronizer.addDependency(COMMENTS_SYNC_NAME, PENDING_POST_SYNC_NAME);
+        synchronizer.addDependency(TOPIC_EDITS_SYNC_NAME, PENDING_POST_SYNC_NAME);
+        // content can be removed after it's uploaded or edited
+        synchronizer.addDependency(REMOVALS_SYNC_NAME, PENDING_POST_SYNC_NAME);
+        synchronizer.addDependency(REMOVALS_SYNC_NAME, COMMENTS_SYNC_NAME);
+        synchronizer.addDependency(REMOVALS_SYNC_NAME, TOPIC_EDITS_SYNC_NAME);
     }
 
     @Override
     public void handleIntent(ServiceAction action, Intent intent) {
-        // currently this should be synchronized in app scope
-        synchronized (SynchronizationHandler.class) {
-            boolean synced = synchronizer.synchronize();
+        SyncScheduler syncScheduler = GlobalObjectRegistry.getObject(SyncScheduler.class);
+        if (!syncScheduler.onPassStarted()) {
+            // another pass is running, the scheduler starts a new one after it
+            return;
+        }
+        boolean synced = false;
+        try {
+            synced = synchronizer.synchronize();
             DebugLog.i(synced ? "sync succeeded" : "sync failed");
+        } finally {
+            syncScheduler.onPassFinished(synced);
+        }
+        long skippedRetryDelay = synchronizer.getSkippedRetryDelay();
+        if (skippedRetryDelay >= 0) {
+            // the skipped producers run when their server operations are resumed
+            syncScheduler.requestSync(skippedRetryDelay);
+        }
+        scheduleOutboxPass(syncScheduler);
+    }
+
+    private void scheduleOutboxPass(SyncScheduler syncScheduler) {
+        Outbox outbox = GlobalObjectRegistry.getObject(Outbox.class);
+        if (outbox.takeMorePending()) {
+            // producers upload a page per pass
+            syncScheduler.requestSync();
+        }
+        long nextAttemptTime = outbox.getNextAttemptTime();
+        if (nextAttemptTime > 0) {
+            syncScheduler.requestSync(nextAttemptTime - System.currentTimeMillis());
         }
     }
 
@@ -12,6 +12,7 @@ import com.microsoft.embeddedsocial.base.utils.debug.DebugLog;
 import com.microsoft.embeddedsocial.data.Preferences;
 import com.microsoft.embeddedsocial.server.EmbeddedSocialServiceProvider;
 import com.microsoft.embeddedsocial.server.INotificationService;
+import com.microsoft.embeddedsocial.server.NetworkScheduler;
 import com.microsoft.embeddedsocial.server.exception.NetworkRequestException;
 import com.microsoft.embeddedsocial.server.model.notification.GetNotificationCountRequest;
 import com.microsoft.embeddedsocial.service.ServiceAction;
@@ -26,7 +27,8 @@ public class UpdateNotificationCountHandler implements IServiceIntentHandler<Ser
     public void handleIntent(ServiceAction action, Intent intent) {
         INotificationService server = GlobalObjectRegistry.getObject(EmbeddedSocialServiceProvider.class).getNotificationService();
         try {
-            CountResponse response = server.getNotificationCount(new GetNotificationCountRequest());
+            CountResponse response = NetworkScheduler.call(NetworkScheduler.Priority.TELEMETRY, null,
+                () -> server.getNotificationCount(new GetNotificationCountRequest()));
             long notificationCount = response.getCount();
             Preferences.getInstance().setNotificationCount(notificationCount);
         } catch (NetworkRequestException e) {
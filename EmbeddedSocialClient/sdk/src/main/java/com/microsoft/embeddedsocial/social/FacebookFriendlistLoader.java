@@ -6,7 +6,6 @@
 package com.microsoft.embeddedsocial.social;
 
 import com.google.gson.Gson;
-import com.google.gson.annotations.SerializedName;
 
 import com.facebook.AccessToken;
 import com.facebook.FacebookRequestError;
@@ -16,6 +15,7 @@ import com.facebook.HttpMethod;
 import com.microsoft.embeddedsocial.auth.SocialNetworkTokenHolder;
 import com.microsoft.embeddedsocial.auth.SocialNetworkTokens;
 import com.microsoft.embeddedsocial.autorest.models.IdentityProvider;
+import com.microsoft.embeddedsocial.base.utils.JsonUtils;
 import com.microsoft.embeddedsocial.social.exception.NotAuthorizedToSocialNetworkException;
 import com.microsoft.embeddedsocial.social.exception.SocialNetworkException;
 
@@ -29,6 +29,7 @@ import java.util.List;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
 
 /**
  * Loads Facebook friends.
@@ -47,24 +48,24 @@ class FacebookFriendlistLoader extends FriendlistLoader {
         throws SocialNetworkException {
 
         List<String> result = new ArrayList<>();
-        Gson gson = new Gson();
-        FacebookFriendsResponse response = gson.fromJson(graphResponse.getRawResponse(),
-            FacebookFriendsResponse.class);
-        OkHttpClient httpClient = new OkHttpClient();
+        Gson gson = JsonUtils.getGson();
+        FriendIdsResponse response = gson.fromJson(graphResponse.getRawResponse(),
+            FriendIdsResponse.class);
+        OkHttpClient httpClient = createHttpClient();
 
         while (response != null) {
-            for (FacebookUser user : response.data) {
-                result.add(user.id);
-            }
+            result.addAll(response.getIds());
             try {
-                if (response.paging != null && response.paging.hasNext()) {
+                if (!TextUtils.isEmpty(response.getNextPageUrl())) {
                     Response webResponse = httpClient.newCall(
                         new Request.Builder()
-                            .url(response.paging.nextPageUrl)
+                            .url(response.getNextPageUrl())
                             .get()
                             .build()
                     ).execute();
-                    response = gson.fromJson(webResponse.body().string(), FacebookFriendsResponse.class);
+                    try (ResponseBody body = webResponse.body()) {
+                        response = gson.fromJson(body.charStream(), FriendIdsResponse.class);
+                    }
                 } else {
                     response = null;
                 }
@@ -103,27 +104,4 @@ class FacebookFriendlistLoader extends FriendlistLoader {
     public boolean isAuthorizedToSocialNetwork() {
         return facebookTokenHolder.hasToken();
     }
-
-    @SuppressWarnings("unused")
-    private class FacebookFriendsResponse {
-        private FacebookUser[] data;
-        private FacebookPaging paging;
-    }
-
-    @SuppressWarnings("unused")
-    private class FacebookUser {
-        private String id;
-        private String name;
-    }
-
-    @SuppressWarnings("unused")
-    private class FacebookPaging {
-
-        @SerializedName("next")
-        private String nextPageUrl;
-
-        private boolean hasNext() {
-            return !TextUtils.isEmpty(nextPageUrl);
-        }
-    }
 }
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See LICENSE in the project root for license information.
+ */
+
+package com.microsoft.embeddedsocial.social;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Page of a friend list returned by a social network (Facebook, Google or Microsoft Live).
+ * The page is read by a streaming adapter keeping only friend ids, the next page URL and the error;
+ * the rest of the payload (names, pictures, cursors) is skipped without being materialized.
+ */
+@JsonAdapter(FriendIdsResponse.Adapter.class)
+public final class FriendIdsResponse {
+
+    private final List<String> ids = new ArrayList<>();
+    private String nextPageUrl;
+    private int errorCode;
+    private String errorMessage;
+
+    public List<String> getIds() {
+        return ids;
+    }
+
+    public String getNextPageUrl() {
+        return nextPageUrl;
+    }
+
+    public boolean hasError() {
+        return errorMessage != null || errorCode != 0;
+    }
+
+    public int getErrorCode() {
+        return errorCode;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    /**
+     * Streaming adapter of {@link FriendIdsResponse}. Friends are listed in "data" (Facebook,
+     * Microsoft Live) or "items" (Google), the next page URL is in "paging.next" (Facebook).
+     */
+    public static final class Adapter extends TypeAdapter<FriendIdsResponse> {
+
+        @Override
+        public void write(JsonWriter out, FriendIdsResponse value) throws IOException {
+            out.beginObject();
+            out.name("data").beginArray();
+            for (String id : value.ids) {
+                out.beginObject().name("id").value(id).endObject();
+            }
+            out.endArray();
+            if (value.nextPageUrl != null) {
+                out.name("paging").beginObject().name("next").value(value.nextPageUrl).endObject();
+            }
+            if (value.hasError()) {
+                out.name("error").beginObject()
+                    .name("code").value(value.errorCode)
+                    .name("message").value(value.errorMessage)
+                    .endObject();
+            }
+            out.endObject();
+        }
+
+        @Override
+        public FriendIdsResponse read(JsonReader in) throws IOException {
+            FriendIdsResponse response = new FriendIdsResponse();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "data":
+                    case "items":
+                        readIds(in, response.ids);
+                        break;
+                    case "paging":
+                        response.nextPageUrl = readStringField(in, "next");
+                        break;
+                    case "error":
+                        readError(in, response);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return response;
+        }
+
+        private static void readIds(JsonReader in, List<String> ids) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return;
+            }
+            in.beginArray();
+            while (in.hasNext()) {
+                String id = readStringField(in, "id");
+                if (id != null) {
+                    ids.add(id);
+                }
+            }
+            in.endArray();
+        }
+
+        private static void readError(JsonReader in, FriendIdsResponse response) throws IOException {
+            if (in.peek() != JsonToken.BEGIN_OBJECT) {
+                in.skipValue();
+                return;
+            }
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if ("code".equals(name) && in.peek() == JsonToken.NUMBER) {
+                    response.errorCode = in.nextInt();
+                } else if ("message".equals(name) && in.peek() == JsonToken.STRING) {
+                    response.errorMessage = in.nextString();
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+        }
+
+        private static String readStringField(JsonReader in, String fieldName) throws IOException {
+            if (in.peek() != JsonToken.BEGIN_OBJECT) {
+                in.skipValue();
+                return null;
+            }
+            String value = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                if (fieldName.equals(in.nextName()) && in.peek() == JsonToken.STRING) {
+                    value = in.nextString();
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+}
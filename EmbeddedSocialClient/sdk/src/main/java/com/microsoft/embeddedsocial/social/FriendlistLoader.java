@@ -6,10 +6,14 @@
 package com.microsoft.embeddedsocial.social;
 
 import com.microsoft.embeddedsocial.autorest.models.IdentityProvider;
+import com.microsoft.embeddedsocial.base.GlobalObjectRegistry;
+import com.microsoft.embeddedsocial.server.NetworkScheduler;
 import com.microsoft.embeddedsocial.social.exception.SocialNetworkException;
 
 import java.util.List;
 
+import okhttp3.OkHttpClient;
+
 /**
  * Base friend loader class responsible for loading friend lists from social networks.
  */
@@ -40,4 +44,16 @@ public abstract class FriendlistLoader {
 
     public abstract boolean isAuthorizedToSocialNetwork();
 
+    /**
+     * Creates an HTTP client whose requests are scheduled along with the library's other requests.
+     */
+    protected static OkHttpClient createHttpClient() {
+        OkHttpClient.Builder builder = new OkHttpClient.Builder();
+        NetworkScheduler networkScheduler = GlobalObjectRegistry.getObject(NetworkScheduler.class);
+        if (networkScheduler != null) {
+            networkScheduler.configure(builder);
+        }
+        return builder.build();
+    }
+
 }
@@ -5,22 +5,21 @@
 
 package com.microsoft.embeddedsocial.social;
 
-import com.google.gson.Gson;
-
 import com.microsoft.embeddedsocial.auth.SocialNetworkTokenHolder;
 import com.microsoft.embeddedsocial.auth.SocialNetworkTokens;
 import com.microsoft.embeddedsocial.autorest.models.IdentityProvider;
+import com.microsoft.embeddedsocial.base.utils.JsonUtils;
 import com.microsoft.embeddedsocial.social.exception.InvalidCredentialsException;
 import com.microsoft.embeddedsocial.social.exception.NotAuthorizedToSocialNetworkException;
 import com.microsoft.embeddedsocial.social.exception.SocialNetworkException;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
 
 /**
  * Loads Google Plus friends.
@@ -34,7 +33,7 @@ class GooglePlusFriendlistLoader extends FriendlistLoader {
     private static final int INVALID_CREDENTIALS_ERROR_CODE = 401;
 
     private final SocialNetworkTokenHolder<String> tokenHolder = SocialNetworkTokens.google();
-    private final OkHttpClient httpClient = new OkHttpClient();
+    private final OkHttpClient httpClient = createHttpClient();
 
     GooglePlusFriendlistLoader() {
         super(IdentityProvider.GOOGLE);
@@ -54,9 +53,12 @@ class GooglePlusFriendlistLoader extends FriendlistLoader {
                     .get()
                     .build()
             ).execute();
-            GooglePeopleResponse result = new Gson().fromJson(response.body().string(), GooglePeopleResponse.class);
-            result.throwExceptionIfNeeded();
-            return extractPeopleIds(result);
+            FriendIdsResponse result;
+            try (ResponseBody body = response.body()) {
+                result = JsonUtils.getGson().fromJson(body.charStream(), FriendIdsResponse.class);
+            }
+            throwExceptionIfNeeded(result);
+            return result.getIds();
         } catch (InvalidCredentialsException e) {
             throw e;
         } catch (IOException e) {
@@ -71,42 +73,14 @@ class GooglePlusFriendlistLoader extends FriendlistLoader {
         return tokenHolder.hasToken();
     }
 
-    private List<String> extractPeopleIds(GooglePeopleResponse response) {
-        List<String> result = new ArrayList<>();
-
-        if (response.items != null) {
-            for (GooglePerson person : response.items) {
-                result.add(person.id);
+    private static void throwExceptionIfNeeded(FriendIdsResponse response) throws SocialNetworkException {
+        if (response.hasError()) {
+            if (response.getErrorCode() == INVALID_CREDENTIALS_ERROR_CODE) {
+                throw new InvalidCredentialsException(response.getErrorMessage());
+            } else {
+                throw new SocialNetworkException("code " + response.getErrorCode() + ": "
+                    + response.getErrorMessage());
             }
         }
-
-        return result;
-    }
-
-    @SuppressWarnings("unused")
-    private class GooglePeopleResponse {
-        private GooglePerson[] items;
-        private ResponseError error;
-
-        void throwExceptionIfNeeded() throws SocialNetworkException {
-            if (error != null) {
-                if (error.code == INVALID_CREDENTIALS_ERROR_CODE) {
-                    throw new InvalidCredentialsException(error.message);
-                } else {
-                    throw new SocialNetworkException("code " + error.code + ": " + error.message);
-                }
-            }
-        }
-    }
-
-    @SuppressWarnings("unused")
-    private class GooglePerson {
-        private String id;
-    }
-
-    @SuppressWarnings("unused")
-    private class ResponseError {
-        private int code;
-        private String message;
     }
 }
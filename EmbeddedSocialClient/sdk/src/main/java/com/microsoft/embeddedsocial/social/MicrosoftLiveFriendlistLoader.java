@@ -5,11 +5,10 @@
 
 package com.microsoft.embeddedsocial.social;
 
-import com.google.gson.Gson;
-
 import com.microsoft.embeddedsocial.auth.SocialNetworkTokenHolder;
 import com.microsoft.embeddedsocial.auth.SocialNetworkTokens;
 import com.microsoft.embeddedsocial.autorest.models.IdentityProvider;
+import com.microsoft.embeddedsocial.base.utils.JsonUtils;
 import com.microsoft.embeddedsocial.social.exception.NotAuthorizedToSocialNetworkException;
 import com.microsoft.embeddedsocial.social.exception.SocialNetworkException;
 import com.microsoft.live.LiveConnectClient;
@@ -17,7 +16,6 @@ import com.microsoft.live.LiveConnectSession;
 import com.microsoft.live.LiveOperation;
 import com.microsoft.live.LiveOperationException;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -55,23 +53,6 @@ class MicrosoftLiveFriendlistLoader extends FriendlistLoader {
     }
 
     private List<String> extractFriendIds(String rawResult) {
-        FriendsResponse response = new Gson().fromJson(rawResult, FriendsResponse.class);
-        List<String> result = new ArrayList<>();
-
-        for (PersonId personId : response.data) {
-            result.add(personId.id);
-        }
-
-        return result;
-    }
-
-    @SuppressWarnings("unused")
-    private class FriendsResponse {
-        private PersonId[] data;
-    }
-
-    @SuppressWarnings("unused")
-    private class PersonId {
-        private String id;
+        return JsonUtils.getGson().fromJson(rawResult, FriendIdsResponse.class).getIds();
     }
 }
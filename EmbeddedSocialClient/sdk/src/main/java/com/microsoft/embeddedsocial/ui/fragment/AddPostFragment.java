@@ -6,13 +6,13 @@
 package com.microsoft.embeddedsocial.ui.fragment;
 
 import com.microsoft.embeddedsocial.autorest.models.PublisherType;
+import com.microsoft.embeddedsocial.base.GlobalObjectRegistry;
 import com.microsoft.embeddedsocial.base.utils.BitmapUtils;
 import com.microsoft.embeddedsocial.base.utils.ObjectUtils;
 import com.microsoft.embeddedsocial.data.storage.PostStorage;
 import com.microsoft.embeddedsocial.sdk.R;
+import com.microsoft.embeddedsocial.server.sync.SyncScheduler;
 import com.microsoft.embeddedsocial.service.IntentExtras;
-import com.microsoft.embeddedsocial.service.ServiceAction;
-import com.microsoft.embeddedsocial.service.WorkerService;
 import com.microsoft.embeddedsocial.ui.fragment.base.BaseEditPostFragment;
 import com.microsoft.embeddedsocial.ui.fragment.module.PhotoProviderModule;
 import com.microsoft.embeddedsocial.ui.util.FitWidthSizeSpec;
@@ -139,7 +139,7 @@ public class AddPostFragment extends BaseEditPostFragment implements OnClickList
     @Override
     protected void onFinishedEditing() {
         postStorage.storePost(getTitle(), getDescription(), imageUri, PublisherType.USER);
-        WorkerService.getLauncher(getContext()).launchService(ServiceAction.SYNC_DATA);
+        GlobalObjectRegistry.getObject(SyncScheduler.class).requestSync();
         finishActivity();
     }
 
@@ -10,7 +10,6 @@ import com.microsoft.embeddedsocial.autorest.models.IdentityProvider;
 import com.microsoft.embeddedsocial.base.GlobalObjectRegistry;
 import com.microsoft.embeddedsocial.base.utils.EnumUtils;
 import com.microsoft.embeddedsocial.data.Preferences;
-import com.microsoft.embeddedsocial.data.storage.DatabaseHelper;
 import com.microsoft.embeddedsocial.sdk.Options;
 import com.microsoft.embeddedsocial.sdk.R;
 import com.microsoft.embeddedsocial.service.IntentExtras;
@@ -110,7 +109,7 @@ public class OptionsFragment extends BaseFragment {
 
             @Override
             protected Void doInBackground(Void... params) {
-                GlobalObjectRegistry.getObject(DatabaseHelper.class).clearData();
+                UserAccount.getInstance().clearCachedData();
                 return null;
             }
 
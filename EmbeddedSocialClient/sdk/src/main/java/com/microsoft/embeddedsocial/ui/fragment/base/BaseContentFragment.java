@@ -7,6 +7,7 @@ package com.microsoft.embeddedsocial.ui.fragment.base;
 
 import com.microsoft.embeddedsocial.base.GlobalObjectRegistry;
 import com.microsoft.embeddedsocial.base.utils.ViewUtils;
+import com.microsoft.embeddedsocial.event.data.NetworkRestoredEvent;
 import com.microsoft.embeddedsocial.fetcher.base.Callback;
 import com.microsoft.embeddedsocial.fetcher.base.FetchableAdapter;
 import com.microsoft.embeddedsocial.fetcher.base.FetchableRecyclerView;
@@ -17,6 +18,7 @@ import com.microsoft.embeddedsocial.sdk.Options;
 import com.microsoft.embeddedsocial.sdk.R;
 import com.microsoft.embeddedsocial.server.NetworkAvailability;
 import com.microsoft.embeddedsocial.ui.fragment.module.SlowConnectionMessageModule;
+import com.squareup.otto.Subscribe;
 
 import android.content.Context;
 import android.content.res.TypedArray;
@@ -80,6 +82,13 @@ public abstract class BaseContentFragment<AT extends FetchableAdapter<?, ?>> ext
         addThemeToMerge(R.style.EmbeddedSocialSdkThemeOverlayContentFragment);
         addThemeToMerge(options.getBaseTheme());
         addModule(slowConnectionMessageModule);
+        addEventListener(new Object() {
+
+            @Subscribe
+            public void onNetworkRestored(NetworkRestoredEvent event) {
+                refreshAfterReconnection();
+            }
+        });
     }
 
     @Override
@@ -275,6 +284,13 @@ public abstract class BaseContentFragment<AT extends FetchableAdapter<?, ?>> ext
         }
     }
 
+    private void refreshAfterReconnection() {
+        // the data shown while offline came from the cache (or failed to load), load the fresh one
+        if (adapter != null && !adapter.getFetcher().isLoading()) {
+            adapter.getFetcher().refreshData();
+        }
+    }
+
     public void onSaveInstanceState(Bundle outState) {
         super.onSaveInstanceState(outState);
         outState.putString(PREF_EMPTY_MESSAGE, emptyDataMessage);